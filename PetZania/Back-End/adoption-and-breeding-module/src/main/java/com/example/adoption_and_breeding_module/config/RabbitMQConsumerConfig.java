@@ -216,4 +216,38 @@ public class RabbitMQConsumerConfig {
     public Binding followRemovedAdoptionModuleBinding(Queue followRemovedQueueAdoptionModule, TopicExchange followExchange) {
         return BindingBuilder.bind(followRemovedQueueAdoptionModule).to(followExchange).with(FOLLOW_REMOVED);
     }
+
+    @Bean
+    public Queue usersDeletedQueueAdoptionModule() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_ADOPTION_MODULE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_RETRY_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_ADOPTION_RETRY)
+                .build();
+    }
+
+    @Bean
+    public Queue usersDeletedQueueAdoptionModuleRetry() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_ADOPTION_MODULE_RETRY)
+                .withArgument(X_MESSAGE_TTL, MESSAGE_TTL_VALUE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_ADOPTION)
+                .build();
+    }
+
+    @Bean
+    public Binding usersDeletionAdoptionModuleBinding(Queue usersDeletedQueueAdoptionModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueAdoptionModule).to(userExchange).with(USERS_DELETED);
+    }
+
+    @Bean
+    public Binding usersDeletionAdoptionModuleRetryBinding(Queue usersDeletedQueueAdoptionModuleRetry, TopicExchange userRetryExchange) {
+        return BindingBuilder.bind(usersDeletedQueueAdoptionModuleRetry).to(userRetryExchange).with(USERS_DELETED_ADOPTION_RETRY);
+    }
+
+    @Bean
+    public Binding usersDeletionAdoptionModuleRetryReturnBinding(Queue usersDeletedQueueAdoptionModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueAdoptionModule).to(userExchange).with(USERS_DELETED_ADOPTION);
+    }
 }
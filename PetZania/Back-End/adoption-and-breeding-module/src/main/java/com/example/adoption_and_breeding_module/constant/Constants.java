@@ -22,12 +22,14 @@ public final class Constants {
     public static final String NOTIFICATIONS_QUEUE = "notificationsQueue";
     public static final String USER_BLOCKED_QUEUE_ADOPTION_MODULE = "userBlockedQueueAdoptionModule";
     public static final String USER_DELETED_QUEUE_ADOPTION_MODULE = "userDeletedQueueAdoptionModule";
+    public static final String USERS_DELETED_QUEUE_ADOPTION_MODULE = "usersDeletedQueueAdoptionModule";
     public static final String USER_REGISTERED_QUEUE_ADOPTION_MODULE = "userRegisteredQueueAdoptionModule";
     public static final String USER_UNBLOCKED_QUEUE_ADOPTION_MODULE = "userUnBlockedQueueAdoptionModule";
 
     // ===== Retry Queues' Names =====
     public static final String USER_BLOCKED_QUEUE_ADOPTION_MODULE_RETRY = "userBlockedQueueAdoptionModule.retry";
     public static final String USER_DELETED_QUEUE_ADOPTION_MODULE_RETRY = "userDeletedQueueAdoptionModule.retry";
+    public static final String USERS_DELETED_QUEUE_ADOPTION_MODULE_RETRY = "usersDeletedQueueAdoptionModule.retry";
     public static final String USER_REGISTERED_QUEUE_ADOPTION_MODULE_RETRY = "userRegisteredQueueAdoptionModule.retry";
     public static final String USER_UNBLOCKED_QUEUE_ADOPTION_MODULE_RETRY = "userUnBlockedQueueAdoptionModule.retry";
 
@@ -46,6 +48,8 @@ public final class Constants {
     public static final String USER_BLOCKED_ADOPTION = "user.blocked.adoption";
     public static final String USER_DELETED = "user.deleted";
     public static final String USER_DELETED_ADOPTION = "user.deleted.adoption";
+    public static final String USERS_DELETED = "users.deleted";
+    public static final String USERS_DELETED_ADOPTION = "users.deleted.adoption";
     public static final String USER_REGISTERED = "user.registered";
     public static final String USER_REGISTERED_ADOPTION = "user.registered.adoption";
     public static final String USER_UNBLOCKED_ADOPTION = "user.unblocked.adoption";
@@ -58,6 +62,7 @@ public final class Constants {
     // Retry Routing Keys
     public static final String USER_BLOCKED_ADOPTION_RETRY = "user.blocked.adoption.retry";
     public static final String USER_DELETED_ADOPTION_RETRY = "user.deleted.adoption.retry";
+    public static final String USERS_DELETED_ADOPTION_RETRY = "users.deleted.adoption.retry";
     public static final String USER_REGISTERED_ADOPTION_RETRY = "user.registered.adoption.retry";
     public static final String USER_UNBLOCKED_ADOPTION_RETRY = "user.unblocked.adoption.retry";
     // Rate Limit
@@ -71,4 +76,10 @@ public final class Constants {
     public static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
     public static final String ANONYMOUS = "anonymous";
     public static final int START_INDEX = 7;
+    public static final int JWT_CLAIMS_CACHE_MAX_SIZE = 10_000;
+    public static final String JWT_CLAIMS_REQUEST_ATTRIBUTE = "jwt.claims";
+    // Principal Cache
+    public static final int PRINCIPAL_CACHE_MAX_SIZE = 10_000;
+    public static final long PRINCIPAL_CACHE_TTL_MILLIS = 60_000;
+    public static final String PRINCIPAL_CACHE_METRIC = "security.principal.cache";
 }
\ No newline at end of file
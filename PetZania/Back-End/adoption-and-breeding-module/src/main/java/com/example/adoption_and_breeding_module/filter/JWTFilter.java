@@ -5,6 +5,7 @@ import com.example.adoption_and_breeding_module.model.principal.AdminPrincipal;
 import com.example.adoption_and_breeding_module.model.principal.UserPrincipal;
 import com.example.adoption_and_breeding_module.service.impl.JWTService;
 import com.example.adoption_and_breeding_module.service.impl.MyUserDetailsService;
+import com.example.adoption_and_breeding_module.service.impl.PrincipalCacheService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +29,7 @@ import java.util.Objects;
 public class JWTFilter extends OncePerRequestFilter {
     private final JWTService jwtService;
     private final ApplicationContext context;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     public void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -47,8 +49,12 @@ public class JWTFilter extends OncePerRequestFilter {
         if (token != null && email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             if (Objects.equals(role, ROLE_USER)) {
                 // User authentication
-                UserPrincipal userDetails = (UserPrincipal) context.getBean(MyUserDetailsService.class).loadUserByEmail(email);
-                userDetails.setGrantedAuthority(new SimpleGrantedAuthority(role));
+                // cached principals are shared by concurrent requests, so the authority is set once, before caching
+                UserPrincipal userDetails = principalCacheService.getUser(email, key -> {
+                    UserPrincipal loaded = (UserPrincipal) context.getBean(MyUserDetailsService.class).loadUserByEmail(key);
+                    loaded.setGrantedAuthority(new SimpleGrantedAuthority(ROLE_USER));
+                    return loaded;
+                });
 
                 if (jwtService.validateTokenForUser(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -57,8 +63,13 @@ public class JWTFilter extends OncePerRequestFilter {
                 }
             } else if (Objects.equals(role, ROLE_ADMIN) || Objects.equals(role, ROLE_SUPER_ADMIN)) {
                 // Admin authentication
-                AdminPrincipal adminDetails = (AdminPrincipal) context.getBean(MyUserDetailsService.class).loadAdminByUsername(email);
-                adminDetails.setGrantedAuthority(new SimpleGrantedAuthority(role));
+                // an admin's tokens all carry the role they had at login, and the role is never changed afterwards
+                String adminRole = role;
+                AdminPrincipal adminDetails = principalCacheService.getAdmin(email, key -> {
+                    AdminPrincipal loaded = (AdminPrincipal) context.getBean(MyUserDetailsService.class).loadAdminByUsername(key);
+                    loaded.setGrantedAuthority(new SimpleGrantedAuthority(adminRole));
+                    return loaded;
+                });
 
                 if (jwtService.validateTokenForAdmin(token, adminDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(adminDetails, null, adminDetails.getAuthorities());
@@ -3,18 +3,25 @@ package com.example.adoption_and_breeding_module.service.impl;
 
 import com.example.adoption_and_breeding_module.model.principal.AdminPrincipal;
 import com.example.adoption_and_breeding_module.model.principal.UserPrincipal;
+import com.example.adoption_and_breeding_module.util.JwtClaimsCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.function.Function;
 
+import static com.example.adoption_and_breeding_module.constant.Constants.JWT_CLAIMS_CACHE_MAX_SIZE;
+import static com.example.adoption_and_breeding_module.constant.Constants.JWT_CLAIMS_REQUEST_ATTRIBUTE;
+
 @Service
 @PropertySource("classpath:application.yml")
 public class JWTService {
@@ -23,6 +30,11 @@ public class JWTService {
     private String secretKey;
 
     private final java.time.Clock clock;
+    private final JwtClaimsCache claimsCache = new JwtClaimsCache(JWT_CLAIMS_CACHE_MAX_SIZE);
+    // built lazily once the secret key has been injected
+    private volatile Key key;
+    private volatile JwtParser parser;
+
     public JWTService() {
         this(java.time.Clock.systemUTC());
     }
@@ -32,15 +44,38 @@ public class JWTService {
     }
 
     public Key getKey() {// Replace with a secure key
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key cachedKey = key;
+        if (cachedKey == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            cachedKey = Keys.hmacShaKeyFor(keyBytes);
+            key = cachedKey;
+        }
+        return cachedKey;
+    }
+    private JwtParser getParser() {
+        JwtParser cachedParser = parser;
+        if (cachedParser == null) {
+            cachedParser = Jwts.parserBuilder()
+                    .setSigningKey(getKey())
+                    .build();
+            parser = cachedParser;
+        }
+        return cachedParser;
     }
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        // one parse serves the whole request (filter, validation and rate limiting)
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(JWT_CLAIMS_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ParsedToken parsed
+                && parsed.token().equals(token)) {
+            return parsed.claims();
+        }
+
+        Claims claims = claimsCache.getOrParse(token, t -> getParser().parseClaimsJws(t).getBody());
+        if (attributes != null) {
+            attributes.setAttribute(JWT_CLAIMS_REQUEST_ATTRIBUTE, new ParsedToken(token, claims), RequestAttributes.SCOPE_REQUEST);
+        }
+        return claims;
     }
     public String extractEmail(String token) {
         return extractClaim(token, io.jsonwebtoken.Claims::getSubject);
@@ -70,4 +105,7 @@ public class JWTService {
     public boolean validateTokenForAdmin(String token, com.example.adoption_and_breeding_module.model.principal.AdminPrincipal a) {
         return a.getUsername().equals(extractEmail(token)) && !isTokenExpired(token);
     }
-}
\ No newline at end of file
+
+    private record ParsedToken(String token, Claims claims) {
+    }
+}
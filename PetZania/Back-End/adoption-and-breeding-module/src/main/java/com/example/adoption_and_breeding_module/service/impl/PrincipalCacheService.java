@@ -0,0 +1,77 @@
+package com.example.adoption_and_breeding_module.service.impl;
+
+import com.example.adoption_and_breeding_module.model.principal.AdminPrincipal;
+import com.example.adoption_and_breeding_module.model.principal.UserPrincipal;
+import com.example.adoption_and_breeding_module.util.LocalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+import static com.example.adoption_and_breeding_module.constant.Constants.*;
+
+/**
+ * Keeps the principals resolved by the JWT filter for a short time so an authenticated
+ * request does not need a users/admins lookup. Entries are evicted when the user-deleted
+ * event for the account is consumed.
+ */
+@Service
+@Slf4j
+public class PrincipalCacheService {
+    private final LocalCache<String, UserPrincipal> users = new LocalCache<>(PRINCIPAL_CACHE_MAX_SIZE, PRINCIPAL_CACHE_TTL_MILLIS);
+    private final LocalCache<String, AdminPrincipal> admins = new LocalCache<>(PRINCIPAL_CACHE_MAX_SIZE, PRINCIPAL_CACHE_TTL_MILLIS);
+
+    public PrincipalCacheService(MeterRegistry meterRegistry) {
+        registerMetrics(meterRegistry, "users", users);
+        registerMetrics(meterRegistry, "admins", admins);
+    }
+
+    public UserPrincipal getUser(String email, Function<String, UserPrincipal> loader) {
+        return users.get(normalize(email), key -> loader.apply(email));
+    }
+
+    public AdminPrincipal getAdmin(String username, Function<String, AdminPrincipal> loader) {
+        return admins.get(normalize(username), key -> loader.apply(username));
+    }
+
+    public void evictUser(String email) {
+        if (email != null) {
+            users.invalidate(normalize(email));
+            log.debug("Evicted cached principal for user {}", email);
+        }
+    }
+
+    public void evictAdmin(String username) {
+        if (username != null) {
+            admins.invalidate(normalize(username));
+        }
+    }
+
+    public void evictAllUsers() {
+        users.invalidateAll();
+    }
+
+    private static String normalize(String identifier) {
+        // emails and admin usernames are looked up ignoring case
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    private static void registerMetrics(MeterRegistry meterRegistry, String name, LocalCache<?, ?> cache) {
+        FunctionCounter.builder(PRINCIPAL_CACHE_METRIC + ".hits", cache, LocalCache::hitCount)
+                .tag("cache", name)
+                .register(meterRegistry);
+        FunctionCounter.builder(PRINCIPAL_CACHE_METRIC + ".misses", cache, LocalCache::missCount)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder(PRINCIPAL_CACHE_METRIC + ".hit.ratio", cache, LocalCache::hitRatio)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder(PRINCIPAL_CACHE_METRIC + ".size", cache, LocalCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
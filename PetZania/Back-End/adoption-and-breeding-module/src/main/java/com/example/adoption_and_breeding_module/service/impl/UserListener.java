@@ -1,7 +1,9 @@
 package com.example.adoption_and_breeding_module.service.impl;
 
 import com.example.adoption_and_breeding_module.model.event.UserEvent;
+import com.example.adoption_and_breeding_module.model.event.UsersDeletedEvent;
 import com.example.adoption_and_breeding_module.model.entity.User;
+import com.example.adoption_and_breeding_module.repository.UserPurgeRepository;
 import com.example.adoption_and_breeding_module.repository.UserRepository;
 import com.example.adoption_and_breeding_module.util.QueueUtils;
 import jakarta.transaction.Transactional;
@@ -20,7 +22,9 @@ import static com.example.adoption_and_breeding_module.constant.Constants.*;
 @Slf4j
 public class UserListener {
     private final UserRepository userRepository;
+    private final UserPurgeRepository userPurgeRepository;
     private final QueueUtils queueUtils;
+    private final PrincipalCacheService principalCacheService;
 
     @RabbitListener(queues = USER_REGISTERED_QUEUE_ADOPTION_MODULE, ackMode = ACK_MODE)
     public void onUserRegistered(UserEvent user, Channel channel, Message message) {
@@ -61,6 +65,7 @@ public class UserListener {
                 userRepository.deleteById(user.getUserId());
                 log.info("Received deleted user: {}", user);
             }
+            principalCacheService.evictUser(user.getEmail());
             channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
         } catch (Exception ex) {
             log.error("Error processing user deleted event: {}", user, ex);
@@ -79,4 +84,32 @@ public class UserListener {
             }
         }
     }
+
+    @RabbitListener(queues = USERS_DELETED_QUEUE_ADOPTION_MODULE, ackMode = ACK_MODE)
+    public void onUsersDeleted(UsersDeletedEvent users, Channel channel, Message message) {
+        try {
+            if (!users.getUserIds().isEmpty()) {
+                int deleted = userPurgeRepository.deleteUsers(users.getUserIds());
+                log.info("received {} deleted users, removed {}", users.getUserIds().size(), deleted);
+            }
+            // the event carries ids only, so cached principals cannot be evicted by email
+            principalCacheService.evictAllUsers();
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (Exception ex) {
+            log.error("Error processing users deleted event: {}", users, ex);
+            try {
+                int retryCount = queueUtils.getRetryCount(message, USERS_DELETED_QUEUE_ADOPTION_MODULE_RETRY);
+                if (retryCount >= MAX_RETRIES) {
+                    // simply drop the message
+                    channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+                    log.info("Max retries reached for the event: {}", users);
+                } else {
+                    channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, false);
+                    log.info("This is the retry number: {} for event: {}", retryCount, users);
+                }
+            } catch (Exception nackErr) {
+                log.error("Error nacking message for event: {}", users, nackErr);
+            }
+        }
+    }
 }
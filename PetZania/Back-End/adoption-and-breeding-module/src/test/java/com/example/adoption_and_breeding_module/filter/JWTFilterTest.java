@@ -5,6 +5,8 @@ import com.example.adoption_and_breeding_module.model.principal.AdminPrincipal;
 import com.example.adoption_and_breeding_module.model.principal.UserPrincipal;
 import com.example.adoption_and_breeding_module.service.impl.JWTService;
 import com.example.adoption_and_breeding_module.service.impl.MyUserDetailsService;
+import com.example.adoption_and_breeding_module.service.impl.PrincipalCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -39,7 +41,7 @@ public class JWTFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        filter = new JWTFilter(jwtService, applicationContext);
+        filter = new JWTFilter(jwtService, applicationContext, new PrincipalCacheService(new SimpleMeterRegistry()));
         // Must clear SecurityContext every test!
         SecurityContextHolder.clearContext();
     }
@@ -98,6 +100,30 @@ public class JWTFilterTest {
         verify(chain).doFilter(request, response);
     }
 
+    @Test
+    void shouldSetAuthorityOnlyWhenPrincipalIsLoaded() throws Exception {
+        String token = "valid-user-token";
+        String email = "user@mail.com";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractEmail(token)).thenReturn(email);
+        when(jwtService.extractRole(token)).thenReturn("ROLE_USER");
+
+        UserPrincipal userPrincipal = mock(UserPrincipal.class);
+        when(applicationContext.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByEmail(email)).thenReturn(userPrincipal);
+        when(jwtService.validateTokenForUser(token, userPrincipal)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, chain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+
+        // the cached principal is shared between requests and must not be written again
+        verify(userDetailsService, times(1)).loadUserByEmail(email);
+        verify(userPrincipal, times(1)).setGrantedAuthority(any());
+        assertEquals(userPrincipal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
     @Test
     void shouldNotAuthenticateWhenHeaderMissing() throws Exception {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -2,7 +2,10 @@ package com.example.adoption_and_breeding_module.service;
 
 import com.example.adoption_and_breeding_module.model.entity.User;
 import com.example.adoption_and_breeding_module.model.event.UserEvent;
+import com.example.adoption_and_breeding_module.model.event.UsersDeletedEvent;
+import com.example.adoption_and_breeding_module.repository.UserPurgeRepository;
 import com.example.adoption_and_breeding_module.repository.UserRepository;
+import com.example.adoption_and_breeding_module.service.impl.PrincipalCacheService;
 import com.example.adoption_and_breeding_module.service.impl.UserListener;
 import com.example.adoption_and_breeding_module.util.QueueUtils;
 import com.rabbitmq.client.Channel;
@@ -14,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -25,8 +29,12 @@ public class UserListenerTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserPurgeRepository userPurgeRepository;
+    @Mock
     QueueUtils queueUtils;
     @Mock
+    PrincipalCacheService principalCacheService;
+    @Mock
     Channel channel;
     @Mock
     Message message;
@@ -141,4 +149,27 @@ public class UserListenerTest {
 
         verify(channel).basicAck(5L, false);
     }
+
+    @Test
+    void deletesUsersInBulk() throws Exception {
+        List<UUID> ids = List.of(userId, UUID.randomUUID());
+        when(userPurgeRepository.deleteUsers(ids)).thenReturn(2);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(userPurgeRepository).deleteUsers(ids);
+        verify(principalCacheService).evictAllUsers();
+        verify(channel).basicAck(5L, false);
+    }
+
+    @Test
+    void handlesUsersDeletedExceptionAndRetries() throws Exception {
+        List<UUID> ids = List.of(userId);
+        doThrow(new RuntimeException("fail")).when(userPurgeRepository).deleteUsers(ids);
+        when(queueUtils.getRetryCount(eq(message), anyString())).thenReturn(1);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(channel).basicNack(5L, false, false);
+    }
 }
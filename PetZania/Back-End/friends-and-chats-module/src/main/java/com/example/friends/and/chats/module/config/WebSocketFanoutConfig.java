@@ -0,0 +1,32 @@
+package com.example.friends.and.chats.module.config;
+
+import com.example.friends.and.chats.module.service.impl.WebSocketFanoutService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+@Configuration
+public class WebSocketFanoutConfig implements WebSocketMessageBrokerConfigurer {
+    private final WebSocketFanoutService webSocketFanoutService;
+
+    public WebSocketFanoutConfig(@Lazy WebSocketFanoutService webSocketFanoutService) {
+        this.webSocketFanoutService = webSocketFanoutService;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        // every push to the local broker also goes to the instances holding the recipient's sessions
+        registry.configureBrokerChannel().interceptors(webSocketFanoutService);
+    }
+}
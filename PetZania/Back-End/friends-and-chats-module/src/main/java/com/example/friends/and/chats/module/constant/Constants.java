@@ -23,6 +23,7 @@ public final class Constants {
     public static final String USER_BLOCKED_QUEUE_REGISTRATION_MODULE = "userBlockedQueueRegistrationModule";
     public static final String USER_BLOCKED_QUEUE_ADOPTION_MODULE = "userBlockedQueueAdoptionModule";
     public static final String USER_DELETED_QUEUE_FRIENDS_MODULE = "userDeletedQueueFriendsModule";
+    public static final String USERS_DELETED_QUEUE_FRIENDS_MODULE = "usersDeletedQueueFriendsModule";
     public static final String USER_REGISTERED_QUEUE_FRIENDS_MODULE = "userRegisteredQueueFriendsModule";
     public static final String USER_UNBLOCKED_QUEUE_REGISTRATION_MODULE = "userUnBlockedQueueRegistrationModule";
     public static final String USER_UNBLOCKED_QUEUE_ADOPTION_MODULE = "userUnBlockedQueueAdoptionModule";
@@ -31,6 +32,7 @@ public final class Constants {
     public static final String USER_BLOCKED_QUEUE_ADOPTION_MODULE_RETRY = "userBlockedQueueAdoptionModule.retry";
     public static final String USER_BLOCKED_QUEUE_REGISTRATION_MODULE_RETRY = "userBlockedQueueRegistrationModule.retry";
     public static final String USER_DELETED_QUEUE_FRIENDS_MODULE_RETRY = "userDeletedQueueFriendsModule.retry";
+    public static final String USERS_DELETED_QUEUE_FRIENDS_MODULE_RETRY = "usersDeletedQueueFriendsModule.retry";
     public static final String USER_REGISTERED_QUEUE_FRIENDS_MODULE_RETRY = "userRegisteredQueueFriendsModule.retry";
     public static final String USER_UNBLOCKED_QUEUE_ADOPTION_MODULE_RETRY = "userUnBlockedQueueAdoptionModule.retry";
     public static final String USER_UNBLOCKED_QUEUE_REGISTRATION_MODULE_RETRY = "userUnBlockedQueueRegistrationModule.retry";
@@ -50,6 +52,8 @@ public final class Constants {
     public static final String USER_BLOCKED_REGISTRATION = "user.blocked.registration";
     public static final String USER_DELETED = "user.deleted";
     public static final String USER_DELETED_FRIENDS = "user.deleted.friends";
+    public static final String USERS_DELETED = "users.deleted";
+    public static final String USERS_DELETED_FRIENDS = "users.deleted.friends";
     public static final String USER_REGISTERED = "user.registered";
     public static final String USER_REGISTERED_FRIENDS = "user.registered.friends";
     public static final String USER_UNBLOCKED_ADOPTION = "user.unblocked.adoption";
@@ -62,6 +66,7 @@ public final class Constants {
     public static final String USER_BLOCKED_ADOPTION_RETRY = "user.blocked.adoption.retry";
     public static final String USER_BLOCKED_REGISTRATION_RETRY = "user.blocked.registration.retry";
     public static final String USER_DELETED_FRIENDS_RETRY = "user.deleted.friends.retry";
+    public static final String USERS_DELETED_FRIENDS_RETRY = "users.deleted.friends.retry";
     public static final String USER_REGISTERED_FRIENDS_RETRY = "user.registered.friends.retry";
     public static final String USER_UNBLOCKED_ADOPTION_RETRY = "user.unblocked.adoption.retry";
     public static final String USER_UNBLOCKED_REGISTRATION_RETRY = "user.unblocked.registration.retry";
@@ -80,5 +85,53 @@ public final class Constants {
     public static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
     public static final String ANONYMOUS = "anonymous";
     public static final int START_INDEX = 7;
+    public static final int JWT_CLAIMS_CACHE_MAX_SIZE = 10_000;
+    public static final String JWT_CLAIMS_REQUEST_ATTRIBUTE = "jwt.claims";
+    // Principal Cache
+    public static final int PRINCIPAL_CACHE_MAX_SIZE = 10_000;
+    public static final long PRINCIPAL_CACHE_TTL_MILLIS = 60_000;
+    public static final String PRINCIPAL_CACHE_METRIC = "security.principal.cache";
+    // Presence
+    public static final String PRESENCE_KEY_PREFIX = "presence:";
+    public static final long PRESENCE_TTL_SECONDS = 90;
+    public static final long PRESENCE_HEARTBEAT_MILLIS = 30_000; // well inside the TTL so a live session never expires
+    public static final int PRESENCE_BATCH_MAX_SIZE = 200;
 
-}
\ No newline at end of file
+    // Message History
+    public static final int MESSAGE_HISTORY_DEFAULT_LIMIT = 50;
+    public static final int MESSAGE_HISTORY_MAX_LIMIT = 100;
+    public static final int MESSAGE_REPLY_SNIPPET_LENGTH = 100;
+
+    // Message Search
+    public static final int MESSAGE_SEARCH_DEFAULT_LIMIT = 20;
+    public static final int MESSAGE_SEARCH_MAX_LIMIT = 50;
+    public static final int MESSAGE_SEARCH_MAX_RESULTS = 500; // deepest offset a search can page to
+    public static final int MESSAGE_SEARCH_MAX_QUERY_LENGTH = 200;
+    public static final int MESSAGE_SEARCH_RECENCY_HALF_LIFE_DAYS = 30; // a match this old scores half a fresh one
+
+    // Message Partitions
+    public static final long MESSAGE_PARTITION_MAINTENANCE_MILLIS = 6 * 60 * 60 * 1000;
+    public static final String MESSAGE_PARTITION_FAILURE_METRIC = "messages.partitions.maintenance.failures";
+    public static final int MESSAGE_PARTITION_MONTHS_AHEAD = 3; // a missed run never leaves new messages in messages_default
+
+    // Chat Inbox
+    public static final int CHAT_PREVIEW_SNIPPET_LENGTH = 100; // matches chats.last_message_snippet
+    public static final int INBOX_DEFAULT_LIMIT = 20;
+    public static final int INBOX_MAX_LIMIT = 50;
+
+    // WebSocket Fan-out
+    public static final String WS_FANOUT_CHANNEL_PREFIX = "ws:chats:user:";
+    public static final String WS_FANOUT_ORIGIN_HEADER = "fanoutOrigin";
+
+    // Chat Signals
+    public static final long CHAT_SIGNAL_MIN_INTERVAL_MILLIS = 1_000; // per session, chat and signal type
+    public static final int CHAT_SIGNAL_SESSION_MAX_KEYS = 64;
+    public static final int CHAT_MEMBERSHIP_CACHE_MAX_SIZE = 50_000;
+    public static final long CHAT_MEMBERSHIP_CACHE_TTL_MILLIS = 30_000; // also how long a new block, or a chat removed on another instance, takes to stop signals
+    public static final String CHAT_MEMBERSHIP_CACHE_METRIC = "chat.membership.cache";
+    public static final String CHAT_SIGNAL_METRIC = "chat.signals";
+
+    // Unread Counters
+    public static final long UNREAD_RECONCILE_MILLIS = 15 * 60 * 1000;
+    public static final int UNREAD_RECONCILE_BATCH_SIZE = 500;
+}
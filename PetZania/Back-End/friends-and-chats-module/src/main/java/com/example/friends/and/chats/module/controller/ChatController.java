@@ -2,11 +2,14 @@ package com.example.friends.and.chats.module.controller;
 
 
 import com.example.friends.and.chats.module.annotation.RateLimit;
+import com.example.friends.and.chats.module.exception.user.InvalidOperation;
 import com.example.friends.and.chats.module.model.dto.chat.ChatDTO;
+import com.example.friends.and.chats.module.model.dto.chat.InboxDTO;
 import com.example.friends.and.chats.module.model.dto.chat.UpdateUserChatDTO;
 import com.example.friends.and.chats.module.model.dto.chat.UserChatDTO;
 import com.example.friends.and.chats.module.model.principal.UserPrincipal;
 import com.example.friends.and.chats.module.service.IChatService;
+import com.example.friends.and.chats.module.service.impl.InboxService;
 import com.example.friends.and.chats.module.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +21,9 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.UUID;
 
+import static com.example.friends.and.chats.module.constant.Constants.INBOX_DEFAULT_LIMIT;
+import static com.example.friends.and.chats.module.constant.Constants.INBOX_MAX_LIMIT;
+
 @RestController
 @RequestMapping("/api/chats")
 @RequiredArgsConstructor
@@ -25,6 +31,7 @@ import java.util.UUID;
 public class ChatController {
 
     private final IChatService chatService;
+    private final InboxService inboxService;
 
     @Operation(summary = "Create a new chat or return existing one between two users")
     @PostMapping("/user/{user2Id}")
@@ -54,6 +61,19 @@ public class ChatController {
         return ResponseEntity.ok(chatService.getChatsForUser(userId));
     }
 
+    @Operation(summary = "Get a page of the current user's chats with their last-message previews")
+    @GetMapping("/inbox")
+    @RateLimit
+    public ResponseEntity<InboxDTO> getInbox(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + INBOX_DEFAULT_LIMIT) int limit) {
+        if (limit < 1 || limit > INBOX_MAX_LIMIT) {
+            throw new InvalidOperation("Limit must be between 1 and " + INBOX_MAX_LIMIT);
+        }
+        UUID userId = SecurityUtils.getCurrentUser().getUserId();
+        return ResponseEntity.ok(inboxService.getInbox(userId, after, limit));
+    }
+
     @Operation(summary = "Get a specific userChat by chat ID for the current user")
     @GetMapping("{chatId}/user-chat")
     @RateLimit
@@ -0,0 +1,27 @@
+package com.example.friends.and.chats.module.controller;
+
+import com.example.friends.and.chats.module.model.dto.signal.ChatSignalDTO;
+import com.example.friends.and.chats.module.model.principal.UserPrincipal;
+import com.example.friends.and.chats.module.service.impl.ChatSignalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+@Controller
+@RequiredArgsConstructor
+public class ChatSignalController {
+
+    private final ChatSignalService chatSignalService;
+
+    // typing, recording and viewing signals arrive over STOMP and never reach the REST rate limiter or the database
+    @MessageMapping("/chats/signal")
+    public void signal(@Payload ChatSignalDTO signal, SimpMessageHeaderAccessor headers) {
+        if (headers.getUser() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            chatSignalService.relay(headers.getSessionId(), principal.getUserId(), signal);
+        }
+    }
+}
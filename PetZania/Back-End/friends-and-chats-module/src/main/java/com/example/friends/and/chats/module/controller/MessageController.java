@@ -1,6 +1,7 @@
 package com.example.friends.and.chats.module.controller;
 
 import com.example.friends.and.chats.module.annotation.RateLimit;
+import com.example.friends.and.chats.module.exception.user.InvalidOperation;
 import com.example.friends.and.chats.module.model.dto.message.*;
 import com.example.friends.and.chats.module.model.enumeration.EventType;
 import com.example.friends.and.chats.module.model.enumeration.MessageReact;
@@ -19,6 +20,13 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.UUID;
 
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_HISTORY_DEFAULT_LIMIT;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_HISTORY_MAX_LIMIT;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_SEARCH_DEFAULT_LIMIT;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_SEARCH_MAX_LIMIT;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_SEARCH_MAX_QUERY_LENGTH;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_SEARCH_MAX_RESULTS;
+
 @RestController
 @RequestMapping("/api/messages")
 @RequiredArgsConstructor
@@ -61,6 +69,45 @@ public class MessageController {
         return ResponseEntity.ok(historyPage);
     }
 
+    @Operation(summary = "Get a chat's messages before or after a message, newest first unless reading after it")
+    @GetMapping("/chat/{chatId}/history")
+    @RateLimit
+    public ResponseEntity<MessageHistoryDTO> getMessageHistory(
+            @PathVariable UUID chatId,
+            @RequestParam(required = false) UUID before,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + MESSAGE_HISTORY_DEFAULT_LIMIT) int limit) {
+        if (before != null && after != null) {
+            throw new InvalidOperation("Only one of before and after can be given");
+        }
+        if (limit < 1 || limit > MESSAGE_HISTORY_MAX_LIMIT) {
+            throw new InvalidOperation("Limit must be between 1 and " + MESSAGE_HISTORY_MAX_LIMIT);
+        }
+        UUID userId = SecurityUtils.getCurrentUser().getUserId();
+        return ResponseEntity.ok(messageService.getMessageHistory(chatId, userId, before, after, limit));
+    }
+
+    @Operation(summary = "Search the text of messages in the current user's chats, best match first")
+    @GetMapping("/search")
+    @RateLimit
+    public ResponseEntity<MessageSearchDTO> searchMessages(
+            @RequestParam String q,
+            @RequestParam(required = false) UUID chatId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + MESSAGE_SEARCH_DEFAULT_LIMIT) int limit) {
+        if (q.isBlank() || q.length() > MESSAGE_SEARCH_MAX_QUERY_LENGTH) {
+            throw new InvalidOperation("Query must be between 1 and " + MESSAGE_SEARCH_MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MESSAGE_SEARCH_MAX_LIMIT) {
+            throw new InvalidOperation("Limit must be between 1 and " + MESSAGE_SEARCH_MAX_LIMIT);
+        }
+        if (page < 0 || (long) (page + 1) * limit > MESSAGE_SEARCH_MAX_RESULTS) {
+            throw new InvalidOperation("Only the first " + MESSAGE_SEARCH_MAX_RESULTS + " results can be paged through");
+        }
+        UUID userId = SecurityUtils.getCurrentUser().getUserId();
+        return ResponseEntity.ok(messageService.searchMessages(userId, q.strip(), chatId, page, limit));
+    }
+
     @Operation(summary = "Get a message by its ID")
     @GetMapping("/{messageId}")
     @RateLimit
@@ -97,6 +144,23 @@ public class MessageController {
         return ResponseEntity.ok(updatedMessage);
     }
 
+    @Operation(summary = "Mark every message the other user sent up to a message as delivered or read")
+    @PatchMapping("/chat/{chatId}/status")
+    @RateLimit
+    public ResponseEntity<MessageReceiptDTO> updateChatStatus(@PathVariable UUID chatId,
+                                                              @RequestParam UUID upTo,
+                                                              @RequestBody UpdateMessageStatusDTO updateMessageStatusDTO) {
+        UUID userId = SecurityUtils.getCurrentUser().getUserId();
+        MessageStatus messageStatus = updateMessageStatusDTO.getMessageStatus();
+        if (messageStatus == MessageStatus.DELIVERED) {
+            return ResponseEntity.ok(messageService.markDelivered(chatId, userId, upTo));
+        }
+        if (messageStatus == MessageStatus.READ) {
+            return ResponseEntity.ok(messageService.markRead(chatId, userId, upTo));
+        }
+        throw new InvalidOperation("Messages can only be marked as DELIVERED or READ");
+    }
+
     @Operation(summary = "React to a message")
     @PutMapping("/{messageId}/reaction")
     @RateLimit
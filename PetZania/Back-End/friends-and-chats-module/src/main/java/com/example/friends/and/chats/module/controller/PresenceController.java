@@ -0,0 +1,35 @@
+package com.example.friends.and.chats.module.controller;
+
+import com.example.friends.and.chats.module.annotation.RateLimit;
+import com.example.friends.and.chats.module.exception.user.InvalidOperation;
+import com.example.friends.and.chats.module.model.dto.presence.PresenceDTO;
+import com.example.friends.and.chats.module.service.impl.PresenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.friends.and.chats.module.constant.Constants.PRESENCE_BATCH_MAX_SIZE;
+
+@RestController
+@RequestMapping("/api/presence")
+@RequiredArgsConstructor
+@Tag(name = "Presence", description = "Endpoints for checking which users are online")
+public class PresenceController {
+
+    private final PresenceService presenceService;
+
+    @Operation(summary = "Get the online status of several users at once")
+    @GetMapping
+    @RateLimit
+    public ResponseEntity<List<PresenceDTO>> getPresence(@RequestParam(name = "ids") List<UUID> userIds) {
+        if (userIds.size() > PRESENCE_BATCH_MAX_SIZE) {
+            throw new InvalidOperation("At most " + PRESENCE_BATCH_MAX_SIZE + " users can be checked at once");
+        }
+        return ResponseEntity.ok(presenceService.getPresence(userIds));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.friends.and.chats.module.model.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxChatDTO {
+    private UUID userChatId;
+    private UUID chatId;
+    private UUID peerId;
+    private String peerUsername;
+    private boolean pinned;
+    private boolean muted;
+    private int unread;
+    private LocalDateTime lastMessageAt;
+    // null while the chat has no messages
+    private UUID lastMessageId;
+    private UUID lastMessageSenderId;
+    // the start of the last message, cut to CHAT_PREVIEW_SNIPPET_LENGTH characters
+    private String lastMessageSnippet;
+}
@@ -0,0 +1,18 @@
+package com.example.friends.and.chats.module.model.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxDTO {
+    // pinned chats first, then by the time of their last message; pass the last userChatId as "after" for the next page
+    private List<InboxChatDTO> chats;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageHistoryDTO {
+    // newest first, except for catch-up reads with "after", which come oldest first
+    private List<MessageViewDTO> messages;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageReceiptDTO {
+    private UUID chatId;
+    // the user who received the messages
+    private UUID userId;
+    // every message the other user sent up to and including this one now has the status
+    private UUID upToMessageId;
+    private MessageStatus status;
+    private int updatedCount;
+}
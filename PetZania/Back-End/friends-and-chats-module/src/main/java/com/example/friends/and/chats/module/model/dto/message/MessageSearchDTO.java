@@ -0,0 +1,18 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchDTO {
+    // best match first; open a hit in context through the history endpoint with before/after
+    private List<MessageSearchHitDTO> hits;
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchHitDTO {
+    private UUID messageId;
+    private UUID chatId;
+    private UUID senderId;
+    private LocalDateTime sentAt;
+    // the best-matching fragment of the message, HTML-escaped, with matched words wrapped in <b></b>
+    private String highlight;
+}
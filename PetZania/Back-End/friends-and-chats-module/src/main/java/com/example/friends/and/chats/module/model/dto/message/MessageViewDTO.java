@@ -0,0 +1,28 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageViewDTO {
+    private UUID messageId;
+    private UUID chatId;
+    private UUID senderId;
+    private String content;
+    private LocalDateTime sentAt;
+    private MessageStatus status;
+    private boolean isFile;
+    private boolean isEdited;
+    private UUID replyToMessageId;
+    // null when the message is not a reply or the replied-to message was deleted
+    private ReplyPreviewDTO replyTo;
+}
@@ -0,0 +1,20 @@
+package com.example.friends.and.chats.module.model.dto.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplyPreviewDTO {
+    private UUID messageId;
+    private UUID senderId;
+    // the start of the replied-to message, cut to MESSAGE_REPLY_SNIPPET_LENGTH characters
+    private String snippet;
+    private boolean isFile;
+}
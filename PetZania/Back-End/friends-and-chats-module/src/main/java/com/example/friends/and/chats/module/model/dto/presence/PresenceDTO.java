@@ -0,0 +1,17 @@
+package com.example.friends.and.chats.module.model.dto.presence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceDTO {
+    private UUID userId;
+    private boolean online;
+}
@@ -0,0 +1,20 @@
+package com.example.friends.and.chats.module.model.dto.signal;
+
+import com.example.friends.and.chats.module.model.enumeration.ChatSignalType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatSignalDTO {
+    private UUID chatId;
+    // set by the server to the sender before the signal is relayed
+    private UUID userId;
+    private ChatSignalType type;
+}
@@ -17,7 +17,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Table(name = "messages", indexes = {
-        @Index(name = "idx_message_chat", columnList = "chat_id"),
+        @Index(name = "idx_message_chat_sent_at", columnList = "chat_id, sent_at, message_id"),
         @Index(name = "idx_message_sender", columnList = "sender_id")
 })
 public class Message {
@@ -27,12 +27,12 @@ public class Message {
     @Column(name = "message_id", nullable = false)
     private UUID messageId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Chat chat;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User sender;
@@ -40,8 +40,10 @@ public class Message {
     @Column(name = "content", columnDefinition = "TEXT")
     private String content;
 
-    @ManyToOne
+    // lazy so loading a message never walks its reply chain
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reply_to_id")
+    @ToString.Exclude
     private Message replyTo;
 
     @Column(name = "sent_at", nullable = false)
@@ -28,4 +28,9 @@ public class User {
 
     @Column(name = "email", length = 100, nullable = false, unique = true)
     private String email;
+
+    // changed only by bulk updates next to user_chats.unread, so a stale entity can never overwrite it
+    @Column(name = "total_unread", nullable = false, updatable = false)
+    @Builder.Default
+    private long totalUnread = 0;
 }
@@ -0,0 +1,8 @@
+package com.example.friends.and.chats.module.model.enumeration;
+
+public enum ChatSignalType {
+    TYPING,
+    RECORDING,
+    VIEWING,
+    STOPPED
+}
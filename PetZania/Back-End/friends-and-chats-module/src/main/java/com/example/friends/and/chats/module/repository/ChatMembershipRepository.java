@@ -0,0 +1,34 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.Chat;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ChatMembershipRepository extends Repository<Chat, UUID> {
+
+    interface ChatMembers {
+        UUID getUser1Id();
+
+        UUID getUser2Id();
+
+        Long getUser1Chats();
+
+        Long getUser2Chats();
+
+        Long getBlocks();
+    }
+
+    // a member who removed the chat keeps their place on Chat but loses their UserChat, like on the REST side
+    @Query("SELECT c.user1.userId AS user1Id, c.user2.userId AS user2Id, " +
+            "(SELECT COUNT(uc) FROM UserChat uc WHERE uc.chat.chatId = c.chatId AND uc.user.userId = c.user1.userId) AS user1Chats, " +
+            "(SELECT COUNT(uc) FROM UserChat uc WHERE uc.chat.chatId = c.chatId AND uc.user.userId = c.user2.userId) AS user2Chats, " +
+            "(SELECT COUNT(b) FROM Block b " +
+            "  WHERE (b.blocker.userId = c.user1.userId AND b.blocked.userId = c.user2.userId) " +
+            "     OR (b.blocker.userId = c.user2.userId AND b.blocked.userId = c.user1.userId)) AS blocks " +
+            "FROM Chat c WHERE c.chatId = :chatId")
+    Optional<ChatMembers> findChatMembers(@Param("chatId") UUID chatId);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,5 +24,9 @@ public interface FriendshipRepository extends JpaRepository<Friendship, UUID> {
             "WHERE f.user1.userId = :userId OR f.user2.userId = :userId")
     int countFriendsByUserId(UUID userId);
 
+    @Query("SELECT CASE WHEN f.user1.userId = :userId THEN f.user2.userId ELSE f.user1.userId END " +
+            "FROM Friendship f WHERE f.user1.userId = :userId OR f.user2.userId = :userId")
+    List<UUID> findFriendIdsByUserId(UUID userId);
+
     Optional<Friendship> findByUser1AndUser2(User user, User friend);
 }
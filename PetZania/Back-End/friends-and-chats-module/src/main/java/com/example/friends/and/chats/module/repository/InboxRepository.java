@@ -0,0 +1,81 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.UserChat;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keyset reads over a user's inbox, ordered by (pinned, last_message_at, user_chat_id) and served by
+ * idx_user_chat_inbox. Each row carries the chat's last-message snapshot and the other member's
+ * username, so one statement renders a whole page. The snapshot columns are not mapped on the
+ * entities, hence native SQL.
+ */
+public interface InboxRepository extends Repository<UserChat, UUID> {
+
+    String INBOX_ROW = "SELECT uc.user_chat_id AS userChatId, uc.chat_id AS chatId, uc.pinned AS pinned, " +
+            "uc.muted AS muted, uc.unread AS unread, uc.last_message_at AS lastMessageAt, " +
+            "p.user_id AS peerId, p.username AS peerUsername, " +
+            "c.last_message_id AS lastMessageId, c.last_message_sender_id AS lastMessageSenderId, " +
+            "c.last_message_snippet AS lastMessageSnippet " +
+            "FROM user_chats uc " +
+            "JOIN chats c ON c.chat_id = uc.chat_id " +
+            "JOIN users p ON p.user_id = CASE WHEN c.user1_id = :userId THEN c.user2_id ELSE c.user1_id END " +
+            "WHERE uc.user_id = :userId ";
+
+    String INBOX_ORDER = "ORDER BY uc.pinned DESC, uc.last_message_at DESC, uc.user_chat_id DESC LIMIT :limit";
+
+    interface InboxRow {
+        UUID getUserChatId();
+
+        UUID getChatId();
+
+        Boolean getPinned();
+
+        Boolean getMuted();
+
+        Integer getUnread();
+
+        LocalDateTime getLastMessageAt();
+
+        UUID getPeerId();
+
+        String getPeerUsername();
+
+        UUID getLastMessageId();
+
+        UUID getLastMessageSenderId();
+
+        String getLastMessageSnippet();
+    }
+
+    interface InboxCursor {
+        Boolean getPinned();
+
+        LocalDateTime getLastMessageAt();
+    }
+
+    @Query(value = "SELECT uc.pinned AS pinned, uc.last_message_at AS lastMessageAt FROM user_chats uc " +
+            "WHERE uc.user_chat_id = :userChatId AND uc.user_id = :userId",
+            nativeQuery = true)
+    Optional<InboxCursor> findCursor(@Param("userId") UUID userId, @Param("userChatId") UUID userChatId);
+
+    @Query(value = INBOX_ROW + INBOX_ORDER, nativeQuery = true)
+    List<InboxRow> findFirstPage(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    // every sort column is descending, so "after the cursor" is a single row comparison
+    @Query(value = INBOX_ROW +
+            "AND (uc.pinned, uc.last_message_at, uc.user_chat_id) < (:pinned, :lastMessageAt, :userChatId) " +
+            INBOX_ORDER,
+            nativeQuery = true)
+    List<InboxRow> findPageAfter(@Param("userId") UUID userId,
+                                 @Param("pinned") boolean pinned,
+                                 @Param("lastMessageAt") LocalDateTime lastMessageAt,
+                                 @Param("userChatId") UUID userChatId,
+                                 @Param("limit") int limit);
+}
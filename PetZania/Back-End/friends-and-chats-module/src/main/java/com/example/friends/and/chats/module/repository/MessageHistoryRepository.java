@@ -0,0 +1,82 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.Message;
+import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_REPLY_SNIPPET_LENGTH;
+
+/**
+ * Keyset reads over a chat's history, ordered by (sent_at, message_id) and served by
+ * idx_message_chat_sent_at. Every page costs the same however far back it is, and no count is run.
+ * Pages are read as flat rows, so no chat, user or replied-to message entity is loaded.
+ */
+public interface MessageHistoryRepository extends Repository<Message, UUID> {
+
+    // chat and sender are read from the message's own foreign keys; the reply preview is the only join
+    String MESSAGE_ROW = "m.messageId AS messageId, m.chat.chatId AS chatId, m.sender.userId AS senderId, " +
+            "m.content AS content, m.sentAt AS sentAt, m.status AS status, m.isFile AS file, m.isEdited AS edited, " +
+            "r.messageId AS replyToId, r.sender.userId AS replySenderId, " +
+            "SUBSTRING(r.content, 1, " + MESSAGE_REPLY_SNIPPET_LENGTH + ") AS replySnippet, r.isFile AS replyFile " +
+            "FROM Message m LEFT JOIN m.replyTo r ";
+
+    interface MessageRow {
+        UUID getMessageId();
+
+        UUID getChatId();
+
+        UUID getSenderId();
+
+        String getContent();
+
+        LocalDateTime getSentAt();
+
+        MessageStatus getStatus();
+
+        Boolean getFile();
+
+        Boolean getEdited();
+
+        UUID getReplyToId();
+
+        UUID getReplySenderId();
+
+        String getReplySnippet();
+
+        Boolean getReplyFile();
+    }
+
+    @Query("SELECT m.sentAt FROM Message m WHERE m.messageId = :messageId AND m.chat.chatId = :chatId")
+    Optional<LocalDateTime> findSentAt(@Param("chatId") UUID chatId, @Param("messageId") UUID messageId);
+
+    @Query("SELECT " + MESSAGE_ROW + "WHERE m.chat.chatId = :chatId " +
+            "ORDER BY m.sentAt DESC, m.messageId DESC")
+    List<MessageRow> findLatest(@Param("chatId") UUID chatId, Pageable pageable);
+
+    // the OR alone cannot bound the index scan and would only filter the chat's rows; the redundant plain
+    // sent_at bound starts the scan at the cursor, and also keeps later monthly partitions out of the plan
+    @Query("SELECT " + MESSAGE_ROW + "WHERE m.chat.chatId = :chatId " +
+            "AND m.sentAt <= :sentAt AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.messageId < :messageId)) " +
+            "ORDER BY m.sentAt DESC, m.messageId DESC")
+    List<MessageRow> findBefore(@Param("chatId") UUID chatId,
+                                @Param("sentAt") LocalDateTime sentAt,
+                                @Param("messageId") UUID messageId,
+                                Pageable pageable);
+
+    // same bound as findBefore, on the other side of the cursor
+    @Query("SELECT " + MESSAGE_ROW + "WHERE m.chat.chatId = :chatId " +
+            "AND m.sentAt >= :sentAt AND (m.sentAt > :sentAt OR (m.sentAt = :sentAt AND m.messageId > :messageId)) " +
+            "ORDER BY m.sentAt ASC, m.messageId ASC")
+    List<MessageRow> findAfter(@Param("chatId") UUID chatId,
+                               @Param("sentAt") LocalDateTime sentAt,
+                               @Param("messageId") UUID messageId,
+                               Pageable pageable);
+}
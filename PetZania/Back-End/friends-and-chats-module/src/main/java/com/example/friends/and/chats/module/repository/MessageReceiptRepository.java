@@ -0,0 +1,36 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.Message;
+import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Watermark receipts: every message the peer sent up to and including a given message, in
+ * (sent_at, message_id) order, moves to the new status in one statement served by
+ * idx_message_chat_sent_at.
+ */
+public interface MessageReceiptRepository extends Repository<Message, UUID> {
+
+    @Query("SELECT CASE WHEN c.user1.userId = :userId THEN c.user2.userId ELSE c.user1.userId END " +
+            "FROM UserChat uc JOIN uc.chat c WHERE c.chatId = :chatId AND uc.user.userId = :userId")
+    Optional<UUID> findPeerId(@Param("chatId") UUID chatId, @Param("userId") UUID userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Message m SET m.status = :status " +
+            "WHERE m.chat.chatId = :chatId AND m.sender.userId <> :userId AND m.status IN :from " +
+            "AND m.sentAt <= :sentAt AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.messageId <= :messageId))")
+    int advanceStatus(@Param("chatId") UUID chatId,
+                      @Param("userId") UUID userId,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("messageId") UUID messageId,
+                      @Param("from") Collection<MessageStatus> from,
+                      @Param("status") MessageStatus status);
+}
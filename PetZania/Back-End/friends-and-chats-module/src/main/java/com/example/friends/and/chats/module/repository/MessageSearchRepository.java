@@ -0,0 +1,67 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.Message;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_SEARCH_RECENCY_HALF_LIFE_DAYS;
+
+/**
+ * Full-text search over the messages of the caller's chats, matched through the GIN index on
+ * messages.content_tsv. Hits are ranked by relevance damped by age, so an equally good match sent
+ * {@code MESSAGE_SEARCH_RECENCY_HALF_LIFE_DAYS} ago scores half as much as one sent now. The vector
+ * column is not mapped on the entity, hence native SQL. Postgres only: content_tsv comes from
+ * db/specific/postgresql/V13, so the H2 test schema has no such column and the service tests mock this
+ * repository.
+ */
+public interface MessageSearchRepository extends Repository<Message, UUID> {
+
+    // private-use characters mark the matches, so the message text can be escaped after the headline is built
+    char HIGHLIGHT_START = '\uE000';
+    char HIGHLIGHT_STOP = '\uE001';
+
+    // ts_headline only runs for the rows that survive the limit
+    String SEARCH_HIT = "SELECT m.message_id AS messageId, m.chat_id AS chatId, m.sender_id AS senderId, " +
+            "m.sent_at AS sentAt, ts_headline('simple', m.content, q.tsq, " +
+            "'StartSel=' || chr(" + (int) HIGHLIGHT_START + ") || ', StopSel=' || chr(" + (int) HIGHLIGHT_STOP + ") || " +
+            "', MaxWords=20, MinWords=5, MaxFragments=1') AS highlight " +
+            "FROM messages m " +
+            "JOIN user_chats uc ON uc.chat_id = m.chat_id AND uc.user_id = :userId " +
+            "CROSS JOIN websearch_to_tsquery('simple', :query) AS q(tsq) " +
+            "WHERE m.content_tsv @@ q.tsq ";
+
+    String SEARCH_ORDER = "ORDER BY ts_rank_cd(m.content_tsv, q.tsq) " +
+            "/ (1 + EXTRACT(EPOCH FROM (LOCALTIMESTAMP - m.sent_at)) / " + (MESSAGE_SEARCH_RECENCY_HALF_LIFE_DAYS * 86_400) + ") DESC, " +
+            "m.sent_at DESC, m.message_id DESC " +
+            "LIMIT :limit OFFSET :offset";
+
+    interface SearchHit {
+        UUID getMessageId();
+
+        UUID getChatId();
+
+        UUID getSenderId();
+
+        LocalDateTime getSentAt();
+
+        String getHighlight();
+    }
+
+    @Query(value = SEARCH_HIT + SEARCH_ORDER, nativeQuery = true)
+    List<SearchHit> search(@Param("userId") UUID userId,
+                           @Param("query") String query,
+                           @Param("limit") int limit,
+                           @Param("offset") int offset);
+
+    @Query(value = SEARCH_HIT + "AND m.chat_id = :chatId " + SEARCH_ORDER, nativeQuery = true)
+    List<SearchHit> searchInChat(@Param("userId") UUID userId,
+                                 @Param("chatId") UUID chatId,
+                                 @Param("query") String query,
+                                 @Param("limit") int limit,
+                                 @Param("offset") int offset);
+}
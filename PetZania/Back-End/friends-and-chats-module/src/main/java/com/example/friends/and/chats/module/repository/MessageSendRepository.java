@@ -0,0 +1,110 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.Message;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.friends.and.chats.module.constant.Constants.CHAT_PREVIEW_SNIPPET_LENGTH;
+
+/**
+ * Queries behind the send path, which runs once per chat message and is kept to a fixed number of
+ * statements: one read that answers every validation question, the insert, the chat's last-message
+ * snapshot, both members' inbox rows (with the receiver's unread counter) and the receiver's total.
+ */
+public interface MessageSendRepository extends Repository<Message, UUID> {
+
+    interface SendContext {
+        UUID getReceiverId();
+
+        UUID getSenderUserChatId();
+
+        UUID getReceiverUserChatId();
+
+        Integer getReceiverUnread();
+
+        Long getReceiverTotalUnread();
+
+        Long getBlocks();
+
+        Long getReplyTargets();
+    }
+
+    @Query("SELECT CASE WHEN c.user1.userId = :senderId THEN c.user2.userId ELSE c.user1.userId END AS receiverId, " +
+            "su.userChatId AS senderUserChatId, " +
+            "ru.userChatId AS receiverUserChatId, " +
+            "ru.unread AS receiverUnread, " +
+            "ru.user.totalUnread AS receiverTotalUnread, " +
+            "(SELECT COUNT(b) FROM Block b " +
+            "  WHERE (b.blocker.userId = c.user1.userId AND b.blocked.userId = c.user2.userId) " +
+            "     OR (b.blocker.userId = c.user2.userId AND b.blocked.userId = c.user1.userId)) AS blocks, " +
+            "(SELECT COUNT(m) FROM Message m WHERE m.messageId = :replyToId) AS replyTargets " +
+            "FROM Chat c " +
+            "LEFT JOIN UserChat su ON su.chat = c AND su.user.userId = :senderId " +
+            "LEFT JOIN UserChat ru ON ru.chat = c " +
+            "  AND ru.user.userId = CASE WHEN c.user1.userId = :senderId THEN c.user2.userId ELSE c.user1.userId END " +
+            "WHERE c.chatId = :chatId")
+    Optional<SendContext> findSendContext(@Param("chatId") UUID chatId,
+                                          @Param("senderId") UUID senderId,
+                                          @Param("replyToId") UUID replyToId);
+
+    // the last-message snapshot and user_chats.last_message_at are not mapped on the entities, so these are native
+    @Modifying
+    @Query(value = "UPDATE chats SET last_message_timestamp = :sentAt, last_message_id = :messageId, " +
+            "last_message_sender_id = :senderId, last_message_snippet = :snippet WHERE chat_id = :chatId",
+            nativeQuery = true)
+    int touchChat(@Param("chatId") UUID chatId,
+                  @Param("messageId") UUID messageId,
+                  @Param("senderId") UUID senderId,
+                  @Param("snippet") String snippet,
+                  @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "UPDATE user_chats SET last_message_at = :sentAt, " +
+            "unread = unread + CASE WHEN user_chat_id = :receiverUserChatId THEN 1 ELSE 0 END " +
+            "WHERE chat_id = :chatId",
+            nativeQuery = true)
+    int touchUserChats(@Param("chatId") UUID chatId,
+                       @Param("receiverUserChatId") UUID receiverUserChatId,
+                       @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "UPDATE chats SET last_message_snippet = :snippet WHERE chat_id = :chatId AND last_message_id = :messageId",
+            nativeQuery = true)
+    int updateLastMessageSnippet(@Param("chatId") UUID chatId,
+                                 @Param("messageId") UUID messageId,
+                                 @Param("snippet") String snippet);
+
+    String PREVIOUS_MESSAGE = "FROM messages m WHERE m.chat_id = :chatId AND m.message_id <> :messageId " +
+            "ORDER BY m.sent_at DESC, m.message_id DESC LIMIT 1";
+
+    // when the chat's last message is deleted, its snapshot falls back to the newest other message, or to the
+    // chat's creation when none is left. Each column repeats the one-row index probe, which keeps the
+    // statement plain enough for the H2 test database
+    @Modifying
+    @Query(value = "UPDATE chats SET " +
+            "last_message_id = (SELECT m.message_id " + PREVIOUS_MESSAGE + "), " +
+            "last_message_sender_id = (SELECT m.sender_id " + PREVIOUS_MESSAGE + "), " +
+            "last_message_snippet = (SELECT SUBSTRING(m.content, 1, " + CHAT_PREVIEW_SNIPPET_LENGTH + ") " + PREVIOUS_MESSAGE + "), " +
+            "last_message_timestamp = COALESCE((SELECT m.sent_at " + PREVIOUS_MESSAGE + "), created_at) " +
+            "WHERE chat_id = :chatId AND last_message_id = :messageId",
+            nativeQuery = true)
+    int replaceLastMessage(@Param("chatId") UUID chatId, @Param("messageId") UUID messageId);
+
+    // copies the chat's last message time to both members' inbox rows after replaceLastMessage moved it back
+    @Modifying
+    @Query(value = "UPDATE user_chats SET last_message_at = " +
+            "(SELECT c.last_message_timestamp FROM chats c WHERE c.chat_id = :chatId) " +
+            "WHERE chat_id = :chatId",
+            nativeQuery = true)
+    int syncLastMessageAt(@Param("chatId") UUID chatId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.totalUnread = u.totalUnread + 1 WHERE u.userId = :userId")
+    int incrementTotalUnread(@Param("userId") UUID userId);
+}
@@ -0,0 +1,61 @@
+package com.example.friends.and.chats.module.repository;
+
+import com.example.friends.and.chats.module.model.entity.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UnreadCounterRepository extends Repository<User, UUID> {
+
+    interface UnreadCounts {
+        UUID getUserChatId();
+
+        Integer getUnread();
+
+        Long getTotalUnread();
+    }
+
+    @Query("SELECT uc.userChatId AS userChatId, uc.unread AS unread, u.totalUnread AS totalUnread " +
+            "FROM UserChat uc JOIN uc.user u WHERE uc.chat.chatId = :chatId AND u.userId = :userId")
+    Optional<UnreadCounts> findUnreadCounts(@Param("chatId") UUID chatId, @Param("userId") UUID userId);
+
+    @Query("SELECT u.totalUnread FROM User u WHERE u.userId = :userId")
+    Optional<Long> findTotalUnread(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.totalUnread = CASE WHEN u.totalUnread > :count THEN u.totalUnread - :count ELSE 0 END " +
+            "WHERE u.userId = :userId")
+    int subtractTotalUnread(@Param("userId") UUID userId, @Param("count") long count);
+
+    // sends update user_chats before users as well, so taking this lock first keeps the order the same
+    @Query(value = "SELECT unread FROM user_chats WHERE chat_id = :chatId AND user_id = :userId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Integer> lockChatUnread(@Param("chatId") UUID chatId, @Param("userId") UUID userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserChat uc SET uc.unread = CASE WHEN uc.unread > :count THEN uc.unread - :count ELSE 0 END " +
+            "WHERE uc.chat.chatId = :chatId AND uc.user.userId = :userId")
+    int subtractChatUnread(@Param("chatId") UUID chatId, @Param("userId") UUID userId, @Param("count") int count);
+
+    // every instance schedules the reconciliation; only the one holding this lock works a batch
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('reconcile_total_unread'))", nativeQuery = true)
+    boolean tryLockReconcile();
+
+    // users that a send or read is updating right now are skipped and left to the next run
+    @Query(value = "SELECT user_id FROM users WHERE user_id > :after ORDER BY user_id LIMIT :size " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockUsersAfter(@Param("after") UUID after, @Param("size") int size);
+
+    // a statement of its own, so the sums see everything committed before the rows were locked
+    @Modifying
+    @Query("UPDATE User u SET u.totalUnread = " +
+            "(SELECT COALESCE(SUM(uc.unread), 0) FROM UserChat uc WHERE uc.user.userId = u.userId) " +
+            "WHERE u.userId IN :userIds " +
+            "AND u.totalUnread <> (SELECT COALESCE(SUM(uc.unread), 0) FROM UserChat uc WHERE uc.user.userId = u.userId)")
+    int reconcileTotalUnread(@Param("userIds") List<UUID> userIds);
+}
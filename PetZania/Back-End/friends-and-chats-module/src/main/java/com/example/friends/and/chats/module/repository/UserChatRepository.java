@@ -21,9 +21,6 @@ public interface UserChatRepository extends JpaRepository<UserChat, UUID> {
 
     boolean existsByChat_ChatIdAndUser_UserId(UUID chatId, UUID userId);
 
-    @Query("SELECT COALESCE(SUM(uc.unread), 0) FROM UserChat uc WHERE uc.user.userId = :userId")
-    long getTotalUnreadCount(@Param("userId") UUID userId);
-
     @Modifying(clearAutomatically = true)
     @Query("UPDATE UserChat uc SET uc.unread = uc.unread + 1 WHERE uc.chat.chatId = :chatId AND uc.user.userId = :userId")
     int incrementUnreadCount(@Param("chatId") UUID chatId, @Param("userId") UUID userId);
@@ -1,7 +1,10 @@
 package com.example.friends.and.chats.module.service;
 
 import com.example.friends.and.chats.module.model.dto.message.MessageDTO;
+import com.example.friends.and.chats.module.model.dto.message.MessageHistoryDTO;
 import com.example.friends.and.chats.module.model.dto.message.MessageReactionDTO;
+import com.example.friends.and.chats.module.model.dto.message.MessageReceiptDTO;
+import com.example.friends.and.chats.module.model.dto.message.MessageSearchDTO;
 import com.example.friends.and.chats.module.model.dto.message.SendMessageDTO;
 import com.example.friends.and.chats.module.model.entity.MessageReaction;
 import com.example.friends.and.chats.module.model.enumeration.MessageReact;
@@ -16,6 +19,10 @@ public interface IMessageService {
 
     Page<MessageDTO> getMessagesByChat(UUID chatId, UUID userId, int page, int size);
 
+    MessageHistoryDTO getMessageHistory(UUID chatId, UUID userId, UUID before, UUID after, int limit);
+
+    MessageSearchDTO searchMessages(UUID userId, String query, UUID chatId, int page, int limit);
+
     MessageDTO getMessageById(UUID messageId, UUID userId);
 
     void deleteMessage(UUID messageId, UUID userId);
@@ -24,6 +31,10 @@ public interface IMessageService {
 
     MessageDTO updateMessageStatus(UUID messageId, UUID userId, MessageStatus messageStatus);
 
+    MessageReceiptDTO markDelivered(UUID chatId, UUID userId, UUID upToMessageId);
+
+    MessageReceiptDTO markRead(UUID chatId, UUID userId, UUID upToMessageId);
+
     MessageReactionDTO reactToMessage(UUID messageId, UUID userId, MessageReact reactionType);
 
     UUID getChatIdFromMessageId(UUID messageId);
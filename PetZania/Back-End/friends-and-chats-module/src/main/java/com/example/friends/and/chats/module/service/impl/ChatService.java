@@ -18,6 +18,7 @@ import com.example.friends.and.chats.module.repository.UserChatRepository;
 import com.example.friends.and.chats.module.repository.UserRepository;
 import com.example.friends.and.chats.module.service.IChatService;
 import com.example.friends.and.chats.module.service.IDTOConversionService;
+import com.example.friends.and.chats.module.util.AfterCommit;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,9 @@ public class ChatService implements IChatService {
     private final UserRepository userRepository;
     private final IDTOConversionService dtoConversionService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final ChatSignalService chatSignalService;
+    private final AfterCommit afterCommit;
 
     @Override
     public ChatDTO createChatIfNotExists(UUID user1Id, UUID user2Id) {
@@ -120,8 +124,9 @@ public class ChatService implements IChatService {
         UUID chatId = chat.getChat().getChatId();
 
         userChatRepository.deleteById(userChatId);
+        afterCommit.run(() -> chatSignalService.forget(chatId));
         if (unreadCount > 0) {
-            long totalUnread = userChatRepository.getTotalUnreadCount(userId);
+            long totalUnread = unreadCounterService.removeChat(userId, unreadCount);
 
             UnreadCountUpdateDTO unreadCountUpdateDTO = new UnreadCountUpdateDTO();
             unreadCountUpdateDTO.setTotalUnreadCount(totalUnread);
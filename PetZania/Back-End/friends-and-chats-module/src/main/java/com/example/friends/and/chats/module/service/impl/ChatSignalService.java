@@ -0,0 +1,132 @@
+package com.example.friends.and.chats.module.service.impl;
+
+import com.example.friends.and.chats.module.model.dto.signal.ChatSignalDTO;
+import com.example.friends.and.chats.module.repository.ChatMembershipRepository;
+import com.example.friends.and.chats.module.util.LocalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.friends.and.chats.module.constant.Constants.*;
+
+/**
+ * Relays transient chat signals such as typing to the other member of the chat on
+ * {@code /topic/{userId}/signals}. Only members who still have the chat in their list (a UserChat) may
+ * signal. Nothing is stored: membership comes from a short-lived in-process cache, dropped on this
+ * instance as soon as a member removes the chat, and each WebSocket session can send one signal of a type per chat every
+ * {@code CHAT_SIGNAL_MIN_INTERVAL_MILLIS}. Anything else is dropped without a reply.
+ */
+@Service
+@Slf4j
+public class ChatSignalService {
+    private static final ChatMembers NO_CHAT = new ChatMembers(null, null, false, false, true);
+
+    private final ChatMembershipRepository chatMembershipRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    // chats that do not exist are cached too, so made-up chat ids cannot reach the database repeatedly
+    private final LocalCache<UUID, ChatMembers> members = new LocalCache<>(CHAT_MEMBERSHIP_CACHE_MAX_SIZE, CHAT_MEMBERSHIP_CACHE_TTL_MILLIS);
+    // when each session last had a signal relayed, keyed by chat and signal type
+    private final Map<String, Map<String, Long>> lastRelayed = new ConcurrentHashMap<>();
+    private final Counter relayed;
+    private final Counter throttled;
+    private final Counter rejected;
+
+    public ChatSignalService(ChatMembershipRepository chatMembershipRepository,
+                             SimpMessagingTemplate messagingTemplate,
+                             MeterRegistry meterRegistry) {
+        this.chatMembershipRepository = chatMembershipRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.relayed = Counter.builder(CHAT_SIGNAL_METRIC).tag("outcome", "relayed").register(meterRegistry);
+        this.throttled = Counter.builder(CHAT_SIGNAL_METRIC).tag("outcome", "throttled").register(meterRegistry);
+        this.rejected = Counter.builder(CHAT_SIGNAL_METRIC).tag("outcome", "rejected").register(meterRegistry);
+        FunctionCounter.builder(CHAT_MEMBERSHIP_CACHE_METRIC + ".hits", members, LocalCache::hitCount).register(meterRegistry);
+        FunctionCounter.builder(CHAT_MEMBERSHIP_CACHE_METRIC + ".misses", members, LocalCache::missCount).register(meterRegistry);
+        Gauge.builder(CHAT_MEMBERSHIP_CACHE_METRIC + ".hit.ratio", members, LocalCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Sends the signal to the sender's peer in the chat and returns whether it was relayed.
+     */
+    public boolean relay(String sessionId, UUID userId, ChatSignalDTO signal) {
+        if (signal.getChatId() == null || signal.getType() == null) {
+            rejected.increment();
+            return false;
+        }
+        if (!acquire(sessionId, signal.getChatId() + ":" + signal.getType())) {
+            throttled.increment();
+            return false;
+        }
+        Optional<UUID> peerId = peerOf(signal.getChatId(), userId);
+        if (peerId.isEmpty()) {
+            log.debug("Dropped {} signal from user {} for chat {}", signal.getType(), userId, signal.getChatId());
+            rejected.increment();
+            return false;
+        }
+        messagingTemplate.convertAndSend(
+                "/topic/" + peerId.get() + "/signals",
+                new ChatSignalDTO(signal.getChatId(), userId, signal.getType())
+        );
+        relayed.increment();
+        return true;
+    }
+
+    /**
+     * Drops the cached members of a chat, so a member who just removed it stops signalling at once.
+     */
+    public void forget(UUID chatId) {
+        members.invalidate(chatId);
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        lastRelayed.remove(event.getSessionId());
+    }
+
+    private boolean acquire(String sessionId, String key) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> session = lastRelayed.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        Long previous = session.get(key);
+        if (previous != null && now - previous < CHAT_SIGNAL_MIN_INTERVAL_MILLIS) {
+            return false;
+        }
+        if (previous == null && session.size() >= CHAT_SIGNAL_SESSION_MAX_KEYS) {
+            session.values().removeIf(at -> now - at >= CHAT_SIGNAL_MIN_INTERVAL_MILLIS);
+            if (session.size() >= CHAT_SIGNAL_SESSION_MAX_KEYS) {
+                return false;
+            }
+        }
+        // when the same session races itself only one of the signals gets through
+        return previous == null ? session.putIfAbsent(key, now) == null : session.replace(key, previous, now);
+    }
+
+    private Optional<UUID> peerOf(UUID chatId, UUID userId) {
+        ChatMembers chat = members.get(chatId, id -> chatMembershipRepository.findChatMembers(id)
+                .map(found -> new ChatMembers(found.getUser1Id(), found.getUser2Id(),
+                        found.getUser1Chats() > 0, found.getUser2Chats() > 0, found.getBlocks() > 0))
+                .orElse(NO_CHAT));
+        if (chat.blocked()) {
+            return Optional.empty();
+        }
+        if (userId.equals(chat.user1Id()) && chat.user1Member()) {
+            return Optional.of(chat.user2Id());
+        }
+        if (userId.equals(chat.user2Id()) && chat.user2Member()) {
+            return Optional.of(chat.user1Id());
+        }
+        return Optional.empty();
+    }
+
+    private record ChatMembers(UUID user1Id, UUID user2Id, boolean user1Member, boolean user2Member, boolean blocked) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.friends.and.chats.module.service.impl;
+
+import com.example.friends.and.chats.module.exception.chat.UserChatNotFound;
+import com.example.friends.and.chats.module.model.dto.chat.InboxChatDTO;
+import com.example.friends.and.chats.module.model.dto.chat.InboxDTO;
+import com.example.friends.and.chats.module.repository.InboxRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pages through a user's chats together with each chat's last-message preview. A page is one keyset
+ * query, plus one lookup of the cursor row when {@code after} is given.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InboxService {
+    private final InboxRepository inboxRepository;
+
+    public InboxDTO getInbox(UUID userId, UUID after, int limit) {
+        // one extra row tells whether there is another page without counting the user's chats
+        List<InboxRepository.InboxRow> rows;
+        if (after != null) {
+            InboxRepository.InboxCursor cursor = inboxRepository.findCursor(userId, after)
+                    .orElseThrow(() -> new UserChatNotFound("User chat does not exist"));
+            rows = inboxRepository.findPageAfter(userId, cursor.getPinned(), cursor.getLastMessageAt(), after, limit + 1);
+        } else {
+            rows = inboxRepository.findFirstPage(userId, limit + 1);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<InboxChatDTO> chats = rows.stream()
+                .limit(limit)
+                .map(InboxService::toInboxChat)
+                .toList();
+        return new InboxDTO(chats, hasMore);
+    }
+
+    private static InboxChatDTO toInboxChat(InboxRepository.InboxRow row) {
+        return InboxChatDTO.builder()
+                .userChatId(row.getUserChatId())
+                .chatId(row.getChatId())
+                .peerId(row.getPeerId())
+                .peerUsername(row.getPeerUsername())
+                .pinned(Boolean.TRUE.equals(row.getPinned()))
+                .muted(Boolean.TRUE.equals(row.getMuted()))
+                .unread(row.getUnread() == null ? 0 : row.getUnread())
+                .lastMessageAt(row.getLastMessageAt())
+                .lastMessageId(row.getLastMessageId())
+                .lastMessageSenderId(row.getLastMessageSenderId())
+                .lastMessageSnippet(row.getLastMessageSnippet())
+                .build();
+    }
+}
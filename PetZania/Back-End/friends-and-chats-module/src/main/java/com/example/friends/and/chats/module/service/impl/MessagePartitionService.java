@@ -0,0 +1,70 @@
+package com.example.friends.and.chats.module.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_PARTITION_FAILURE_METRIC;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_PARTITION_MAINTENANCE_MILLIS;
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_PARTITION_MONTHS_AHEAD;
+
+/**
+ * Keeps the monthly partitions of {@code messages} ahead of the clock and archives the ones older than
+ * {@code messages.partitions.archive-after-months}. Archived partitions stay attached, so history and
+ * search read them as before, but they move to {@code messages.partitions.archive-tablespace} when one
+ * is set and are frozen so vacuum can skip them from then on.
+ * <p>
+ * The work itself is done by {@code maintain_message_partitions} (see db/specific/postgresql/V14). This goes through JDBC
+ * rather than a repository because VACUUM cannot run inside a transaction.
+ */
+@Service
+@Slf4j
+public class MessagePartitionService {
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int archiveAfterMonths;
+    private final String archiveTablespace;
+    private final Counter failures;
+
+    public MessagePartitionService(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${messages.partitions.maintenance-enabled:true}") boolean enabled,
+                                   @Value("${messages.partitions.archive-after-months:12}") int archiveAfterMonths,
+                                   @Value("${messages.partitions.archive-tablespace:}") String archiveTablespace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveTablespace = archiveTablespace.isBlank() ? null : archiveTablespace;
+        this.failures = Counter.builder(MESSAGE_PARTITION_FAILURE_METRIC).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelay = MESSAGE_PARTITION_MAINTENANCE_MILLIS, initialDelay = 60_000)
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate archiveBefore = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths);
+            List<String> archived = jdbcTemplate.queryForList(
+                    "SELECT maintain_message_partitions(?, ?, ?)", String.class,
+                    MESSAGE_PARTITION_MONTHS_AHEAD, archiveBefore, archiveTablespace);
+            for (String partition : archived) {
+                jdbcTemplate.execute("VACUUM (FREEZE, ANALYZE) \"" + partition + "\"");
+                log.info("Archived message partition {}", partition);
+            }
+        } catch (DataAccessException e) {
+            // the run rolls back as a whole; until a run succeeds, messages past the last partition pile up in
+            // messages_default, so this counter is what to alert on
+            failures.increment();
+            log.error("Message partition maintenance failed", e);
+        }
+    }
+}
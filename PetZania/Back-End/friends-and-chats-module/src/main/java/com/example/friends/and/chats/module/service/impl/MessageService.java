@@ -17,16 +17,20 @@ import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
 import com.example.friends.and.chats.module.repository.*;
 import com.example.friends.and.chats.module.service.IDTOConversionService;
 import com.example.friends.and.chats.module.service.IMessageService;
+import com.example.friends.and.chats.module.util.AfterCommit;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.example.friends.and.chats.module.constant.Constants.CHAT_PREVIEW_SNIPPET_LENGTH;
+
 @Service
 @AllArgsConstructor
 @Transactional
@@ -40,6 +44,12 @@ public class MessageService implements IMessageService {
     private final MessageReactionRepository messageReactionRepository;
     private final IDTOConversionService dtoConversionService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MessageSendRepository messageSendRepository;
+    private final AfterCommit afterCommit;
+    private final UnreadCounterService unreadCounterService;
+    private final MessageHistoryRepository messageHistoryRepository;
+    private final MessageReceiptRepository messageReceiptRepository;
+    private final MessageSearchRepository messageSearchRepository;
 
     private void notifyUserWithUnreadCount(UUID userId, UnreadCountUpdateDTO unreadCountUpdateDTO) {
         log.info("Notifying user: {} with unread count update dto: {}", userId, unreadCountUpdateDTO);
@@ -51,66 +61,55 @@ public class MessageService implements IMessageService {
 
     @Override
     public MessageDTO sendMessage(SendMessageDTO sendMessageDTO, UUID senderId) {
-        Chat chat = chatRepository.findById(sendMessageDTO.getChatId())
+        UUID chatId = sendMessageDTO.getChatId();
+        UUID replyToId = sendMessageDTO.getReplyToMessageId();
+        MessageSendRepository.SendContext context = messageSendRepository.findSendContext(chatId, senderId, replyToId)
                 .orElseThrow(() -> new ChatNotFound("Chat not found"));
 
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new UserNotFound("Sender not found"));
-
-        User receiver;
-        if (chat.getUser1().getUserId().equals(senderId)) {
-            receiver = chat.getUser2();
-        } else {
-            receiver = chat.getUser1();
+        if (context.getSenderUserChatId() == null) {
+            throw new UserAccessDenied("You can only send messages in your own chats");
         }
-
-        if (blockRepository.existsByBlockerAndBlocked(sender, receiver) || blockRepository.existsByBlockerAndBlocked(receiver, sender)) {
+        if (context.getBlocks() > 0) {
             throw new ForbiddenOperation("Cannot Perform this Operation due to existing block relationship");
         }
-
-        Message replyTo = null;
-        if (sendMessageDTO.getReplyToMessageId() != null) {
-            replyTo = messageRepository.findById(sendMessageDTO.getReplyToMessageId())
-                    .orElseThrow(() -> new MessageNotFound("Replied-to message not found"));
+        if (replyToId != null && context.getReplyTargets() == 0) {
+            throw new MessageNotFound("Replied-to message not found");
         }
-
-        Optional<UserChat> userChat = userChatRepository.findByChat_ChatIdAndUser_UserId(chat.getChatId(), senderId);
-        if (userChat.isEmpty()) {
-            throw new UserAccessDenied("You can only send messages in your own chats");
+        if (context.getReceiverUserChatId() == null) {
+            throw new UserChatNotFound("User chat not found");
         }
 
-        chat.setLastMessageTimestamp(LocalDateTime.now());
-        chat = chatRepository.save(chat);
-
+        // everything is validated, so references stand in for the chat, sender and replied-to message
         Message message = Message.builder()
-                .chat(chat)
-                .sender(sender)
+                .chat(chatRepository.getReferenceById(chatId))
+                .sender(userRepository.getReferenceById(senderId))
                 .content(sendMessageDTO.getContent())
-                .replyTo(replyTo)
+                .replyTo(replyToId == null ? null : messageRepository.getReferenceById(replyToId))
                 .isFile(sendMessageDTO.isFile())
                 .status(MessageStatus.SENT)
                 .isEdited(false)
                 .build();
 
-        log.info("Saving the message: {}", message);
-        Message saved = messageRepository.saveAndFlush(message);
+        Message saved = messageRepository.save(message);
+        // the chat keeps a snapshot of its newest message so the inbox never looks messages up
+        messageSendRepository.touchChat(chatId, saved.getMessageId(), senderId, snippet(saved.getContent()), saved.getSentAt());
+        messageSendRepository.touchUserChats(chatId, context.getReceiverUserChatId(), saved.getSentAt());
+        UUID receiverId = context.getReceiverId();
+        messageSendRepository.incrementTotalUnread(receiverId);
         MessageDTO savedDTO = dtoConversionService.mapToMessageDTO(saved);
 
-        userChatRepository.incrementUnreadCount(chat.getChatId(), receiver.getUserId());
-        long totalUnread = userChatRepository.getTotalUnreadCount(receiver.getUserId());
-        log.info("Updated unread count: {} for user: {} and with id: {}", totalUnread, receiver.getUsername(), receiver.getUserId());
-
-        messagingTemplate.convertAndSend(
-                "/topic/" + receiver.getUserId().toString() + "/messages",
-                new MessageEventDTO(savedDTO, EventType.SEND)
-        );
-
-        UserChat receiverUserChat = userChatRepository.findByChat_ChatIdAndUser_UserId(chat.getChatId(), receiver.getUserId()).orElseThrow(() -> new UserChatNotFound("User chat not found"));
         UnreadCountUpdateDTO unreadCountUpdateDTO = new UnreadCountUpdateDTO();
-        unreadCountUpdateDTO.setTotalUnreadCount(totalUnread);
-        unreadCountUpdateDTO.setUserChatUnreadCount(receiverUserChat.getUnread());
-        unreadCountUpdateDTO.setUserChatId(receiverUserChat.getUserChatId());
-        notifyUserWithUnreadCount(receiver.getUserId(), unreadCountUpdateDTO);
+        unreadCountUpdateDTO.setTotalUnreadCount(context.getReceiverTotalUnread() + 1);
+        unreadCountUpdateDTO.setUserChatUnreadCount(context.getReceiverUnread() + 1);
+        unreadCountUpdateDTO.setUserChatId(context.getReceiverUserChatId());
+
+        afterCommit.run(() -> {
+            messagingTemplate.convertAndSend(
+                    "/topic/" + receiverId.toString() + "/messages",
+                    new MessageEventDTO(savedDTO, EventType.SEND)
+            );
+            notifyUserWithUnreadCount(receiverId, unreadCountUpdateDTO);
+        });
         return savedDTO;
     }
 
@@ -127,6 +126,95 @@ public class MessageService implements IMessageService {
         return messagePage.map(dtoConversionService::mapToMessageDTO);
     }
 
+    @Override
+    public MessageHistoryDTO getMessageHistory(UUID chatId, UUID userId, UUID before, UUID after, int limit) {
+        if (!userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)) {
+            throw new UserAccessDenied("You can only get messages in your own chats");
+        }
+
+        // one extra row tells whether there is another page without counting the chat
+        Pageable pageable = Pageable.ofSize(limit + 1);
+        List<MessageHistoryRepository.MessageRow> rows;
+        if (before != null) {
+            LocalDateTime sentAt = messageHistoryRepository.findSentAt(chatId, before)
+                    .orElseThrow(() -> new MessageNotFound("Message not found"));
+            rows = messageHistoryRepository.findBefore(chatId, sentAt, before, pageable);
+        } else if (after != null) {
+            LocalDateTime sentAt = messageHistoryRepository.findSentAt(chatId, after)
+                    .orElseThrow(() -> new MessageNotFound("Message not found"));
+            rows = messageHistoryRepository.findAfter(chatId, sentAt, after, pageable);
+        } else {
+            rows = messageHistoryRepository.findLatest(chatId, pageable);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<MessageViewDTO> page = rows.stream()
+                .limit(limit)
+                .map(MessageService::toMessageView)
+                .toList();
+        return new MessageHistoryDTO(page, hasMore);
+    }
+
+    @Override
+    public MessageSearchDTO searchMessages(UUID userId, String query, UUID chatId, int page, int limit) {
+        if (chatId != null && !userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)) {
+            throw new UserAccessDenied("You can only search messages in your own chats");
+        }
+
+        // one extra row tells whether there is another page without counting the matches
+        int offset = page * limit;
+        List<MessageSearchRepository.SearchHit> rows = chatId == null
+                ? messageSearchRepository.search(userId, query, limit + 1, offset)
+                : messageSearchRepository.searchInChat(userId, chatId, query, limit + 1, offset);
+
+        boolean hasMore = rows.size() > limit;
+        List<MessageSearchHitDTO> hits = rows.stream()
+                .limit(limit)
+                .map(row -> new MessageSearchHitDTO(row.getMessageId(), row.getChatId(), row.getSenderId(),
+                        row.getSentAt(), toHighlightHtml(row.getHighlight())))
+                .toList();
+        return new MessageSearchDTO(hits, hasMore);
+    }
+
+    // the message text is user input: escape it, then turn the match markers into the only tags in the result
+    private static String toHighlightHtml(String highlight) {
+        if (highlight == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(highlight)
+                .replace(String.valueOf(MessageSearchRepository.HIGHLIGHT_START), "<b>")
+                .replace(String.valueOf(MessageSearchRepository.HIGHLIGHT_STOP), "</b>");
+    }
+
+    // cut in Java rather than by the column so a surrogate pair is never split
+    private static String snippet(String content) {
+        if (content == null || content.length() <= CHAT_PREVIEW_SNIPPET_LENGTH) {
+            return content;
+        }
+        int end = CHAT_PREVIEW_SNIPPET_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+
+    private static MessageViewDTO toMessageView(MessageHistoryRepository.MessageRow row) {
+        ReplyPreviewDTO replyTo = row.getReplyToId() == null ? null : new ReplyPreviewDTO(
+                row.getReplyToId(), row.getReplySenderId(), row.getReplySnippet(), Boolean.TRUE.equals(row.getReplyFile()));
+        return MessageViewDTO.builder()
+                .messageId(row.getMessageId())
+                .chatId(row.getChatId())
+                .senderId(row.getSenderId())
+                .content(row.getContent())
+                .sentAt(row.getSentAt())
+                .status(row.getStatus())
+                .isFile(Boolean.TRUE.equals(row.getFile()))
+                .isEdited(Boolean.TRUE.equals(row.getEdited()))
+                .replyToMessageId(row.getReplyToId())
+                .replyTo(replyTo)
+                .build();
+    }
+
     @Override
     public MessageDTO getMessageById(UUID messageId, UUID userId) {
         Message message = messageRepository.findById(messageId)
@@ -170,16 +258,12 @@ public class MessageService implements IMessageService {
         );
 
         if (wasUnread) {
-            userChatRepository.decrementUnreadCount(message.getChat().getChatId(), receiver.getUserId());
-            long totalUnread = userChatRepository.getTotalUnreadCount(receiver.getUserId());
-
-            UserChat receiverUserChat = userChatRepository.findByChat_ChatIdAndUser_UserId(message.getChat().getChatId(), receiver.getUserId()).orElseThrow(() -> new UserChatNotFound("User chat not found"));
-            UnreadCountUpdateDTO unreadCountUpdateDTO = new UnreadCountUpdateDTO();
-            unreadCountUpdateDTO.setTotalUnreadCount(totalUnread);
-            unreadCountUpdateDTO.setUserChatUnreadCount(receiverUserChat.getUnread());
-            unreadCountUpdateDTO.setUserChatId(receiverUserChat.getUserChatId());
+            UnreadCountUpdateDTO unreadCountUpdateDTO = unreadCounterService.markOneRead(message.getChat().getChatId(), receiver.getUserId());
             notifyUserWithUnreadCount(receiver.getUserId(), unreadCountUpdateDTO);
         }
+        if (messageSendRepository.replaceLastMessage(message.getChat().getChatId(), messageId) > 0) {
+            messageSendRepository.syncLastMessageAt(message.getChat().getChatId());
+        }
         messageRepository.deleteById(messageId);
     }
 
@@ -204,6 +288,7 @@ public class MessageService implements IMessageService {
         message.setContent(content);
         message.setEdited(true);
         message = messageRepository.save(message);
+        messageSendRepository.updateLastMessageSnippet(message.getChat().getChatId(), messageId, snippet(content));
 
         User receiver;
         if (message.getChat().getUser1().getUserId().equals(userId)) {
@@ -265,19 +350,47 @@ public class MessageService implements IMessageService {
         );
 
         if (newStatus == MessageStatus.READ) {
-            userChatRepository.decrementUnreadCount(message.getChat().getChatId(), userId);
-            long totalUnread = userChatRepository.getTotalUnreadCount(userId);
-
-            UserChat readerUserChat = userChatRepository.findByChat_ChatIdAndUser_UserId(message.getChat().getChatId(), userId).orElseThrow(() -> new UserChatNotFound("User chat not found"));
-            UnreadCountUpdateDTO unreadCountUpdateDTO = new UnreadCountUpdateDTO();
-            unreadCountUpdateDTO.setTotalUnreadCount(totalUnread);
-            unreadCountUpdateDTO.setUserChatUnreadCount(readerUserChat.getUnread());
-            unreadCountUpdateDTO.setUserChatId(readerUserChat.getUserChatId());
+            UnreadCountUpdateDTO unreadCountUpdateDTO = unreadCounterService.markOneRead(message.getChat().getChatId(), userId);
             notifyUserWithUnreadCount(userId, unreadCountUpdateDTO);
         }
         return updatedMessageDTO;
     }
 
+    @Override
+    public MessageReceiptDTO markDelivered(UUID chatId, UUID userId, UUID upToMessageId) {
+        return markUpTo(chatId, userId, upToMessageId, EnumSet.of(MessageStatus.SENT), MessageStatus.DELIVERED);
+    }
+
+    @Override
+    public MessageReceiptDTO markRead(UUID chatId, UUID userId, UUID upToMessageId) {
+        MessageReceiptDTO receipt = markUpTo(chatId, userId, upToMessageId,
+                EnumSet.of(MessageStatus.SENT, MessageStatus.DELIVERED), MessageStatus.READ);
+        if (receipt.getUpdatedCount() > 0) {
+            UnreadCountUpdateDTO unreadCountUpdateDTO = unreadCounterService.markChatRead(chatId, userId, receipt.getUpdatedCount());
+            afterCommit.run(() -> notifyUserWithUnreadCount(userId, unreadCountUpdateDTO));
+        }
+        return receipt;
+    }
+
+    // one statement moves every earlier message from the peer, and the peer gets a single event for all of them
+    private MessageReceiptDTO markUpTo(UUID chatId, UUID userId, UUID upToMessageId,
+                                       Set<MessageStatus> from, MessageStatus status) {
+        UUID peerId = messageReceiptRepository.findPeerId(chatId, userId)
+                .orElseThrow(() -> new UserAccessDenied("You can only update messages in your own chats"));
+        LocalDateTime sentAt = messageHistoryRepository.findSentAt(chatId, upToMessageId)
+                .orElseThrow(() -> new MessageNotFound("Message not found"));
+
+        int updated = messageReceiptRepository.advanceStatus(chatId, userId, sentAt, upToMessageId, from, status);
+        MessageReceiptDTO receipt = new MessageReceiptDTO(chatId, userId, upToMessageId, status, updated);
+        if (updated > 0) {
+            afterCommit.run(() -> messagingTemplate.convertAndSend(
+                    "/topic/" + peerId.toString() + "/receipts",
+                    receipt
+            ));
+        }
+        return receipt;
+    }
+
     @Override
     public MessageReactionDTO reactToMessage(UUID messageId, UUID userId, MessageReact reactionType) {
         Message message = messageRepository.findById(messageId)
@@ -374,7 +487,7 @@ public class MessageService implements IMessageService {
 
     @Override
     public long getTotalUnreadCount(UUID userId) {
-        long result = userChatRepository.getTotalUnreadCount(userId);
+        long result = unreadCounterService.getTotalUnread(userId);
         log.info("Total unread count for user: {} equals: {}", userId, result);
         return result;
     }
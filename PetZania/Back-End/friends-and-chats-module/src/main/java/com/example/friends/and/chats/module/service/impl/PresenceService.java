@@ -0,0 +1,219 @@
+package com.example.friends.and.chats.module.service.impl;
+
+import com.example.friends.and.chats.module.model.dto.presence.PresenceDTO;
+import com.example.friends.and.chats.module.model.principal.UserPrincipal;
+import com.example.friends.and.chats.module.repository.FriendshipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.friends.and.chats.module.constant.Constants.*;
+
+/**
+ * Tracks who is online from their WebSocket sessions. Each user has a Redis sorted set of
+ * {@code instance:session} members scored by when they expire, and is online while the set exists.
+ * Instances refresh only their own members, and every write also pushes out the set's TTL, so a
+ * user whose instances all die goes offline when the TTL runs out. Friends are told on
+ * {@code /topic/{friendId}/presence} when the set goes from empty to non-empty and back, which
+ * the scripts below decide atomically on Redis time.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PresenceService {
+    // KEYS[1] presence set; ARGV member, ttl millis. Returns 1 when the set was empty
+    private static final RedisScript<Long> CONNECT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            local empty = redis.call('ZCARD', KEYS[1]) == 0
+            redis.call('ZADD', KEYS[1], now + ARGV[2], ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            if empty then return 1 end
+            return 0
+            """, Long.class);
+
+    // KEYS[1] presence set; ARGV member. Returns 1 when it removed the last live member
+    private static final RedisScript<Long> DISCONNECT = RedisScript.of("""
+            if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then return 0 end
+            local time = redis.call('TIME')
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', time[1] * 1000 + math.floor(time[2] / 1000))
+            if redis.call('ZCARD', KEYS[1]) > 0 then return 0 end
+            redis.call('DEL', KEYS[1])
+            return 1
+            """, Long.class);
+
+    // KEYS presence sets; ARGV ttl millis, then per key a member count and the members. Only
+    // members still in the set are refreshed, so a heartbeat never brings back a closed session
+    private static final RedisScript<Long> HEARTBEAT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local ttl = tonumber(ARGV[1])
+            local expiry = time[1] * 1000 + math.floor(time[2] / 1000) + ttl
+            local at = 2
+            for _, key in ipairs(KEYS) do
+                local count = tonumber(ARGV[at])
+                for i = at + 1, at + count do
+                    redis.call('ZADD', key, 'XX', expiry, ARGV[i])
+                end
+                at = at + count + 1
+                redis.call('PEXPIRE', key, ttl)
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FriendshipRepository friendshipRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // sessions connected to this instance, per user
+    private final Map<UUID, Set<String>> sessions = new ConcurrentHashMap<>();
+    // sessions whose connect could not be recorded; the heartbeat tries again
+    private final Map<String, UUID> unrecorded = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        userId(event.getUser()).ifPresent(userId -> connected(userId, sessionId));
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        userId(event.getUser()).ifPresent(userId -> disconnected(userId, event.getSessionId()));
+    }
+
+    public void connected(UUID userId, String sessionId) {
+        // sets are only changed inside compute so a concurrent disconnect cannot drop a new session
+        sessions.compute(userId, (id, ids) -> {
+            Set<String> updated = ids == null ? new HashSet<>() : ids;
+            updated.add(sessionId);
+            return updated;
+        });
+        record(userId, sessionId);
+    }
+
+    public void disconnected(UUID userId, String sessionId) {
+        sessions.computeIfPresent(userId, (id, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+        unrecorded.remove(sessionId);
+        try {
+            Long wentOffline = redisTemplate.execute(DISCONNECT, List.of(key(userId)), member(sessionId));
+            if (Long.valueOf(1).equals(wentOffline)) {
+                notifyFriends(userId, false);
+            }
+        } catch (RuntimeException ex) {
+            // the member stops being refreshed and expires with the TTL
+            log.error("Failed to clear presence for user {}", userId, ex);
+        }
+    }
+
+    @Scheduled(fixedDelay = PRESENCE_HEARTBEAT_MILLIS)
+    public void heartbeat() {
+        unrecorded.forEach((sessionId, userId) -> {
+            if (sessions.getOrDefault(userId, Set.of()).contains(sessionId)) {
+                record(userId, sessionId);
+            } else {
+                unrecorded.remove(sessionId);
+            }
+        });
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(PRESENCE_TTL_SECONDS * 1000));
+        for (UUID userId : List.copyOf(sessions.keySet())) {
+            List<String> members = members(userId);
+            if (!members.isEmpty()) {
+                keys.add(key(userId));
+                args.add(String.valueOf(members.size()));
+                args.addAll(members);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(HEARTBEAT, keys, args.toArray());
+        } catch (RuntimeException ex) {
+            log.error("Failed to refresh presence for {} users", keys.size(), ex);
+        }
+    }
+
+    public List<PresenceDTO> getPresence(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UUID userId : userIds) {
+                connection.keyCommands().exists(key(userId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        List<PresenceDTO> presence = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            presence.add(new PresenceDTO(userIds.get(i), Boolean.TRUE.equals(exists.get(i))));
+        }
+        return presence;
+    }
+
+    private void record(UUID userId, String sessionId) {
+        try {
+            Long cameOnline = redisTemplate.execute(CONNECT, List.of(key(userId)),
+                    member(sessionId), String.valueOf(PRESENCE_TTL_SECONDS * 1000));
+            unrecorded.remove(sessionId);
+            if (Long.valueOf(1).equals(cameOnline)) {
+                notifyFriends(userId, true);
+            }
+        } catch (RuntimeException ex) {
+            unrecorded.put(sessionId, userId);
+            log.error("Failed to record presence for user {}", userId, ex);
+        }
+    }
+
+    private List<String> members(UUID userId) {
+        List<String> members = new ArrayList<>();
+        sessions.computeIfPresent(userId, (id, ids) -> {
+            ids.stream().filter(sessionId -> !unrecorded.containsKey(sessionId)).map(this::member).forEach(members::add);
+            return ids;
+        });
+        return members;
+    }
+
+    private String member(String sessionId) {
+        return instanceId + ":" + sessionId;
+    }
+
+    private void notifyFriends(UUID userId, boolean online) {
+        PresenceDTO presence = new PresenceDTO(userId, online);
+        for (UUID friendId : friendshipRepository.findFriendIdsByUserId(userId)) {
+            messagingTemplate.convertAndSend("/topic/" + friendId + "/presence", presence);
+        }
+    }
+
+    private static Optional<UUID> userId(Principal user) {
+        if (user instanceof Authentication authentication && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal.getUserId());
+        }
+        return Optional.empty();
+    }
+
+    private static String key(UUID userId) {
+        return PRESENCE_KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.friends.and.chats.module.service.impl;
+
+import com.example.friends.and.chats.module.exception.chat.UserChatNotFound;
+import com.example.friends.and.chats.module.model.dto.message.UnreadCountUpdateDTO;
+import com.example.friends.and.chats.module.repository.UnreadCounterRepository;
+import com.example.friends.and.chats.module.repository.UserChatRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.friends.and.chats.module.constant.Constants.UNREAD_RECONCILE_BATCH_SIZE;
+import static com.example.friends.and.chats.module.constant.Constants.UNREAD_RECONCILE_MILLIS;
+
+/**
+ * Keeps {@code users.total_unread} next to the per-chat {@code user_chats.unread} counters, so a
+ * user's total is a single-row read instead of a SUM over all of their chats. Both counters are
+ * changed in the same transaction; totals that drift anyway (chats removed by cascade, user purges)
+ * are put right by a periodic reconciliation that runs on one instance at a time.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+public class UnreadCounterService {
+    private final UserChatRepository userChatRepository;
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public long getTotalUnread(UUID userId) {
+        return unreadCounterRepository.findTotalUnread(userId).orElse(0L);
+    }
+
+    /**
+     * Takes one message off the user's unread count in a chat and returns the counters to push.
+     */
+    public UnreadCountUpdateDTO markOneRead(UUID chatId, UUID userId) {
+        if (userChatRepository.decrementUnreadCount(chatId, userId) > 0) {
+            unreadCounterRepository.subtractTotalUnread(userId, 1);
+        }
+        return unreadCounts(chatId, userId);
+    }
+
+    /**
+     * Takes the messages a read receipt just moved to READ off the user's chat and total counters and
+     * returns the counters to push. Both are relative updates, so a concurrent send is never overwritten.
+     * The chat counter stops at 0, so the total only loses what the chat counter actually gave up; the
+     * chat row stays locked in between, so no send can slip into that amount.
+     */
+    public UnreadCountUpdateDTO markChatRead(UUID chatId, UUID userId, int read) {
+        int taken = Math.min(read, unreadCounterRepository.lockChatUnread(chatId, userId).orElse(0));
+        if (taken > 0) {
+            unreadCounterRepository.subtractChatUnread(chatId, userId, taken);
+            unreadCounterRepository.subtractTotalUnread(userId, taken);
+        }
+        return unreadCounts(chatId, userId);
+    }
+
+    /**
+     * Drops the unread messages of a removed chat from the user's total and returns the new total.
+     */
+    public long removeChat(UUID userId, int unread) {
+        unreadCounterRepository.subtractTotalUnread(userId, unread);
+        return getTotalUnread(userId);
+    }
+
+    /**
+     * Recomputes the totals in keyset batches of {@code UNREAD_RECONCILE_BATCH_SIZE} users, each
+     * in its own transaction. A batch locks its users before summing their chats, so a total is never
+     * written over an increment committed in between; users locked by a send or read are skipped. The
+     * run stops as soon as another instance holds the reconcile lock.
+     */
+    @Scheduled(fixedDelay = UNREAD_RECONCILE_MILLIS, initialDelay = UNREAD_RECONCILE_MILLIS)
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void reconcile() {
+        AtomicReference<UUID> after = new AtomicReference<>(new UUID(0, 0));
+        int corrected = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> reconcileBatch(after));
+            if (batch == null) {
+                break;
+            }
+            corrected += batch;
+        }
+        if (corrected > 0) {
+            log.warn("Reconciled total unread count for {} users", corrected);
+        }
+    }
+
+    // null once there is nothing left or another instance is reconciling
+    private Integer reconcileBatch(AtomicReference<UUID> after) {
+        if (!unreadCounterRepository.tryLockReconcile()) {
+            return null;
+        }
+        List<UUID> userIds = unreadCounterRepository.lockUsersAfter(after.get(), UNREAD_RECONCILE_BATCH_SIZE);
+        if (userIds.isEmpty()) {
+            return null;
+        }
+        after.set(userIds.get(userIds.size() - 1));
+        return unreadCounterRepository.reconcileTotalUnread(userIds);
+    }
+
+    private UnreadCountUpdateDTO unreadCounts(UUID chatId, UUID userId) {
+        return unreadCounterRepository.findUnreadCounts(chatId, userId)
+                .map(counts -> new UnreadCountUpdateDTO(counts.getUserChatId(), counts.getUnread(), counts.getTotalUnread()))
+                .orElseThrow(() -> new UserChatNotFound("User chat not found"));
+    }
+}
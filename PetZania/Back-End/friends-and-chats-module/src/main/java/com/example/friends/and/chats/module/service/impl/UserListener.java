@@ -2,6 +2,8 @@ package com.example.friends.and.chats.module.service.impl;
 
 import com.example.friends.and.chats.module.model.entity.User;
 import com.example.friends.and.chats.module.model.event.UserEvent;
+import com.example.friends.and.chats.module.model.event.UsersDeletedEvent;
+import com.example.friends.and.chats.module.repository.UserPurgeRepository;
 import com.example.friends.and.chats.module.repository.UserRepository;
 import com.example.friends.and.chats.module.util.QueueUtils;
 import jakarta.transaction.Transactional;
@@ -20,7 +22,9 @@ import static com.example.friends.and.chats.module.constant.Constants.*;
 @Slf4j
 public class UserListener {
     private final UserRepository userRepository;
+    private final UserPurgeRepository userPurgeRepository;
     private final QueueUtils queueUtils;
+    private final PrincipalCacheService principalCacheService;
 
     @RabbitListener(queues = USER_REGISTERED_QUEUE_FRIENDS_MODULE, ackMode = ACK_MODE)
     public void onUserRegistered(UserEvent user, Channel channel, Message message) {
@@ -59,6 +63,7 @@ public class UserListener {
                 userRepository.deleteById(user.getUserId());
                 log.info("received deleted user: {}", user);
             }
+            principalCacheService.evictUser(user.getEmail());
             channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
         } catch (Exception ex) {
             log.error("Error processing user deleted event: {}", user, ex);
@@ -77,4 +82,32 @@ public class UserListener {
             }
         }
     }
+
+    @RabbitListener(queues = USERS_DELETED_QUEUE_FRIENDS_MODULE, ackMode = ACK_MODE)
+    public void onUsersDeleted(UsersDeletedEvent users, Channel channel, Message message) {
+        try {
+            if (!users.getUserIds().isEmpty()) {
+                int deleted = userPurgeRepository.deleteUsers(users.getUserIds());
+                log.info("received {} deleted users, removed {}", users.getUserIds().size(), deleted);
+            }
+            // the event carries ids only, so cached principals cannot be evicted by email
+            principalCacheService.evictAllUsers();
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (Exception ex) {
+            log.error("Error processing users deleted event: {}", users, ex);
+            try {
+                int retryCount = queueUtils.getRetryCount(message, USERS_DELETED_QUEUE_FRIENDS_MODULE_RETRY);
+                if (retryCount >= MAX_RETRIES) {
+                    // simply drop the message
+                    channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+                    log.info("Max retries reached for the event: {}", users);
+                } else {
+                    channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, false);
+                    log.info("This is the retry number: {} for event: {}", retryCount, users);
+                }
+            } catch (Exception nackErr) {
+                log.error("Error nacking message for event: {}", users, nackErr);
+            }
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.friends.and.chats.module.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs side effects such as WebSocket pushes once the surrounding transaction has committed, so
+ * clients never see data that is later rolled back and no lock is held while the push is made.
+ * Without an active transaction the task runs immediately.
+ */
+@Component
+public class AfterCommit {
+    public void run(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+ALTER TABLE users
+    ADD COLUMN total_unread BIGINT NOT NULL DEFAULT 0;
+
+-- a correlated subquery instead of UPDATE ... FROM, which the H2 test database does not accept
+UPDATE users
+SET total_unread = (SELECT SUM(uc.unread) FROM user_chats uc WHERE uc.user_id = users.user_id)
+WHERE EXISTS (SELECT 1 FROM user_chats uc WHERE uc.user_id = users.user_id);
+
+ALTER TABLE users
+    ADD CONSTRAINT check_users_total_unread CHECK (total_unread >= 0);
@@ -0,0 +1,4 @@
+-- serves keyset paging over a chat's history; its chat_id prefix replaces the single-column index
+CREATE INDEX idx_message_chat_sent_at ON messages(chat_id, sent_at, message_id);
+
+DROP INDEX IF EXISTS idx_message_chat;
@@ -0,0 +1,34 @@
+-- the newest message of each chat, written by the send path so the inbox needs no per-chat lookup.
+-- Statements stay within what the H2 test database also accepts: one column per ALTER, no UPDATE ... FROM
+ALTER TABLE chats
+    ADD COLUMN last_message_id UUID;
+
+ALTER TABLE chats
+    ADD COLUMN last_message_sender_id UUID;
+
+ALTER TABLE chats
+    ADD COLUMN last_message_snippet VARCHAR(100);
+
+UPDATE chats
+SET last_message_id = (SELECT m.message_id
+                       FROM messages m
+                       WHERE m.chat_id = chats.chat_id
+                       ORDER BY m.sent_at DESC, m.message_id DESC
+                       LIMIT 1);
+
+UPDATE chats
+SET last_message_sender_id = (SELECT m.sender_id FROM messages m WHERE m.message_id = chats.last_message_id),
+    last_message_snippet   = (SELECT SUBSTRING(m.content, 1, 100) FROM messages m WHERE m.message_id = chats.last_message_id)
+WHERE last_message_id IS NOT NULL;
+
+ALTER TABLE chats
+    ADD CONSTRAINT fk_chat_last_message FOREIGN KEY (last_message_id) REFERENCES messages (message_id) ON DELETE SET NULL;
+
+-- copied from the chat so the inbox order (pinned, last message time) is served by one index on user_chats
+ALTER TABLE user_chats
+    ADD COLUMN last_message_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE user_chats
+SET last_message_at = (SELECT c.last_message_timestamp FROM chats c WHERE c.chat_id = user_chats.chat_id);
+
+CREATE INDEX idx_user_chat_inbox ON user_chats (user_id, pinned DESC, last_message_at DESC, user_chat_id DESC);
@@ -0,0 +1,3 @@
+-- idx_user_chat_inbox (V12) starts with user_id, so the single-column index only costs writes.
+-- H2 keeps it, as there it backs fk_user_chat_user
+DROP INDEX IF EXISTS idx_user;
@@ -0,0 +1,8 @@
+-- kept current by Postgres on every insert and edit; deleted messages leave the index with their row.
+-- file messages only hold a media key, so they get no vector and never match a search
+ALTER TABLE messages
+    ADD COLUMN content_tsv TSVECTOR GENERATED ALWAYS AS (
+        CASE WHEN is_file THEN NULL ELSE to_tsvector('simple', COALESCE(content, '')) END
+    ) STORED;
+
+CREATE INDEX idx_message_content_tsv ON messages USING GIN (content_tsv);
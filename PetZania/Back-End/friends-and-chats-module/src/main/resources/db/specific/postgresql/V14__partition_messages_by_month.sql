@@ -0,0 +1,157 @@
+-- messages becomes a table range-partitioned by sent_at, one partition per month. The primary key has to
+-- include sent_at, so foreign keys can no longer point at message_id alone; trg_message_deleted below
+-- does on delete what they did
+ALTER TABLE message_reactions DROP CONSTRAINT fk_reaction_message;
+ALTER TABLE messages DROP CONSTRAINT fk_message_reply_to;
+ALTER TABLE chats DROP CONSTRAINT fk_chat_last_message;
+
+CREATE TABLE messages_partitioned (
+                                      message_id UUID NOT NULL,
+                                      chat_id UUID NOT NULL,
+                                      sender_id UUID NOT NULL,
+                                      content TEXT,
+                                      reply_to_id UUID,
+                                      sent_at TIMESTAMP NOT NULL,
+                                      status VARCHAR(20) NOT NULL,
+                                      is_file BOOLEAN NOT NULL,
+                                      is_edited BOOLEAN NOT NULL DEFAULT FALSE,
+                                      content_tsv TSVECTOR GENERATED ALWAYS AS (
+                                          CASE WHEN is_file THEN NULL ELSE to_tsvector('simple', COALESCE(content, '')) END
+                                      ) STORED,
+                                      CONSTRAINT pk_message PRIMARY KEY (message_id, sent_at),
+                                      CONSTRAINT fk_message_chat FOREIGN KEY (chat_id) REFERENCES chats(chat_id) ON DELETE CASCADE,
+                                      CONSTRAINT fk_message_sender FOREIGN KEY (sender_id) REFERENCES users(user_id) ON DELETE CASCADE
+) PARTITION BY RANGE (sent_at);
+
+-- only catches rows the maintenance job has not made a partition for yet
+CREATE TABLE messages_default PARTITION OF messages_partitioned DEFAULT;
+
+-- creates the partition holding the given month if it is missing; also called by the maintenance job.
+-- Rows of that month already sitting in messages_default would clash with the new partition's bounds,
+-- so the default is set aside, replaced by an empty one once the partition exists, and its rows are
+-- routed again. Dropping a table fires no delete trigger, so reactions, replies and snapshots stay
+CREATE FUNCTION create_message_partition(for_month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_month)::DATE;
+    month_end DATE := (month_start + INTERVAL '1 month')::DATE;
+    target TEXT := 'messages_' || to_char(month_start, 'YYYY_MM');
+    stranded BIGINT;
+BEGIN
+    IF to_regclass(target) IS NOT NULL THEN
+        RETURN target;
+    END IF;
+
+    SELECT COUNT(*) INTO stranded FROM messages_default WHERE sent_at >= month_start AND sent_at < month_end;
+    IF stranded = 0 THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+                       target, month_start, month_end);
+        RETURN target;
+    END IF;
+
+    RAISE WARNING 'moving % rows out of messages_default into %', stranded, target;
+    CREATE TEMP TABLE messages_default_rows AS
+        SELECT message_id, chat_id, sender_id, content, reply_to_id, sent_at, status, is_file, is_edited
+        FROM messages_default;
+    DROP TABLE messages_default;
+    EXECUTE format('CREATE TABLE %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+                   target, month_start, month_end);
+    CREATE TABLE messages_default PARTITION OF messages DEFAULT;
+    INSERT INTO messages (message_id, chat_id, sender_id, content, reply_to_id, sent_at, status, is_file, is_edited)
+    SELECT message_id, chat_id, sender_id, content, reply_to_id, sent_at, status, is_file, is_edited
+    FROM messages_default_rows;
+    DROP TABLE messages_default_rows;
+    RETURN target;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE messages RENAME TO messages_unpartitioned;
+ALTER TABLE messages_partitioned RENAME TO messages;
+
+DO $$
+DECLARE
+    next_month DATE := COALESCE((SELECT date_trunc('month', MIN(sent_at))::DATE FROM messages_unpartitioned),
+                                date_trunc('month', LOCALTIMESTAMP)::DATE);
+BEGIN
+    WHILE next_month <= date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months' LOOP
+        PERFORM create_message_partition(next_month);
+        next_month := (next_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO messages (message_id, chat_id, sender_id, content, reply_to_id, sent_at, status, is_file, is_edited)
+SELECT message_id, chat_id, sender_id, content, reply_to_id, sent_at, status, is_file, is_edited
+FROM messages_unpartitioned;
+
+DROP TABLE messages_unpartitioned;
+
+CREATE INDEX idx_message_chat_sent_at ON messages(chat_id, sent_at, message_id);
+CREATE INDEX idx_message_sender ON messages(sender_id);
+CREATE INDEX idx_message_content_tsv ON messages USING GIN (content_tsv);
+-- looked up by trg_message_deleted
+CREATE INDEX idx_message_reply_to ON messages(reply_to_id) WHERE reply_to_id IS NOT NULL;
+CREATE INDEX idx_reaction_message ON message_reactions(message_id);
+CREATE INDEX idx_chat_last_message ON chats(last_message_id) WHERE last_message_id IS NOT NULL;
+
+CREATE FUNCTION on_message_deleted() RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM message_reactions WHERE message_id = OLD.message_id;
+    -- a reply is never older than the message it answers, so older partitions are pruned
+    UPDATE messages SET reply_to_id = NULL WHERE reply_to_id = OLD.message_id AND sent_at >= OLD.sent_at;
+    UPDATE chats
+    SET last_message_id = NULL, last_message_sender_id = NULL, last_message_snippet = NULL
+    WHERE last_message_id = OLD.message_id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_message_deleted
+    AFTER DELETE ON messages
+    FOR EACH ROW EXECUTE FUNCTION on_message_deleted();
+
+-- partitions that have been moved to cold storage
+CREATE TABLE archived_message_partitions (
+                                             partition_name TEXT PRIMARY KEY,
+                                             archived_at TIMESTAMP NOT NULL
+);
+
+-- run by the maintenance job: creates the partitions for the coming months and archives every monthly
+-- partition that ends on or before archive_before. Archived partitions stay attached, so reads see them
+-- as before and prune them by sent_at; they only move to archive_tablespace when one is given.
+-- Returns the partitions it archived
+CREATE FUNCTION maintain_message_partitions(months_ahead INT, archive_before DATE, archive_tablespace TEXT)
+    RETURNS SETOF TEXT AS $$
+DECLARE
+    cold RECORD;
+    cold_index RECORD;
+BEGIN
+    -- every instance schedules the job; whichever gets the lock does the work
+    IF NOT pg_try_advisory_xact_lock(hashtext('maintain_message_partitions')) THEN
+        RETURN;
+    END IF;
+
+    FOR i IN 0..months_ahead LOOP
+        PERFORM create_message_partition((date_trunc('month', LOCALTIMESTAMP) + make_interval(months => i))::DATE);
+    END LOOP;
+
+    FOR cold IN
+        SELECT c.relname AS name
+        FROM pg_inherits inh
+                 JOIN pg_class c ON c.oid = inh.inhrelid
+        WHERE inh.inhparent = 'messages'::regclass
+          AND c.relname ~ '^messages_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 10), 'YYYY_MM') + INTERVAL '1 month' <= archive_before
+          AND NOT EXISTS (SELECT 1 FROM archived_message_partitions a WHERE a.partition_name = c.relname)
+        ORDER BY c.relname
+    LOOP
+        IF archive_tablespace IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I SET TABLESPACE %I', cold.name, archive_tablespace);
+            FOR cold_index IN SELECT indexname FROM pg_indexes WHERE tablename = cold.name LOOP
+                EXECUTE format('ALTER INDEX %I SET TABLESPACE %I', cold_index.indexname, archive_tablespace);
+            END LOOP;
+        END IF;
+        INSERT INTO archived_message_partitions (partition_name, archived_at) VALUES (cold.name, LOCALTIMESTAMP);
+        RETURN NEXT cold.name;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
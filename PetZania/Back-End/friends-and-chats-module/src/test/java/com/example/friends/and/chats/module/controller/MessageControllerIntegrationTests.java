@@ -15,8 +15,13 @@ import com.example.friends.and.chats.module.model.enumeration.MessageReact;
 import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
 import com.example.friends.and.chats.module.model.principal.UserPrincipal;
 import com.example.friends.and.chats.module.repository.*;
+import com.example.friends.and.chats.module.util.AfterCommit;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
@@ -42,6 +47,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.example.friends.and.chats.module.constant.Constants.MESSAGE_REPLY_SNIPPET_LENGTH;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasLength;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -104,12 +112,26 @@ public class MessageControllerIntegrationTests {
         public SimpMessagingTemplate testSimpMessagingTemplate() {
             return new MessageControllerIntegrationTests.TestSimpMessagingTemplate();
         }
+
+        // the test transaction is rolled back, so pushes are made straight away instead of after commit
+        @Bean
+        @Primary
+        public AfterCommit immediateAfterCommit() {
+            return new AfterCommit() {
+                @Override
+                public void run(Runnable task) {
+                    task.run();
+                }
+            };
+        }
     }
 
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Autowired
     private ChatRepository chatRepository;
@@ -956,6 +978,80 @@ public class MessageControllerIntegrationTests {
                 .andExpect(jsonPath("$.totalElements").value(3));
     }
 
+    @Test
+    void getMessageHistory_pagesThroughChatWithCursor() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/messages/chat/{chatId}/history", chatAB.getChatId())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages", hasSize(2)))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        List<String> ids = new ArrayList<>();
+        ids.addAll(JsonPath.read(firstPage, "$.messages[*].messageId"));
+
+        mockMvc.perform(get("/api/messages/chat/{chatId}/history", chatAB.getChatId())
+                        .param("before", ids.get(1))
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andDo(result -> ids.addAll(JsonPath.read(result.getResponse().getContentAsString(), "$.messages[*].messageId")));
+
+        assertEquals(Set.of(messageFromA.getMessageId().toString(), messageFromB.getMessageId().toString(), replyMessage.getMessageId().toString()),
+                new HashSet<>(ids));
+        assertEquals(3, ids.size());
+    }
+
+    @Test
+    void getMessageHistory_ReplyChain_RunsFixedStatementsPerPage() throws Exception {
+        Message previous = replyMessage;
+        for (int i = 0; i < 20; i++) {
+            previous = messageRepository.save(Message.builder()
+                    .chat(chatAB)
+                    .sender(i % 2 == 0 ? userB : userA)
+                    .content("Reply " + i + " " + "x".repeat(2 * MESSAGE_REPLY_SNIPPET_LENGTH))
+                    .replyTo(previous)
+                    .status(MessageStatus.SENT)
+                    .isFile(false)
+                    .isEdited(false)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // the first request also warms up anything outside the history read
+        mockMvc.perform(get("/api/messages/chat/{chatId}/history", chatAB.getChatId()).param("limit", "1"))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/messages/chat/{chatId}/history", chatAB.getChatId())
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages", hasSize(10)))
+                .andExpect(jsonPath("$.messages[*].replyTo.messageId", hasSize(10)))
+                .andExpect(jsonPath("$.messages[*].replyTo.snippet", everyItem(hasLength(MESSAGE_REPLY_SNIPPET_LENGTH))));
+
+        // the membership check and one page read, however long the reply chain is
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getMessageHistory_cursorFromOtherChat_ShouldFail() throws Exception {
+        Message otherChatMessage = messageRepository.save(Message.builder()
+                .chat(chatBC)
+                .sender(userB)
+                .content("Hello C")
+                .status(MessageStatus.SENT)
+                .isFile(false)
+                .isEdited(false)
+                .build());
+
+        mockMvc.perform(get("/api/messages/chat/{chatId}/history", chatAB.getChatId())
+                        .param("before", otherChatMessage.getMessageId().toString()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testRateLimit_getMessagesByChat() throws Exception {
         for (int i = 0; i < RATE_LIMIT_VALUE; i++) {
@@ -1087,6 +1183,52 @@ public class MessageControllerIntegrationTests {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void markChatRead_UpToMessage_ReadsEarlierMessagesAndSendsOneReceipt() throws Exception {
+        userBChatAB.setUnread(2);
+        userChatRepository.save(userBChatAB);
+        TestSimpMessagingTemplate testTemplate = getTestMessagingTemplate();
+        testTemplate.reset();
+
+        UpdateMessageStatusDTO statusUpdate = new UpdateMessageStatusDTO();
+        statusUpdate.setMessageStatus(MessageStatus.READ);
+        mockMvc.perform(patch("/api/messages/chat/{chatId}/status", chatAB.getChatId())
+                        .param("upTo", replyMessage.getMessageId().toString())
+                        .with(user(new UserPrincipal(userB)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("READ"))
+                .andExpect(jsonPath("$.updatedCount").value(2));
+
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(MessageStatus.READ, messageRepository.findById(messageFromA.getMessageId()).orElseThrow().getStatus());
+        assertEquals(MessageStatus.READ, messageRepository.findById(replyMessage.getMessageId()).orElseThrow().getStatus());
+        // B's own message is not B's to mark
+        assertEquals(MessageStatus.SENT, messageRepository.findById(messageFromB.getMessageId()).orElseThrow().getStatus());
+        assertEquals(0, userChatRepository.findById(userBChatAB.getUserChatId()).orElseThrow().getUnread());
+
+        List<String> destinations = testTemplate.getSentDestinations();
+        assertEquals(1, Collections.frequency(destinations, "/topic/" + userA.getUserId() + "/receipts"));
+        int index = destinations.indexOf("/topic/" + userB.getUserId() + "/unread-count");
+        UnreadCountUpdateDTO unreadCountUpdateDTO = (UnreadCountUpdateDTO) testTemplate.getSentPayloads().get(index);
+        assertEquals(0, unreadCountUpdateDTO.getUserChatUnreadCount());
+        assertEquals(0, unreadCountUpdateDTO.getTotalUnreadCount());
+    }
+
+    @Test
+    void markChatDelivered_NotChatMember_ShouldFail() throws Exception {
+        UpdateMessageStatusDTO statusUpdate = new UpdateMessageStatusDTO();
+        statusUpdate.setMessageStatus(MessageStatus.DELIVERED);
+        mockMvc.perform(patch("/api/messages/chat/{chatId}/status", chatAB.getChatId())
+                        .param("upTo", replyMessage.getMessageId().toString())
+                        .with(user(new UserPrincipal(userC)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusUpdate)))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void reactToMessage_Success() throws Exception {
         UpdateMessageReactDTO updateDTO = new UpdateMessageReactDTO();
@@ -4,6 +4,8 @@ import com.example.friends.and.chats.module.model.principal.AdminPrincipal;
 import com.example.friends.and.chats.module.model.principal.UserPrincipal;
 import com.example.friends.and.chats.module.service.impl.JWTService;
 import com.example.friends.and.chats.module.service.impl.MyUserDetailsService;
+import com.example.friends.and.chats.module.service.impl.PrincipalCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -34,7 +36,7 @@ public class JWTFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        filter = new JWTFilter(jwtService, applicationContext);
+        filter = new JWTFilter(jwtService, applicationContext, new PrincipalCacheService(new SimpleMeterRegistry()));
         // Must clear SecurityContext every test!
         SecurityContextHolder.clearContext();
     }
@@ -93,6 +95,30 @@ public class JWTFilterTest {
         verify(chain).doFilter(request, response);
     }
 
+    @Test
+    void shouldSetAuthorityOnlyWhenPrincipalIsLoaded() throws Exception {
+        String token = "valid-user-token";
+        String email = "user@mail.com";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractEmail(token)).thenReturn(email);
+        when(jwtService.extractRole(token)).thenReturn("ROLE_USER");
+
+        UserPrincipal userPrincipal = mock(UserPrincipal.class);
+        when(applicationContext.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByEmail(email)).thenReturn(userPrincipal);
+        when(jwtService.validateTokenForUser(token, userPrincipal)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, chain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+
+        // the cached principal is shared between requests and must not be written again
+        verify(userDetailsService, times(1)).loadUserByEmail(email);
+        verify(userPrincipal, times(1)).setGrantedAuthority(any());
+        assertEquals(userPrincipal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
     @Test
     void shouldNotAuthenticateWhenHeaderMissing() throws Exception {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -10,7 +10,9 @@ import com.example.friends.and.chats.module.model.dto.chat.UserChatDTO;
 import com.example.friends.and.chats.module.model.entity.*;
 import com.example.friends.and.chats.module.repository.*;
 import com.example.friends.and.chats.module.service.impl.ChatService;
+import com.example.friends.and.chats.module.service.impl.ChatSignalService;
 import com.example.friends.and.chats.module.service.IDTOConversionService;
+import com.example.friends.and.chats.module.util.AfterCommit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -26,6 +28,8 @@ class ChatServiceTest {
     @Mock private BlockRepository blockRepository;
     @Mock private UserRepository userRepository;
     @Mock private IDTOConversionService dtoConversionService;
+    @Mock private ChatSignalService chatSignalService;
+    @Spy private AfterCommit afterCommit = new AfterCommit();
 
     @InjectMocks
     private ChatService chatService;
@@ -192,6 +196,21 @@ class ChatServiceTest {
         doNothing().when(userChatRepository).deleteById(userChatId);
     }
 
+    @Test
+    void deleteUserChatById_forgetsCachedSignalMembership() {
+        UUID userChatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID chatId = UUID.randomUUID();
+        User user = new User(); user.setUserId(userId);
+        UserChat userChat = UserChat.builder().user(user).chat(Chat.builder().chatId(chatId).build()).unread(0).build();
+        when(userChatRepository.findById(userChatId)).thenReturn(Optional.of(userChat));
+
+        chatService.deleteUserChatById(userChatId, userId);
+
+        verify(userChatRepository).deleteById(userChatId);
+        verify(chatSignalService).forget(chatId);
+    }
+
     @Test
     void deleteUserChatById_notFound_throws() {
         UUID userChatId = UUID.randomUUID();
@@ -0,0 +1,117 @@
+package com.example.friends.and.chats.module.service;
+
+import com.example.friends.and.chats.module.model.dto.signal.ChatSignalDTO;
+import com.example.friends.and.chats.module.model.enumeration.ChatSignalType;
+import com.example.friends.and.chats.module.repository.ChatMembershipRepository;
+import com.example.friends.and.chats.module.service.impl.ChatSignalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatSignalServiceTest {
+    private ChatMembershipRepository chatMembershipRepository;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatSignalService chatSignalService;
+
+    private final UUID chatId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID peerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        chatMembershipRepository = mock(ChatMembershipRepository.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        chatSignalService = new ChatSignalService(chatMembershipRepository, messagingTemplate, new SimpleMeterRegistry());
+        when(chatMembershipRepository.findChatMembers(chatId)).thenReturn(Optional.of(members(userId, peerId, true, 0L)));
+    }
+
+    @Test
+    void relay_sendsToPeerAndLoadsMembershipOnce() {
+        assertTrue(chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING)));
+        assertTrue(chatSignalService.relay("s2", userId, signal(ChatSignalType.TYPING)));
+
+        verify(messagingTemplate, times(2)).convertAndSend("/topic/" + peerId + "/signals",
+                new ChatSignalDTO(chatId, userId, ChatSignalType.TYPING));
+        verify(chatMembershipRepository, times(1)).findChatMembers(chatId);
+    }
+
+    @Test
+    void relay_throttlesRepeatsFromSameSessionButNotOtherTypes() {
+        assertTrue(chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING)));
+        assertFalse(chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING)));
+        assertTrue(chatSignalService.relay("s1", userId, signal(ChatSignalType.STOPPED)));
+
+        verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void relay_disconnectClearsSessionThrottle() {
+        chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING));
+
+        chatSignalService.onSessionDisconnect(new SessionDisconnectEvent(this, MessageBuilder.withPayload(new byte[0]).build(), "s1", CloseStatus.NORMAL));
+
+        assertTrue(chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING)));
+    }
+
+    @Test
+    void relay_nonMemberBlockedOrMissingChat_isDropped() {
+        UUID blockedChat = UUID.randomUUID();
+        UUID missingChat = UUID.randomUUID();
+        when(chatMembershipRepository.findChatMembers(blockedChat)).thenReturn(Optional.of(members(userId, peerId, true, 1L)));
+        when(chatMembershipRepository.findChatMembers(missingChat)).thenReturn(Optional.empty());
+
+        assertFalse(chatSignalService.relay("s1", UUID.randomUUID(), signal(ChatSignalType.TYPING)));
+        assertFalse(chatSignalService.relay("s1", userId, new ChatSignalDTO(blockedChat, null, ChatSignalType.TYPING)));
+        assertFalse(chatSignalService.relay("s1", userId, new ChatSignalDTO(missingChat, null, ChatSignalType.TYPING)));
+        assertFalse(chatSignalService.relay("s2", userId, new ChatSignalDTO(missingChat, null, ChatSignalType.TYPING)));
+
+        verifyNoInteractions(messagingTemplate);
+        verify(chatMembershipRepository, times(1)).findChatMembers(missingChat);
+    }
+
+    @Test
+    void relay_senderRemovedChat_isDropped() {
+        UUID removedChat = UUID.randomUUID();
+        when(chatMembershipRepository.findChatMembers(removedChat)).thenReturn(Optional.of(members(userId, peerId, false, 0L)));
+
+        assertFalse(chatSignalService.relay("s1", userId, new ChatSignalDTO(removedChat, null, ChatSignalType.TYPING)));
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void forget_reloadsMembershipOnNextSignal() {
+        assertTrue(chatSignalService.relay("s1", userId, signal(ChatSignalType.TYPING)));
+        when(chatMembershipRepository.findChatMembers(chatId)).thenReturn(Optional.of(members(userId, peerId, false, 0L)));
+
+        chatSignalService.forget(chatId);
+
+        assertFalse(chatSignalService.relay("s2", userId, signal(ChatSignalType.TYPING)));
+        verify(chatMembershipRepository, times(2)).findChatMembers(chatId);
+    }
+
+    private ChatSignalDTO signal(ChatSignalType type) {
+        return new ChatSignalDTO(chatId, null, type);
+    }
+
+    private ChatMembershipRepository.ChatMembers members(UUID user1Id, UUID user2Id, boolean user1HasChat, long blocks) {
+        return new ChatMembershipRepository.ChatMembers() {
+            public UUID getUser1Id() { return user1Id; }
+            public UUID getUser2Id() { return user2Id; }
+            public Long getUser1Chats() { return user1HasChat ? 1L : 0L; }
+            public Long getUser2Chats() { return 1L; }
+            public Long getBlocks() { return blocks; }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.friends.and.chats.module.service;
+
+import com.example.friends.and.chats.module.exception.chat.UserChatNotFound;
+import com.example.friends.and.chats.module.model.dto.chat.InboxChatDTO;
+import com.example.friends.and.chats.module.model.dto.chat.InboxDTO;
+import com.example.friends.and.chats.module.repository.InboxRepository;
+import com.example.friends.and.chats.module.service.impl.InboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InboxServiceTest {
+    @Mock private InboxRepository inboxRepository;
+
+    @InjectMocks
+    private InboxService inboxService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getInbox_firstPage_fetchesOneExtraRowForHasMore() {
+        InboxRepository.InboxRow first = inboxRow(UUID.randomUUID(), "hi");
+        InboxRepository.InboxRow second = inboxRow(UUID.randomUUID(), null);
+        InboxRepository.InboxRow extra = inboxRow(UUID.randomUUID(), "more");
+        when(inboxRepository.findFirstPage(userId, 3)).thenReturn(List.of(first, second, extra));
+
+        InboxDTO inbox = inboxService.getInbox(userId, null, 2);
+
+        assertTrue(inbox.isHasMore());
+        assertEquals(List.of(first.getUserChatId(), second.getUserChatId()),
+                inbox.getChats().stream().map(InboxChatDTO::getUserChatId).toList());
+        assertEquals("hi", inbox.getChats().get(0).getLastMessageSnippet());
+        assertNull(inbox.getChats().get(1).getLastMessageId());
+        verify(inboxRepository, never()).findCursor(any(), any());
+    }
+
+    @Test
+    void getInbox_after_seeksPastCursorRow() {
+        UUID after = UUID.randomUUID();
+        LocalDateTime lastMessageAt = LocalDateTime.now();
+        InboxRepository.InboxCursor cursor = mock(InboxRepository.InboxCursor.class);
+        when(cursor.getPinned()).thenReturn(true);
+        when(cursor.getLastMessageAt()).thenReturn(lastMessageAt);
+        when(inboxRepository.findCursor(userId, after)).thenReturn(Optional.of(cursor));
+        InboxRepository.InboxRow row = inboxRow(UUID.randomUUID(), "next");
+        when(inboxRepository.findPageAfter(userId, true, lastMessageAt, after, 21)).thenReturn(List.of(row));
+
+        InboxDTO inbox = inboxService.getInbox(userId, after, 20);
+
+        assertFalse(inbox.isHasMore());
+        assertEquals(1, inbox.getChats().size());
+        verify(inboxRepository, never()).findFirstPage(any(), anyInt());
+    }
+
+    @Test
+    void getInbox_cursorNotInUsersInbox_throws() {
+        UUID after = UUID.randomUUID();
+        when(inboxRepository.findCursor(userId, after)).thenReturn(Optional.empty());
+
+        assertThrows(UserChatNotFound.class, () -> inboxService.getInbox(userId, after, 20));
+    }
+
+    private InboxRepository.InboxRow inboxRow(UUID userChatId, String snippet) {
+        InboxRepository.InboxRow row = mock(InboxRepository.InboxRow.class);
+        when(row.getUserChatId()).thenReturn(userChatId);
+        when(row.getChatId()).thenReturn(UUID.randomUUID());
+        when(row.getPinned()).thenReturn(false);
+        when(row.getUnread()).thenReturn(0);
+        when(row.getLastMessageAt()).thenReturn(LocalDateTime.now());
+        when(row.getLastMessageId()).thenReturn(snippet == null ? null : UUID.randomUUID());
+        when(row.getLastMessageSnippet()).thenReturn(snippet);
+        return row;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.friends.and.chats.module.service;
+
+import com.example.friends.and.chats.module.service.impl.MessagePartitionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MessagePartitionServiceTest {
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void maintain_freezesEveryPartitionItArchived() {
+        LocalDate archiveBefore = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+        when(jdbcTemplate.queryForList("SELECT maintain_message_partitions(?, ?, ?)", String.class, 3, archiveBefore, "cold"))
+                .thenReturn(List.of("messages_2024_01", "messages_2024_02"));
+
+        new MessagePartitionService(jdbcTemplate, meterRegistry, true, 12, "cold").maintain();
+
+        verify(jdbcTemplate).execute("VACUUM (FREEZE, ANALYZE) \"messages_2024_01\"");
+        verify(jdbcTemplate).execute("VACUUM (FREEZE, ANALYZE) \"messages_2024_02\"");
+    }
+
+    @Test
+    void maintain_blankTablespace_archivesInPlace() {
+        new MessagePartitionService(jdbcTemplate, meterRegistry, true, 6, " ").maintain();
+
+        verify(jdbcTemplate).queryForList(anyString(), eq(String.class), eq(3),
+                eq(LocalDate.now().withDayOfMonth(1).minusMonths(6)), isNull());
+    }
+
+    @Test
+    void maintain_failure_isLoggedAndRetriedNextRun() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> new MessagePartitionService(jdbcTemplate, meterRegistry, true, 12, "").maintain());
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertEquals(1.0, meterRegistry.counter("messages.partitions.maintenance.failures").count());
+    }
+
+    @Test
+    void maintain_disabled_doesNothing() {
+        new MessagePartitionService(jdbcTemplate, meterRegistry, false, 12, "").maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
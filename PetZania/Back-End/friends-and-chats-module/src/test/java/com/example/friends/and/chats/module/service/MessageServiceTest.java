@@ -4,7 +4,6 @@ import com.example.friends.and.chats.module.exception.chat.ChatNotFound;
 import com.example.friends.and.chats.module.exception.message.*;
 import com.example.friends.and.chats.module.exception.user.ForbiddenOperation;
 import com.example.friends.and.chats.module.exception.user.UserAccessDenied;
-import com.example.friends.and.chats.module.exception.user.UserNotFound;
 import com.example.friends.and.chats.module.model.dto.message.*;
 import com.example.friends.and.chats.module.model.entity.*;
 import com.example.friends.and.chats.module.model.enumeration.EventType;
@@ -12,12 +11,15 @@ import com.example.friends.and.chats.module.model.enumeration.MessageReact;
 import com.example.friends.and.chats.module.model.enumeration.MessageStatus;
 import com.example.friends.and.chats.module.repository.*;
 import com.example.friends.and.chats.module.service.impl.MessageService;
+import com.example.friends.and.chats.module.service.impl.UnreadCounterService;
 import com.example.friends.and.chats.module.service.IDTOConversionService;
+import com.example.friends.and.chats.module.util.AfterCommit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,6 +37,12 @@ class MessageServiceTest {
     @Mock private MessageReactionRepository messageReactionRepository;
     @Mock private IDTOConversionService dtoConversionService;
     @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private MessageSendRepository messageSendRepository;
+    @Spy private AfterCommit afterCommit = new AfterCommit();
+    @Mock private UnreadCounterService unreadCounterService;
+    @Mock private MessageHistoryRepository messageHistoryRepository;
+    @Mock private MessageReceiptRepository messageReceiptRepository;
+    @Mock private MessageSearchRepository messageSearchRepository;
 
     @InjectMocks
     private MessageService messageService;
@@ -47,58 +55,73 @@ class MessageServiceTest {
     @Test
     void sendMessage_success() {
         UUID senderId = UUID.randomUUID();
+        UUID receiverId = UUID.randomUUID();
         UUID chatId = UUID.randomUUID();
-        User sender = new User(); sender.setUserId(senderId);
-        Chat chat = new Chat(); chat.setChatId(chatId);
-        // Set user1 and user2 on chat
-        User user1 = new User(); user1.setUserId(senderId);
-        User user2 = new User(); user2.setUserId(UUID.randomUUID());
-        chat.setUser1(user1);
-        chat.setUser2(user2);
+        UUID receiverUserChatId = UUID.randomUUID();
         SendMessageDTO sendMessageDTO = new SendMessageDTO();
         sendMessageDTO.setChatId(chatId);
         sendMessageDTO.setContent("Hello");
-        when(userRepository.findById(senderId)).thenReturn(Optional.of(sender));
-        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
-        when(blockRepository.existsByBlockerAndBlocked(any(), any())).thenReturn(false);
-        Message message = new Message();
-        message.setChat(chat);
-        when(messageRepository.save(any())).thenReturn(message);
+        when(messageSendRepository.findSendContext(chatId, senderId, null))
+                .thenReturn(Optional.of(sendContext(receiverId, UUID.randomUUID(), receiverUserChatId, 2, 5L, 0L, 0L)));
+        Message saved = new Message();
+        saved.setMessageId(UUID.randomUUID());
+        saved.setContent("Hello");
+        saved.setSentAt(LocalDateTime.now());
+        when(messageRepository.save(any())).thenReturn(saved);
         MessageDTO messageDTO = new MessageDTO();
-        when(dtoConversionService.mapToMessageDTO(message)).thenReturn(messageDTO);
-        // Mock user chat access
-        when(chatRepository.save(any(Chat.class))).thenReturn(chat);
-        UserChat userChat = UserChat.builder().chat(chat).user(sender).build();
-        when(userChatRepository.findByChat_ChatIdAndUser_UserId(chatId, senderId)).thenReturn(Optional.of(userChat));
+        when(dtoConversionService.mapToMessageDTO(saved)).thenReturn(messageDTO);
+
+        assertSame(messageDTO, messageService.sendMessage(sendMessageDTO, senderId));
+
+        verify(messageSendRepository).touchChat(chatId, saved.getMessageId(), senderId, "Hello", saved.getSentAt());
+        verify(messageSendRepository).touchUserChats(chatId, receiverUserChatId, saved.getSentAt());
+        verify(messageSendRepository).incrementTotalUnread(receiverId);
+        verify(messagingTemplate).convertAndSend(eq("/topic/" + receiverId + "/messages"), any(MessageEventDTO.class));
+        verify(messagingTemplate).convertAndSend("/topic/" + receiverId + "/unread-count",
+                new UnreadCountUpdateDTO(receiverUserChatId, 3, 6L));
+        verifyNoInteractions(blockRepository, userChatRepository);
     }
 
     @Test
-    void sendMessage_userNotFound_throws() {
+    void sendMessage_longContent_snapshotSnippetDoesNotSplitSurrogatePair() {
         UUID senderId = UUID.randomUUID();
         UUID chatId = UUID.randomUUID();
+        String content = "a".repeat(99) + "\uD83D\uDC3E" + "b".repeat(20);
         SendMessageDTO sendMessageDTO = new SendMessageDTO();
-        sendMessageDTO.setChatId(chatId); // FIX: Set chatId to avoid NPE
-        // Mock chatRepository to return a valid chat with users
-        Chat chat = new Chat();
-        chat.setChatId(chatId);
-        User user1 = new User(); user1.setUserId(UUID.randomUUID());
-        User user2 = new User(); user2.setUserId(UUID.randomUUID());
-        chat.setUser1(user1);
-        chat.setUser2(user2);
-        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
-        when(userRepository.findById(senderId)).thenReturn(Optional.empty());
-        assertThrows(UserNotFound.class, () -> messageService.sendMessage(sendMessageDTO, senderId));
+        sendMessageDTO.setChatId(chatId);
+        sendMessageDTO.setContent(content);
+        when(messageSendRepository.findSendContext(chatId, senderId, null))
+                .thenReturn(Optional.of(sendContext(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), 0, 0L, 0L, 0L)));
+        Message saved = new Message();
+        saved.setMessageId(UUID.randomUUID());
+        saved.setContent(content);
+        saved.setSentAt(LocalDateTime.now());
+        when(messageRepository.save(any())).thenReturn(saved);
+
+        messageService.sendMessage(sendMessageDTO, senderId);
+
+        verify(messageSendRepository).touchChat(chatId, saved.getMessageId(), senderId, "a".repeat(99), saved.getSentAt());
+    }
+
+    @Test
+    void sendMessage_notChatMember_throws() {
+        UUID senderId = UUID.randomUUID();
+        UUID chatId = UUID.randomUUID();
+        SendMessageDTO sendMessageDTO = new SendMessageDTO();
+        sendMessageDTO.setChatId(chatId);
+        when(messageSendRepository.findSendContext(chatId, senderId, null))
+                .thenReturn(Optional.of(sendContext(UUID.randomUUID(), null, UUID.randomUUID(), 0, 0L, 0L, 0L)));
+        assertThrows(UserAccessDenied.class, () -> messageService.sendMessage(sendMessageDTO, senderId));
+        verify(messageRepository, never()).save(any());
     }
 
     @Test
     void sendMessage_chatNotFound_throws() {
         UUID senderId = UUID.randomUUID();
         UUID chatId = UUID.randomUUID();
-        User sender = new User(); sender.setUserId(senderId);
         SendMessageDTO sendMessageDTO = new SendMessageDTO();
         sendMessageDTO.setChatId(chatId);
-        when(userRepository.findById(senderId)).thenReturn(Optional.of(sender));
-        when(chatRepository.findById(chatId)).thenReturn(Optional.empty());
+        when(messageSendRepository.findSendContext(chatId, senderId, null)).thenReturn(Optional.empty());
         assertThrows(ChatNotFound.class, () -> messageService.sendMessage(sendMessageDTO, senderId));
     }
 
@@ -106,19 +129,119 @@ class MessageServiceTest {
     void sendMessage_blocked_throws() {
         UUID senderId = UUID.randomUUID();
         UUID chatId = UUID.randomUUID();
-        User sender = new User(); sender.setUserId(senderId);
-        Chat chat = new Chat(); chat.setChatId(chatId); // FIX: Set chatId
-        // Set user1 and user2 on chat
-        User user1 = new User(); user1.setUserId(senderId);
-        User user2 = new User(); user2.setUserId(UUID.randomUUID());
-        chat.setUser1(user1);
-        chat.setUser2(user2);
         SendMessageDTO sendMessageDTO = new SendMessageDTO();
-        sendMessageDTO.setChatId(chatId); // FIX: Set chatId
-        when(userRepository.findById(senderId)).thenReturn(Optional.of(sender));
-        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
-        when(blockRepository.existsByBlockerAndBlocked(any(), any())).thenReturn(true);
+        sendMessageDTO.setChatId(chatId);
+        when(messageSendRepository.findSendContext(chatId, senderId, null))
+                .thenReturn(Optional.of(sendContext(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), 0, 0L, 1L, 0L)));
         assertThrows(ForbiddenOperation.class, () -> messageService.sendMessage(sendMessageDTO, senderId));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void sendMessage_replyToMissing_throws() {
+        UUID senderId = UUID.randomUUID();
+        UUID chatId = UUID.randomUUID();
+        UUID replyToId = UUID.randomUUID();
+        SendMessageDTO sendMessageDTO = new SendMessageDTO();
+        sendMessageDTO.setChatId(chatId);
+        sendMessageDTO.setReplyToMessageId(replyToId);
+        when(messageSendRepository.findSendContext(chatId, senderId, replyToId))
+                .thenReturn(Optional.of(sendContext(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), 0, 0L, 0L, 0L)));
+        assertThrows(MessageNotFound.class, () -> messageService.sendMessage(sendMessageDTO, senderId));
+    }
+
+    private MessageHistoryRepository.MessageRow messageRow(UUID replyToId, UUID replySenderId) {
+        MessageHistoryRepository.MessageRow row = mock(MessageHistoryRepository.MessageRow.class);
+        when(row.getMessageId()).thenReturn(UUID.randomUUID());
+        when(row.getStatus()).thenReturn(MessageStatus.SENT);
+        when(row.getFile()).thenReturn(false);
+        when(row.getEdited()).thenReturn(false);
+        if (replyToId != null) {
+            when(row.getReplyToId()).thenReturn(replyToId);
+            when(row.getReplySenderId()).thenReturn(replySenderId);
+            when(row.getReplySnippet()).thenReturn("Hello");
+            when(row.getReplyFile()).thenReturn(false);
+        }
+        return row;
+    }
+
+    private MessageSendRepository.SendContext sendContext(UUID receiverId, UUID senderUserChatId, UUID receiverUserChatId,
+                                                          int receiverUnread, long receiverTotalUnread, long blocks, long replyTargets) {
+        return new MessageSendRepository.SendContext() {
+            public UUID getReceiverId() { return receiverId; }
+            public UUID getSenderUserChatId() { return senderUserChatId; }
+            public UUID getReceiverUserChatId() { return receiverUserChatId; }
+            public Integer getReceiverUnread() { return receiverUnread; }
+            public Long getReceiverTotalUnread() { return receiverTotalUnread; }
+            public Long getBlocks() { return blocks; }
+            public Long getReplyTargets() { return replyTargets; }
+        };
+    }
+
+    @Test
+    void getMessageHistory_latest_fetchesOneExtraRowForHasMore() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(true);
+        List<MessageHistoryRepository.MessageRow> rows = List.of(messageRow(null, null), messageRow(null, null), messageRow(null, null));
+        when(messageHistoryRepository.findLatest(chatId, Pageable.ofSize(3))).thenReturn(rows);
+
+        MessageHistoryDTO history = messageService.getMessageHistory(chatId, userId, null, null, 2);
+
+        assertEquals(2, history.getMessages().size());
+        assertTrue(history.isHasMore());
+    }
+
+    @Test
+    void getMessageHistory_before_seeksFromCursor() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID cursor = UUID.randomUUID();
+        LocalDateTime sentAt = LocalDateTime.now();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(true);
+        when(messageHistoryRepository.findSentAt(chatId, cursor)).thenReturn(Optional.of(sentAt));
+        List<MessageHistoryRepository.MessageRow> rows = List.of(messageRow(null, null));
+        when(messageHistoryRepository.findBefore(chatId, sentAt, cursor, Pageable.ofSize(11))).thenReturn(rows);
+
+        MessageHistoryDTO history = messageService.getMessageHistory(chatId, userId, cursor, null, 10);
+
+        assertEquals(1, history.getMessages().size());
+        assertFalse(history.isHasMore());
+    }
+
+    @Test
+    void getMessageHistory_replyRow_carriesReplyPreview() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID repliedTo = UUID.randomUUID();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(true);
+        List<MessageHistoryRepository.MessageRow> rows = List.of(messageRow(repliedTo, userId), messageRow(null, null));
+        when(messageHistoryRepository.findLatest(eq(chatId), any())).thenReturn(rows);
+
+        List<MessageViewDTO> messages = messageService.getMessageHistory(chatId, userId, null, null, 10).getMessages();
+
+        assertEquals(repliedTo, messages.get(0).getReplyToMessageId());
+        assertEquals(new ReplyPreviewDTO(repliedTo, userId, "Hello", false), messages.get(0).getReplyTo());
+        assertNull(messages.get(1).getReplyTo());
+        verifyNoInteractions(dtoConversionService);
+    }
+
+    @Test
+    void getMessageHistory_unknownCursor_throws() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(true);
+        when(messageHistoryRepository.findSentAt(eq(chatId), any())).thenReturn(Optional.empty());
+        assertThrows(MessageNotFound.class, () -> messageService.getMessageHistory(chatId, userId, null, UUID.randomUUID(), 10));
+    }
+
+    @Test
+    void getMessageHistory_notChatMember_throws() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(false);
+        assertThrows(UserAccessDenied.class, () -> messageService.getMessageHistory(chatId, userId, null, null, 10));
+        verifyNoInteractions(messageHistoryRepository);
     }
 
     @Test
@@ -191,6 +314,41 @@ class MessageServiceTest {
         assertThrows(MessageNotFound.class, () -> messageService.getMessageById(messageId, userId));
     }
 
+    @Test
+    void searchMessages_allChats_fetchesOneExtraRowForHasMore() {
+        UUID userId = UUID.randomUUID();
+        MessageSearchRepository.SearchHit first = searchHit();
+        MessageSearchRepository.SearchHit extra = searchHit();
+        when(messageSearchRepository.search(userId, "vet appointment", 2, 1)).thenReturn(List.of(first, extra));
+
+        MessageSearchDTO result = messageService.searchMessages(userId, "vet appointment", null, 1, 1);
+
+        assertTrue(result.isHasMore());
+        assertEquals(1, result.getHits().size());
+        assertEquals(first.getMessageId(), result.getHits().get(0).getMessageId());
+        assertEquals("<b>vet</b> &lt;img src=x onerror=alert(1)&gt;", result.getHits().get(0).getHighlight());
+        verifyNoInteractions(userChatRepository);
+    }
+
+    @Test
+    void searchMessages_chatNotOwned_throws() {
+        UUID userId = UUID.randomUUID();
+        UUID chatId = UUID.randomUUID();
+        when(userChatRepository.existsByChat_ChatIdAndUser_UserId(chatId, userId)).thenReturn(false);
+
+        assertThrows(UserAccessDenied.class, () -> messageService.searchMessages(userId, "vet", chatId, 0, 20));
+        verifyNoInteractions(messageSearchRepository);
+    }
+
+    private MessageSearchRepository.SearchHit searchHit() {
+        MessageSearchRepository.SearchHit hit = mock(MessageSearchRepository.SearchHit.class);
+        when(hit.getMessageId()).thenReturn(UUID.randomUUID());
+        when(hit.getChatId()).thenReturn(UUID.randomUUID());
+        when(hit.getSentAt()).thenReturn(LocalDateTime.now());
+        when(hit.getHighlight()).thenReturn("\uE000vet\uE001 <img src=x onerror=alert(1)>");
+        return hit;
+    }
+
     @Test
     void deleteMessage_success() {
         UUID messageId = UUID.randomUUID();
@@ -222,6 +380,49 @@ class MessageServiceTest {
         assertThrows(MessageNotFound.class, () -> messageService.deleteMessage(messageId, userId));
     }
 
+    @Test
+    void deleteMessage_lastMessage_movesInboxTimesBack() {
+        Message message = readMessageInOwnChat();
+        UUID chatId = message.getChat().getChatId();
+        when(messageSendRepository.replaceLastMessage(chatId, message.getMessageId())).thenReturn(1);
+
+        messageService.deleteMessage(message.getMessageId(), message.getSender().getUserId());
+
+        InOrder inOrder = inOrder(messageSendRepository, messageRepository);
+        inOrder.verify(messageSendRepository).replaceLastMessage(chatId, message.getMessageId());
+        inOrder.verify(messageSendRepository).syncLastMessageAt(chatId);
+        inOrder.verify(messageRepository).deleteById(message.getMessageId());
+    }
+
+    @Test
+    void deleteMessage_olderMessage_leavesInboxTimes() {
+        Message message = readMessageInOwnChat();
+        when(messageSendRepository.replaceLastMessage(message.getChat().getChatId(), message.getMessageId())).thenReturn(0);
+
+        messageService.deleteMessage(message.getMessageId(), message.getSender().getUserId());
+
+        verify(messageSendRepository, never()).syncLastMessageAt(any());
+        verify(messageRepository).deleteById(message.getMessageId());
+    }
+
+    private Message readMessageInOwnChat() {
+        User sender = new User(); sender.setUserId(UUID.randomUUID());
+        User receiver = new User(); receiver.setUserId(UUID.randomUUID());
+        Chat chat = new Chat();
+        chat.setChatId(UUID.randomUUID());
+        chat.setUser1(sender);
+        chat.setUser2(receiver);
+        Message message = new Message();
+        message.setMessageId(UUID.randomUUID());
+        message.setSender(sender);
+        message.setChat(chat);
+        message.setStatus(MessageStatus.READ);
+        when(messageRepository.findById(message.getMessageId())).thenReturn(Optional.of(message));
+        when(userChatRepository.findByChat_ChatIdAndUser_UserId(chat.getChatId(), sender.getUserId()))
+                .thenReturn(Optional.of(UserChat.builder().chat(chat).user(sender).build()));
+        return message;
+    }
+
     @Test
     void updateMessageContent_success() {
         UUID messageId = UUID.randomUUID();
@@ -247,6 +448,7 @@ class MessageServiceTest {
         when(userChatRepository.findByChat_ChatIdAndUser_UserId(chat.getChatId(), userId)).thenReturn(Optional.of(userChat));
         MessageDTO result = messageService.updateMessageContent(messageId, userId, "new content");
         assertNotNull(result);
+        verify(messageSendRepository).updateLastMessageSnippet(chat.getChatId(), messageId, "new content");
     }
 
     @Test
@@ -292,6 +494,60 @@ class MessageServiceTest {
         assertThrows(MessageNotFound.class, () -> messageService.updateMessageStatus(messageId, userId, MessageStatus.READ));
     }
 
+    @Test
+    void markRead_updatesUpToWatermarkAndSendsOneReceipt() {
+        UUID chatId = UUID.randomUUID();
+        UUID readerId = UUID.randomUUID();
+        UUID senderId = UUID.randomUUID();
+        UUID upTo = UUID.randomUUID();
+        LocalDateTime sentAt = LocalDateTime.now();
+        UnreadCountUpdateDTO unread = new UnreadCountUpdateDTO(UUID.randomUUID(), 0, 4L);
+        when(messageReceiptRepository.findPeerId(chatId, readerId)).thenReturn(Optional.of(senderId));
+        when(messageHistoryRepository.findSentAt(chatId, upTo)).thenReturn(Optional.of(sentAt));
+        when(messageReceiptRepository.advanceStatus(chatId, readerId, sentAt, upTo,
+                EnumSet.of(MessageStatus.SENT, MessageStatus.DELIVERED), MessageStatus.READ)).thenReturn(200);
+        when(unreadCounterService.markChatRead(chatId, readerId, 200)).thenReturn(unread);
+
+        MessageReceiptDTO receipt = messageService.markRead(chatId, readerId, upTo);
+
+        assertEquals(new MessageReceiptDTO(chatId, readerId, upTo, MessageStatus.READ, 200), receipt);
+        verify(messagingTemplate).convertAndSend("/topic/" + senderId + "/receipts", receipt);
+        verify(messagingTemplate).convertAndSend("/topic/" + readerId + "/unread-count", unread);
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void markDelivered_nothingNew_sendsNothing() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID upTo = UUID.randomUUID();
+        when(messageReceiptRepository.findPeerId(chatId, userId)).thenReturn(Optional.of(UUID.randomUUID()));
+        when(messageHistoryRepository.findSentAt(chatId, upTo)).thenReturn(Optional.of(LocalDateTime.now()));
+        when(messageReceiptRepository.advanceStatus(eq(chatId), eq(userId), any(), eq(upTo),
+                eq(EnumSet.of(MessageStatus.SENT)), eq(MessageStatus.DELIVERED))).thenReturn(0);
+
+        assertEquals(0, messageService.markDelivered(chatId, userId, upTo).getUpdatedCount());
+        verifyNoInteractions(messagingTemplate, unreadCounterService);
+    }
+
+    @Test
+    void markRead_notChatMember_throws() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(messageReceiptRepository.findPeerId(chatId, userId)).thenReturn(Optional.empty());
+        assertThrows(UserAccessDenied.class, () -> messageService.markRead(chatId, userId, UUID.randomUUID()));
+        verify(messageReceiptRepository, never()).advanceStatus(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void markRead_watermarkFromOtherChat_throws() {
+        UUID chatId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(messageReceiptRepository.findPeerId(chatId, userId)).thenReturn(Optional.of(UUID.randomUUID()));
+        when(messageHistoryRepository.findSentAt(eq(chatId), any())).thenReturn(Optional.empty());
+        assertThrows(MessageNotFound.class, () -> messageService.markRead(chatId, userId, UUID.randomUUID()));
+    }
+
     @Test
     void reactToMessage_success() {
         UUID messageId = UUID.randomUUID();
@@ -0,0 +1,132 @@
+package com.example.friends.and.chats.module.service;
+
+import com.example.friends.and.chats.module.model.dto.presence.PresenceDTO;
+import com.example.friends.and.chats.module.repository.FriendshipRepository;
+import com.example.friends.and.chats.module.service.impl.PresenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private FriendshipRepository friendshipRepository;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private PresenceService presenceService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID friendId = UUID.randomUUID();
+    private final List<String> keys = List.of("presence:" + userId);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(friendshipRepository.findFriendIdsByUserId(userId)).thenReturn(List.of(friendId));
+    }
+
+    @Test
+    void connected_firstLiveSession_notifiesFriends() {
+        when(redisTemplate.execute(connectScript(), eq(keys), any(), any())).thenReturn(1L);
+
+        presenceService.connected(userId, "s1");
+
+        verify(messagingTemplate).convertAndSend("/topic/" + friendId + "/presence", new PresenceDTO(userId, true));
+    }
+
+    @Test
+    void connected_sessionLiveElsewhere_staysQuiet() {
+        when(redisTemplate.execute(connectScript(), eq(keys), any(), any())).thenReturn(0L);
+
+        presenceService.connected(userId, "s1");
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void disconnected_lastLiveSession_notifiesFriends() {
+        when(redisTemplate.execute(disconnectScript(), eq(keys), any())).thenReturn(1L);
+
+        presenceService.disconnected(userId, "s1");
+
+        verify(messagingTemplate).convertAndSend("/topic/" + friendId + "/presence", new PresenceDTO(userId, false));
+    }
+
+    @Test
+    void disconnected_otherSessionsLive_staysQuiet() {
+        when(redisTemplate.execute(disconnectScript(), eq(keys), any())).thenReturn(0L);
+
+        presenceService.disconnected(userId, "s1");
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void heartbeat_refreshesOnlyOpenSessions() {
+        when(redisTemplate.execute(connectScript(), eq(keys), any(), any())).thenReturn(0L);
+        presenceService.connected(userId, "s1");
+        presenceService.connected(userId, "s2");
+        presenceService.disconnected(userId, "s1");
+
+        presenceService.heartbeat();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(heartbeatScript(), eq(keys), args.capture());
+        Object[] sent = args.getValue();
+        assertEquals(3, sent.length);
+        assertEquals("90000", sent[0]);
+        assertEquals("1", sent[1]);
+        assertTrue(((String) sent[2]).endsWith(":s2"));
+    }
+
+    @Test
+    void heartbeat_retriesConnectThatFailed() {
+        when(redisTemplate.execute(connectScript(), eq(keys), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(1L);
+        presenceService.connected(userId, "s1");
+        verifyNoInteractions(messagingTemplate);
+
+        presenceService.heartbeat();
+
+        verify(messagingTemplate).convertAndSend("/topic/" + friendId + "/presence", new PresenceDTO(userId, true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getPresence_readsAllUsersInOnePipeline() {
+        UUID offline = UUID.randomUUID();
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true, false));
+
+        List<PresenceDTO> presence = presenceService.getPresence(List.of(userId, offline));
+
+        assertEquals(List.of(new PresenceDTO(userId, true), new PresenceDTO(offline, false)), presence);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<Long> connectScript() {
+        return argThat(script -> script != null && script.getScriptAsString().contains("ZADD', KEYS[1], now"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<Long> disconnectScript() {
+        return argThat(script -> script != null && script.getScriptAsString().contains("ZREM'"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<Long> heartbeatScript() {
+        return argThat(script -> script != null && script.getScriptAsString().contains("'XX'"));
+    }
+}
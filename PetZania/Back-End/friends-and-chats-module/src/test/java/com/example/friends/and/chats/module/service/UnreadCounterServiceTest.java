@@ -0,0 +1,144 @@
+package com.example.friends.and.chats.module.service;
+
+import com.example.friends.and.chats.module.exception.chat.UserChatNotFound;
+import com.example.friends.and.chats.module.model.dto.message.UnreadCountUpdateDTO;
+import com.example.friends.and.chats.module.repository.UnreadCounterRepository;
+import com.example.friends.and.chats.module.repository.UserChatRepository;
+import com.example.friends.and.chats.module.service.impl.UnreadCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UnreadCounterServiceTest {
+    @Mock private UserChatRepository userChatRepository;
+    @Mock private UnreadCounterRepository unreadCounterRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    private final UUID chatId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID userChatId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void markOneRead_decrementsBothCountersAndReadsThemBack() {
+        when(userChatRepository.decrementUnreadCount(chatId, userId)).thenReturn(1);
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.of(counts(2, 7L)));
+
+        UnreadCountUpdateDTO update = unreadCounterService.markOneRead(chatId, userId);
+
+        verify(unreadCounterRepository).subtractTotalUnread(userId, 1);
+        assertEquals(new UnreadCountUpdateDTO(userChatId, 2, 7L), update);
+    }
+
+    @Test
+    void markOneRead_chatAlreadyRead_leavesTotalAlone() {
+        when(userChatRepository.decrementUnreadCount(chatId, userId)).thenReturn(0);
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.of(counts(0, 3L)));
+
+        unreadCounterService.markOneRead(chatId, userId);
+
+        verify(unreadCounterRepository, never()).subtractTotalUnread(any(), anyLong());
+    }
+
+    @Test
+    void markOneRead_missingUserChat_throws() {
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.empty());
+        assertThrows(UserChatNotFound.class, () -> unreadCounterService.markOneRead(chatId, userId));
+    }
+
+    @Test
+    void markChatRead_subtractsReadMessagesFromChatAndTotal() {
+        when(unreadCounterRepository.lockChatUnread(chatId, userId)).thenReturn(Optional.of(3));
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.of(counts(0, 5L)));
+
+        UnreadCountUpdateDTO update = unreadCounterService.markChatRead(chatId, userId, 3);
+
+        InOrder order = inOrder(unreadCounterRepository);
+        order.verify(unreadCounterRepository).subtractChatUnread(chatId, userId, 3);
+        order.verify(unreadCounterRepository).subtractTotalUnread(userId, 3);
+        assertEquals(new UnreadCountUpdateDTO(userChatId, 0, 5L), update);
+    }
+
+    @Test
+    void markChatRead_chatCounterBelowRead_takesOnlyWhatItHadOffTotal() {
+        when(unreadCounterRepository.lockChatUnread(chatId, userId)).thenReturn(Optional.of(2));
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.of(counts(0, 5L)));
+
+        unreadCounterService.markChatRead(chatId, userId, 3);
+
+        verify(unreadCounterRepository).subtractChatUnread(chatId, userId, 2);
+        verify(unreadCounterRepository).subtractTotalUnread(userId, 2);
+    }
+
+    @Test
+    void markChatRead_chatCounterAlreadyZero_leavesTotalAlone() {
+        when(unreadCounterRepository.lockChatUnread(chatId, userId)).thenReturn(Optional.of(0));
+        when(unreadCounterRepository.findUnreadCounts(chatId, userId)).thenReturn(Optional.of(counts(0, 5L)));
+
+        unreadCounterService.markChatRead(chatId, userId, 3);
+
+        verify(unreadCounterRepository, never()).subtractChatUnread(any(), any(), anyInt());
+        verify(unreadCounterRepository, never()).subtractTotalUnread(any(), anyLong());
+    }
+
+    @Test
+    void removeChat_subtractsItsUnreadFromTotal() {
+        when(unreadCounterRepository.findTotalUnread(userId)).thenReturn(Optional.of(4L));
+
+        assertEquals(4L, unreadCounterService.removeChat(userId, 3));
+        verify(unreadCounterRepository).subtractTotalUnread(userId, 3);
+    }
+
+    @Test
+    void reconcile_walksUsersInKeysetBatches() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID start = new UUID(0, 0);
+        when(unreadCounterRepository.tryLockReconcile()).thenReturn(true);
+        when(unreadCounterRepository.lockUsersAfter(eq(start), anyInt())).thenReturn(List.of(first, second));
+        when(unreadCounterRepository.lockUsersAfter(eq(second), anyInt())).thenReturn(List.of());
+
+        unreadCounterService.reconcile();
+
+        verify(unreadCounterRepository).reconcileTotalUnread(List.of(first, second));
+        verify(unreadCounterRepository, times(2)).lockUsersAfter(any(), anyInt());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void reconcile_anotherInstanceHoldsTheLock_stops() {
+        when(unreadCounterRepository.tryLockReconcile()).thenReturn(false);
+
+        unreadCounterService.reconcile();
+
+        verify(unreadCounterRepository, never()).lockUsersAfter(any(), anyInt());
+        verify(unreadCounterRepository, never()).reconcileTotalUnread(any());
+    }
+
+    private UnreadCounterRepository.UnreadCounts counts(int unread, long totalUnread) {
+        return new UnreadCounterRepository.UnreadCounts() {
+            public UUID getUserChatId() { return userChatId; }
+            public Integer getUnread() { return unread; }
+            public Long getTotalUnread() { return totalUnread; }
+        };
+    }
+}
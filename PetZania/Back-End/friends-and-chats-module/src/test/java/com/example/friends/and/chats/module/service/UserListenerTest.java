@@ -1,7 +1,9 @@
 package com.example.friends.and.chats.module.service;
 import com.example.friends.and.chats.module.model.entity.User;
 import com.example.friends.and.chats.module.model.event.UserEvent;
+import com.example.friends.and.chats.module.model.event.UsersDeletedEvent;
 import com.example.friends.and.chats.module.repository.*;
+import com.example.friends.and.chats.module.service.impl.PrincipalCacheService;
 import com.example.friends.and.chats.module.service.impl.UserListener;
 import com.example.friends.and.chats.module.util.QueueUtils;
 import com.rabbitmq.client.Channel;
@@ -11,6 +13,7 @@ import org.mockito.*;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -21,8 +24,12 @@ public class UserListenerTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserPurgeRepository userPurgeRepository;
+    @Mock
     QueueUtils queueUtils;
     @Mock
+    PrincipalCacheService principalCacheService;
+    @Mock
     Channel channel;
     @Mock
     Message message;
@@ -102,6 +109,7 @@ public class UserListenerTest {
         listener.onUserDeleted(event, channel, message);
 
         verify(userRepository).deleteById(userId);
+        verify(principalCacheService).evictUser(email);
         verify(channel).basicAck(5L, false);
     }
 
@@ -137,4 +145,27 @@ public class UserListenerTest {
 
         verify(channel).basicAck(5L, false);
     }
+
+    @Test
+    void deletesUsersInBulk() throws Exception {
+        List<UUID> ids = List.of(userId, UUID.randomUUID());
+        when(userPurgeRepository.deleteUsers(ids)).thenReturn(2);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(userPurgeRepository).deleteUsers(ids);
+        verify(principalCacheService).evictAllUsers();
+        verify(channel).basicAck(5L, false);
+    }
+
+    @Test
+    void handlesUsersDeletedExceptionAndRetries() throws Exception {
+        List<UUID> ids = List.of(userId);
+        doThrow(new RuntimeException("fail")).when(userPurgeRepository).deleteUsers(ids);
+        when(queueUtils.getRetryCount(eq(message), anyString())).thenReturn(1);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(channel).basicNack(5L, false, false);
+    }
 }
@@ -13,9 +13,11 @@ public final class Constants {
     // ===== Main Queues' Names =====
     public static final String NOTIFICATIONS_QUEUE = "notificationsQueue";
     public static final String USER_DELETED_QUEUE_NOTIFICATION_MODULE = "userDeletedQueueNotificationModule";
+    public static final String USERS_DELETED_QUEUE_NOTIFICATION_MODULE = "usersDeletedQueueNotificationModule";
     public static final String USER_REGISTERED_QUEUE_NOTIFICATION_MODULE = "userRegisteredQueueNotificationModule";
     // ===== Retry Queues' Names =====
     public static final String USER_DELETED_QUEUE_NOTIFICATION_MODULE_RETRY = "userDeletedQueueNotificationModule.retry";
+    public static final String USERS_DELETED_QUEUE_NOTIFICATION_MODULE_RETRY = "usersDeletedQueueNotificationModule.retry";
     public static final String USER_REGISTERED_QUEUE_NOTIFICATION_MODULE_RETRY = "userRegisteredQueueNotificationModule.retry";
 
     // RabbitMQ Arguments
@@ -30,10 +32,13 @@ public final class Constants {
     public static final String NOTIFICATION_ASTERISK = "notification.*";
     public static final String USER_DELETED = "user.deleted";
     public static final String USER_DELETED_NOTIFICATION = "user.deleted.notification";
+    public static final String USERS_DELETED = "users.deleted";
+    public static final String USERS_DELETED_NOTIFICATION = "users.deleted.notification";
     public static final String USER_REGISTERED = "user.registered";
     public static final String USER_REGISTERED_NOTIFICATION = "user.registered.notification";
     // Retry Routing Keys
     public static final String USER_DELETED_NOTIFICATION_RETRY = "user.deleted.notification.retry";
+    public static final String USERS_DELETED_NOTIFICATION_RETRY = "users.deleted.notification.retry";
     public static final String USER_REGISTERED_NOTIFICATION_RETRY = "user.registered.notification.retry";
     // Rate Limit
     public static final int RATE_LIMIT_DEFAULT_REQUESTS = 10;
@@ -46,5 +51,14 @@ public final class Constants {
     public static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
     public static final String ANONYMOUS = "anonymous";
     public static final int START_INDEX = 7;
+    public static final int JWT_CLAIMS_CACHE_MAX_SIZE = 10_000;
+    public static final String JWT_CLAIMS_REQUEST_ATTRIBUTE = "jwt.claims";
+    // Principal Cache
+    public static final int PRINCIPAL_CACHE_MAX_SIZE = 10_000;
+    public static final long PRINCIPAL_CACHE_TTL_MILLIS = 60_000;
+    public static final String PRINCIPAL_CACHE_METRIC = "security.principal.cache";
+    // WebSocket Fan-out
+    public static final String WS_FANOUT_CHANNEL_PREFIX = "ws:notifications:user:";
+    public static final String WS_FANOUT_ORIGIN_HEADER = "fanoutOrigin";
 
 }
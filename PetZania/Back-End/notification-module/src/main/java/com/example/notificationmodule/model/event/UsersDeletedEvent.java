@@ -0,0 +1,18 @@
+package com.example.notificationmodule.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One chunk of a bulk user purge in registration-module.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsersDeletedEvent {
+    private List<UUID> userIds;
+}
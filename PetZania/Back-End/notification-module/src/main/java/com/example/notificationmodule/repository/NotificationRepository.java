@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
@@ -34,4 +35,8 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
 
     void deleteByInitiatorId(UUID initiatorId);
     void deleteByEntityId(UUID entityId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.recipientId IN :userIds OR n.initiatorId IN :userIds")
+    int deleteByRecipientIdInOrInitiatorIdIn(@Param("userIds") Collection<UUID> userIds);
 }
\ No newline at end of file
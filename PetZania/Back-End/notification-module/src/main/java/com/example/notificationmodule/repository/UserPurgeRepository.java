@@ -0,0 +1,16 @@
+package com.example.notificationmodule.repository;
+
+import com.example.notificationmodule.model.entity.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface UserPurgeRepository extends Repository<User, UUID> {
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.userId IN :userIds")
+    int deleteUsers(@Param("userIds") Collection<UUID> userIds);
+}
@@ -2,7 +2,9 @@ package com.example.notificationmodule.service.impl;
 
 import com.example.notificationmodule.model.principal.AdminPrincipal;
 import com.example.notificationmodule.model.principal.UserPrincipal;
+import com.example.notificationmodule.util.JwtClaimsCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -10,11 +12,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.function.Function;
 
+import static com.example.notificationmodule.constant.Constants.JWT_CLAIMS_CACHE_MAX_SIZE;
+import static com.example.notificationmodule.constant.Constants.JWT_CLAIMS_REQUEST_ATTRIBUTE;
+
 @Service
 @Slf4j
 @PropertySource("classpath:application.yml")
@@ -22,10 +29,32 @@ public class JWTService {
     @Value("${spring.jwt.secret-key}")
     private String secretKey;
 
+    private final JwtClaimsCache claimsCache = new JwtClaimsCache(JWT_CLAIMS_CACHE_MAX_SIZE);
+
+    // built lazily once the secret key has been injected
+    private volatile Key key;
+    private volatile JwtParser parser;
+
     public Key getKey() {
         // Replace with a secure key
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key cachedKey = key;
+        if (cachedKey == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            cachedKey = Keys.hmacShaKeyFor(keyBytes);
+            key = cachedKey;
+        }
+        return cachedKey;
+    }
+
+    private JwtParser getParser() {
+        JwtParser cachedParser = parser;
+        if (cachedParser == null) {
+            cachedParser = Jwts.parserBuilder()
+                    .setSigningKey(getKey())
+                    .build();
+            parser = cachedParser;
+        }
+        return cachedParser;
     }
 
     public String extractEmail(String token) {
@@ -43,9 +72,23 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
+        // one parse serves the whole request (filter, validation and rate limiting)
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(JWT_CLAIMS_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ParsedToken parsed
+                && parsed.token().equals(token)) {
+            return parsed.claims();
+        }
+
+        Claims claims = claimsCache.getOrParse(token, this::parseClaims);
+        if (attributes != null) {
+            attributes.setAttribute(JWT_CLAIMS_REQUEST_ATTRIBUTE, new ParsedToken(token, claims), RequestAttributes.SCOPE_REQUEST);
+        }
+        return claims;
+    }
+
+    private Claims parseClaims(String token) {
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -82,4 +125,7 @@ public class JWTService {
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-}
\ No newline at end of file
+
+    private record ParsedToken(String token, Claims claims) {
+    }
+}
@@ -2,7 +2,9 @@ package com.example.notificationmodule.service.impl;
 
 import com.example.notificationmodule.model.entity.User;
 import com.example.notificationmodule.model.event.UserEvent;
+import com.example.notificationmodule.model.event.UsersDeletedEvent;
 import com.example.notificationmodule.repository.NotificationRepository;
+import com.example.notificationmodule.repository.UserPurgeRepository;
 import com.example.notificationmodule.repository.UserRepository;
 import com.example.notificationmodule.util.QueueUtils;
 import lombok.AllArgsConstructor;
@@ -21,8 +23,10 @@ import static com.example.notificationmodule.constant.Constants.*;
 @Slf4j
 public class UserEventListener {
     private final UserRepository userRepository;
+    private final UserPurgeRepository userPurgeRepository;
     private final NotificationRepository notificationRepository;
     private final QueueUtils queueUtils;
+    private final PrincipalCacheService principalCacheService;
 
     @RabbitListener(queues = USER_REGISTERED_QUEUE_NOTIFICATION_MODULE, ackMode = ACK_MODE)
     public void onUserRegistered(UserEvent user, Channel channel, Message message) {
@@ -64,6 +68,7 @@ public class UserEventListener {
                 userRepository.deleteById(user.getUserId());
                 log.info("received deleted user: {}", user);
             }
+            principalCacheService.evictUser(user.getEmail());
             channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
         } catch (Exception ex) {
             log.error("Error processing user deleted event: {}", user, ex);
@@ -82,4 +87,34 @@ public class UserEventListener {
             }
         }
     }
+
+    @RabbitListener(queues = USERS_DELETED_QUEUE_NOTIFICATION_MODULE, ackMode = ACK_MODE)
+    public void onUsersDeleted(UsersDeletedEvent users, Channel channel, Message message) {
+        try {
+            if (!users.getUserIds().isEmpty()) {
+                // notifications.recipient_id has no ON DELETE CASCADE
+                notificationRepository.deleteByRecipientIdInOrInitiatorIdIn(users.getUserIds());
+                int deleted = userPurgeRepository.deleteUsers(users.getUserIds());
+                log.info("received {} deleted users, removed {}", users.getUserIds().size(), deleted);
+            }
+            // the event carries ids only, so cached principals cannot be evicted by email
+            principalCacheService.evictAllUsers();
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (Exception ex) {
+            log.error("Error processing users deleted event: {}", users, ex);
+            try {
+                int retryCount = queueUtils.getRetryCount(message, USERS_DELETED_QUEUE_NOTIFICATION_MODULE_RETRY);
+                if (retryCount >= MAX_RETRIES) {
+                    // simply drop the message
+                    channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+                    log.info("Max retries reached for the event: {}", users);
+                } else {
+                    channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, false);
+                    log.info("This is the retry number: {} for event: {}", retryCount, users);
+                }
+            } catch (Exception nackErr) {
+                log.error("Error nacking message for event: {}", users, nackErr);
+            }
+        }
+    }
 }
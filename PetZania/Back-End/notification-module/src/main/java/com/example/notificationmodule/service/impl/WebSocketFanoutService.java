@@ -0,0 +1,188 @@
+package com.example.notificationmodule.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.example.notificationmodule.constant.Constants.*;
+
+/**
+ * Lets pushes to {@code /topic/{userId}/...} reach clients connected to any instance. Every
+ * message sent to the local broker is also published on the Redis channel of the user in its
+ * destination, and each instance listens only on the channels of users that have a subscription
+ * on it, delivering what other instances published to its own broker.
+ */
+@Service
+@Slf4j
+public class WebSocketFanoutService implements ChannelInterceptor, MessageListener {
+    private static final Pattern USER_DESTINATION = Pattern.compile("^/topic/([0-9a-fA-F-]{36})/.+");
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // subscriptions held on this instance: session -> subscription id -> user, and how many target each user
+    private final Map<String, Map<String, UUID>> subscriptions = new HashMap<>();
+    private final Map<UUID, Integer> subscriptionsPerUser = new HashMap<>();
+
+    record Envelope(String origin, String destination, String contentType, String payload) {
+    }
+
+    public WebSocketFanoutService(StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                                  ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getHeader(WS_FANOUT_ORIGIN_HEADER) != null) {
+            return message;
+        }
+        userId(accessor.getDestination()).ifPresent(userId -> publish(userId, accessor, message.getPayload()));
+        return message;
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            if (instanceId.equals(envelope.origin())) {
+                return;
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.destination());
+            if (envelope.contentType() != null) {
+                accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+            }
+            accessor.setHeader(WS_FANOUT_ORIGIN_HEADER, envelope.origin());
+            accessor.setLeaveMutable(true);
+            byte[] payload = envelope.payload().getBytes(StandardCharsets.UTF_8);
+            messagingTemplate.getObject().send(envelope.destination(), MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        } catch (Exception ex) {
+            log.error("Failed to deliver a fanned-out WebSocket message", ex);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        userId(accessor.getDestination())
+                .ifPresent(userId -> subscribed(accessor.getSessionId(), accessor.getSubscriptionId(), userId));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnected(event.getSessionId());
+    }
+
+    public synchronized void subscribed(String sessionId, String subscriptionId, UUID userId) {
+        UUID previous = subscriptions.computeIfAbsent(sessionId, id -> new HashMap<>()).put(subscriptionId, userId);
+        if (previous != null) {
+            release(previous);
+        }
+        if (subscriptionsPerUser.merge(userId, 1, Integer::sum) == 1) {
+            listenerContainer.addMessageListener(this, topic(userId));
+        }
+    }
+
+    public synchronized void unsubscribed(String sessionId, String subscriptionId) {
+        Map<String, UUID> session = subscriptions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        UUID userId = session.remove(subscriptionId);
+        if (session.isEmpty()) {
+            subscriptions.remove(sessionId);
+        }
+        if (userId != null) {
+            release(userId);
+        }
+    }
+
+    public synchronized void disconnected(String sessionId) {
+        Map<String, UUID> session = subscriptions.remove(sessionId);
+        if (session != null) {
+            session.values().forEach(this::release);
+        }
+    }
+
+    private void release(UUID userId) {
+        Integer remaining = subscriptionsPerUser.get(userId);
+        if (remaining == null) {
+            return;
+        }
+        if (remaining > 1) {
+            subscriptionsPerUser.put(userId, remaining - 1);
+        } else {
+            subscriptionsPerUser.remove(userId);
+            listenerContainer.removeMessageListener(this, topic(userId));
+        }
+    }
+
+    private void publish(UUID userId, SimpMessageHeaderAccessor accessor, Object payload) {
+        try {
+            MimeType contentType = accessor.getContentType();
+            String body = payload instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(payload);
+            Envelope envelope = new Envelope(instanceId, accessor.getDestination(), contentType == null ? null : contentType.toString(), body);
+            redisTemplate.convertAndSend(WS_FANOUT_CHANNEL_PREFIX + userId, objectMapper.writeValueAsString(envelope));
+        } catch (Exception ex) {
+            // subscribers on this instance still get the message
+            log.error("Failed to fan out WebSocket message to {}", accessor.getDestination(), ex);
+        }
+    }
+
+    private static ChannelTopic topic(UUID userId) {
+        return new ChannelTopic(WS_FANOUT_CHANNEL_PREFIX + userId);
+    }
+
+    private static Optional<UUID> userId(String destination) {
+        if (destination == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = USER_DESTINATION.matcher(destination);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(matcher.group(1)));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.notificationmodule.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU of already verified JWT claims.
+ * Entries are keyed by the SHA-256 digest of the token (so raw tokens are never kept in memory)
+ * and are dropped as soon as the token's own expiration is reached.
+ */
+public class JwtClaimsCache {
+    private final int maxSize;
+    private final Map<String, CachedClaims> entries;
+
+    public JwtClaimsCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > JwtClaimsCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached claims of the token, or verifies it with the given parser and caches the result.
+     * Tokens without an expiration are never cached.
+     */
+    public Claims getOrParse(String token, Function<String, Claims> parser) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            CachedClaims cached = entries.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return cached.claims();
+                }
+                entries.remove(digest);
+            }
+        }
+
+        Claims claims = parser.apply(token);
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.getTime() > now) {
+            synchronized (this) {
+                entries.put(digest, new CachedClaims(claims, expiration.getTime()));
+            }
+        }
+        return claims;
+    }
+
+    public synchronized void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+}
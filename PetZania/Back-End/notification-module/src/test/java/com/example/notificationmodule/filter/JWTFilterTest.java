@@ -4,6 +4,8 @@ import com.example.notificationmodule.model.principal.AdminPrincipal;
 import com.example.notificationmodule.model.principal.UserPrincipal;
 import com.example.notificationmodule.service.impl.JWTService;
 import com.example.notificationmodule.service.impl.MyUserDetailsService;
+import com.example.notificationmodule.service.impl.PrincipalCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -36,7 +38,7 @@ class JWTFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        filter = new JWTFilter(jwtService, applicationContext);
+        filter = new JWTFilter(jwtService, applicationContext, new PrincipalCacheService(new SimpleMeterRegistry()));
         // Must clear SecurityContext every test!
         SecurityContextHolder.clearContext();
     }
@@ -95,6 +97,30 @@ class JWTFilterTest {
         verify(chain).doFilter(request, response);
     }
 
+    @Test
+    void shouldSetAuthorityOnlyWhenPrincipalIsLoaded() throws Exception {
+        String token = "valid-user-token";
+        String email = "user@mail.com";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractEmail(token)).thenReturn(email);
+        when(jwtService.extractRole(token)).thenReturn("ROLE_USER");
+
+        UserPrincipal userPrincipal = mock(UserPrincipal.class);
+        when(applicationContext.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByEmail(email)).thenReturn(userPrincipal);
+        when(jwtService.validateTokenForUser(token, userPrincipal)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, chain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+
+        // the cached principal is shared between requests and must not be written again
+        verify(userDetailsService, times(1)).loadUserByEmail(email);
+        verify(userPrincipal, times(1)).setGrantedAuthority(any());
+        assertEquals(userPrincipal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
     @Test
     void shouldNotAuthenticateWhenHeaderMissing() throws Exception {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -2,8 +2,11 @@ package com.example.notificationmodule.service;
 
 import com.example.notificationmodule.model.entity.User;
 import com.example.notificationmodule.model.event.UserEvent;
+import com.example.notificationmodule.model.event.UsersDeletedEvent;
 import com.example.notificationmodule.repository.NotificationRepository;
+import com.example.notificationmodule.repository.UserPurgeRepository;
 import com.example.notificationmodule.repository.UserRepository;
+import com.example.notificationmodule.service.impl.PrincipalCacheService;
 import com.example.notificationmodule.service.impl.UserEventListener;
 import com.example.notificationmodule.util.QueueUtils;
 import com.rabbitmq.client.Channel;
@@ -13,6 +16,7 @@ import org.mockito.*;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -24,10 +28,14 @@ class UserEventListenerTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserPurgeRepository userPurgeRepository;
+    @Mock
     NotificationRepository notificationRepository;
     @Mock
     QueueUtils queueUtils;
     @Mock
+    PrincipalCacheService principalCacheService;
+    @Mock
     Channel channel;
     @Mock
     Message message;
@@ -147,4 +155,28 @@ class UserEventListenerTest {
 
         verify(channel).basicAck(5L, false);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deletesUsersInBulk() throws Exception {
+        List<UUID> ids = List.of(userId, UUID.randomUUID());
+        when(userPurgeRepository.deleteUsers(ids)).thenReturn(2);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(notificationRepository).deleteByRecipientIdInOrInitiatorIdIn(ids);
+        verify(userPurgeRepository).deleteUsers(ids);
+        verify(principalCacheService).evictAllUsers();
+        verify(channel).basicAck(5L, false);
+    }
+
+    @Test
+    void handlesUsersDeletedExceptionAndRetries() throws Exception {
+        List<UUID> ids = List.of(userId);
+        doThrow(new RuntimeException("fail")).when(userPurgeRepository).deleteUsers(ids);
+        when(queueUtils.getRetryCount(eq(message), anyString())).thenReturn(1);
+
+        listener.onUsersDeleted(new UsersDeletedEvent(ids), channel, message);
+
+        verify(channel).basicNack(5L, false, false);
+    }
+}
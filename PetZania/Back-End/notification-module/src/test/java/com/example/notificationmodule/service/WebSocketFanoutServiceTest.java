@@ -0,0 +1,107 @@
+package com.example.notificationmodule.service;
+
+import com.example.notificationmodule.service.impl.WebSocketFanoutService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static com.example.notificationmodule.constant.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebSocketFanoutServiceTest {
+    private StringRedisTemplate redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketFanoutService fanout;
+
+    private final UUID userId = UUID.randomUUID();
+    private final String destination = "/topic/" + userId + "/messages";
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        listenerContainer = mock(RedisMessageListenerContainer.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        ObjectProvider<SimpMessagingTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(messagingTemplate);
+        fanout = new WebSocketFanoutService(redisTemplate, listenerContainer, provider, new ObjectMapper());
+    }
+
+    @Test
+    void preSend_publishesUserMessagesOnTheUsersChannel() {
+        Message<byte[]> message = brokerMessage(destination, null);
+
+        assertSame(message, fanout.preSend(message, mock(MessageChannel.class)));
+
+        verify(redisTemplate).convertAndSend(eq(WS_FANOUT_CHANNEL_PREFIX + userId), contains("\"payload\":\"{\\\"content\\\":\\\"hi\\\"}\""));
+    }
+
+    @Test
+    void preSend_skipsRelayedAndNonUserMessages() {
+        fanout.preSend(brokerMessage(destination, "other-instance"), mock(MessageChannel.class));
+        fanout.preSend(brokerMessage("/topic/public", null), mock(MessageChannel.class));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void onMessage_deliversMessagesFromOtherInstancesToLocalBroker() throws Exception {
+        fanout.preSend(brokerMessage(destination, null), mock(MessageChannel.class));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(anyString(), published.capture());
+
+        // an instance ignores its own messages, which its local broker has already delivered
+        fanout.onMessage(new DefaultMessage(new byte[0], published.getValue().getBytes(StandardCharsets.UTF_8)), null);
+        verifyNoInteractions(messagingTemplate);
+
+        String fromOther = published.getValue().replaceFirst("\"origin\":\"[^\"]+\"", "\"origin\":\"other-instance\"");
+        fanout.onMessage(new DefaultMessage(new byte[0], fromOther.getBytes(StandardCharsets.UTF_8)), null);
+
+        ArgumentCaptor<Message<?>> delivered = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(destination), delivered.capture());
+        assertEquals("{\"content\":\"hi\"}", new String((byte[]) delivered.getValue().getPayload(), StandardCharsets.UTF_8));
+        assertEquals("other-instance", delivered.getValue().getHeaders().get(WS_FANOUT_ORIGIN_HEADER));
+    }
+
+    @Test
+    void subscriptions_listenOnUserChannelOnlyWhileSubscribed() {
+        ChannelTopic topic = new ChannelTopic(WS_FANOUT_CHANNEL_PREFIX + userId);
+
+        fanout.subscribed("s1", "sub-1", userId);
+        fanout.subscribed("s2", "sub-1", userId);
+        verify(listenerContainer, times(1)).addMessageListener(fanout, topic);
+
+        fanout.unsubscribed("s1", "sub-1");
+        verify(listenerContainer, never()).removeMessageListener(any(), any(ChannelTopic.class));
+
+        fanout.disconnected("s2");
+        verify(listenerContainer).removeMessageListener(fanout, topic);
+    }
+
+    private Message<byte[]> brokerMessage(String destination, String origin) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (origin != null) {
+            accessor.setHeader(WS_FANOUT_ORIGIN_HEADER, origin);
+        }
+        return MessageBuilder.createMessage("{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
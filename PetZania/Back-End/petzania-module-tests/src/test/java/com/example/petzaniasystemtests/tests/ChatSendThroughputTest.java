@@ -0,0 +1,110 @@
+package com.example.petzaniasystemtests.tests;
+
+import com.example.petzaniasystemtests.builders.TestDataBuilder;
+import com.example.petzaniasystemtests.config.BaseSystemTest;
+import com.example.petzaniasystemtests.utils.JwtTokenExtractor;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many senders message one receiver at the same time through a single friends-and-chats-module
+ * instance. Reports messages per second and send latency, and checks that no unread increment is lost.
+ */
+public class ChatSendThroughputTest extends BaseSystemTest {
+    private static final int SENDERS = 10;
+    private static final int MESSAGES_PER_SENDER = 10; // stays under the per-user rate limit on POST /send
+    private static final double MIN_MESSAGES_PER_SECOND = 20;
+
+    @AfterEach
+    void clearRedis() throws Exception {
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @Test
+    @DisplayName("Concurrent sends to one receiver keep up throughput and count every message as unread")
+    void concurrentSends_reportThroughputAndKeepUnreadCount() throws Exception {
+        String receiverName = "chatload_receiver_" + System.currentTimeMillis();
+        Response receiverLogin = registerAndLoginUser(receiverName, receiverName + "@example.com");
+        String receiverToken = JwtTokenExtractor.extractAccessToken(receiverLogin);
+        String receiverId = JwtTokenExtractor.extractUserId(receiverLogin);
+
+        List<String> tokens = new ArrayList<>();
+        List<UUID> chatIds = new ArrayList<>();
+        for (int i = 0; i < SENDERS; i++) {
+            String username = "chatload_sender_" + i + "_" + System.currentTimeMillis();
+            String token = JwtTokenExtractor.extractAccessToken(registerAndLoginUser(username, username + "@example.com"));
+            String chatId = given()
+                    .spec(getAuthenticatedSpec(token))
+                    .when()
+                    .post(friendsBaseUrl + "/api/chats/user/" + receiverId)
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getString("chatId");
+            tokens.add(token);
+            chatIds.add(UUID.fromString(chatId));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SENDERS);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int sender = 0; sender < SENDERS; sender++) {
+            String token = tokens.get(sender);
+            UUID chatId = chatIds.get(sender);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                    long start = System.nanoTime();
+                    int status = given()
+                            .spec(getAuthenticatedSpec(token))
+                            .body(TestDataBuilder.MessageBuilder.createSendMessageJson(chatId, "load message " + i))
+                            .when()
+                            .post(friendsBaseUrl + "/api/messages/send")
+                            .statusCode();
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (status != 200) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        double throughput = sorted.size() / elapsedSeconds;
+        System.out.printf("message sends: n=%d in %.2fs = %.1f msg/s per node | p50=%dms p99=%dms max=%dms%n",
+                sorted.size(), elapsedSeconds, throughput, p50, p99, sorted.get(sorted.size() - 1));
+
+        assertEquals(0, failures.get(), "message sends must succeed");
+        assertTrue(throughput >= MIN_MESSAGES_PER_SECOND, "send throughput was " + throughput + " msg/s");
+
+        long unread = given()
+                .spec(getAuthenticatedSpec(receiverToken))
+                .when()
+                .get(friendsBaseUrl + "/api/messages/unread-count")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(Long.class);
+        assertEquals((long) SENDERS * MESSAGES_PER_SENDER, unread, "every message must count as unread");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.petzaniasystemtests.tests;
+
+import com.example.petzaniasystemtests.builders.TestDataBuilder;
+import com.example.petzaniasystemtests.config.BaseSystemTest;
+import com.example.petzaniasystemtests.utils.JwtTokenExtractor;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mixes a login burst with profile reads against registration-module. Password hashing runs on its
+ * own bounded executor, so the burst is either served or shed with 503 + Retry-After while profile
+ * reads keep their normal latency.
+ */
+public class PasswordHashingLoadTest extends BaseSystemTest {
+    private static final int LOGIN_REQUESTS = 200;
+    private static final int READERS = 5;
+    private static final int READS_PER_READER = 10; // stays under the per-user rate limit on GET /{id}
+    private static final long PROFILE_READ_P95_LIMIT_MILLIS = 1_000;
+
+    @AfterEach
+    void clearRedis() throws Exception {
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @Test
+    @DisplayName("Login burst does not starve profile reads")
+    void loginBurst_doesNotStarveProfileReads() throws Exception {
+        String loginEmail = "hashload_login_" + System.currentTimeMillis() + "@example.com";
+        registerAndLoginUser("hashload_login_" + System.currentTimeMillis(), loginEmail);
+
+        List<String> readerTokens = new ArrayList<>();
+        List<String> readerIds = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            String username = "hashload_reader_" + i + "_" + System.currentTimeMillis();
+            Response login = registerAndLoginUser(username, username + "@example.com");
+            readerTokens.add(JwtTokenExtractor.extractAccessToken(login));
+            readerIds.add(JwtTokenExtractor.extractUserId(login));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        AtomicInteger loginOk = new AtomicInteger();
+        AtomicInteger loginShed = new AtomicInteger();
+        AtomicInteger loginOther = new AtomicInteger();
+        AtomicInteger shedWithoutRetryAfter = new AtomicInteger();
+        List<Long> readLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger readFailures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < LOGIN_REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                Response response = given()
+                        .contentType("application/json")
+                        .body(TestDataBuilder.UserBuilder.createLoginJson(loginEmail, PASSWORD))
+                        .when()
+                        .post(registrationBaseUrl + "/api/user/auth/login");
+                if (response.statusCode() == 200) {
+                    loginOk.incrementAndGet();
+                } else if (response.statusCode() == 503) {
+                    loginShed.incrementAndGet();
+                    if (response.getHeader("Retry-After") == null) {
+                        shedWithoutRetryAfter.incrementAndGet();
+                    }
+                } else {
+                    loginOther.incrementAndGet();
+                }
+            }));
+        }
+        for (int reader = 0; reader < READERS; reader++) {
+            String token = readerTokens.get(reader);
+            String targetId = readerIds.get((reader + 1) % READERS);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < READS_PER_READER; i++) {
+                    long start = System.nanoTime();
+                    int status = given()
+                            .spec(getAuthenticatedSpec(token))
+                            .when()
+                            .get(registrationBaseUrl + "/api/user/auth/" + targetId)
+                            .statusCode();
+                    readLatencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (status != 200) {
+                        readFailures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        List<Long> sorted = new ArrayList<>(readLatencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p95 = sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1);
+        System.out.printf("logins: ok=%d shed=%d other=%d | profile reads: n=%d p50=%dms p95=%dms max=%dms%n",
+                loginOk.get(), loginShed.get(), loginOther.get(), sorted.size(), p50, p95, sorted.get(sorted.size() - 1));
+
+        assertEquals(0, loginOther.get(), "logins must either succeed or be shed with 503");
+        assertEquals(0, shedWithoutRetryAfter.get(), "shed logins must carry Retry-After");
+        assertTrue(loginOk.get() > 0, "some logins must succeed during the burst");
+        assertEquals(0, readFailures.get(), "profile reads must not fail during a login burst");
+        assertTrue(p95 < PROFILE_READ_P95_LIMIT_MILLIS, "profile read p95 was " + p95 + "ms");
+    }
+}
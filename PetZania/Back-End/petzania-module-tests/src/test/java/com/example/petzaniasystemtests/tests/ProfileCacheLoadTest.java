@@ -0,0 +1,114 @@
+package com.example.petzaniasystemtests.tests;
+
+import com.example.petzaniasystemtests.builders.TestDataBuilder;
+import com.example.petzaniasystemtests.config.BaseSystemTest;
+import com.example.petzaniasystemtests.utils.JwtTokenExtractor;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads a few hot profiles from many users against registration-module and reports the profile
+ * cache hit ratio and read latency. An update to a cached profile must be visible on the next read.
+ */
+public class ProfileCacheLoadTest extends BaseSystemTest {
+    private static final int READERS = 10;
+    private static final int TARGETS = 2;
+    private static final int READS_PER_READER = 10; // stays under the per-user rate limit on GET /{id}
+    private static final double MIN_HIT_RATIO = 0.7; // the first concurrent reads of each target may all miss
+    private static final long PROFILE_READ_P99_LIMIT_MILLIS = 500;
+
+    @AfterEach
+    void clearRedis() throws Exception {
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @Test
+    @DisplayName("Hot profiles are served from the profile cache and updates evict them")
+    void hotProfileReads_areCachedAndEvictedOnUpdate() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < READERS + 1; i++) {
+            String username = "profilecache_" + i + "_" + System.currentTimeMillis();
+            Response login = registerAndLoginUser(username, username + "@example.com");
+            tokens.add(JwtTokenExtractor.extractAccessToken(login));
+            ids.add(JwtTokenExtractor.extractUserId(login));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int reader = 0; reader < READERS; reader++) {
+            String token = tokens.get(reader);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < READS_PER_READER; i++) {
+                    long start = System.nanoTime();
+                    int status = given()
+                            .spec(getAuthenticatedSpec(token))
+                            .when()
+                            .get(registrationBaseUrl + "/api/user/auth/" + ids.get(i % TARGETS))
+                            .statusCode();
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (status != 200) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        double hitRatio = given()
+                .spec(getAuthenticatedSpec(tokens.get(0)))
+                .when()
+                .get(registrationBaseUrl + "/actuator/metrics/user.profile.cache.hit.ratio")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getDouble("measurements[0].value");
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        System.out.printf("profile reads: n=%d p50=%dms p99=%dms max=%dms | cache hit ratio=%.2f%n",
+                sorted.size(), p50, p99, sorted.get(sorted.size() - 1), hitRatio);
+
+        assertEquals(0, failures.get(), "profile reads must succeed");
+        assertTrue(hitRatio >= MIN_HIT_RATIO, "profile cache hit ratio was " + hitRatio);
+        assertTrue(p99 < PROFILE_READ_P99_LIMIT_MILLIS, "profile read p99 was " + p99 + "ms");
+        assertEquals("1", redis.execInContainer("redis-cli", "EXISTS", "profile:" + ids.get(0)).getStdout().trim());
+
+        given()
+                .spec(getAuthenticatedSpec(tokens.get(0)))
+                .body(TestDataBuilder.UserBuilder.createUpdateProfileJson("Cached", "Updated bio", "+1234567890"))
+                .when()
+                .patch(registrationBaseUrl + "/api/user/auth/" + ids.get(0))
+                .then()
+                .statusCode(200);
+
+        String bio = given()
+                .spec(getAuthenticatedSpec(tokens.get(READERS)))
+                .when()
+                .get(registrationBaseUrl + "/api/user/auth/" + ids.get(0))
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getString("bio");
+        assertEquals("Updated bio", bio, "an update must evict the cached profile");
+    }
+}
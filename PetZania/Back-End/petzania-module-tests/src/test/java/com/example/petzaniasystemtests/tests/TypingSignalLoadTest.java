@@ -0,0 +1,157 @@
+package com.example.petzaniasystemtests.tests;
+
+import com.example.petzaniasystemtests.config.BaseSystemTest;
+import com.example.petzaniasystemtests.utils.JwtTokenExtractor;
+import com.example.petzaniasystemtests.utils.WebSocketTestClient;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Thousands of STOMP sessions send typing signals at once through a single friends-and-chats-module
+ * instance. Every session's first signal must reach the other member of its chat, repeats inside the
+ * throttle window must be dropped, and chat membership must come from the in-memory cache.
+ */
+public class TypingSignalLoadTest extends BaseSystemTest {
+    private static final int CHATS = 10;
+    private static final int SESSIONS_PER_TYPIST = 200;
+    private static final int TYPISTS = CHATS * SESSIONS_PER_TYPIST;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_INTERVAL_MILLIS = 150; // all rounds fit inside the one-second throttle window
+    private static final String SIGNAL_DESTINATION = "/app/chats/signal";
+
+    private final List<WebSocketTestClient> clients = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clients.forEach(WebSocketTestClient::disconnect);
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @Test
+    @DisplayName("Typing signals from thousands of sessions are relayed once per session and throttled after that")
+    void concurrentTypists_areRelayedAndThrottled() throws Exception {
+        List<UUID> chatIds = new ArrayList<>();
+        List<String> typistTokens = new ArrayList<>();
+        List<WebSocketTestClient> receivers = new ArrayList<>();
+        for (int i = 0; i < CHATS; i++) {
+            String typistName = "typist_" + i + "_" + System.currentTimeMillis();
+            String receiverName = "watcher_" + i + "_" + System.currentTimeMillis();
+            String typistToken = JwtTokenExtractor.extractAccessToken(registerAndLoginUser(typistName, typistName + "@example.com"));
+            Response receiverLogin = registerAndLoginUser(receiverName, receiverName + "@example.com");
+            String receiverId = JwtTokenExtractor.extractUserId(receiverLogin);
+            String chatId = given()
+                    .spec(getAuthenticatedSpec(typistToken))
+                    .when()
+                    .post(friendsBaseUrl + "/api/chats/user/" + receiverId)
+                    .then()
+                    .statusCode(201)
+                    .extract()
+                    .jsonPath()
+                    .getString("chatId");
+            chatIds.add(UUID.fromString(chatId));
+            typistTokens.add(typistToken);
+
+            WebSocketTestClient receiver = connect(JwtTokenExtractor.extractAccessToken(receiverLogin));
+            receiver.subscribe("/topic/" + receiverId + "/signals", Map.class);
+            receivers.add(receiver);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        List<List<WebSocketTestClient>> sessions = new ArrayList<>();
+        List<Future<WebSocketTestClient>> connecting = new ArrayList<>();
+        for (int i = 0; i < CHATS; i++) {
+            String token = typistTokens.get(i);
+            for (int s = 0; s < SESSIONS_PER_TYPIST; s++) {
+                connecting.add(executor.submit(() -> connect(token)));
+            }
+        }
+        for (int i = 0; i < CHATS; i++) {
+            List<WebSocketTestClient> chatSessions = new ArrayList<>();
+            for (int s = 0; s < SESSIONS_PER_TYPIST; s++) {
+                chatSessions.add(connecting.get(i * SESSIONS_PER_TYPIST + s).get(1, TimeUnit.MINUTES));
+            }
+            sessions.add(chatSessions);
+        }
+        Thread.sleep(1500);
+
+        // one signal per chat loads its membership before the burst
+        for (int i = 0; i < CHATS; i++) {
+            sessions.get(i).get(0).send(SIGNAL_DESTINATION, signal(chatIds.get(i), "VIEWING"));
+        }
+        for (WebSocketTestClient receiver : receivers) {
+            assertNotNull(receiver.receiveMessage(10, TimeUnit.SECONDS), "the warm-up signal must be relayed");
+        }
+        long missesBefore = metric(typistTokens.get(0), "chat.membership.cache.misses");
+
+        long started = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            long roundStart = System.nanoTime();
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < CHATS; i++) {
+                Map<String, Object> typing = signal(chatIds.get(i), "TYPING");
+                for (WebSocketTestClient session : sessions.get(i)) {
+                    sends.add(executor.submit(() -> session.send(SIGNAL_DESTINATION, typing)));
+                }
+            }
+            for (Future<?> send : sends) {
+                send.get(30, TimeUnit.SECONDS);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+            Thread.sleep(Math.max(0, ROUND_INTERVAL_MILLIS - elapsedMillis));
+        }
+        double sendSeconds = (System.nanoTime() - started) / 1e9;
+
+        int relayed = 0;
+        for (WebSocketTestClient receiver : receivers) {
+            Object payload;
+            while ((payload = receiver.receiveMessage(3, TimeUnit.SECONDS)) != null) {
+                if ("TYPING".equals(((Map<?, ?>) payload).get("type"))) {
+                    relayed++;
+                }
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        long throttled = metric(typistTokens.get(0), "chat.signals?tag=outcome:throttled");
+        long misses = metric(typistTokens.get(0), "chat.membership.cache.misses") - missesBefore;
+        System.out.printf("typing signals: sessions=%d sent=%d in %.2fs = %.0f signals/s | relayed=%d throttled=%d membership misses=%d%n",
+                TYPISTS, TYPISTS * ROUNDS, sendSeconds, TYPISTS * ROUNDS / sendSeconds, relayed, throttled, misses);
+
+        assertTrue(relayed >= TYPISTS, "every session's first signal must be relayed, got " + relayed);
+        assertTrue(relayed <= 2L * TYPISTS, "repeats inside the throttle window must be dropped, got " + relayed);
+        assertTrue(throttled >= (long) TYPISTS * (ROUNDS - 2), "throttled only " + throttled + " signals");
+        assertTrue(misses <= CHATS, "membership must be served from memory, but missed " + misses + " times");
+    }
+
+    private WebSocketTestClient connect(String token) throws Exception {
+        WebSocketTestClient client = new WebSocketTestClient();
+        client.connect(wsUrl, token);
+        clients.add(client);
+        return client;
+    }
+
+    private Map<String, Object> signal(UUID chatId, String type) {
+        return Map.of("chatId", chatId.toString(), "type", type);
+    }
+
+    private long metric(String token, String name) {
+        return (long) given()
+                .spec(getAuthenticatedSpec(token))
+                .when()
+                .get(friendsBaseUrl + "/actuator/metrics/" + name)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getDouble("measurements[0].value");
+    }
+}
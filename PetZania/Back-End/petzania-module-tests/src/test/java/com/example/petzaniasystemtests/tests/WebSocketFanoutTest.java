@@ -0,0 +1,111 @@
+package com.example.petzaniasystemtests.tests;
+
+import com.example.petzaniasystemtests.builders.TestDataBuilder;
+import com.example.petzaniasystemtests.config.BaseSystemTest;
+import com.example.petzaniasystemtests.utils.JwtTokenExtractor;
+import com.example.petzaniasystemtests.utils.WebSocketTestClient;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a second friends-and-chats-module instance next to the shared one and splits a chat's two
+ * users across them. A message sent through either instance must reach the peer connected to the other.
+ */
+public class WebSocketFanoutTest extends BaseSystemTest {
+    private static final int FRIENDS_PORT = 8081;
+
+    @Container
+    protected static GenericContainer<?> secondFriendsService = new GenericContainer<>(friendsService.getDockerImageName())
+            .withNetwork(network)
+            .withNetworkAliases("friends-service-2")
+            .withExposedPorts(FRIENDS_PORT)
+            .withEnv(friendsService.getEnvMap())
+            .dependsOn(friendsService)
+            .withLogConsumer(outputFrame -> {
+                System.err.println("FriendsAndChats-2: " + outputFrame.getUtf8String());
+            })
+            .waitingFor(Wait.forLogMessage(".*Started FriendsAndChatsModuleApplication.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    private final WebSocketTestClient firstInstanceClient = new WebSocketTestClient();
+    private final WebSocketTestClient secondInstanceClient = new WebSocketTestClient();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        firstInstanceClient.disconnect();
+        secondInstanceClient.disconnect();
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @Test
+    @DisplayName("Chat messages reach a peer connected to another instance")
+    void messages_reachPeerOnOtherInstance() throws Exception {
+        String secondBaseUrl = String.format("http://localhost:%d", secondFriendsService.getMappedPort(FRIENDS_PORT));
+        String secondWsUrl = String.format("ws://localhost:%d/ws", secondFriendsService.getMappedPort(FRIENDS_PORT));
+
+        String nameA = "fanout_a_" + System.currentTimeMillis();
+        String nameB = "fanout_b_" + System.currentTimeMillis();
+        Response loginA = registerAndLoginUser(nameA, nameA + "@example.com");
+        Response loginB = registerAndLoginUser(nameB, nameB + "@example.com");
+        String tokenA = JwtTokenExtractor.extractAccessToken(loginA);
+        String tokenB = JwtTokenExtractor.extractAccessToken(loginB);
+        String userA = JwtTokenExtractor.extractUserId(loginA);
+        String userB = JwtTokenExtractor.extractUserId(loginB);
+
+        UUID chatId = UUID.fromString(given()
+                .spec(getAuthenticatedSpec(tokenA))
+                .when()
+                .post(friendsBaseUrl + "/api/chats/user/" + userB)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("chatId"));
+
+        // A is connected to the first instance, B to the second
+        firstInstanceClient.connect(wsUrl, tokenA);
+        firstInstanceClient.subscribe("/topic/" + userA + "/messages", Map.class);
+        secondInstanceClient.connect(secondWsUrl, tokenB);
+        secondInstanceClient.subscribe("/topic/" + userB + "/messages", Map.class);
+        Thread.sleep(1500);
+
+        given()
+                .spec(getAuthenticatedSpec(tokenA))
+                .body(TestDataBuilder.MessageBuilder.createSendMessageJson(chatId, "hello from the first instance"))
+                .when()
+                .post(friendsBaseUrl + "/api/messages/send")
+                .then()
+                .statusCode(200);
+
+        Object toB = secondInstanceClient.receiveMessage(10, TimeUnit.SECONDS);
+        assertNotNull(toB, "B must receive A's message through the second instance");
+        assertTrue(toB.toString().contains("hello from the first instance"));
+
+        given()
+                .spec(getAuthenticatedSpec(tokenB))
+                .body(TestDataBuilder.MessageBuilder.createSendMessageJson(chatId, "hello from the second instance"))
+                .when()
+                .post(secondBaseUrl + "/api/messages/send")
+                .then()
+                .statusCode(200);
+
+        Object toA = firstInstanceClient.receiveMessage(10, TimeUnit.SECONDS);
+        assertNotNull(toA, "A must receive B's message through the first instance");
+        assertTrue(toA.toString().contains("hello from the second instance"));
+
+        assertNull(secondInstanceClient.receiveMessage(2, TimeUnit.SECONDS), "each message must be delivered once");
+    }
+}
@@ -66,6 +66,10 @@ public class WebSocketTestClient {
         });
     }
 
+    public void send(String destination, Object payload) {
+        stompSession.send(destination, payload);
+    }
+
     public Object receiveMessage(long timeout, TimeUnit unit) throws InterruptedException {
         return blockingQueue.poll(timeout, unit);
     }
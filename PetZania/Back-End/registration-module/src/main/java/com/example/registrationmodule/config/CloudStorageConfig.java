@@ -28,6 +28,10 @@ public class CloudStorageConfig {
     private String cdnUrl;
     private Map<String, Long> maxSize;
     private List<String> allowedTypes;
+    // total number of S3 requests (whole objects or multipart parts) in flight at once
+    private int uploadConcurrency = 8;
+    private long multipartThreshold = 16 * 1024 * 1024;
+    private int partSize = 8 * 1024 * 1024; // S3 requires at least 5 MB for every part but the last
     private AmazonS3 amazonS3;
 
     @PostConstruct
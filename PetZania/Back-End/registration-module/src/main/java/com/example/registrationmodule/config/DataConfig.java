@@ -6,7 +6,7 @@ import com.example.registrationmodule.repository.AdminRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.beans.factory.annotation.Value;
 
 @Configuration
@@ -17,10 +17,8 @@ public class DataConfig {
     @Value("${spring.super.admin.password}")
     private String superAdminPassword;
     @Bean
-    CommandLineRunner seedDatabase(AdminRepository adminRepository) {
+    CommandLineRunner seedDatabase(AdminRepository adminRepository, PasswordEncoder passwordEncoder) {
         return args -> {
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
-
             // Super Admin
             Admin superAdmin = Admin.builder()
                     .username(superAdminUsername)
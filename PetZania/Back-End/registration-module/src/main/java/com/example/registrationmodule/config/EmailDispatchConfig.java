@@ -0,0 +1,25 @@
+package com.example.registrationmodule.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static com.example.registrationmodule.constant.Constants.EMAIL_DISPATCH_WORKERS;
+
+@Configuration
+@EnableScheduling
+public class EmailDispatchConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor emailDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(EMAIL_DISPATCH_WORKERS);
+        executor.setMaxPoolSize(EMAIL_DISPATCH_WORKERS);
+        executor.setThreadNamePrefix("email-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
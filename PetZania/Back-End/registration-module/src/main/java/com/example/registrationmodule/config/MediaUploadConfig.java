@@ -0,0 +1,47 @@
+package com.example.registrationmodule.config;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.example.registrationmodule.util.S3UploadPipeline;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.registrationmodule.constant.Constants.IMAGE_PROCESSING_QUEUE_CAPACITY;
+
+@Configuration
+@Profile("!dev")
+public class MediaUploadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService mediaUploadExecutor(CloudStorageConfig cloudStorageConfig) {
+        return Executors.newFixedThreadPool(cloudStorageConfig.getUploadConcurrency(),
+                new CustomizableThreadFactory("media-upload-"));
+    }
+
+    // decoding and resizing are CPU and memory heavy; keep them off the request threads and bounded
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor imageProcessingExecutor() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(IMAGE_PROCESSING_QUEUE_CAPACITY),
+                new CustomizableThreadFactory("image-processing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public S3UploadPipeline s3UploadPipeline(AmazonS3 amazonS3,
+                                             @Qualifier("mediaUploadExecutor") ExecutorService mediaUploadExecutor,
+                                             CloudStorageConfig cloudStorageConfig) {
+        return new S3UploadPipeline(amazonS3, mediaUploadExecutor, cloudStorageConfig.getBucketName(),
+                cloudStorageConfig.getUploadConcurrency(), cloudStorageConfig.getMultipartThreshold(),
+                cloudStorageConfig.getPartSize());
+    }
+}
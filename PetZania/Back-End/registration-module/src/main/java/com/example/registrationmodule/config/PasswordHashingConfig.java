@@ -0,0 +1,37 @@
+package com.example.registrationmodule.config;
+
+import com.example.registrationmodule.util.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.registrationmodule.constant.Constants.PASSWORD_HASHING_QUEUE_CAPACITY;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${spring.password.bcrypt-strength:12}")
+    private int bcryptStrength;
+
+    // hashing is pure CPU work, so one thread per core and a short queue in front of them
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PASSWORD_HASHING_QUEUE_CAPACITY),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashingExecutor") ThreadPoolExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(bcryptStrength, passwordHashingExecutor);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.registrationmodule.config;
+
+import com.example.registrationmodule.service.impl.BlockedUsersCache;
+import com.example.registrationmodule.service.impl.ProfileCacheService;
+import com.example.registrationmodule.service.impl.TokenRevocationService;
+import com.example.registrationmodule.service.impl.UsernameAutocompleteService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+@Configuration
+public class RedisPubSubConfig {
+
+    @Bean
+    public ChannelTopic revokedTokensTopic() {
+        return new ChannelTopic(REVOKED_TOKENS_CHANNEL);
+    }
+
+    @Bean
+    public ChannelTopic usernameIndexTopic() {
+        return new ChannelTopic(USERNAME_INDEX_CHANNEL);
+    }
+
+    @Bean
+    public ChannelTopic blockedUsersTopic() {
+        return new ChannelTopic(BLOCKED_USERS_CHANNEL);
+    }
+
+    @Bean
+    public ChannelTopic profileCacheTopic() {
+        return new ChannelTopic(PROFILE_CACHE_CHANNEL);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TokenRevocationService tokenRevocationService,
+                                                                       UsernameAutocompleteService usernameAutocompleteService,
+                                                                       BlockedUsersCache blockedUsersCache,
+                                                                       ProfileCacheService profileCacheService,
+                                                                       ChannelTopic revokedTokensTopic,
+                                                                       ChannelTopic usernameIndexTopic,
+                                                                       ChannelTopic blockedUsersTopic,
+                                                                       ChannelTopic profileCacheTopic) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenRevocationService, revokedTokensTopic);
+        container.addMessageListener(usernameAutocompleteService, usernameIndexTopic);
+        container.addMessageListener(blockedUsersCache, blockedUsersTopic);
+        container.addMessageListener(profileCacheService, profileCacheTopic);
+        return container;
+    }
+}
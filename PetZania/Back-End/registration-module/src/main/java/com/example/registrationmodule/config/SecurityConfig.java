@@ -14,7 +14,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -30,6 +30,7 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JWTFilter jwtFilter;
+    private final PasswordEncoder passwordEncoder;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -60,7 +61,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/payment/refund").hasAnyRole("ADMIN", "SUPER_ADMIN")
                         .requestMatchers("/api/user/auth/block",
                                 "/api/user/auth/unblock",
-                                "/api/user/auth/delete-all").hasAnyRole("ADMIN", "SUPER_ADMIN")
+                                "/api/user/auth/delete-all",
+                                "/api/user/auth/delete-all/status").hasAnyRole("ADMIN", "SUPER_ADMIN")
 
                         .requestMatchers("/api/user/auth/delete", "/api/user/auth/users").hasAnyRole("ADMIN", "USER", "SUPER_ADMIN")
                         .requestMatchers("/api/payment/**").authenticated()
@@ -85,7 +87,7 @@ public class SecurityConfig {
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
         return provider;
     }
@@ -77,4 +77,38 @@ public class FriendsModuleProducerConfig {
     public Binding userDeletionFriendsModuleRetryReturnBinding(Queue userDeletedQueueFriendsModule, TopicExchange userExchange) {
         return BindingBuilder.bind(userDeletedQueueFriendsModule).to(userExchange).with(USER_DELETED_FRIENDS);
     }
+
+    @Bean
+    public Queue usersDeletedQueueFriendsModule() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_FRIENDS_MODULE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_RETRY_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_FRIENDS_RETRY)
+                .build();
+    }
+
+    @Bean
+    public Queue usersDeletedQueueFriendsModuleRetry() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_FRIENDS_MODULE_RETRY)
+                .withArgument(X_MESSAGE_TTL, MESSAGE_TTL_VALUE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_FRIENDS)
+                .build();
+    }
+
+    @Bean
+    public Binding usersDeletionFriendsModuleBinding(Queue usersDeletedQueueFriendsModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueFriendsModule).to(userExchange).with(USERS_DELETED);
+    }
+
+    @Bean
+    public Binding usersDeletionFriendsModuleRetryBinding(Queue usersDeletedQueueFriendsModuleRetry, TopicExchange userRetryExchange) {
+        return BindingBuilder.bind(usersDeletedQueueFriendsModuleRetry).to(userRetryExchange).with(USERS_DELETED_FRIENDS_RETRY);
+    }
+
+    @Bean
+    public Binding usersDeletionFriendsModuleRetryReturnBinding(Queue usersDeletedQueueFriendsModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueFriendsModule).to(userExchange).with(USERS_DELETED_FRIENDS);
+    }
 }
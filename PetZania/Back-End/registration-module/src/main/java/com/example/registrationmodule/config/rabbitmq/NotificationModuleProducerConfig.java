@@ -95,4 +95,38 @@ public class NotificationModuleProducerConfig {
                 .to(userExchange)
                 .with(USER_DELETED_NOTIFICATION);
     }
+
+    @Bean
+    public Queue usersDeletedQueueNotificationModule() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_NOTIFICATION_MODULE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_RETRY_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_NOTIFICATION_RETRY)
+                .build();
+    }
+
+    @Bean
+    public Queue usersDeletedQueueNotificationModuleRetry() {
+        return QueueBuilder
+                .durable(USERS_DELETED_QUEUE_NOTIFICATION_MODULE_RETRY)
+                .withArgument(X_MESSAGE_TTL, MESSAGE_TTL_VALUE)
+                .withArgument(X_DEAD_LETTER_EXCHANGE, USER_EXCHANGE)
+                .withArgument(X_DEAD_LETTER_ROUTING_KEY, USERS_DELETED_NOTIFICATION)
+                .build();
+    }
+
+    @Bean
+    public Binding usersDeletionNotificationModuleBinding(Queue usersDeletedQueueNotificationModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueNotificationModule).to(userExchange).with(USERS_DELETED);
+    }
+
+    @Bean
+    public Binding usersDeletionNotificationModuleRetryBinding(Queue usersDeletedQueueNotificationModuleRetry, TopicExchange userRetryExchange) {
+        return BindingBuilder.bind(usersDeletedQueueNotificationModuleRetry).to(userRetryExchange).with(USERS_DELETED_NOTIFICATION_RETRY);
+    }
+
+    @Bean
+    public Binding usersDeletionNotificationModuleRetryReturnBinding(Queue usersDeletedQueueNotificationModule, TopicExchange userExchange) {
+        return BindingBuilder.bind(usersDeletedQueueNotificationModule).to(userExchange).with(USERS_DELETED_NOTIFICATION);
+    }
 }
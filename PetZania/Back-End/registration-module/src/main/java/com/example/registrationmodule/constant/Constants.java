@@ -21,6 +21,9 @@ public final class Constants {
     public static final String USER_REGISTERED_QUEUE_FRIENDS_MODULE = "userRegisteredQueueFriendsModule";
     public static final String USER_REGISTERED_QUEUE_NOTIFICATION_MODULE = "userRegisteredQueueNotificationModule";
     public static final String USER_UNBLOCKED_QUEUE_REGISTRATION_MODULE = "userUnBlockedQueueRegistrationModule";
+    public static final String USERS_DELETED_QUEUE_ADOPTION_MODULE = "usersDeletedQueueAdoptionModule";
+    public static final String USERS_DELETED_QUEUE_FRIENDS_MODULE = "usersDeletedQueueFriendsModule";
+    public static final String USERS_DELETED_QUEUE_NOTIFICATION_MODULE = "usersDeletedQueueNotificationModule";
 
     // ===== Retry Queues' Names =====
     public static final String USER_BLOCKED_QUEUE_REGISTRATION_MODULE_RETRY = "userBlockedQueueRegistrationModule.retry";
@@ -31,6 +34,9 @@ public final class Constants {
     public static final String USER_REGISTERED_QUEUE_FRIENDS_MODULE_RETRY = "userRegisteredQueueFriendsModule.retry";
     public static final String USER_REGISTERED_QUEUE_NOTIFICATION_MODULE_RETRY = "userRegisteredQueueNotificationModule.retry";
     public static final String USER_UNBLOCKED_QUEUE_REGISTRATION_MODULE_RETRY = "userUnBlockedQueueRegistrationModule.retry";
+    public static final String USERS_DELETED_QUEUE_ADOPTION_MODULE_RETRY = "usersDeletedQueueAdoptionModule.retry";
+    public static final String USERS_DELETED_QUEUE_FRIENDS_MODULE_RETRY = "usersDeletedQueueFriendsModule.retry";
+    public static final String USERS_DELETED_QUEUE_NOTIFICATION_MODULE_RETRY = "usersDeletedQueueNotificationModule.retry";
 
 
     // RabbitMQ Arguments
@@ -53,6 +59,10 @@ public final class Constants {
     public static final String USER_REGISTERED_FRIENDS = "user.registered.friends";
     public static final String USER_REGISTERED_NOTIFICATION = "user.registered.notification";
     public static final String USER_UNBLOCKED_REGISTRATION = "user.unblocked.registration";
+    public static final String USERS_DELETED = "users.deleted";
+    public static final String USERS_DELETED_ADOPTION = "users.deleted.adoption";
+    public static final String USERS_DELETED_FRIENDS = "users.deleted.friends";
+    public static final String USERS_DELETED_NOTIFICATION = "users.deleted.notification";
 
     // Retry Routing Keys
     public static final String USER_BLOCKED_REGISTRATION_RETRY = "user.blocked.registration.retry";
@@ -63,6 +73,9 @@ public final class Constants {
     public static final String USER_REGISTERED_FRIENDS_RETRY = "user.registered.friends.retry";
     public static final String USER_REGISTERED_NOTIFICATION_RETRY = "user.registered.notification.retry";
     public static final String USER_UNBLOCKED_REGISTRATION_RETRY = "user.unblocked.registration.retry";
+    public static final String USERS_DELETED_ADOPTION_RETRY = "users.deleted.adoption.retry";
+    public static final String USERS_DELETED_FRIENDS_RETRY = "users.deleted.friends.retry";
+    public static final String USERS_DELETED_NOTIFICATION_RETRY = "users.deleted.notification.retry";
     // Rate Limit
     public static final int RATE_LIMIT_DEFAULT_REQUESTS = 10;
     public static final int RATE_LIMIT_DEFAULT_DURATION = 60;
@@ -74,4 +87,55 @@ public final class Constants {
     public static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
     public static final String ANONYMOUS = "anonymous";
     public static final int START_INDEX = 7;
+    public static final int JWT_CLAIMS_CACHE_MAX_SIZE = 10_000;
+    public static final String JWT_CLAIMS_REQUEST_ATTRIBUTE = "jwt.claims";
+    // Principal Cache
+    public static final int PRINCIPAL_CACHE_MAX_SIZE = 10_000;
+    public static final long PRINCIPAL_CACHE_TTL_MILLIS = 60_000;
+    public static final String PRINCIPAL_CACHE_METRIC = "security.principal.cache";
+    // Token Revocation
+    public static final String REVOKED_TOKENS_CHANNEL = "revokedTokens";
+    public static final int REVOKED_TOKENS_EXPECTED_INSERTIONS = 100_000;
+    public static final double REVOKED_TOKENS_FALSE_POSITIVE_RATE = 0.01;
+    // Password Hashing
+    public static final int PASSWORD_HASHING_QUEUE_CAPACITY = 64;
+    public static final int PASSWORD_HASHING_RETRY_AFTER_SECONDS = 1;
+    // Email Dispatch
+    public static final int EMAIL_DISPATCH_WORKERS = 8;
+    public static final int EMAIL_DISPATCH_BATCH_SIZE = 50;
+    public static final long EMAIL_DISPATCH_POLL_MILLIS = 1_000;
+    public static final long EMAIL_DISPATCH_LEASE_SECONDS = 120;
+    public static final int EMAIL_DISPATCH_MAX_ATTEMPTS = 6;
+    public static final long EMAIL_DISPATCH_BASE_BACKOFF_SECONDS = 5;
+    public static final long EMAIL_DISPATCH_MAX_BACKOFF_SECONDS = 15 * 60;
+    public static final int EMAIL_PROVIDER_MAX_CONCURRENCY = 4;
+    public static final long EMAIL_DISPATCH_RETENTION_DAYS = 30;
+    // Image Processing
+    public static final int IMAGE_PROCESSING_QUEUE_CAPACITY = 256;
+    public static final long IMAGE_MAX_SOURCE_PIXELS = 50_000_000L;
+    public static final String IMAGE_VARIANT_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // Upload Sessions
+    public static final long UPLOAD_SESSION_TTL_MINUTES = 30;
+    public static final long UPLOAD_SESSION_CLEANUP_MILLIS = 5 * 60 * 1000;
+    // Media Key Cache
+    public static final int MEDIA_KEY_CACHE_MAX_SIZE = 50_000;
+    public static final long MEDIA_KEY_CACHE_TTL_MILLIS = 10 * 60 * 1000; // bounds staleness after a delete on another instance
+    public static final int MEDIA_URL_BATCH_MAX_SIZE = 200;
+    // Username Autocomplete
+    public static final String USERNAME_INDEX_CHANNEL = "usernameIndex";
+    public static final long USERNAME_INDEX_REBUILD_MILLIS = 60 * 60 * 1000;
+    public static final String BLOCKED_USERS_CHANNEL = "blockedUsers";
+    public static final int BLOCKED_USERS_CACHE_MAX_SIZE = 10_000;
+    public static final long BLOCKED_USERS_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+    // User Purge
+    public static final int USER_PURGE_CHUNK_SIZE = 500;
+    // Profile Cache
+    public static final String PROFILE_CACHE_CHANNEL = "profileCache";
+    public static final String PROFILE_CACHE_KEY_PREFIX = "profile:";
+    public static final long PROFILE_CACHE_TTL_MILLIS = 10 * 60 * 1000;
+    public static final int PROFILE_CACHE_LOCAL_MAX_SIZE = 10_000;
+    public static final long PROFILE_CACHE_LOCAL_TTL_MILLIS = 30_000; // bounds staleness if an eviction message is lost
+    public static final String PROFILE_CACHE_METRIC = "user.profile.cache";
+    // Presence (written by friends-and-chats-module from WebSocket sessions)
+    public static final String PRESENCE_KEY_PREFIX = "presence:";
 }
\ No newline at end of file
@@ -1,14 +1,24 @@
 package com.example.registrationmodule.controller;
 
 import com.example.registrationmodule.annotation.RateLimit;
-import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.exception.media.InvalidMediaFile;
+import com.example.registrationmodule.model.dto.CompleteUploadSessionDTO;
+import com.example.registrationmodule.model.dto.CreateUploadSessionDTO;
+import com.example.registrationmodule.model.dto.MediaReferenceDTO;
+import com.example.registrationmodule.model.dto.UploadSessionDTO;
+import com.example.registrationmodule.model.entity.MediaReference;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
 import com.example.registrationmodule.service.ICloudService;
+import com.example.registrationmodule.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,10 +28,12 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static com.example.registrationmodule.constant.Constants.MEDIA_URL_BATCH_MAX_SIZE;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("api")
@@ -32,45 +44,98 @@ public class CloudController {
     @Operation(summary = "Upload a single file to cloud storage")
     @PostMapping(path = "/cloud/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @RateLimit
-    public ResponseEntity<String> uploadFile(@RequestPart(name = "file") MultipartFile file) throws IOException {
+    public ResponseEntity<MediaReferenceDTO> uploadFile(@RequestPart(name = "file") MultipartFile file) throws IOException {
         if(!file.isEmpty()) {
-            Media media = cloudService.uploadAndSaveMedia(file, true);
-            return ResponseEntity.ok(cloudService.getMediaUrl(media.getMediaId()));
+            MediaReference reference = cloudService.uploadAndSaveMedia(file, SecurityUtils.getCurrentUser().getUserId(), true);
+            return ResponseEntity.ok(toReferenceDto(reference, cloudService.getMediaUrl(reference.getMediaId())));
         }
         else {
-            return ResponseEntity.ok("");
+            return ResponseEntity.ok(new MediaReferenceDTO());
         }
     }
 
     @Operation(summary = "Upload multiple files to cloud storage")
     @PostMapping(path = "/cloud/files", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @RateLimit
-    public ResponseEntity<List<String>> uploadFiles(@RequestPart(name = "files") List<MultipartFile> files) throws IOException {
-        List<String> urls = new ArrayList<>();
-        for(MultipartFile file : files) {
-            if(file.isEmpty()) continue;
-            Media media = cloudService.uploadAndSaveMedia(file, true);
-            urls.add(cloudService.getMediaUrl(media.getMediaId()));
+    public ResponseEntity<List<MediaReferenceDTO>> uploadFiles(@RequestPart(name = "files") List<MultipartFile> files) throws IOException {
+        List<MultipartFile> nonEmptyFiles = files.stream()
+                .filter(file -> !file.isEmpty())
+                .toList();
+        List<MediaReference> references = cloudService.uploadAndSaveMedia(nonEmptyFiles, SecurityUtils.getCurrentUser().getUserId(), true);
+        Map<UUID, String> urlsById = cloudService.getMediaUrls(references.stream().map(MediaReference::getMediaId).toList());
+        List<MediaReferenceDTO> uploaded = references.stream()
+                .map(reference -> toReferenceDto(reference, urlsById.get(reference.getMediaId())))
+                .toList();
+
+        return ResponseEntity.ok(uploaded);
+    }
+
+    @Operation(summary = "Resolve the URLs of several files at once")
+    @PostMapping("/cloud/files/urls")
+    @RateLimit
+    public ResponseEntity<Map<UUID, String>> getFileUrls(@RequestBody List<UUID> mediaIds) {
+        if (mediaIds.size() > MEDIA_URL_BATCH_MAX_SIZE) {
+            throw new InvalidMediaFile("At most " + MEDIA_URL_BATCH_MAX_SIZE + " media IDs can be resolved at once.");
         }
+        return ResponseEntity.ok(cloudService.getMediaUrls(mediaIds));
+    }
+
+    @Operation(summary = "Open a session for uploading a file directly to cloud storage through presigned URLs")
+    @PostMapping("/cloud/upload-sessions")
+    @RateLimit
+    public ResponseEntity<UploadSessionDTO> createUploadSession(@RequestBody @Valid CreateUploadSessionDTO request) {
+        return ResponseEntity.ok(cloudService.createUploadSession(request, SecurityUtils.getCurrentUser().getUserId()));
+    }
 
-        return ResponseEntity.ok(urls);
+    @Operation(summary = "Verify a direct upload and record it as media")
+    @PostMapping("/cloud/upload-sessions/{sessionId}/complete")
+    @RateLimit
+    public ResponseEntity<MediaReferenceDTO> completeUploadSession(@PathVariable("sessionId") UUID sessionId,
+                                                                   @RequestBody(required = false) @Valid CompleteUploadSessionDTO request) {
+        MediaReference reference = cloudService.completeUploadSession(sessionId, SecurityUtils.getCurrentUser().getUserId(),
+                request != null ? request : new CompleteUploadSessionDTO());
+        return ResponseEntity.ok(toReferenceDto(reference, cloudService.getMediaUrl(reference.getMediaId())));
     }
 
-    @Operation(summary = "Delete a single file from cloud storage")
+    @Operation(summary = "Get the URL of a file in the requested size (thumbnail, feed or full)")
+    @GetMapping("/cloud/file/{mediaId}/url")
+    @RateLimit
+    public ResponseEntity<String> getFileUrl(@PathVariable("mediaId") UUID mediaId,
+                                             @RequestParam(name = "variant", defaultValue = "FULL") MediaVariant variant) {
+        return ResponseEntity.ok(cloudService.getMediaUrl(mediaId, variant));
+    }
+
+    @Operation(summary = "Get the URLs of every size of a file")
+    @GetMapping("/cloud/file/{mediaId}/variants")
+    @RateLimit
+    public ResponseEntity<Map<MediaVariant, String>> getFileVariantUrls(@PathVariable("mediaId") UUID mediaId) {
+        return ResponseEntity.ok(cloudService.getMediaVariantUrls(mediaId));
+    }
+
+    @Operation(summary = "Delete one of the current user's uploads from cloud storage")
     @DeleteMapping("/cloud/file")
     @RateLimit
-    public ResponseEntity<Void> deleteFile(@RequestParam("mediaId") UUID mediaId) {
-        cloudService.deleteById(mediaId);
+    public ResponseEntity<Void> deleteFile(@RequestParam("referenceId") UUID referenceId) {
+        cloudService.deleteReference(referenceId, SecurityUtils.getCurrentUser().getUserId());
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Delete multiple files from cloud storage")
+    @Operation(summary = "Delete several of the current user's uploads from cloud storage")
     @DeleteMapping("/cloud/files")
     @RateLimit
-    public ResponseEntity<Void> deleteFiles(@RequestBody List<UUID> mediaIds) {
-        for (UUID mediaId : mediaIds) {
-            cloudService.deleteById(mediaId);
+    public ResponseEntity<Void> deleteFiles(@RequestBody List<UUID> referenceIds) {
+        UUID userId = SecurityUtils.getCurrentUser().getUserId();
+        for (UUID referenceId : referenceIds) {
+            cloudService.deleteReference(referenceId, userId);
         }
         return ResponseEntity.noContent().build();
     }
+
+    private static MediaReferenceDTO toReferenceDto(MediaReference reference, String url) {
+        return MediaReferenceDTO.builder()
+                .referenceId(reference.getReferenceId())
+                .mediaId(reference.getMediaId())
+                .url(url)
+                .build();
+    }
 }
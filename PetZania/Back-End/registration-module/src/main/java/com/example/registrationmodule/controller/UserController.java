@@ -9,6 +9,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -175,15 +176,21 @@ public class UserController {
     @Operation(summary = "Delete all users")
     @DeleteMapping("/delete-all")
     @RateLimit
-    public ResponseEntity<String> deleteAllUsers() {
-        userService.deleteAll();
-        return ResponseEntity.ok("All users deleted successfully");
+    public ResponseEntity<UserPurgeDTO> deleteAllUsers() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userService.deleteAll());
+    }
+
+    @Operation(summary = "Get the progress of the latest delete all users job")
+    @GetMapping("/delete-all/status")
+    public ResponseEntity<UserPurgeDTO> getDeleteAllUsersStatus() {
+        UserPurgeDTO status = userService.getDeleteAllStatus();
+        return status == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(status);
     }
 
     @Operation(summary = "Get paginated list of users")
     @GetMapping("/users")
     @RateLimit
-    public ResponseEntity<Page<UserProfileDTO>> getUsers(
+    public ResponseEntity<Page<?>> getUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "userId") String sortBy,
@@ -191,18 +198,17 @@ public class UserController {
     ) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Object principal = authentication.getPrincipal();
-        UUID requesterId = UUID.randomUUID();
-        if (principal instanceof UserPrincipal userPrincipal) {
-            requesterId = userPrincipal.getUserId();
-        }
-        Page<UserProfileDTO> users = userService.getUsers(requesterId, page, size, sortBy, direction);
+        // admins manage accounts from this list and need the full profiles
+        Page<?> users = principal instanceof UserPrincipal userPrincipal
+                ? userService.getUserSummaries(userPrincipal.getUserId(), page, size, sortBy, direction)
+                : userService.getUsers(UUID.randomUUID(), page, size, sortBy, direction);
         return users.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(users);
     }
 
     @Operation(summary = "Get users by username prefix")
     @GetMapping("/users/{prefix}")
     @RateLimit
-    public ResponseEntity<Page<UserProfileDTO>> getUsersByPrefixUsername(
+    public ResponseEntity<Slice<UserSummaryDTO>> getUsersByPrefixUsername(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "username") String sortBy,
@@ -215,7 +221,7 @@ public class UserController {
         if (principal instanceof UserPrincipal userPrincipal) {
             requesterId = userPrincipal.getUserId();
         }
-        Page<UserProfileDTO> users = userService.getUsersByPrefixUsername(requesterId, page, size, sortBy, direction, prefix);
+        Slice<UserSummaryDTO> users = userService.getUsersByPrefixUsername(requesterId, page, size, sortBy, direction, prefix);
         return users.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(users);
     }
 
@@ -5,9 +5,12 @@ import com.example.registrationmodule.exception.admin.AdminNotFound;
 import com.example.registrationmodule.exception.authenticationAndVerificattion.*;
 import com.example.registrationmodule.exception.media.InvalidMediaFile;
 import com.example.registrationmodule.exception.media.MediaNotFound;
+import com.example.registrationmodule.exception.media.UploadSessionClosed;
+import com.example.registrationmodule.exception.media.UploadSessionNotFound;
 import com.example.registrationmodule.exception.pet.PetNotFound;
 import com.example.registrationmodule.exception.rateLimiting.*;
 import com.example.registrationmodule.exception.user.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -170,8 +173,26 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(UploadSessionNotFound.class)
+    public ResponseEntity<Map<String, Object>> handleUploadSessionNotFound(UploadSessionNotFound ex) {
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(UploadSessionClosed.class)
+    public ResponseEntity<Map<String, Object>> handleUploadSessionClosed(UploadSessionClosed ex) {
+        return buildErrorResponse(ex, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RateLimitExceeded.class)
     public ResponseEntity<Map<String, Object>> handleRateLimitExceed(RateLimitExceeded ex) {
         return buildErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS);
     }
+
+    @ExceptionHandler(PasswordHashingUnavailable.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingUnavailable(PasswordHashingUnavailable ex) {
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
 }
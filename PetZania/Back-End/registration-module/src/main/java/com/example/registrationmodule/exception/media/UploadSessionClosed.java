@@ -0,0 +1,7 @@
+package com.example.registrationmodule.exception.media;
+
+public class UploadSessionClosed extends RuntimeException {
+    public UploadSessionClosed(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.registrationmodule.exception.media;
+
+public class UploadSessionNotFound extends RuntimeException {
+    public UploadSessionNotFound(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.registrationmodule.exception.rateLimiting;
+
+public class PasswordHashingUnavailable extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public PasswordHashingUnavailable(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,9 +3,10 @@ package com.example.registrationmodule.filter;
 import com.example.registrationmodule.exception.authenticationAndVerificattion.InvalidToken;
 import com.example.registrationmodule.model.entity.AdminPrincipal;
 import com.example.registrationmodule.model.entity.UserPrincipal;
-import com.example.registrationmodule.repository.RevokedRefreshTokenRepository;
 import com.example.registrationmodule.service.impl.JWTService;
 import com.example.registrationmodule.service.impl.MyUserDetailsService;
+import com.example.registrationmodule.service.impl.PrincipalCacheService;
+import com.example.registrationmodule.service.impl.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,7 +33,8 @@ import static com.example.registrationmodule.constant.Constants.*;
 public class JWTFilter extends OncePerRequestFilter {
     private final JWTService jwtService;
     private final ApplicationContext context;
-    private final RevokedRefreshTokenRepository revokedRefreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -50,7 +52,7 @@ public class JWTFilter extends OncePerRequestFilter {
 
 
             // if user tries to send refresh token to access the resources
-            if (revokedRefreshTokenRepository.findByToken(token).isPresent()) {
+            if (tokenRevocationService.isRevoked(token)) {
                 throw new InvalidToken("User uses refresh token to access resources");
             }
         }
@@ -58,8 +60,12 @@ public class JWTFilter extends OncePerRequestFilter {
         if (token != null && email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             if (Objects.equals(role, ROLE_USER)) {
                 // User authentication
-                UserPrincipal userDetails = (UserPrincipal) context.getBean(MyUserDetailsService.class).loadUserByEmail(email);
-                userDetails.setGrantedAuthority(new SimpleGrantedAuthority(role));
+                // cached principals are shared by concurrent requests, so the authority is set once, before caching
+                UserPrincipal userDetails = principalCacheService.getUser(email, key -> {
+                    UserPrincipal loaded = (UserPrincipal) context.getBean(MyUserDetailsService.class).loadUserByEmail(key);
+                    loaded.setGrantedAuthority(new SimpleGrantedAuthority(ROLE_USER));
+                    return loaded;
+                });
 
                 log.info("this is the user details " + userDetails.getEmail());
                 if (jwtService.validateTokenForUser(token, userDetails)) {
@@ -69,8 +75,13 @@ public class JWTFilter extends OncePerRequestFilter {
                 }
             } else if (Objects.equals(role, ROLE_ADMIN) || Objects.equals(role, ROLE_SUPER_ADMIN)) {
                 // Admin authentication
-                AdminPrincipal adminDetails = (AdminPrincipal) context.getBean(MyUserDetailsService.class).loadAdminByUsername(email);
-                adminDetails.setGrantedAuthority(new SimpleGrantedAuthority(role));
+                // an admin's tokens all carry the role they had at login, and the role is never changed afterwards
+                String adminRole = role;
+                AdminPrincipal adminDetails = principalCacheService.getAdmin(email, key -> {
+                    AdminPrincipal loaded = (AdminPrincipal) context.getBean(MyUserDetailsService.class).loadAdminByUsername(key);
+                    loaded.setGrantedAuthority(new SimpleGrantedAuthority(adminRole));
+                    return loaded;
+                });
 
                 log.info("this is the admin details " + adminDetails.getUsername());
                 if (jwtService.validateTokenForAdmin(token, adminDetails)) {
@@ -0,0 +1,17 @@
+package com.example.registrationmodule.model.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompleteUploadSessionDTO {
+    @Valid
+    private List<UploadPartDTO> parts = new ArrayList<>(); // only for multipart uploads
+}
@@ -0,0 +1,22 @@
+package com.example.registrationmodule.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateUploadSessionDTO {
+    @NotBlank(message = "File name is required.")
+    @Size(max = 255, message = "File name must not exceed 255 characters.")
+    private String fileName;
+    @NotBlank(message = "Content type is required.")
+    @Size(max = 50, message = "Content type must not exceed 50 characters.")
+    private String contentType;
+    @Positive(message = "Size must be positive.")
+    private long size;
+}
@@ -0,0 +1,18 @@
+package com.example.registrationmodule.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaReferenceDTO {
+    private UUID referenceId; // what the uploader passes to delete the file
+    private UUID mediaId;
+    private String url;
+}
@@ -0,0 +1,17 @@
+package com.example.registrationmodule.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadPartDTO {
+    @Positive(message = "Part number must be positive.")
+    private int partNumber;
+    @NotBlank(message = "ETag is required.")
+    private String etag;
+}
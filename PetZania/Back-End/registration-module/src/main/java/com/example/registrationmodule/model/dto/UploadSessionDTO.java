@@ -0,0 +1,23 @@
+package com.example.registrationmodule.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionDTO {
+    private UUID sessionId;
+    private String key;
+    private String uploadUrl; // single PUT, null for multipart uploads
+    private List<String> partUrls; // one PUT per part, in part number order
+    private Long partSize;
+    private LocalDateTime expiresAt;
+}
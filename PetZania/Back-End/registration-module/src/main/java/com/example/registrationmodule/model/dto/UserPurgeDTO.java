@@ -0,0 +1,23 @@
+package com.example.registrationmodule.model.dto;
+
+import com.example.registrationmodule.model.enumeration.UserPurgeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPurgeDTO {
+    private UUID jobId;
+    private UserPurgeStatus status;
+    private long deletedUsers;
+    private int chunks;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt; // null while running
+}
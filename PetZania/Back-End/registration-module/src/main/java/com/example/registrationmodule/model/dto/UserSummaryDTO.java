@@ -0,0 +1,21 @@
+package com.example.registrationmodule.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * What list and search results show for a user; the full profile is only served by {@code GET /{id}}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummaryDTO {
+    private UUID userId;
+    private String username;
+    private String name;
+    private String profilePictureURL;
+    private boolean online;
+}
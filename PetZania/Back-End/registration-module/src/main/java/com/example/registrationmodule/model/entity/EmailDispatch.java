@@ -0,0 +1,62 @@
+package com.example.registrationmodule.model.entity;
+
+import com.example.registrationmodule.model.enumeration.EmailDispatchStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "email_dispatches", indexes = {
+        @Index(name = "idx_email_dispatches_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailDispatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID dispatchId;
+
+    @Column(name = "to_address", length = 100, nullable = false)
+    private String to;
+
+    @Column(name = "from_address", length = 100, nullable = false)
+    private String from;
+
+    @Column(name = "subject", length = 255)
+    private String subject;
+
+    // null once the dispatch is SENT or FAILED
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "provider", length = 32, nullable = false)
+    private String provider;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private EmailDispatchStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // when PENDING: earliest retry time; when SENDING: end of the worker's lease
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -1,5 +1,6 @@
 package com.example.registrationmodule.model.entity;
 
+import com.example.registrationmodule.model.enumeration.MediaVariant;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +8,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -21,7 +24,7 @@ public class Media {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID mediaId;
 
-    @Column(name = "media_key", length = 255)
+    @Column(name = "media_key", length = 255, unique = true)
     private String key; // S3 key
 
     @Column(name = "type", length = 50)
@@ -32,4 +35,15 @@ public class Media {
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime uploadedAt;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // hex SHA-256 of the bytes; uploaded files are keyed by it, so identical uploads share one Media
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "media_variants", joinColumns = @JoinColumn(name = "media_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "variant", length = 16)
+    @Column(name = "variant_key", length = 255)
+    @Builder.Default
+    private Map<MediaVariant, String> variants = new HashMap<>(); // S3 keys of the resized copies, filled in after upload
 }
@@ -0,0 +1,32 @@
+package com.example.registrationmodule.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "media_references")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaReference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID referenceId;
+
+    @Column(nullable = false, updatable = false)
+    private UUID mediaId; // one upload of this Media; the S3 object goes with the last reference
+
+    @Column(updatable = false)
+    private UUID ownerId; // the uploader, the only one who may delete it; null for old uploads no user here points at
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.example.registrationmodule.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+@Entity
+@Table(
+        name = "revoked_tokens",
+        indexes = {
+                @Index(name = "idx_revoked_tokens_expiration_time", columnList = "expiration_time")
+        }
+)
+public class RevokedToken {
+    @Id
+    @Column(name = "jti", nullable = false, updatable = false)
+    private UUID jti;
+
+    @Column(name = "expiration_time", nullable = false)
+    private Date expirationTime;
+}
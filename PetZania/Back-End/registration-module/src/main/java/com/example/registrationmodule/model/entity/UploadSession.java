@@ -0,0 +1,56 @@
+package com.example.registrationmodule.model.entity;
+
+import com.example.registrationmodule.model.enumeration.UploadSessionStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID sessionId;
+
+    @Column(name = "media_key", nullable = false, length = 255)
+    private String key; // S3 key the client uploads to
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "declared_size", nullable = false)
+    private long declaredSize;
+
+    @Column(name = "multipart_upload_id", length = 1024)
+    private String multipartUploadId; // null for single PUT uploads
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private UploadSessionStatus status;
+
+    @Column(updatable = false)
+    private UUID ownerId; // the user who opened the session and owns the reference it ends in
+
+    private UUID mediaId; // set once the upload is verified
+
+    private UUID referenceId; // the owner's reference, set with mediaId
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.example.registrationmodule.model.enumeration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum MediaVariant {
+    THUMBNAIL(240, 0.75f),
+    FEED(1080, 0.80f),
+    FULL(2048, 0.85f);
+
+    private final int maxDimension; // longest side in pixels
+    private final float quality; // JPEG compression quality
+}
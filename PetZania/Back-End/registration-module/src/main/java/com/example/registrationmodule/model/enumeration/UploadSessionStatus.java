@@ -0,0 +1,8 @@
+package com.example.registrationmodule.model.enumeration;
+
+public enum UploadSessionStatus {
+    PENDING,
+    COMPLETED,
+    FAILED,
+    EXPIRED
+}
@@ -0,0 +1,7 @@
+package com.example.registrationmodule.model.enumeration;
+
+public enum UserPurgeStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,29 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.EmailDispatch;
+import com.example.registrationmodule.model.enumeration.EmailDispatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailDispatchRepository extends JpaRepository<EmailDispatch, UUID> {
+
+    // SENDING rows past their lease belong to a worker that died mid-send and are picked up again
+    @Query(value = "SELECT * FROM email_dispatches " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailDispatch> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM EmailDispatch d WHERE d.status IN :statuses AND d.createdAt < :before")
+    int deleteByStatusCreatedBefore(@Param("statuses") Collection<EmailDispatchStatus> statuses,
+                                    @Param("before") LocalDateTime before);
+}
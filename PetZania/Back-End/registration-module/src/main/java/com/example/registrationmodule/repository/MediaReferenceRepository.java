@@ -0,0 +1,18 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.MediaReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface MediaReferenceRepository extends JpaRepository<MediaReference, UUID> {
+
+    long countByMediaId(UUID mediaId);
+
+    @Modifying
+    @Query("DELETE FROM MediaReference r WHERE r.referenceId = :referenceId")
+    int removeById(@Param("referenceId") UUID referenceId);
+}
@@ -0,0 +1,49 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.Media;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MediaRepository extends JpaRepository<Media, UUID> {
+    interface MediaKey {
+        UUID getMediaId();
+
+        String getKey();
+    }
+
+    @Query("SELECT m.key FROM Media m WHERE m.mediaId = :mediaId")
+    Optional<String> findKeyById(@Param("mediaId") UUID mediaId);
+
+    @Query("SELECT m.mediaId AS mediaId, m.key AS key FROM Media m WHERE m.mediaId IN :mediaIds")
+    List<MediaKey> findKeysByIdIn(@Param("mediaIds") Collection<UUID> mediaIds);
+
+    List<Media> findByKeyIn(Collection<String> keys);
+
+    // held while references are added, so the last reference cannot be deleted under them
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT m FROM Media m WHERE m.key IN :keys")
+    List<Media> findByKeyInForShare(@Param("keys") Collection<String> keys);
+
+    // a concurrent upload of the same content may have inserted the key first; theirs is kept
+    @Modifying
+    @Query(value = "INSERT INTO media (media_id, media_key, type, format, uploaded_at, content_hash) " +
+            "VALUES (:mediaId, :key, :type, :format, :uploadedAt, :contentHash) ON CONFLICT (media_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("mediaId") UUID mediaId, @Param("key") String key, @Param("type") String type,
+                       @Param("format") String format, @Param("uploadedAt") LocalDateTime uploadedAt,
+                       @Param("contentHash") String contentHash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Media m WHERE m.mediaId = :mediaId")
+    Optional<Media> findByIdForUpdate(@Param("mediaId") UUID mediaId);
+}
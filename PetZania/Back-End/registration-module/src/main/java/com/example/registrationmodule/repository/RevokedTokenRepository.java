@@ -0,0 +1,20 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expirationTime > :now")
+    List<UUID> findActiveJtis(@Param("now") Date now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expirationTime < :now")
+    int deleteExpired(@Param("now") Date now);
+}
@@ -0,0 +1,22 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.UploadSession;
+import com.example.registrationmodule.model.enumeration.UploadSessionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+    List<UploadSession> findByStatusAndExpiresAtBefore(UploadSessionStatus status, LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.sessionId = :sessionId")
+    Optional<UploadSession> findByIdForUpdate(@Param("sessionId") UUID sessionId);
+}
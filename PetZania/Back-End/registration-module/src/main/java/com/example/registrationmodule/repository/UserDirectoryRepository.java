@@ -0,0 +1,54 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.dto.UserSummaryDTO;
+import com.example.registrationmodule.model.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only queries behind user lists and search: the in-memory username index, block sets and
+ * {@link UserSummaryDTO} projections that never load pets or other profile collections.
+ */
+public interface UserDirectoryRepository extends Repository<User, UUID> {
+    interface UsernameEntry {
+        UUID getUserId();
+
+        String getUsername();
+    }
+
+    @Query("SELECT u.userId AS userId, u.username AS username FROM User u")
+    List<UsernameEntry> findAllUsernames();
+
+    String SUMMARY = "SELECT new com.example.registrationmodule.model.dto.UserSummaryDTO(" +
+            "u.userId, u.username, u.name, u.profilePictureURL, u.online) FROM User u ";
+    String NOT_BLOCKED = "NOT EXISTS (SELECT 1 FROM Block b " +
+            "WHERE (b.blocker.userId = :requesterId AND b.blocked.userId = u.userId) " +
+            "OR (b.blocker.userId = u.userId AND b.blocked.userId = :requesterId))";
+    String USERNAME_PREFIX = "LOWER(u.username) LIKE LOWER(CONCAT(:prefix, '%'))";
+
+    @Query(value = SUMMARY + "WHERE " + NOT_BLOCKED,
+            countQuery = "SELECT COUNT(u) FROM User u WHERE " + NOT_BLOCKED)
+    Page<UserSummaryDTO> findSummariesExcludingBlocked(@Param("requesterId") UUID requesterId, Pageable pageable);
+
+    // a slice reads one row past the page instead of counting every match of a short prefix
+    @Query(SUMMARY + "WHERE " + USERNAME_PREFIX + " AND " + NOT_BLOCKED)
+    Slice<UserSummaryDTO> findSummariesByUsernamePrefixExcludingBlocked(@Param("prefix") String prefix,
+                                                                        @Param("requesterId") UUID requesterId,
+                                                                        Pageable pageable);
+
+    @Query(SUMMARY + "WHERE u.userId IN :userIds")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    // users on either side of a block with the given user
+    @Query("SELECT CASE WHEN b.blocker.userId = :userId THEN b.blocked.userId ELSE b.blocker.userId END " +
+            "FROM Block b WHERE b.blocker.userId = :userId OR b.blocked.userId = :userId")
+    List<UUID> findBlockRelatedUserIds(@Param("userId") UUID userId);
+}
@@ -0,0 +1,36 @@
+package com.example.registrationmodule.repository;
+
+import com.example.registrationmodule.model.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset reads and bulk deletes for purging users a chunk at a time.
+ */
+public interface UserPurgeRepository extends Repository<User, UUID> {
+    @Query("SELECT u.userId AS userId, u.username AS username FROM User u ORDER BY u.userId")
+    List<UserDirectoryRepository.UsernameEntry> findFirstChunk(Pageable limit);
+
+    @Query("SELECT u.userId AS userId, u.username AS username FROM User u WHERE u.userId > :after ORDER BY u.userId")
+    List<UserDirectoryRepository.UsernameEntry> findChunkAfter(@Param("after") UUID after, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM Block b WHERE b.blocker.userId IN :userIds OR b.blocked.userId IN :userIds")
+    int deleteBlocksOf(@Param("userIds") Collection<UUID> userIds);
+
+    // pet vaccine and picture rows are removed with their pets
+    @Modifying
+    @Query("DELETE FROM Pet p WHERE p.user.userId IN :userIds")
+    int deletePetsOf(@Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.userId IN :userIds")
+    int deleteUsers(@Param("userIds") Collection<UUID> userIds);
+}
@@ -0,0 +1,44 @@
+package com.example.registrationmodule.service;
+
+import com.example.registrationmodule.model.dto.CompleteUploadSessionDTO;
+import com.example.registrationmodule.model.dto.CreateUploadSessionDTO;
+import com.example.registrationmodule.model.dto.UploadSessionDTO;
+import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.entity.MediaReference;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ICloudService {
+    MediaReference uploadAndSaveMedia(MultipartFile file, UUID ownerId, boolean validate) throws IOException;
+
+    List<MediaReference> uploadAndSaveMedia(List<MultipartFile> files, UUID ownerId, boolean validate) throws IOException;
+
+    UploadSessionDTO createUploadSession(CreateUploadSessionDTO request, UUID ownerId);
+
+    MediaReference completeUploadSession(UUID sessionId, UUID ownerId, CompleteUploadSessionDTO request);
+
+    String getMediaUrl(UUID mediaId);
+
+    Map<UUID, String> getMediaUrls(Collection<UUID> mediaIds);
+
+    String getMediaUrl(UUID mediaId, MediaVariant variant);
+
+    Map<MediaVariant, String> getMediaVariantUrls(UUID mediaId);
+
+    String generatePresignedUrl(String bucketName, String key);
+
+    Media saveMedia(Media media);
+
+    boolean existsById(UUID mediaId);
+
+    Optional<Media> getMediaByID(UUID mediaId);
+
+    void deleteReference(UUID referenceId, UUID ownerId);
+}
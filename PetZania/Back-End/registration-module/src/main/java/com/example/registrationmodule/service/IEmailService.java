@@ -4,4 +4,6 @@ import com.example.registrationmodule.model.dto.EmailRequestDTO;
 
 public interface IEmailService {
     void sendEmail(EmailRequestDTO emailRequestDTO);
+
+    String getProviderName();
 }
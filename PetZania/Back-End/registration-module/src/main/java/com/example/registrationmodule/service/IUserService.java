@@ -4,6 +4,7 @@ import com.example.registrationmodule.model.dto.*;
 import com.example.registrationmodule.model.entity.User;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 
 import java.util.UUID;
@@ -20,7 +21,9 @@ public interface IUserService {
     ProfilePictureDTO getProfilePictureURLByUserId(UUID requesterId, UUID userId);
     Page<UserProfileDTO> getUsers(UUID requesterId, int page, int size, String sortBy, String direction);
 
-    Page<UserProfileDTO> getUsersByPrefixUsername(UUID requesterId, int page, int size, String sortBy, String direction, String prefix);
+    Page<UserSummaryDTO> getUserSummaries(UUID requesterId, int page, int size, String sortBy, String direction);
+
+    Slice<UserSummaryDTO> getUsersByPrefixUsername(UUID requesterId, int page, int size, String sortBy, String direction, String prefix);
 
     void sendResetPasswordOTP(EmailDTO emailDTO);
 
@@ -47,7 +50,9 @@ public interface IUserService {
 
     void changePassword(ChangePasswordDTO changePasswordDTO);
 
-    void deleteAll();
+    UserPurgeDTO deleteAll();
+
+    UserPurgeDTO getDeleteAllStatus();
 
     void verifyCode(OTPValidationDTO otpValidationDTO);
 
@@ -14,7 +14,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -30,8 +30,9 @@ public class AdminService implements IAdminService {
     private final AuthenticationManager authenticationManager;
     private final JWTService jwtService;
     private final RefreshTokenService refreshTokenService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
+    private final PasswordEncoder passwordEncoder;
     private final DTOConversionService dtoConversionService;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     public boolean existsById(UUID adminId) {
@@ -51,6 +52,11 @@ public class AdminService implements IAdminService {
             } else {
                 role = "ROLE_ADMIN";
             }
+            if (passwordEncoder.upgradeEncoding(admin.getPassword())) {
+                // the configured BCrypt cost changed since this hash was stored
+                admin.setPassword(passwordEncoder.encode(loginAdminDTO.getPassword()));
+            }
+
             String message = "Successful login";
             TokenDTO tokenDTO = new TokenDTO(jwtService.generateAccessToken(loginAdminDTO.getUsername(), role),
                     jwtService.generateRefreshToken(loginAdminDTO.getUsername(), role));
@@ -127,6 +133,7 @@ public class AdminService implements IAdminService {
         if (!adminRepository.existsById(adminId)) {
             throw new AdminNotFound("Admin not found with ID: " + adminId);
         }
+        adminRepository.findById(adminId).ifPresent(admin -> principalCacheService.evictAdmin(admin.getUsername()));
         adminRepository.deleteById(adminId);
     }
 }
@@ -27,6 +27,7 @@ public class BlockListener {
     private final UserRepository userRepository;
     private final BlockRepository blockRepository;
     private final QueueUtils queueUtils;
+    private final BlockedUsersCache blockedUsersCache;
 
     public User getUser(UUID userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFound("User not found with ID: " + userId));
@@ -44,6 +45,7 @@ public class BlockListener {
                 block.setBlocked(blocked);
                 block.setCreatedAt(blockEvent.getCreatedAt());
                 blockRepository.save(block);
+                blockedUsersCache.blockChanged(blockEvent.getBlockerId(), blockEvent.getBlockedId());
                 log.info("Received blocked user with IDs: BlockerId: {} BlockedId: {}", blockEvent.getBlockerId(), blockEvent.getBlockedId());
             }
             channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
@@ -72,6 +74,7 @@ public class BlockListener {
         try {
             if (blockRepository.existsByBlocker_UserIdAndBlocked_UserId(blockEvent.getBlockerId(), blockEvent.getBlockedId())) {
                 blockRepository.deleteByBlocker_UserIdAndBlocked_UserId(blockEvent.getBlockerId(), blockEvent.getBlockedId());
+                blockedUsersCache.blockChanged(blockEvent.getBlockerId(), blockEvent.getBlockedId());
                 log.info("Received unblocked user with IDs: BlockerId: {} BlockedId: {}", blockEvent.getBlockerId(), blockEvent.getBlockedId());
             }
             channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
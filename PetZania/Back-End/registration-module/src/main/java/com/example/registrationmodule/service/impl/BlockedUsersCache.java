@@ -0,0 +1,78 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.repository.UserDirectoryRepository;
+import com.example.registrationmodule.util.LocalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Caches, per user, the users on either side of a block with them. Block changes evict both
+ * users here after commit and on the other instances through Redis pub/sub.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BlockedUsersCache implements MessageListener {
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCache<UUID, Set<UUID>> cache = new LocalCache<>(BLOCKED_USERS_CACHE_MAX_SIZE, BLOCKED_USERS_CACHE_TTL_MILLIS);
+
+    public Set<UUID> getBlockRelatedUsers(UUID userId) {
+        return cache.get(userId, id -> Set.copyOf(userDirectoryRepository.findBlockRelatedUserIds(id)));
+    }
+
+    public void blockChanged(UUID blockerId, UUID blockedId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(blockerId, blockedId);
+                }
+            });
+        } else {
+            announce(blockerId, blockedId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(" ");
+        try {
+            if (parts.length == 2) {
+                evict(UUID.fromString(parts[0]), UUID.fromString(parts[1]));
+                return;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // logged below
+        }
+        log.warn("Ignoring malformed block change message {}", body);
+    }
+
+    private void announce(UUID blockerId, UUID blockedId) {
+        evict(blockerId, blockedId);
+        try {
+            redisTemplate.convertAndSend(BLOCKED_USERS_CHANNEL, blockerId + " " + blockedId);
+        } catch (RuntimeException ex) {
+            // other instances serve the stale set until it expires
+            log.error("Failed to publish block change between {} and {}", blockerId, blockedId, ex);
+        }
+    }
+
+    private void evict(UUID blockerId, UUID blockedId) {
+        cache.invalidate(blockerId);
+        cache.invalidate(blockedId);
+    }
+}
@@ -2,26 +2,49 @@ package com.example.registrationmodule.service.impl;
 
 import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
-import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.*;
 import com.example.registrationmodule.config.CloudStorageConfig;
 import com.example.registrationmodule.exception.media.InvalidMediaFile;
 import com.example.registrationmodule.exception.media.MediaNotFound;
+import com.example.registrationmodule.exception.media.UploadSessionClosed;
+import com.example.registrationmodule.exception.media.UploadSessionNotFound;
+import com.example.registrationmodule.exception.user.UserAccessDenied;
+import com.example.registrationmodule.model.dto.CompleteUploadSessionDTO;
+import com.example.registrationmodule.model.dto.CreateUploadSessionDTO;
+import com.example.registrationmodule.model.dto.UploadSessionDTO;
 import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.entity.MediaReference;
+import com.example.registrationmodule.model.entity.UploadSession;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
+import com.example.registrationmodule.model.enumeration.UploadSessionStatus;
+import com.example.registrationmodule.repository.MediaReferenceRepository;
 import com.example.registrationmodule.repository.MediaRepository;
+import com.example.registrationmodule.repository.UploadSessionRepository;
 import com.example.registrationmodule.service.ICloudService;
-import jakarta.persistence.EntityNotFoundException;
+import com.example.registrationmodule.util.LocalCache;
+import com.example.registrationmodule.util.S3UploadPipeline;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
+import static com.example.registrationmodule.constant.Constants.*;
+
 @Service
 @AllArgsConstructor
 @Profile("!dev")
@@ -31,43 +54,334 @@ public class CloudService implements ICloudService {
     private final MediaRepository mediaRepository;
     private final AmazonS3 s3Client;
     private final CloudStorageConfig cloudStorageConfig;
+    private final S3UploadPipeline s3UploadPipeline;
+    private final ImageDerivativeService imageDerivativeService;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MediaReferenceRepository mediaReferenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    // keys never change once written, so entries only need to go when the media is deleted
+    private final LocalCache<UUID, String> mediaKeyCache = new LocalCache<>(MEDIA_KEY_CACHE_MAX_SIZE, MEDIA_KEY_CACHE_TTL_MILLIS);
 
-    @Transactional
     @Override
-    public Media uploadAndSaveMedia(MultipartFile file, boolean validate) throws IOException {
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // no database connection is held while bytes go to S3
+    public MediaReference uploadAndSaveMedia(MultipartFile file, UUID ownerId, boolean validate) throws IOException {
+        return uploadAndSaveMedia(List.of(file), ownerId, validate).get(0);
+    }
 
-        if (validate) {
-            validateFile(file);
+    /**
+     * Stores each distinct content once, under a key derived from its SHA-256, and gives the owner one
+     * reference per file. The references of a batch are saved in one transaction, so a file that fails
+     * leaves none of them behind.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<MediaReference> uploadAndSaveMedia(List<MultipartFile> files, UUID ownerId, boolean validate) throws IOException {
+        List<String> keys = new ArrayList<>();
+        Map<String, Media> drafts = new LinkedHashMap<>();
+        Map<String, S3UploadPipeline.Upload> uploads = new HashMap<>();
+        for (MultipartFile file : files) {
+            if (validate) {
+                validateMedia(file.getOriginalFilename(), file.getContentType(), file.getSize());
+            }
+            String contentHash = sha256(file);
+            String contentType = Optional.ofNullable(file.getContentType()).orElse("application/octet-stream");
+            String key = buildS3Key(contentType, contentHash);
+            keys.add(key);
+            if (!drafts.containsKey(key)) {
+                drafts.put(key, Media.builder()
+                        .mediaId(UUID.randomUUID())
+                        .key(key)
+                        .format(extractFileFormat(Optional.ofNullable(file.getOriginalFilename()).orElse("file")))
+                        .type(contentType)
+                        .contentHash(contentHash)
+                        .build());
+                uploads.put(key, new S3UploadPipeline.Upload(key, contentType, file.getSize(), file));
+            }
         }
-        log.info(String.valueOf(cloudStorageConfig.getMaxSize().get("image")));
-        String originalFilename = Optional.ofNullable(file.getOriginalFilename()).orElse("file");
-        String sanitizedFilename = sanitizeFilename(originalFilename);
-        String format = extractFileFormat(originalFilename);
-        String contentType = Optional.ofNullable(file.getContentType()).orElse("application/octet-stream");
 
-        Media curMedia = Media.builder()
-                .format(format)
-                .type(contentType)
-                .uploadedAt(LocalDateTime.now())
-                .build();
+        // content stored before is not sent again
+        Set<String> pending = new LinkedHashSet<>(drafts.keySet());
+        mediaRepository.findByKeyIn(drafts.keySet()).forEach(media -> pending.remove(media.getKey()));
+        Set<String> uploaded = new LinkedHashSet<>();
+        SavedReferences saved;
+        try {
+            while (true) {
+                List<S3UploadPipeline.Upload> batch = pending.stream()
+                        .filter(key -> !uploaded.contains(key))
+                        .map(uploads::get)
+                        .toList();
+                batch.forEach(upload -> uploaded.add(upload.key()));
+                s3UploadPipeline.uploadAll(batch);
+                saved = transactionTemplate.execute(status -> saveReferences(status, keys, drafts, uploaded, ownerId));
+                if (saved.missing().isEmpty()) {
+                    break;
+                }
+                // the last reference to that content was deleted after it was looked up
+                pending.addAll(saved.missing());
+            }
+        } catch (IOException | RuntimeException ex) {
+            discardUnreferenced(uploaded);
+            throw ex;
+        }
 
-        curMedia = saveMedia(curMedia); // Save to get mediaId for S3 key
+        // a delete of the same content that was under way may have removed an object after it was sent
+        String bucketName = cloudStorageConfig.getBucketName();
+        List<S3UploadPipeline.Upload> removed = uploaded.stream()
+                .filter(key -> !s3Client.doesObjectExist(bucketName, key))
+                .map(uploads::get)
+                .toList();
+        if (!removed.isEmpty()) {
+            s3UploadPipeline.uploadAll(removed);
+        }
+        imageDerivativeService.scheduleDerivatives(saved.created());
+        saved.media().forEach(media -> mediaKeyCache.put(media.getMediaId(), media.getKey()));
+        return saved.references();
+    }
+
+    private record SavedReferences(List<MediaReference> references, List<Media> media, List<Media> created,
+                                   Set<String> missing) {
+    }
 
-        String key = buildS3Key(contentType, curMedia.getMediaId(), sanitizedFilename);
-        curMedia.setKey(key);
-        curMedia = saveMedia(curMedia); // Save again with key
+    private SavedReferences saveReferences(TransactionStatus status, List<String> keys, Map<String, Media> drafts,
+                                           Set<String> uploaded, UUID ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String key : uploaded) {
+            Media draft = drafts.get(key);
+            mediaRepository.insertIfAbsent(draft.getMediaId(), key, draft.getType(), draft.getFormat(), now, draft.getContentHash());
+        }
+        Map<String, Media> stored = new HashMap<>();
+        mediaRepository.findByKeyInForShare(drafts.keySet()).forEach(media -> stored.put(media.getKey(), media));
+        Set<String> missing = new LinkedHashSet<>(drafts.keySet());
+        missing.removeAll(stored.keySet());
+        if (!missing.isEmpty()) {
+            status.setRollbackOnly();
+            return new SavedReferences(List.of(), List.of(), List.of(), missing);
+        }
+
+        List<MediaReference> references = keys.stream()
+                .map(key -> MediaReference.builder()
+                        .mediaId(stored.get(key).getMediaId())
+                        .ownerId(ownerId)
+                        .createdAt(now)
+                        .build())
+                .toList();
+        List<Media> created = stored.values().stream()
+                .filter(media -> media.getMediaId().equals(drafts.get(media.getKey()).getMediaId()))
+                .toList();
+        return new SavedReferences(mediaReferenceRepository.saveAll(references), List.copyOf(stored.values()), created, Set.of());
+    }
+
+    // objects of a failed upload that no Media row points at; one that does belongs to a concurrent upload
+    private void discardUnreferenced(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> unreferenced = new HashSet<>(keys);
+            mediaRepository.findByKeyIn(keys).forEach(media -> unreferenced.remove(media.getKey()));
+            unreferenced.forEach(key -> s3Client.deleteObject(cloudStorageConfig.getBucketName(), key));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to remove {} objects of a failed upload", keys.size(), ex);
+        }
+    }
+
+    @Override
+    public UploadSessionDTO createUploadSession(CreateUploadSessionDTO request, UUID ownerId) {
+        validateMedia(request.getFileName(), request.getContentType(), request.getSize());
+        String bucketName = cloudStorageConfig.getBucketName();
+        // the content is not known yet, so the key cannot be its hash
+        String key = buildS3Key(request.getContentType(), UUID.randomUUID().toString());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(UPLOAD_SESSION_TTL_MINUTES);
+        Date urlExpiration = Date.from(expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+
+        UploadSessionDTO.UploadSessionDTOBuilder response = UploadSessionDTO.builder()
+                .key(key)
+                .expiresAt(expiresAt);
+        String multipartUploadId = null;
+        if (request.getSize() >= cloudStorageConfig.getMultipartThreshold()) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentType(request.getContentType());
+            multipartUploadId = s3Client.initiateMultipartUpload(
+                    new InitiateMultipartUploadRequest(bucketName, key, metadata)).getUploadId();
+
+            long partSize = cloudStorageConfig.getPartSize();
+            int partCount = (int) ((request.getSize() + partSize - 1) / partSize);
+            List<String> partUrls = new ArrayList<>(partCount);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                GeneratePresignedUrlRequest partRequest = new GeneratePresignedUrlRequest(bucketName, key)
+                        .withMethod(HttpMethod.PUT)
+                        .withExpiration(urlExpiration);
+                partRequest.addRequestParameter("uploadId", multipartUploadId);
+                partRequest.addRequestParameter("partNumber", String.valueOf(partNumber));
+                partUrls.add(s3Client.generatePresignedUrl(partRequest).toString());
+            }
+            response.partUrls(partUrls).partSize(partSize);
+        } else {
+            // the signature covers the content type, so the client cannot store a different one
+            GeneratePresignedUrlRequest putRequest = new GeneratePresignedUrlRequest(bucketName, key)
+                    .withMethod(HttpMethod.PUT)
+                    .withExpiration(urlExpiration)
+                    .withContentType(request.getContentType());
+            response.uploadUrl(s3Client.generatePresignedUrl(putRequest).toString());
+        }
+
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .key(key)
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .declaredSize(request.getSize())
+                .multipartUploadId(multipartUploadId)
+                .status(UploadSessionStatus.PENDING)
+                .ownerId(ownerId)
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .build());
+        return response.sessionId(session.getSessionId()).build();
+    }
+
+    @Override
+    @Transactional(dontRollbackOn = InvalidMediaFile.class) // keep the FAILED status of a rejected upload
+    public MediaReference completeUploadSession(UUID sessionId, UUID ownerId, CompleteUploadSessionDTO request) {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new UploadSessionNotFound("Upload session not found with ID: " + sessionId));
+        if (!ownerId.equals(session.getOwnerId())) {
+            throw new UploadSessionNotFound("Upload session not found with ID: " + sessionId);
+        }
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            // retried confirmation
+            return mediaReferenceRepository.findById(session.getReferenceId())
+                    .orElseThrow(() -> new MediaNotFound("Media not found"));
+        }
+        if (session.getStatus() != UploadSessionStatus.PENDING || session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new UploadSessionClosed("Upload session " + sessionId + " is no longer open.");
+        }
+
+        String bucketName = cloudStorageConfig.getBucketName();
+        if (session.getMultipartUploadId() != null) {
+            List<PartETag> parts = request.getParts().stream()
+                    .map(part -> new PartETag(part.getPartNumber(), part.getEtag()))
+                    .sorted(Comparator.comparingInt(PartETag::getPartNumber))
+                    .toList();
+            if (parts.isEmpty()) {
+                throw new InvalidMediaFile("Uploaded parts are required to complete a multipart upload.");
+            }
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(
+                    bucketName, session.getKey(), session.getMultipartUploadId(), new ArrayList<>(parts)));
+        }
+
+        ObjectMetadata metadata;
+        try {
+            metadata = s3Client.getObjectMetadata(bucketName, session.getKey());
+        } catch (AmazonS3Exception ex) {
+            if (ex.getStatusCode() == 404) {
+                throw new InvalidMediaFile("No file was uploaded for session " + sessionId + ".");
+            }
+            throw ex;
+        }
+        // the stored object is what gets served, so check it rather than what the client declared
+        try {
+            if (metadata.getContentLength() != session.getDeclaredSize()) {
+                throw new InvalidMediaFile("Uploaded file size " + metadata.getContentLength() + " does not match the declared size " + session.getDeclaredSize() + ".");
+            }
+            validateMedia(session.getFileName(), metadata.getContentType(), metadata.getContentLength());
+        } catch (InvalidMediaFile ex) {
+            s3Client.deleteObject(bucketName, session.getKey());
+            session.setStatus(UploadSessionStatus.FAILED);
+            throw ex;
+        }
 
-        uploadToS3(file, key, contentType);
+        Media media = mediaRepository.save(Media.builder()
+                .key(session.getKey())
+                .format(extractFileFormat(session.getFileName()))
+                .type(metadata.getContentType())
+                .uploadedAt(LocalDateTime.now())
+                .build());
+        MediaReference reference = mediaReferenceRepository.save(MediaReference.builder()
+                .mediaId(media.getMediaId())
+                .ownerId(ownerId)
+                .createdAt(media.getUploadedAt())
+                .build());
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setMediaId(media.getMediaId());
+        session.setReferenceId(reference.getReferenceId());
+        afterCommit(() -> imageDerivativeService.scheduleDerivatives(List.of(media)));
+        return reference;
+    }
 
-        return curMedia;
+    @Scheduled(fixedDelay = UPLOAD_SESSION_CLEANUP_MILLIS)
+    public void expireUploadSessions() {
+        String bucketName = cloudStorageConfig.getBucketName();
+        for (UploadSession session : uploadSessionRepository.findByStatusAndExpiresAtBefore(UploadSessionStatus.PENDING, LocalDateTime.now())) {
+            try {
+                if (session.getMultipartUploadId() != null) {
+                    s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, session.getKey(), session.getMultipartUploadId()));
+                } else {
+                    s3Client.deleteObject(bucketName, session.getKey());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Failed to clean up expired upload session {}", session.getSessionId(), ex);
+            }
+            session.setStatus(UploadSessionStatus.EXPIRED);
+        }
     }
 
     @Override
     public String getMediaUrl(UUID mediaId) {
+        String key = mediaKeyCache.get(mediaId, id -> mediaRepository.findKeyById(id).orElse(null));
+        if (key == null) {
+            throw new MediaNotFound("Media not found");
+        }
+        return cloudStorageConfig.getCdnUrl() + "/" + key;
+    }
+
+    @Override
+    public Map<UUID, String> getMediaUrls(Collection<UUID> mediaIds) {
+        Map<UUID, String> keys = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID mediaId : new LinkedHashSet<>(mediaIds)) {
+            Optional<String> cached = mediaKeyCache.getIfPresent(mediaId);
+            keys.put(mediaId, cached.orElse(null));
+            if (cached.isEmpty()) {
+                missing.add(mediaId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (MediaRepository.MediaKey mediaKey : mediaRepository.findKeysByIdIn(missing)) {
+                mediaKeyCache.put(mediaKey.getMediaId(), mediaKey.getKey());
+                keys.put(mediaKey.getMediaId(), mediaKey.getKey());
+            }
+        }
+
+        // unknown IDs are left out rather than failing the whole batch
+        Map<UUID, String> urls = new LinkedHashMap<>();
+        keys.forEach((mediaId, key) -> {
+            if (key != null) {
+                urls.put(mediaId, cloudStorageConfig.getCdnUrl() + "/" + key);
+            }
+        });
+        return urls;
+    }
+
+    @Override
+    public String getMediaUrl(UUID mediaId, MediaVariant variant) {
         Media media = mediaRepository.findById(mediaId)
                 .orElseThrow(() -> new MediaNotFound("Media not found"));
 
-        return cloudStorageConfig.getCdnUrl() + "/" + media.getKey();
+        // variants are generated after upload, so fall back to the original until they exist
+        return cloudStorageConfig.getCdnUrl() + "/" + media.getVariants().getOrDefault(variant, media.getKey());
+    }
+
+    @Override
+    public Map<MediaVariant, String> getMediaVariantUrls(UUID mediaId) {
+        Media media = mediaRepository.findById(mediaId)
+                .orElseThrow(() -> new MediaNotFound("Media not found"));
+
+        Map<MediaVariant, String> urls = new EnumMap<>(MediaVariant.class);
+        for (MediaVariant variant : MediaVariant.values()) {
+            urls.put(variant, cloudStorageConfig.getCdnUrl() + "/" + media.getVariants().getOrDefault(variant, media.getKey()));
+        }
+        return urls;
     }
 
     @Override
@@ -101,17 +415,45 @@ public class CloudService implements ICloudService {
     }
 
     @Override
-    public void deleteById(UUID mediaId) {
-        Media media = mediaRepository.findById(mediaId)
-            .orElseThrow(() -> new EntityNotFoundException("Media not found with ID: " + mediaId));
-        // Delete from S3
+    public void deleteReference(UUID referenceId, UUID ownerId) {
+        MediaReference reference = mediaReferenceRepository.findById(referenceId)
+                .orElseThrow(() -> new MediaNotFound("Media reference not found with ID: " + referenceId));
+        if (!ownerId.equals(reference.getOwnerId())) {
+            throw new UserAccessDenied("You can only delete your own files");
+        }
+        // serializes with other deletes and with uploads taking a reference on the same Media
+        Media media = mediaRepository.findByIdForUpdate(reference.getMediaId())
+                .orElseThrow(() -> new MediaNotFound("Media not found"));
+        if (mediaReferenceRepository.removeById(referenceId) == 0) {
+            throw new MediaNotFound("Media reference not found with ID: " + referenceId);
+        }
+        if (mediaReferenceRepository.countByMediaId(media.getMediaId()) > 0) {
+            return;
+        }
+        // objects go before the row is released, so an upload waiting on it stores the content again afterwards
         s3Client.deleteObject(cloudStorageConfig.getBucketName(), media.getKey());
-        // Delete from DB
-        mediaRepository.deleteById(mediaId);
+        media.getVariants().values()
+                .forEach(variantKey -> s3Client.deleteObject(cloudStorageConfig.getBucketName(), variantKey));
+        mediaRepository.delete(media);
+        mediaKeyCache.invalidate(media.getMediaId());
     }
 
-    private String sanitizeFilename(String filename) {
-        return filename.replaceAll("[^a-zA-Z0-9\\.\\-]", "_");
+    private static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        // the multipart body is already spooled locally, so hashing it costs no extra S3 traffic
+        try (InputStream input = file.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
     private String extractFileFormat(String filename) {
@@ -119,7 +461,7 @@ public class CloudService implements ICloudService {
         return (lastDot != -1) ? filename.substring(lastDot + 1).toLowerCase() : "";
     }
 
-    private String buildS3Key(String contentType, UUID mediaId, String filename) {
+    private String buildS3Key(String contentType, String name) {
         String prefix = switch (contentType) {
             case "application/pdf" -> "doc/";
             default -> switch (contentType.split("/")[0]) {
@@ -129,32 +471,38 @@ public class CloudService implements ICloudService {
                 default -> "misc/";
             };
         };
-        return prefix + mediaId + "-" + filename;
-    }
-
-    private void uploadToS3(MultipartFile file, String key, String contentType) throws IOException {
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(file.getSize());
-        metadata.setContentType(contentType);
-        s3Client.putObject(cloudStorageConfig.getBucketName(), key, file.getInputStream(), metadata);
+        return prefix + name;
     }
 
-    private void validateFile(MultipartFile mediaFiles) {
-        if (mediaFiles.isEmpty()) {
+    private void validateMedia(String filename, String contentType, long size) {
+        if (size == 0) {
             throw new InvalidMediaFile("Empty file not allowed.");
         }
-        if (!cloudStorageConfig.getAllowedTypes().contains(mediaFiles.getContentType())) {
-            throw new InvalidMediaFile("File: " + mediaFiles.getOriginalFilename() + " has invalid file type: " + mediaFiles.getContentType());
+        if (contentType == null || !cloudStorageConfig.getAllowedTypes().contains(contentType)) {
+            throw new InvalidMediaFile("File: " + filename + " has invalid file type: " + contentType);
+        }
+        if (contentType.startsWith("image/") && size > cloudStorageConfig.getMaxSize().get("image")) {
+            throw new InvalidMediaFile("Image: " + filename + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("image") + " MB.");
+
+        } else if (contentType.startsWith("video/") && size > cloudStorageConfig.getMaxSize().get("video")) {
+            throw new InvalidMediaFile("Video: " + filename + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("video") + " MB.");
+        } else if (contentType.startsWith("text/") && size > cloudStorageConfig.getMaxSize().get("text")) {
+            throw new InvalidMediaFile("File: " + filename + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("text") + " MB.");
+        } else if (contentType.equals("application/pdf") && size > cloudStorageConfig.getMaxSize().get("application-pdf")) {
+            throw new InvalidMediaFile("PDF: " + filename + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("application-pdf") + " MB.");
         }
-        if (mediaFiles.getContentType().startsWith("image/") && mediaFiles.getSize() > cloudStorageConfig.getMaxSize().get("image")) {
-            throw new InvalidMediaFile("Image: " + mediaFiles.getOriginalFilename() + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("image") + " MB.");
+    }
 
-        } else if (mediaFiles.getContentType().startsWith("video/") && mediaFiles.getSize() > cloudStorageConfig.getMaxSize().get("video")) {
-            throw new InvalidMediaFile("Video: " + mediaFiles.getOriginalFilename() + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("video") + " MB.");
-        } else if (mediaFiles.getContentType().startsWith("text/") && mediaFiles.getSize() > cloudStorageConfig.getMaxSize().get("text")) {
-            throw new InvalidMediaFile("File: " + mediaFiles.getOriginalFilename() + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("text") + " MB.");
-        } else if (mediaFiles.getContentType().equals("application/pdf") && mediaFiles.getSize() > cloudStorageConfig.getMaxSize().get("application-pdf")) {
-            throw new InvalidMediaFile("PDF: " + mediaFiles.getOriginalFilename() + " is too large. Max allowed is " + cloudStorageConfig.getMaxSize().get("application-pdf") + " MB.");
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 }
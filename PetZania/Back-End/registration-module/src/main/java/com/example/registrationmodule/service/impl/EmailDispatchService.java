@@ -0,0 +1,159 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.model.dto.EmailRequestDTO;
+import com.example.registrationmodule.model.entity.EmailDispatch;
+import com.example.registrationmodule.model.enumeration.EmailDispatchStatus;
+import com.example.registrationmodule.repository.EmailDispatchRepository;
+import com.example.registrationmodule.service.IEmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Outbox for outgoing emails. Callers only persist a {@link EmailDispatch} row; a scheduled poller
+ * claims due rows and hands them to a worker pool that sends them with a per-provider concurrency
+ * limit, retrying failures with exponential backoff until {@code EMAIL_DISPATCH_MAX_ATTEMPTS}.
+ * Bodies carry OTPs and reset codes, so they are cleared once a dispatch is SENT or FAILED, and the
+ * finished rows themselves are deleted after {@code EMAIL_DISPATCH_RETENTION_DAYS}.
+ */
+@Service
+@Slf4j
+public class EmailDispatchService {
+    private final EmailDispatchRepository emailDispatchRepository;
+    private final IEmailService emailService;
+    private final Executor emailDispatchExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Semaphore> providerPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public EmailDispatchService(EmailDispatchRepository emailDispatchRepository,
+                                IEmailService emailService,
+                                @Qualifier("emailDispatchExecutor") Executor emailDispatchExecutor,
+                                TransactionTemplate transactionTemplate) {
+        this.emailDispatchRepository = emailDispatchRepository;
+        this.emailService = emailService;
+        this.emailDispatchExecutor = emailDispatchExecutor;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public EmailDispatch enqueue(EmailRequestDTO request) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailDispatch dispatch = EmailDispatch.builder()
+                .to(request.getTo())
+                .from(request.getFrom())
+                .subject(request.getSubject())
+                .body(request.getBody())
+                .provider(emailService.getProviderName())
+                .status(EmailDispatchStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        return emailDispatchRepository.save(dispatch);
+    }
+
+    @Scheduled(fixedDelay = EMAIL_DISPATCH_POLL_MILLIS)
+    public int dispatchDue() {
+        // never claim more than the workers can start on, the rest stays PENDING for other instances
+        int capacity = Math.min(EMAIL_DISPATCH_BATCH_SIZE, 2 * EMAIL_DISPATCH_WORKERS - inFlight.get());
+        if (capacity <= 0) {
+            return 0;
+        }
+        List<EmailDispatch> claimed = transactionTemplate.execute(status -> claimDue(LocalDateTime.now(), capacity));
+        if (claimed == null) {
+            return 0;
+        }
+        for (EmailDispatch dispatch : claimed) {
+            inFlight.incrementAndGet();
+            emailDispatchExecutor.execute(() -> {
+                try {
+                    deliver(dispatch);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    @Scheduled(cron = "0 30 0 * * ?") // Runs every 24 hours
+    public int purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minusDays(EMAIL_DISPATCH_RETENTION_DAYS);
+        Integer deleted = transactionTemplate.execute(status -> emailDispatchRepository.deleteByStatusCreatedBefore(
+                EnumSet.of(EmailDispatchStatus.SENT, EmailDispatchStatus.FAILED), before));
+        log.info("Purged {} finished email dispatches", deleted);
+        return deleted == null ? 0 : deleted;
+    }
+
+    private List<EmailDispatch> claimDue(LocalDateTime now, int limit) {
+        List<EmailDispatch> due = emailDispatchRepository.lockDue(now, limit);
+        for (EmailDispatch dispatch : due) {
+            dispatch.setStatus(EmailDispatchStatus.SENDING);
+            dispatch.setNextAttemptAt(now.plusSeconds(EMAIL_DISPATCH_LEASE_SECONDS));
+        }
+        return emailDispatchRepository.saveAll(due);
+    }
+
+    private void deliver(EmailDispatch dispatch) {
+        Semaphore permits = providerPermits.computeIfAbsent(dispatch.getProvider(),
+                provider -> new Semaphore(EMAIL_PROVIDER_MAX_CONCURRENCY));
+        permits.acquireUninterruptibly();
+        try {
+            dispatch.setAttempts(dispatch.getAttempts() + 1);
+            emailService.sendEmail(toRequest(dispatch));
+            dispatch.setStatus(EmailDispatchStatus.SENT);
+            dispatch.setSentAt(LocalDateTime.now());
+            dispatch.setLastError(null);
+            dispatch.setBody(null);
+        } catch (RuntimeException ex) {
+            recordFailure(dispatch, ex);
+        } finally {
+            permits.release();
+        }
+        emailDispatchRepository.save(dispatch);
+    }
+
+    private void recordFailure(EmailDispatch dispatch, RuntimeException ex) {
+        String error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        dispatch.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (dispatch.getAttempts() >= EMAIL_DISPATCH_MAX_ATTEMPTS) {
+            dispatch.setStatus(EmailDispatchStatus.FAILED);
+            dispatch.setBody(null);
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    dispatch.getDispatchId(), dispatch.getTo(), dispatch.getAttempts(), error);
+            return;
+        }
+        dispatch.setStatus(EmailDispatchStatus.PENDING);
+        dispatch.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(dispatch.getAttempts())));
+        log.warn("Email {} to {} failed (attempt {}), retrying: {}",
+                dispatch.getDispatchId(), dispatch.getTo(), dispatch.getAttempts(), error);
+    }
+
+    private static long backoffSeconds(int attempts) {
+        long backoff = EMAIL_DISPATCH_BASE_BACKOFF_SECONDS << Math.min(attempts - 1, 20);
+        return Math.min(backoff, EMAIL_DISPATCH_MAX_BACKOFF_SECONDS);
+    }
+
+    private static EmailRequestDTO toRequest(EmailDispatch dispatch) {
+        EmailRequestDTO request = new EmailRequestDTO();
+        request.setTo(dispatch.getTo());
+        request.setFrom(dispatch.getFrom());
+        request.setSubject(dispatch.getSubject());
+        request.setBody(dispatch.getBody());
+        return request;
+    }
+}
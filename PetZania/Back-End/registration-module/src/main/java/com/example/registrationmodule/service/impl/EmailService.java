@@ -16,6 +16,11 @@ public class EmailService implements IEmailService {
         this.sendGrid = sendGrid;
     }
 
+    @Override
+    public String getProviderName() {
+        return "sendgrid";
+    }
+
     @Override
     public void sendEmail(EmailRequestDTO request) {
         log.info("(prod) Attempting to send email to : {}", request.getTo());
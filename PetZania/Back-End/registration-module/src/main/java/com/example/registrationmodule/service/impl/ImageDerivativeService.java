@@ -0,0 +1,131 @@
+package com.example.registrationmodule.service.impl;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.example.registrationmodule.config.CloudStorageConfig;
+import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
+import com.example.registrationmodule.repository.MediaRepository;
+import com.example.registrationmodule.util.ImageResizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Generates the resized variants of uploaded images ({@link MediaVariant}) in the background.
+ * Work runs on the bounded {@code imageProcessingExecutor}; when it is saturated the image simply
+ * keeps no variants and its URLs fall back to the original.
+ */
+@Service
+@Profile("!dev")
+@Slf4j
+public class ImageDerivativeService {
+    private static final Set<String> SUPPORTED_TYPES = Set.of("image/jpeg", "image/png");
+
+    private final MediaRepository mediaRepository;
+    private final AmazonS3 s3Client;
+    private final CloudStorageConfig cloudStorageConfig;
+    private final Executor imageProcessingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageResizer imageResizer = new ImageResizer(IMAGE_MAX_SOURCE_PIXELS);
+
+    public ImageDerivativeService(MediaRepository mediaRepository,
+                                  AmazonS3 s3Client,
+                                  CloudStorageConfig cloudStorageConfig,
+                                  @Qualifier("imageProcessingExecutor") Executor imageProcessingExecutor,
+                                  TransactionTemplate transactionTemplate) {
+        this.mediaRepository = mediaRepository;
+        this.s3Client = s3Client;
+        this.cloudStorageConfig = cloudStorageConfig;
+        this.imageProcessingExecutor = imageProcessingExecutor;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void scheduleDerivatives(List<Media> mediaList) {
+        for (Media media : mediaList) {
+            if (!SUPPORTED_TYPES.contains(media.getType())) {
+                continue;
+            }
+            UUID mediaId = media.getMediaId();
+            String key = media.getKey();
+            try {
+                imageProcessingExecutor.execute(() -> generateDerivatives(mediaId, key));
+            } catch (RejectedExecutionException ex) {
+                log.warn("Image processing queue is full, media {} is served without variants", mediaId);
+            }
+        }
+    }
+
+    public void generateDerivatives(UUID mediaId, String key) {
+        String bucketName = cloudStorageConfig.getBucketName();
+        Map<MediaVariant, String> variants = new EnumMap<>(MediaVariant.class);
+        try {
+            BufferedImage image = imageResizer.decode(download(bucketName, key));
+            for (MediaVariant variant : MediaVariant.values()) {
+                ImageResizer.Resized resized = imageResizer.resize(image, variant.getMaxDimension(), variant.getQuality());
+                String variantKey = buildVariantKey(key, variant, resized.format());
+
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentType(resized.contentType());
+                metadata.setContentLength(resized.bytes().length);
+                metadata.setCacheControl(IMAGE_VARIANT_CACHE_CONTROL);
+                s3Client.putObject(bucketName, variantKey, new ByteArrayInputStream(resized.bytes()), metadata);
+                variants.put(variant, variantKey);
+            }
+            if (!recordVariants(mediaId, variants)) {
+                // the media was deleted while its variants were being generated
+                variants.values().forEach(variantKey -> s3Client.deleteObject(bucketName, variantKey));
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to generate variants for media {}", mediaId, ex);
+            variants.values().forEach(variantKey -> deleteQuietly(bucketName, variantKey));
+        }
+    }
+
+    private byte[] download(String bucketName, String key) throws IOException {
+        try (S3Object object = s3Client.getObject(bucketName, key);
+             InputStream input = object.getObjectContent()) {
+            return input.readAllBytes();
+        }
+    }
+
+    private boolean recordVariants(UUID mediaId, Map<MediaVariant, String> variants) {
+        Boolean recorded = transactionTemplate.execute(status -> mediaRepository.findById(mediaId)
+                .map(media -> {
+                    media.getVariants().putAll(variants);
+                    return true;
+                })
+                .orElse(false));
+        return Boolean.TRUE.equals(recorded);
+    }
+
+    private void deleteQuietly(String bucketName, String key) {
+        try {
+            s3Client.deleteObject(bucketName, key);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to delete orphaned variant {}", key, ex);
+        }
+    }
+
+    // image/<sha256> -> image/variants/thumbnail/<sha256>.jpg
+    static String buildVariantKey(String key, MediaVariant variant, String format) {
+        int slash = key.lastIndexOf('/');
+        String name = key.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return key.substring(0, slash + 1) + "variants/" + variant.name().toLowerCase(Locale.ROOT) + "/" + baseName + "." + format;
+    }
+}
@@ -19,10 +19,13 @@ import java.util.UUID;
 public class PetService implements IPetService {
 
     private final PetRepository petRepository;
+    private final ProfileCacheService profileCacheService;
 
     @Override
     public Pet savePet(Pet pet) {
-        return petRepository.save(pet);
+        Pet savedPet = petRepository.save(pet);
+        evictOwnerProfile(savedPet);
+        return savedPet;
     }
 
     @Override
@@ -53,14 +56,22 @@ public class PetService implements IPetService {
             Optional.ofNullable(petDto.getMyVaccinesURLs()).ifPresent(existingPet::setMyVaccinesURLs);
             Optional.ofNullable(petDto.getMyPicturesURLs()).ifPresent(existingPet::setMyPicturesURLs);
 
-            return petRepository.save(existingPet);
+            Pet updatedPet = petRepository.save(existingPet);
+            evictOwnerProfile(updatedPet);
+            return updatedPet;
         }).orElseThrow(() -> new PetNotFound("Pet does not exist"));
     }
 
 
     @Override
     public void deleteById(UUID petId) {
+        petRepository.findById(petId).ifPresent(this::evictOwnerProfile);
         petRepository.deleteById(petId);
     }
 
+    // the owner's cached profile lists their pets
+    private void evictOwnerProfile(Pet pet) {
+        profileCacheService.evict(pet.getUser().getUserId());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.registrationmodule.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.example.registrationmodule.constant.Constants.PRESENCE_KEY_PREFIX;
+
+/**
+ * Reads the presence sets that friends-and-chats-module keeps for users with an open WebSocket
+ * session; a user is online while their set exists. A user without a key, or whose presence cannot be read, is reported offline.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PresenceService {
+    private final StringRedisTemplate redisTemplate;
+
+    public boolean isOnline(UUID userId) {
+        return !getOnlineUsers(List.of(userId)).isEmpty();
+    }
+
+    public Set<UUID> getOnlineUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<UUID> ids = List.copyOf(userIds);
+        try {
+            List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID id : ids) {
+                    connection.keyCommands().exists((PRESENCE_KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            Set<UUID> online = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (Boolean.TRUE.equals(exists.get(i))) {
+                    online.add(ids.get(i));
+                }
+            }
+            return online;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to read presence for {} users", ids.size(), ex);
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.model.dto.UserProfileDTO;
+import com.example.registrationmodule.util.LocalCache;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Read-through cache of user profiles: a short-lived local copy in front of a shared Redis copy.
+ * Writers evict after commit; the Redis key is deleted and the other instances drop their local
+ * copy through Redis pub/sub. When Redis is unavailable reads fall through to the database.
+ */
+@Service
+@Slf4j
+public class ProfileCacheService implements MessageListener {
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LocalCache<UUID, UserProfileDTO> local = new LocalCache<>(PROFILE_CACHE_LOCAL_MAX_SIZE, PROFILE_CACHE_LOCAL_TTL_MILLIS);
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public ProfileCacheService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        // userId and blocked are read-only for clients but must survive the round trip through Redis
+        this.objectMapper = objectMapper.copy().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public JsonProperty.Access findPropertyAccess(Annotated annotated) {
+                return JsonProperty.Access.AUTO;
+            }
+        });
+        this.redisHits = Counter.builder(PROFILE_CACHE_METRIC + ".hits").tag("tier", "redis").register(meterRegistry);
+        this.redisMisses = Counter.builder(PROFILE_CACHE_METRIC + ".misses").tag("tier", "redis").register(meterRegistry);
+        FunctionCounter.builder(PROFILE_CACHE_METRIC + ".hits", local, LocalCache::hitCount)
+                .tag("tier", "local")
+                .register(meterRegistry);
+        FunctionCounter.builder(PROFILE_CACHE_METRIC + ".misses", local, LocalCache::missCount)
+                .tag("tier", "local")
+                .register(meterRegistry);
+        Gauge.builder(PROFILE_CACHE_METRIC + ".hit.ratio", this, ProfileCacheService::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached profile, or loads and caches it. A {@code null} result is not cached.
+     */
+    public UserProfileDTO get(UUID userId, Function<UUID, UserProfileDTO> loader) {
+        return local.get(userId, id -> {
+            UserProfileDTO cached = readShared(id);
+            if (cached != null) {
+                return cached;
+            }
+            UserProfileDTO loaded = loader.apply(id);
+            if (loaded != null) {
+                writeShared(id, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public void evict(UUID userId) {
+        evict(List.of(userId));
+    }
+
+    public void evict(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(userIds);
+        // evicting before commit would let a concurrent read cache the old row again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(ids);
+                }
+            });
+        } else {
+            announce(ids);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String id : body.split(" ")) {
+            try {
+                local.invalidate(UUID.fromString(id));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed profile eviction {}", id);
+            }
+        }
+    }
+
+    private void announce(List<UUID> userIds) {
+        userIds.forEach(local::invalidate);
+        try {
+            redisTemplate.delete(userIds.stream().map(ProfileCacheService::key).toList());
+            redisTemplate.convertAndSend(PROFILE_CACHE_CHANNEL, String.join(" ", userIds.stream().map(UUID::toString).toList()));
+        } catch (RuntimeException ex) {
+            // the Redis copy and the other instances' local copies expire on their own
+            log.error("Failed to evict cached profiles {}", userIds, ex);
+        }
+    }
+
+    private UserProfileDTO readShared(UUID userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(userId));
+            if (json != null) {
+                redisHits.increment();
+                return objectMapper.readValue(json, UserProfileDTO.class);
+            }
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Failed to read cached profile {}", userId, ex);
+        }
+        redisMisses.increment();
+        return null;
+    }
+
+    private void writeShared(UUID userId, UserProfileDTO profile) {
+        try {
+            redisTemplate.opsForValue().set(key(userId), objectMapper.writeValueAsString(profile), Duration.ofMillis(PROFILE_CACHE_TTL_MILLIS));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Failed to cache profile {}", userId, ex);
+        }
+    }
+
+    private double hitRatio() {
+        double hits = local.hitCount() + redisHits.count();
+        double requests = local.hitCount() + local.missCount();
+        return requests == 0 ? 0.0 : hits / requests;
+    }
+
+    private static String key(UUID userId) {
+        return PROFILE_CACHE_KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.model.entity.RevokedToken;
+import com.example.registrationmodule.repository.RevokedTokenRepository;
+import com.example.registrationmodule.util.BloomFilter;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Tracks revoked tokens by their {@code jti} claim. Lookups go through an in-memory Bloom filter
+ * first, so only possible hits reach the database. The filter is loaded from the database at
+ * startup, after each purge, and kept in sync across instances through Redis pub/sub.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationService implements MessageListener {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JWTService jwtService;
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile BloomFilter filter;
+    // filter being rebuilt; revocations seen meanwhile are added to it as well so none are lost on swap
+    private volatile BloomFilter pendingFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        BloomFilter next = BloomFilter.create(REVOKED_TOKENS_EXPECTED_INSERTIONS, REVOKED_TOKENS_FALSE_POSITIVE_RATE);
+        pendingFilter = next;
+        try {
+            List<UUID> activeJtis = revokedTokenRepository.findActiveJtis(new Date());
+            activeJtis.forEach(next::put);
+            filter = next;
+            log.info("Loaded {} revoked tokens into the revocation filter", activeJtis.size());
+        } finally {
+            pendingFilter = null;
+        }
+    }
+
+    public void revoke(String token) {
+        UUID jti = jwtService.extractJti(token);
+        if (jti == null) {
+            log.warn("Cannot revoke a token without a jti claim");
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expirationTime(jwtService.extractExpiration(token))
+                .build());
+
+        // other instances must not see the jti before the row they will confirm it against
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(jti);
+                }
+            });
+        } else {
+            announce(jti);
+        }
+    }
+
+    public boolean isRevoked(String token) {
+        UUID jti = jwtService.extractJti(token);
+        if (jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        // possible hit, or the filter is not loaded yet
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(new Date());
+        log.info("Purged {} expired revoked tokens", deleted);
+        rebuild();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            add(UUID.fromString(body));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed revoked token message {}", body);
+        }
+    }
+
+    private void announce(UUID jti) {
+        add(jti);
+        try {
+            redisTemplate.convertAndSend(REVOKED_TOKENS_CHANNEL, jti.toString());
+        } catch (RuntimeException ex) {
+            // other instances pick the jti up on their next rebuild
+            log.error("Failed to publish revoked token {}", jti, ex);
+        }
+    }
+
+    private void add(UUID jti) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+        BloomFilter pending = pendingFilter;
+        if (pending != null) {
+            pending.put(jti);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.registrationmodule.service.impl;
 
 import com.example.registrationmodule.model.event.UserEvent;
+import com.example.registrationmodule.model.event.UsersDeletedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -16,6 +17,7 @@ public class UserPublisher {
     private final String exchange = USER_EXCHANGE;
     private final String userRegisteredRoutingKey = USER_REGISTERED;
     private final String userDeletedRoutingKey = USER_DELETED;
+    private final String usersDeletedRoutingKey = USERS_DELETED;
 
     @Autowired
     public UserPublisher(RabbitTemplate rabbitTemplate) {
@@ -32,4 +34,9 @@ public class UserPublisher {
         log.info("Sending a message {} is deleted", user);
         rabbitTemplate.convertAndSend(exchange, userDeletedRoutingKey, user);
     }
+
+    public void sendUsersDeletedMessage(UsersDeletedEvent users) {
+        log.info("Sending a message {} users are deleted", users.getUserIds().size());
+        rabbitTemplate.convertAndSend(exchange, usersDeletedRoutingKey, users);
+    }
 }
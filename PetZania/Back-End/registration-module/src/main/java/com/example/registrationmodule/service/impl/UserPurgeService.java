@@ -0,0 +1,136 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.model.dto.UserPurgeDTO;
+import com.example.registrationmodule.model.enumeration.UserPurgeStatus;
+import com.example.registrationmodule.model.event.UsersDeletedEvent;
+import com.example.registrationmodule.repository.UserDirectoryRepository.UsernameEntry;
+import com.example.registrationmodule.repository.UserPurgeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.registrationmodule.constant.Constants.USER_PURGE_CHUNK_SIZE;
+
+/**
+ * Deletes every user in the background, one keyset-ordered chunk per transaction. Each chunk is
+ * removed with bulk statements and announced downstream as a single {@link UsersDeletedEvent}.
+ * Progress is kept in an immutable snapshot that is replaced after every chunk.
+ */
+@Service
+@Slf4j
+public class UserPurgeService {
+    private final UserPurgeRepository userPurgeRepository;
+    private final UserPublisher userPublisher;
+    private final PrincipalCacheService principalCacheService;
+    private final UsernameAutocompleteService usernameAutocompleteService;
+    private final ProfileCacheService profileCacheService;
+    private final Executor userPurgeExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<UserPurgeDTO> current = new AtomicReference<>();
+
+    public UserPurgeService(UserPurgeRepository userPurgeRepository,
+                            UserPublisher userPublisher,
+                            PrincipalCacheService principalCacheService,
+                            UsernameAutocompleteService usernameAutocompleteService,
+                            ProfileCacheService profileCacheService,
+                            @Qualifier("userPurgeExecutor") Executor userPurgeExecutor,
+                            TransactionTemplate transactionTemplate) {
+        this.userPurgeRepository = userPurgeRepository;
+        this.userPublisher = userPublisher;
+        this.principalCacheService = principalCacheService;
+        this.usernameAutocompleteService = usernameAutocompleteService;
+        this.profileCacheService = profileCacheService;
+        this.userPurgeExecutor = userPurgeExecutor;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Starts a purge and returns its initial state, or returns the running purge if there is one.
+     */
+    public UserPurgeDTO start() {
+        UserPurgeDTO job = UserPurgeDTO.builder()
+                .jobId(UUID.randomUUID())
+                .status(UserPurgeStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build();
+        UserPurgeDTO previous;
+        do {
+            previous = current.get();
+            if (previous != null && previous.getStatus() == UserPurgeStatus.RUNNING) {
+                return previous;
+            }
+        } while (!current.compareAndSet(previous, job));
+
+        try {
+            userPurgeExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            current.set(finish(job, UserPurgeStatus.FAILED));
+            throw ex;
+        }
+        log.info("Started user purge {}", job.getJobId());
+        return job;
+    }
+
+    public UserPurgeDTO getStatus() {
+        return current.get();
+    }
+
+    void run(UserPurgeDTO job) {
+        UserPurgeDTO progress = job;
+        Pageable chunkSize = PageRequest.of(0, USER_PURGE_CHUNK_SIZE);
+        UUID after = null;
+        try {
+            while (true) {
+                List<UsernameEntry> chunk = after == null
+                        ? userPurgeRepository.findFirstChunk(chunkSize)
+                        : userPurgeRepository.findChunkAfter(after, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<UUID> userIds = chunk.stream().map(UsernameEntry::getUserId).toList();
+                Integer deleted = transactionTemplate.execute(status -> deleteChunk(chunk, userIds));
+                // principals are cached by email, which the chunk does not carry
+                principalCacheService.evictAllUsers();
+                userPublisher.sendUsersDeletedMessage(new UsersDeletedEvent(userIds));
+
+                after = userIds.get(userIds.size() - 1);
+                progress = progress.toBuilder()
+                        .deletedUsers(progress.getDeletedUsers() + (deleted == null ? 0 : deleted))
+                        .chunks(progress.getChunks() + 1)
+                        .build();
+                current.set(progress);
+                log.info("User purge {}: chunk {} deleted {} users, {} so far",
+                        job.getJobId(), progress.getChunks(), deleted, progress.getDeletedUsers());
+            }
+            current.set(finish(progress, UserPurgeStatus.COMPLETED));
+            log.info("User purge {} completed, {} users deleted", job.getJobId(), progress.getDeletedUsers());
+        } catch (RuntimeException ex) {
+            current.set(finish(progress, UserPurgeStatus.FAILED));
+            log.error("User purge {} failed after {} users", job.getJobId(), progress.getDeletedUsers(), ex);
+        }
+    }
+
+    private int deleteChunk(List<UsernameEntry> chunk, List<UUID> userIds) {
+        userPurgeRepository.deleteBlocksOf(userIds);
+        userPurgeRepository.deletePetsOf(userIds);
+        int deleted = userPurgeRepository.deleteUsers(userIds);
+        chunk.forEach(entry -> usernameAutocompleteService.userRemoved(entry.getUserId(), entry.getUsername()));
+        profileCacheService.evict(userIds);
+        return deleted;
+    }
+
+    private static UserPurgeDTO finish(UserPurgeDTO progress, UserPurgeStatus status) {
+        return progress.toBuilder().status(status).finishedAt(LocalDateTime.now()).build();
+    }
+}
@@ -6,11 +6,11 @@ import com.example.registrationmodule.model.dto.*;
 import com.example.registrationmodule.model.dto.EmailRequestDTO;
 import com.example.registrationmodule.model.entity.User;
 import com.example.registrationmodule.model.event.UserEvent;
-import com.example.registrationmodule.repository.BlockRepository;
+import com.example.registrationmodule.repository.UserDirectoryRepository;
 import com.example.registrationmodule.repository.UserRepository;
 import com.example.registrationmodule.service.IDTOConversionService;
-import com.example.registrationmodule.service.IEmailService;
 import com.example.registrationmodule.service.IUserService;
+import com.example.registrationmodule.util.UsernameIndex;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,11 +18,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
@@ -30,6 +32,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -40,18 +44,23 @@ public class UserService implements IUserService {
     private final IDTOConversionService converter;
     private final UserRepository userRepository;
     private final RefreshTokenService refreshTokenService;
-    private final BlockRepository blockRepository;
-    private final IEmailService emailService;
+    private final EmailDispatchService emailDispatchService;
     private final JWTService jwtService;
     private final AuthenticationManager authenticationManager;
 
     private final UserPublisher userPublisher;
+    private final PrincipalCacheService principalCacheService;
+    private final PasswordEncoder passwordEncoder;
+    private final UsernameAutocompleteService usernameAutocompleteService;
+    private final BlockedUsersCache blockedUsersCache;
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final UserPurgeService userPurgeService;
+    private final ProfileCacheService profileCacheService;
+    private final PresenceService presenceService;
 
     @Value("${spring.email.sender}")
     private String emailSender;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
-
     @Override
     public UserProfileDTO registerUser(RegisterUserDTO registerUserDTO) {
         // convert to regular user.
@@ -65,6 +74,7 @@ public class UserService implements IUserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
             user.setVerified(false);
             User savedUser = userRepository.save(user);
+            usernameAutocompleteService.userAdded(savedUser.getUserId(), savedUser.getUsername());
             UserEvent userEvent = new UserEvent();
             userEvent.setUserId(savedUser.getUserId());
             userEvent.setUsername(savedUser.getUsername());
@@ -72,17 +82,8 @@ public class UserService implements IUserService {
             userPublisher.sendUserRegisteredMessage(userEvent);
         }
 
-        // send verification code.
-        try {
-            log.info("About to send verification code to: {}", user.getEmail());
-            sendVerificationCode(user.getEmail());
-            log.info("Verification code sent successfully");
-        } catch (Exception e) {
-            log.error("Failed to send verification code: " + e.getMessage());
-            e.printStackTrace();
-            // Don't throw the exception here to avoid breaking the registration flow
-            // The user is already saved, we just couldn't send the email
-        }
+        // only queues the email, in the same transaction as the user, so the two are saved together
+        sendVerificationCode(user.getEmail());
 
         return converter.mapToUserProfileDto(user);
     }
@@ -92,27 +93,78 @@ public class UserService implements IUserService {
         Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        return userRepository.findAllExcludingBlocked(requesterId, pageable)
+        Page<UserProfileDTO> users = userRepository.findAllExcludingBlocked(requesterId, pageable)
                 .map(converter::mapToUserProfileDto);
+        Set<UUID> online = presenceService.getOnlineUsers(users.map(UserProfileDTO::getUserId).getContent());
+        users.forEach(user -> user.setOnline(online.contains(user.getUserId())));
+        return users;
     }
 
     @Override
-    public Page<UserProfileDTO> getUsersByPrefixUsername(UUID requesterId, int page, int size, String sortBy, String direction, String prefix) {
+    public Page<UserSummaryDTO> getUserSummaries(UUID requesterId, int page, int size, String sortBy, String direction) {
         Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        return userRepository.findByUsernameStartingWithIgnoreCaseExcludingBlocked(prefix, requesterId, pageable)
-                .map(converter::mapToUserProfileDto);
+        return withPresence(userDirectoryRepository.findSummariesExcludingBlocked(requesterId, pageable));
+    }
+
+    @Override
+    public Slice<UserSummaryDTO> getUsersByPrefixUsername(UUID requesterId, int page, int size, String sortBy, String direction, String prefix) {
+        Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        // the index is ordered by username, other orderings go to the database
+        if ("username".equals(sortBy)) {
+            Optional<UsernameIndex.Matches> matches = usernameAutocompleteService.find(prefix,
+                    blockedUsersCache.getBlockRelatedUsers(requesterId),
+                    (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), size, direction.equalsIgnoreCase("desc"));
+            if (matches.isPresent()) {
+                return withPresence(toUserSlice(matches.get(), pageable));
+            }
+        }
+        return withPresence(userDirectoryRepository.findSummariesByUsernamePrefixExcludingBlocked(prefix, requesterId, pageable));
+    }
+
+    private <S extends Slice<UserSummaryDTO>> S withPresence(S users) {
+        Set<UUID> online = presenceService.getOnlineUsers(users.map(UserSummaryDTO::getUserId).getContent());
+        users.forEach(user -> user.setOnline(online.contains(user.getUserId())));
+        return users;
+    }
+
+    private Slice<UserSummaryDTO> toUserSlice(UsernameIndex.Matches matches, Pageable pageable) {
+        List<UUID> userIds = matches.entries().stream().map(UsernameIndex.Entry::userId).toList();
+        if (userIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, matches.hasMore());
+        }
+        Map<UUID, UserSummaryDTO> users = userDirectoryRepository.findSummariesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserSummaryDTO::getUserId, Function.identity()));
+        // keep the index order; a user deleted since the lookup is skipped
+        List<UserSummaryDTO> content = userIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SliceImpl<>(content, pageable, matches.hasMore());
     }
 
     @Override
     public UserProfileDTO getUserById(UUID requesterId, UUID userId) {
-        if (blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId) || blockRepository.existsByBlocker_UserIdAndBlocked_UserId(userId, requesterId)) {
+        if (blockedUsersCache.getBlockRelatedUsers(requesterId).contains(userId)) {
             throw new UserAccessDenied("Cannot Perform This Operation Due To Existence Of Blocking");
         }
-        return userRepository.findById(userId)
+        // the cached profile is shared, so presence goes on a copy
+        return getCachedProfile(userId).toBuilder()
+                .online(presenceService.isOnline(userId))
+                .build();
+    }
+
+    private UserProfileDTO getCachedProfile(UUID userId) {
+        UserProfileDTO profile = profileCacheService.get(userId, id -> userRepository.findById(id)
                 .map(converter::mapToUserProfileDto)
-                .orElseThrow(() -> new UserNotFound("User does not exist"));
+                .orElse(null));
+        if (profile == null) {
+            throw new UserNotFound("User does not exist");
+        }
+        return profile;
     }
 
     @Override
@@ -124,6 +176,9 @@ public class UserService implements IUserService {
 
         // Delete the user
         userRepository.deleteByEmail(user.getEmail());
+        principalCacheService.evictUser(user.getEmail());
+        profileCacheService.evict(user.getUserId());
+        usernameAutocompleteService.userRemoved(user.getUserId(), user.getUsername());
 
         // Send to the queue
         UserEvent userEvent = new UserEvent();
@@ -147,14 +202,16 @@ public class UserService implements IUserService {
                         "Petzania Team."
         );
 
-        // send the email
-        emailService.sendEmail(emailRequestDTO);
+        // queue the email
+        emailDispatchService.enqueue(emailRequestDTO);
     }
 
     @Override
     public User saveUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        usernameAutocompleteService.userAdded(savedUser.getUserId(), savedUser.getUsername());
+        return savedUser;
     }
 
     @Override
@@ -172,14 +229,19 @@ public class UserService implements IUserService {
                 throw new UserIsBlocked("User is blocked");
             }
 
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                // the configured BCrypt cost changed since this hash was stored
+                user.setPassword(passwordEncoder.encode(loginUserDTO.getPassword()));
+            }
+
             String message = "Successful login";
             TokenDTO tokenDTO = new TokenDTO(jwtService.generateAccessToken(user.getEmail(), "ROLE_USER"),
                     jwtService.generateRefreshToken(user.getEmail(), "ROLE_USER"));
             int loginTimes = user.getLoginTimes();
             UUID userId = user.getUserId();
             user.setLoginTimes(loginTimes + 1);
-            user.setOnline(true);
             userRepository.save(user);
+            profileCacheService.evict(userId);
 
             return new ResponseLoginDTO(message, tokenDTO, loginTimes + 1, userId);
         } else {
@@ -240,7 +302,7 @@ public class UserService implements IUserService {
                         "Petzania Team."
         );
 
-        emailService.sendEmail(emailRequestDTO);
+        emailDispatchService.enqueue(emailRequestDTO);
         userRepository.save(user);
     }
 
@@ -278,7 +340,7 @@ public class UserService implements IUserService {
     @Override
     public void logout(LogoutDTO logoutDTO) {
         // get the revoked token data
-        User user = userRepository.findByEmailIgnoreCase(logoutDTO.getEmail()).orElseThrow(() -> new UserNotFound("User does not exist"));
+        userRepository.findByEmailIgnoreCase(logoutDTO.getEmail()).orElseThrow(() -> new UserNotFound("User does not exist"));
 
         if (refreshTokenService.isTokenRevoked(logoutDTO.getRefreshToken())) {
             throw new UserAlreadyLoggedOut("User already logged out");
@@ -286,10 +348,6 @@ public class UserService implements IUserService {
 
         // save it in the database
         refreshTokenService.saveToken(logoutDTO.getRefreshToken());
-
-        // mark user as not online
-        user.setOnline(false);
-        userRepository.save(user);
     }
 
     @Override
@@ -299,6 +357,8 @@ public class UserService implements IUserService {
             throw new UserAlreadyBlocked("User is blocked already");
         } else {
             user.setBlocked(true);
+            principalCacheService.evictUser(user.getEmail());
+            profileCacheService.evict(user.getUserId());
             sendDeactivationMessage(user.getEmail());
         }
     }
@@ -308,6 +368,8 @@ public class UserService implements IUserService {
         User user = userRepository.findByEmailIgnoreCase(blockUserDTO.getEmail()).orElseThrow(() -> new UserNotFound("User does not exist"));
         if (user.isBlocked()) {
             user.setBlocked(false);
+            principalCacheService.evictUser(user.getEmail());
+            profileCacheService.evict(user.getUserId());
         } else {
             throw new UserAlreadyUnblocked(("User is unblocked already"));
         }
@@ -320,26 +382,22 @@ public class UserService implements IUserService {
     }
 
     @Override
-    public void deleteAll() {
-        List<User> users = userRepository.findAll();
-        userRepository.deleteAll();
-        for (User user : users) {
-            UserEvent userEvent = new UserEvent();
-            userEvent.setUserId(user.getUserId());
-            userEvent.setUsername(user.getUsername());
-            userEvent.setEmail(user.getEmail());
-            userPublisher.sendUserDeletedMessage(userEvent);
-        }
+    public UserPurgeDTO deleteAll() {
+        return userPurgeService.start();
+    }
+
+    @Override
+    public UserPurgeDTO getDeleteAllStatus() {
+        return userPurgeService.getStatus();
     }
 
     @Override
     public ProfilePictureDTO getProfilePictureURLByUserId(UUID requesterId, UUID userId) {
-        if (blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId) || blockRepository.existsByBlocker_UserIdAndBlocked_UserId(userId, requesterId)) {
+        if (blockedUsersCache.getBlockRelatedUsers(requesterId).contains(userId)) {
             throw new UserAccessDenied("Cannot Perform This Operation Due To Existence Of Blocking");
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFound("User does not exist"));
         ProfilePictureDTO profilePictureDTO = new ProfilePictureDTO();
-        profilePictureDTO.setProfilePictureURL(user.getProfilePictureURL());
+        profilePictureDTO.setProfilePictureURL(getCachedProfile(userId).getProfilePictureURL());
         return profilePictureDTO;
     }
 
@@ -407,8 +465,8 @@ public class UserService implements IUserService {
         log.info("Email sender configured as: {}", emailSender);
         log.info("About to send email with OTP: {}", otp);
 
-        // send the email.
-        emailService.sendEmail(emailRequestDTO);
+        // queue the email.
+        emailDispatchService.enqueue(emailRequestDTO);
 
         // save the user in the database.
         userRepository.save(user);
@@ -432,7 +490,7 @@ public class UserService implements IUserService {
                         "Petzania Team."
         );
 
-        emailService.sendEmail(emailRequestDTO);
+        emailDispatchService.enqueue(emailRequestDTO);
     }
 
     @Override
@@ -453,6 +511,7 @@ public class UserService implements IUserService {
             Optional.ofNullable(updateUserProfileDto.getPhoneNumber()).ifPresent(existingUser::setPhoneNumber);
 
             User updatedUser = userRepository.save(existingUser);
+            profileCacheService.evict(userId);
             return converter.mapToUserProfileDto(updatedUser);
         }).orElseThrow(() -> new UserNotFound("User does not exist"));
     }
@@ -0,0 +1,147 @@
+package com.example.registrationmodule.service.impl;
+
+import com.example.registrationmodule.repository.UserDirectoryRepository;
+import com.example.registrationmodule.util.UsernameIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.example.registrationmodule.constant.Constants.*;
+
+/**
+ * Serves username prefix searches from an in-memory {@link UsernameIndex}. The index is loaded
+ * at startup and periodically, and registrations and deletions are applied after commit on this
+ * instance and on the others through Redis pub/sub.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UsernameAutocompleteService implements MessageListener {
+    private static final String ADDED = "A";
+    private static final String REMOVED = "R";
+
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    // guards index swaps against concurrent changes
+    private final Object changeLock = new Object();
+    private volatile UsernameIndex index;
+    // changes seen while the index is rebuilt, replayed on the new index before the swap
+    private List<Consumer<UsernameIndex>> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = USERNAME_INDEX_REBUILD_MILLIS, initialDelay = USERNAME_INDEX_REBUILD_MILLIS)
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        UsernameIndex next = new UsernameIndex();
+        try {
+            userDirectoryRepository.findAllUsernames().forEach(entry -> next.put(entry.getUserId(), entry.getUsername()));
+        } catch (RuntimeException ex) {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+            throw ex;
+        }
+        synchronized (changeLock) {
+            pendingChanges.forEach(change -> change.accept(next));
+            pendingChanges = null;
+            index = next;
+        }
+        log.info("Loaded {} usernames into the autocomplete index", next.size());
+    }
+
+    /**
+     * Returns matches for the prefix in username order, or empty while the index is not loaded
+     * so that callers can fall back to the database.
+     */
+    public Optional<UsernameIndex.Matches> find(String prefix, Set<UUID> excluded, int offset, int limit, boolean descending) {
+        UsernameIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.find(prefix, excluded, offset, limit, descending));
+    }
+
+    public void userAdded(UUID userId, String username) {
+        afterCommit(ADDED, userId, username);
+    }
+
+    public void userRemoved(UUID userId, String username) {
+        afterCommit(REMOVED, userId, username);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(" ", 3);
+        try {
+            if (parts.length == 3 && (ADDED.equals(parts[0]) || REMOVED.equals(parts[0]))) {
+                apply(parts[0], UUID.fromString(parts[1]), parts[2]);
+                return;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // logged below
+        }
+        log.warn("Ignoring malformed username index message {}", body);
+    }
+
+    private void afterCommit(String change, UUID userId, String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(change, userId, username);
+                }
+            });
+        } else {
+            announce(change, userId, username);
+        }
+    }
+
+    private void announce(String change, UUID userId, String username) {
+        apply(change, userId, username);
+        try {
+            redisTemplate.convertAndSend(USERNAME_INDEX_CHANNEL, change + " " + userId + " " + username);
+        } catch (RuntimeException ex) {
+            // other instances pick the change up on their next rebuild
+            log.error("Failed to publish username index change for user {}", userId, ex);
+        }
+    }
+
+    private void apply(String change, UUID userId, String username) {
+        Consumer<UsernameIndex> update = ADDED.equals(change)
+                ? target -> target.put(userId, username)
+                : target -> target.remove(userId, username);
+        synchronized (changeLock) {
+            UsernameIndex current = index;
+            if (current != null) {
+                update.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(update);
+            }
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.registrationmodule.service.impl.noop;
 
 
+import com.example.registrationmodule.model.dto.CompleteUploadSessionDTO;
+import com.example.registrationmodule.model.dto.CreateUploadSessionDTO;
+import com.example.registrationmodule.model.dto.UploadSessionDTO;
 import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.entity.MediaReference;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
 import com.example.registrationmodule.service.ICloudService;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
@@ -9,6 +14,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,18 +29,37 @@ import java.util.UUID;
 public class NoopCloudService implements ICloudService {
     @Transactional
     @Override
-    public Media uploadAndSaveMedia(MultipartFile file, boolean validate) {
+    public MediaReference uploadAndSaveMedia(MultipartFile file, UUID ownerId, boolean validate) {
         log.info("[NOOP CLOUD] Pretending to upload file: '{}' (size: {})", file.getOriginalFilename(), file.getSize());
-        // Return a dummy Media object as if uploaded
-        return Media.builder()
-                .mediaId(UUID.randomUUID())
-                .format("noop")
-                .type("noop")
-                .uploadedAt(LocalDateTime.now())
-                .key("noop/" + file.getOriginalFilename())
+        // Return a dummy reference as if uploaded
+        return fakeReference(ownerId);
+    }
+
+    @Override
+    public List<MediaReference> uploadAndSaveMedia(List<MultipartFile> files, UUID ownerId, boolean validate) {
+        return files.stream()
+                .map(file -> uploadAndSaveMedia(file, ownerId, validate))
+                .toList();
+    }
+
+    @Override
+    public UploadSessionDTO createUploadSession(CreateUploadSessionDTO request, UUID ownerId) {
+        UUID sessionId = UUID.randomUUID();
+        log.info("[NOOP CLOUD] Pretending to open upload session {} for file: '{}'", sessionId, request.getFileName());
+        return UploadSessionDTO.builder()
+                .sessionId(sessionId)
+                .key("noop/" + request.getFileName())
+                .uploadUrl("http://localhost:8080/noop-upload/" + sessionId)
+                .expiresAt(LocalDateTime.now().plusMinutes(30))
                 .build();
     }
 
+    @Override
+    public MediaReference completeUploadSession(UUID sessionId, UUID ownerId, CompleteUploadSessionDTO request) {
+        log.info("[NOOP CLOUD] Pretending to complete upload session {}", sessionId);
+        return fakeReference(ownerId);
+    }
+
     @Override
     public String getMediaUrl(UUID mediaId) {
         String fakeUrl = "http://localhost:8080/noop-media/" + mediaId;
@@ -38,6 +67,31 @@ public class NoopCloudService implements ICloudService {
         return fakeUrl;
     }
 
+    @Override
+    public Map<UUID, String> getMediaUrls(Collection<UUID> mediaIds) {
+        Map<UUID, String> urls = new LinkedHashMap<>();
+        for (UUID mediaId : mediaIds) {
+            urls.put(mediaId, getMediaUrl(mediaId));
+        }
+        return urls;
+    }
+
+    @Override
+    public String getMediaUrl(UUID mediaId, MediaVariant variant) {
+        String fakeUrl = "http://localhost:8080/noop-media/" + mediaId + "?variant=" + variant;
+        log.info("[NOOP CLOUD] Returning fake media URL: {}", fakeUrl);
+        return fakeUrl;
+    }
+
+    @Override
+    public Map<MediaVariant, String> getMediaVariantUrls(UUID mediaId) {
+        Map<MediaVariant, String> urls = new EnumMap<>(MediaVariant.class);
+        for (MediaVariant variant : MediaVariant.values()) {
+            urls.put(variant, getMediaUrl(mediaId, variant));
+        }
+        return urls;
+    }
+
     @Override
     public String generatePresignedUrl(String bucketName, String key) {
         String fakePresigned = "http://localhost:8080/noop-presigned/" + key;
@@ -71,7 +125,16 @@ public class NoopCloudService implements ICloudService {
     }
 
     @Override
-    public void deleteById(UUID mediaId) {
-        log.info("[NOOP CLOUD] Pretending to delete media with id: {}", mediaId);
+    public void deleteReference(UUID referenceId, UUID ownerId) {
+        log.info("[NOOP CLOUD] Pretending to delete media reference with id: {}", referenceId);
+    }
+
+    private static MediaReference fakeReference(UUID ownerId) {
+        return MediaReference.builder()
+                .referenceId(UUID.randomUUID())
+                .mediaId(UUID.randomUUID())
+                .ownerId(ownerId)
+                .createdAt(LocalDateTime.now())
+                .build();
     }
 }
@@ -15,4 +15,9 @@ public class NoopEmailService  implements IEmailService {
         log.info("FAKE EMAIL SERVICE: Would send email to '{}', subject: '{}'", request.getTo(), request.getSubject());
         // Do nothing else!
     }
+
+    @Override
+    public String getProviderName() {
+        return "noop";
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.registrationmodule.util;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Uploads a batch of objects to S3 concurrently. Small objects are streamed with a single
+ * {@code putObject}; objects at or above the multipart threshold are read part by part and the
+ * parts are uploaded in parallel. Every S3 call runs on {@code transferExecutor}, so its size is
+ * the total concurrency bound. If any upload fails the call waits for the others to finish and
+ * aborts unfinished multipart uploads; objects already stored are left to the caller, since keys
+ * derived from content may already be shared with another upload.
+ */
+@Slf4j
+public class S3UploadPipeline {
+    private final AmazonS3 s3Client;
+    private final ExecutorService transferExecutor;
+    private final String bucketName;
+    private final int maxConcurrentTransfers;
+    private final long multipartThreshold;
+    private final int partSize;
+
+    public record Upload(String key, String contentType, long size, InputStreamSource source) {
+    }
+
+    public S3UploadPipeline(AmazonS3 s3Client, ExecutorService transferExecutor, String bucketName,
+                            int maxConcurrentTransfers, long multipartThreshold, int partSize) {
+        this.s3Client = s3Client;
+        this.transferExecutor = transferExecutor;
+        this.bucketName = bucketName;
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = partSize;
+    }
+
+    public void uploadAll(List<Upload> uploads) throws IOException {
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            for (Upload upload : uploads) {
+                if (upload.size() >= multipartThreshold) {
+                    // parts are read here and uploaded on the executor, so no pool thread ever waits on another
+                    multipartUpload(upload);
+                } else {
+                    pending.add(transferExecutor.submit(() -> {
+                        putObject(upload);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : pending) {
+                await(future);
+            }
+        } catch (IOException | RuntimeException ex) {
+            awaitQuietly(pending);
+            throw ex;
+        }
+    }
+
+    private void putObject(Upload upload) throws IOException {
+        try (InputStream inputStream = upload.source().getInputStream()) {
+            s3Client.putObject(bucketName, upload.key(), inputStream, metadata(upload.contentType(), upload.size()));
+        }
+    }
+
+    private void multipartUpload(Upload upload) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(upload.contentType());
+        String uploadId = s3Client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, upload.key(), metadata)).getUploadId();
+
+        List<Future<PartETag>> parts = new ArrayList<>();
+        // caps the part buffers held in memory for this object
+        Semaphore window = new Semaphore(maxConcurrentTransfers);
+        try (InputStream inputStream = upload.source().getInputStream()) {
+            int partNumber = 1;
+            boolean lastPart = false;
+            while (!lastPart) {
+                byte[] part = inputStream.readNBytes(partSize);
+                lastPart = part.length < partSize;
+                if (part.length == 0 && partNumber > 1) {
+                    break;
+                }
+                window.acquire();
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(bucketName)
+                        .withKey(upload.key())
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber++)
+                        .withPartSize(part.length)
+                        .withInputStream(new ByteArrayInputStream(part))
+                        .withLastPart(lastPart);
+                parts.add(transferExecutor.submit(() -> {
+                    try {
+                        return s3Client.uploadPart(request).getPartETag();
+                    } finally {
+                        window.release();
+                    }
+                }));
+            }
+
+            List<PartETag> partETags = new ArrayList<>();
+            for (Future<PartETag> part : parts) {
+                partETags.add(await(part));
+            }
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, upload.key(), uploadId, partETags));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(upload.key(), uploadId, parts);
+            throw new IOException("Interrupted while uploading " + upload.key(), ex);
+        } catch (IOException | RuntimeException ex) {
+            abort(upload.key(), uploadId, parts);
+            throw ex;
+        }
+    }
+
+    private void abort(String key, String uploadId, List<? extends Future<?>> parts) {
+        awaitQuietly(parts);
+        try {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to abort multipart upload {} for {}", uploadId, key, ex);
+        }
+    }
+
+    private static ObjectMetadata metadata(String contentType, long size) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(size);
+        metadata.setContentType(contentType);
+        return metadata;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    private static void awaitQuietly(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException ignored) {
+                // the first failure is the one reported
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.registrationmodule.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted, case-folded index of usernames. A prefix maps to a contiguous key range, so a lookup
+ * only walks the matching entries, in username order, without touching the database.
+ */
+public class UsernameIndex {
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    public void put(UUID userId, String username) {
+        entries.put(fold(username), new Entry(userId, username));
+    }
+
+    public void remove(UUID userId, String username) {
+        // the name may already belong to a user registered after this one was deleted
+        entries.computeIfPresent(fold(username), (key, entry) -> entry.userId().equals(userId) ? null : entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns up to {@code limit} matches after skipping {@code offset}, and whether any match follows
+     * them. Users in {@code excluded} are neither returned nor skipped over. The walk stops at the first
+     * match past the page, so a short prefix costs no more than the pages actually read.
+     */
+    public Matches find(String prefix, Set<UUID> excluded, int offset, int limit, boolean descending) {
+        String from = fold(prefix);
+        NavigableMap<String, Entry> range = entries.subMap(from, true, from + Character.MAX_VALUE, false);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        List<Entry> page = new ArrayList<>(Math.min(limit, 64));
+        long skipped = 0;
+        for (Entry entry : range.values()) {
+            if (excluded.contains(entry.userId())) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else if (page.size() < limit) {
+                page.add(entry);
+            } else {
+                return new Matches(page, true);
+            }
+        }
+        return new Matches(page, false);
+    }
+
+    private static String fold(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    public record Entry(UUID userId, String username) {
+    }
+
+    public record Matches(List<Entry> entries, boolean hasMore) {
+    }
+}
@@ -0,0 +1,12 @@
+-- Content-addressed deduplication: identical uploads share one media row and S3 object
+ALTER TABLE media
+    ADD COLUMN content_hash VARCHAR(64);
+
+ALTER TABLE media
+    ADD COLUMN ref_count INTEGER NOT NULL DEFAULT 1;
+
+ALTER TABLE media
+    ADD CONSTRAINT uq_media_content_hash UNIQUE (content_hash);
+
+ALTER TABLE media
+    ADD CONSTRAINT chk_media_ref_count CHECK (ref_count >= 0);
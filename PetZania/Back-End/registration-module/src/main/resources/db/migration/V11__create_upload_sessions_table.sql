@@ -0,0 +1,17 @@
+-- UPLOAD SESSIONS TABLE (presigned direct-to-S3 uploads awaiting verification)
+CREATE TABLE upload_sessions (
+                                 session_id UUID PRIMARY KEY,
+                                 media_key VARCHAR(255) NOT NULL,
+                                 file_name VARCHAR(255) NOT NULL,
+                                 content_type VARCHAR(50) NOT NULL,
+                                 declared_size BIGINT NOT NULL,
+                                 multipart_upload_id VARCHAR(1024),
+                                 status VARCHAR(16) NOT NULL,
+                                 media_id UUID,
+                                 created_at TIMESTAMP NOT NULL,
+                                 expires_at TIMESTAMP NOT NULL,
+                                 CONSTRAINT chk_upload_sessions_status CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED', 'EXPIRED')),
+                                 CONSTRAINT chk_upload_sessions_declared_size CHECK (declared_size > 0)
+);
+
+CREATE INDEX idx_upload_sessions_status_expires_at ON upload_sessions(status, expires_at);
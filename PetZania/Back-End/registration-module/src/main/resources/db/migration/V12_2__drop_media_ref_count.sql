@@ -0,0 +1,12 @@
+-- media_references took over from ref_count (see V12)
+ALTER TABLE media
+    DROP CONSTRAINT chk_media_ref_count;
+
+ALTER TABLE media
+    DROP CONSTRAINT uq_media_content_hash;
+
+ALTER TABLE media
+    DROP COLUMN ref_count;
+
+ALTER TABLE media
+    ADD CONSTRAINT uq_media_key UNIQUE (media_key);
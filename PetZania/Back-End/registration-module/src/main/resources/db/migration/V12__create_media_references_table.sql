@@ -0,0 +1,18 @@
+-- One row per upload, owned by the uploader, replaces media.ref_count. Uploaded files are keyed by
+-- their content hash, so identical uploads now meet on media_key instead of content_hash.
+-- Existing uploads get their references in V12_1 (Postgres only), ref_count goes in V12_2
+CREATE TABLE media_references (
+                                  reference_id UUID PRIMARY KEY,
+                                  media_id UUID NOT NULL,
+                                  owner_id UUID,
+                                  created_at TIMESTAMP NOT NULL,
+                                  CONSTRAINT fk_media_references_media FOREIGN KEY (media_id) REFERENCES media(media_id)
+);
+
+CREATE INDEX idx_media_references_media_id ON media_references(media_id);
+
+ALTER TABLE upload_sessions
+    ADD COLUMN owner_id UUID;
+
+ALTER TABLE upload_sessions
+    ADD COLUMN reference_id UUID;
@@ -0,0 +1,3 @@
+-- bodies carry OTPs and reset codes; the dispatch service clears them once a row is SENT or FAILED,
+-- this clears the rows that finished before it did
+UPDATE email_dispatches SET body = NULL WHERE status IN ('SENT', 'FAILED') AND body IS NOT NULL;
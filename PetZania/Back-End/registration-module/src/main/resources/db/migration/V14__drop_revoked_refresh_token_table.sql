@@ -0,0 +1,2 @@
+-- superseded by revoked_tokens (V7), which already carries over every revocation that was still valid
+DROP TABLE revoked_refresh_token;
@@ -0,0 +1,7 @@
+-- REVOKED TOKENS TABLE (keyed by the jti claim instead of the whole JWT)
+CREATE TABLE revoked_tokens (
+                                jti UUID PRIMARY KEY,
+                                expiration_time TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expiration_time ON revoked_tokens(expiration_time);
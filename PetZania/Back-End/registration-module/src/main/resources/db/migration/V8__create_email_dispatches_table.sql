@@ -0,0 +1,18 @@
+-- EMAIL DISPATCHES TABLE (outbox for asynchronous email delivery)
+CREATE TABLE email_dispatches (
+                                  dispatch_id UUID PRIMARY KEY,
+                                  to_address VARCHAR(100) NOT NULL,
+                                  from_address VARCHAR(100) NOT NULL,
+                                  subject VARCHAR(255),
+                                  body TEXT,
+                                  provider VARCHAR(32) NOT NULL,
+                                  status VARCHAR(16) NOT NULL,
+                                  attempts INTEGER NOT NULL DEFAULT 0,
+                                  next_attempt_at TIMESTAMP NOT NULL,
+                                  last_error VARCHAR(500),
+                                  created_at TIMESTAMP NOT NULL,
+                                  sent_at TIMESTAMP,
+                                  CONSTRAINT chk_email_dispatches_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+CREATE INDEX idx_email_dispatches_status_next_attempt ON email_dispatches(status, next_attempt_at);
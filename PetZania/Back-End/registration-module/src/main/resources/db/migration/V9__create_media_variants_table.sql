@@ -0,0 +1,9 @@
+-- MEDIA VARIANTS TABLE (resized copies of image media)
+CREATE TABLE media_variants (
+                                media_id UUID NOT NULL,
+                                variant VARCHAR(16) NOT NULL,
+                                variant_key VARCHAR(255) NOT NULL,
+                                PRIMARY KEY (media_id, variant),
+                                CONSTRAINT fk_variant_media FOREIGN KEY (media_id) REFERENCES media(media_id) ON DELETE CASCADE,
+                                CONSTRAINT chk_media_variants_variant CHECK (variant IN ('THUMBNAIL', 'FEED', 'FULL'))
+);
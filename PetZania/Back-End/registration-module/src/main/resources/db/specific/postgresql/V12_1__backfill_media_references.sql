@@ -0,0 +1,27 @@
+-- Uploaders of existing media were never recorded, but the files users set as their profile picture or
+-- attached to their pets point at the media by URL (CDN base + '/' + media_key). Each such user becomes
+-- the owner of one reference, so they can delete the file again
+INSERT INTO media_references (reference_id, media_id, owner_id, created_at)
+SELECT gen_random_uuid(), owned.media_id, owned.owner_id, owned.uploaded_at
+FROM (SELECT m.media_id, u.user_id AS owner_id, m.uploaded_at
+      FROM media m
+               JOIN users u ON right(u.profile_picture_url, length(m.media_key) + 1) = '/' || m.media_key
+      UNION
+      SELECT m.media_id, p.user_id, m.uploaded_at
+      FROM media m
+               JOIN pets_pictures_urls pp ON right(pp.picture_url, length(m.media_key) + 1) = '/' || m.media_key
+               JOIN pets p ON p.pet_id = pp.pet_id
+      UNION
+      SELECT m.media_id, p.user_id, m.uploaded_at
+      FROM media m
+               JOIN pets_vaccines_urls pv ON right(pv.vaccine_url, length(m.media_key) + 1) = '/' || m.media_key
+               JOIN pets p ON p.pet_id = pv.pet_id) AS owned;
+
+-- the rest of ref_count (uploads used outside this service, e.g. chat files) keeps the content alive
+-- without an owner, and media no one points at keep a single such reference
+INSERT INTO media_references (reference_id, media_id, owner_id, created_at)
+SELECT gen_random_uuid(), m.media_id, NULL, m.uploaded_at
+FROM media m
+         CROSS JOIN LATERAL (SELECT count(*) AS owned FROM media_references r WHERE r.media_id = m.media_id) o
+         CROSS JOIN LATERAL generate_series(1, CASE WHEN o.owned = 0 THEN GREATEST(m.ref_count, 1)
+                                                    ELSE m.ref_count - o.owned END) AS copies;
@@ -0,0 +1,15 @@
+-- carry over the still valid revocations by reading the jti out of the stored JWT payload;
+-- Postgres only (base64 decoding and json), H2 test databases start with no revocations anyway
+INSERT INTO revoked_tokens (jti, expiration_time)
+SELECT (payload ->> 'jti')::uuid, expiration_time
+FROM (SELECT convert_from(
+                     decode(
+                             rpad(translate(split_part(token, '.', 2), '-_', '+/'),
+                                  4 * ((length(split_part(token, '.', 2)) + 3) / 4), '='),
+                             'base64'),
+                     'UTF8')::json AS payload,
+             expiration_time
+      FROM revoked_refresh_token
+      WHERE expiration_time > now()) AS revoked
+WHERE payload ->> 'jti' IS NOT NULL
+ON CONFLICT DO NOTHING;
@@ -7,10 +7,14 @@ import com.example.registrationmodule.model.entity.Block;
 import com.example.registrationmodule.model.entity.User;
 import com.example.registrationmodule.repository.BlockRepository;
 import com.example.registrationmodule.service.IAdminService;
+import com.example.registrationmodule.service.IPetService;
 import com.example.registrationmodule.service.IUserService;
 import com.example.registrationmodule.service.impl.AdminService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +37,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -52,6 +58,12 @@ public class UserControllerIntegrationTests {
     @Autowired
     private BlockRepository blockRepository;
 
+    @Autowired
+    private IPetService petService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     public void setupAdminTokens() throws Exception {
         Admin superAdmin = TestDataUtil.createSuperAdmin("superAdminA");
@@ -465,19 +477,35 @@ public class UserControllerIntegrationTests {
     @Test
     public void testDeleteAllUsers_AsSuperAdmin_ShouldSucceed() throws Exception {
         // Create some test users first
-        userService.saveUser(TestDataUtil.createTestUser("userA"));
-        userService.saveUser(TestDataUtil.createTestUser("userB"));
+        User userA = userService.saveUser(TestDataUtil.createTestUser("userA"));
+        User userB = userService.saveUser(TestDataUtil.createTestUser("userB"));
+        petService.savePet(TestDataUtil.createTestPet(userA));
+        blockRepository.save(Block.builder()
+                .blockId(UUID.randomUUID())
+                .blocker(userA)
+                .blocked(userB)
+                .createdAt(Timestamp.valueOf(LocalDateTime.now()))
+                .build());
 
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/user/auth/delete-all")
                         .header("Authorization", superAdminToken))
-                .andExpect(MockMvcResultMatchers.status().isOk());
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.jobId").exists());
+
+        JsonNode status = awaitDeleteAllUsers(superAdminToken);
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertTrue(status.get("deletedUsers").asLong() >= 2);
+        assertFalse(userService.userExistsById(userA.getUserId()));
+        assertFalse(userService.userExistsById(userB.getUserId()));
     }
 
     @Test
     public void testDeleteAllUsers_AsRegularAdmin_ShouldSucceed() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/user/auth/delete-all")
                         .header("Authorization", adminToken))
-                .andExpect(MockMvcResultMatchers.status().isOk());
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+
+        assertEquals("COMPLETED", awaitDeleteAllUsers(adminToken).get("status").asText());
     }
 
     @Test
@@ -858,7 +886,27 @@ public class UserControllerIntegrationTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.profilePictureURL").value(testUserA.getProfilePictureURL()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.phoneNumber").value(testUserA.getPhoneNumber()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.myPets").isArray())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.online").value(true));
+                // logging in over HTTP does not open a WebSocket session
+                .andExpect(MockMvcResultMatchers.jsonPath("$.online").value(false));
+    }
+
+    @Test
+    public void testGetUserById_UserHasPresence_ShouldReturnOnline() throws Exception {
+        User testUserA = userService.saveUser(TestDataUtil.createTestUser("userA"));
+        User testUserB = userService.saveUser(TestDataUtil.createTestUser("userB"));
+        String token = obtainAccessToken(testUserA.getEmail(), DEFAULT_PASSWORD);
+        String presenceKey = "presence:" + testUserB.getUserId();
+        redisTemplate.opsForValue().set(presenceKey, "1");
+
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/{userId}", testUserB.getUserId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("Authorization", token))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.online").value(true));
+        } finally {
+            redisTemplate.delete(presenceKey);
+        }
     }
 
 
@@ -1437,6 +1485,79 @@ public class UserControllerIntegrationTests {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testGetUsers_AsUser_ShouldRunOneQueryRegardlessOfPets() throws Exception {
+        // Arrange
+        User requester = userService.saveUser(TestDataUtil.createTestUser("listRequester"));
+        for (int i = 0; i < 5; i++) {
+            User owner = userService.saveUser(TestDataUtil.createTestUser("petOwner" + i));
+            petService.savePet(TestDataUtil.createTestPet(owner));
+        }
+        String token = obtainAccessToken(requester.getEmail(), DEFAULT_PASSWORD);
+        // the first request also loads the requester's principal
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/users")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act & Assert
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/users")
+                        .header("Authorization", token)
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(6))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].username").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].myPets").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    public void testGetUsersByPrefixUsername_AsUser_ShouldRunOneQueryRegardlessOfPets() throws Exception {
+        // Arrange
+        User requester = userService.saveUser(TestDataUtil.createTestUser("searchRequester"));
+        for (int i = 0; i < 5; i++) {
+            User owner = userService.saveUser(TestDataUtil.createTestUser("petOwner" + i));
+            petService.savePet(TestDataUtil.createTestPet(owner));
+        }
+        String token = obtainAccessToken(requester.getEmail(), DEFAULT_PASSWORD);
+        // the first request also loads the requester's principal and block set
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/users/petOwner")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act & Assert
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/users/petOwner")
+                        .header("Authorization", token)
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].username").value("petOwner0"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].myPets").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    private JsonNode awaitDeleteAllUsers(String token) throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/user/auth/delete-all/status")
+                            .header("Authorization", token))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn();
+            JsonNode status = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (!"RUNNING".equals(status.get("status").asText())) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Delete all users did not finish in time");
+    }
+
     private String obtainAccessToken(String email, String password) throws Exception {
         String loginPayload = objectMapper.writeValueAsString(Map.of(
                 "email", email,
@@ -0,0 +1,106 @@
+package com.example.registrationmodule.filter;
+
+import com.example.registrationmodule.model.entity.UserPrincipal;
+import com.example.registrationmodule.service.impl.JWTService;
+import com.example.registrationmodule.service.impl.MyUserDetailsService;
+import com.example.registrationmodule.service.impl.PrincipalCacheService;
+import com.example.registrationmodule.service.impl.TokenRevocationService;
+import com.example.registrationmodule.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.registrationmodule.constant.Constants.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of one authenticated request through the JWT filter followed by the rate-limit
+ * identifier lookup, i.e. every place a single request touches its token.
+ * Run with {@code main} from the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTFilterBenchmark {
+    private static final String SECRET_KEY = "4ioX3ogCr4GAZ9gB99txf1LyhqVOmTJ8RsL9hyJzZXQ="; // fake secret key
+    private static final String EMAIL = "user@example.com";
+    private static final long TOKEN_EXPIRATION = 15 * 60 * 1000;
+
+    private JWTFilter filter;
+    private JwtUtil jwtUtil;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JWTService jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        authorizationHeader = STARTING_WITH_STRING + jwtService.generateToken(EMAIL, ROLE_USER, TOKEN_EXPIRATION);
+
+        UserPrincipal userPrincipal = mock(UserPrincipal.class);
+        when(userPrincipal.getEmail()).thenReturn(EMAIL);
+        MyUserDetailsService userDetailsService = mock(MyUserDetailsService.class);
+        when(userDetailsService.loadUserByEmail(EMAIL)).thenReturn(userPrincipal);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+        TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(false);
+
+        filter = new JWTFilter(jwtService, context, tokenRevocationService, new PrincipalCacheService(new SimpleMeterRegistry()));
+        jwtUtil = new JwtUtil(jwtService);
+    }
+
+    @Benchmark
+    public String authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+            // the rate-limit aspect resolves the caller again further down the chain
+            return jwtUtil.getUserIdentifierFromRequest(request);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public String authenticatedRequestWithoutRequestScope() throws Exception {
+        // only the claims cache is available, e.g. for code running outside a servlet request
+        MockHttpServletRequest request = newRequest();
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+            return jwtUtil.getUserIdentifierFromRequest(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/auth/users");
+        request.addHeader(AUTHORIZATION_HEADER, authorizationHeader);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JWTFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -11,6 +11,7 @@ import com.example.registrationmodule.repository.AdminRepository;
 import com.example.registrationmodule.service.impl.AdminService;
 import com.example.registrationmodule.service.impl.DTOConversionService;
 import com.example.registrationmodule.service.impl.JWTService;
+import com.example.registrationmodule.service.impl.PrincipalCacheService;
 import com.example.registrationmodule.service.impl.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,8 +19,10 @@ import org.mockito.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +32,8 @@ class AdminServiceTest {
     @Mock private JWTService jwtService;
     @Mock private RefreshTokenService refreshTokenService;
     @Mock private DTOConversionService dtoConversionService;
+    @Mock private PrincipalCacheService principalCacheService;
+    @Mock private PasswordEncoder passwordEncoder;
     @InjectMocks private AdminService adminService;
 
     @BeforeEach
@@ -8,6 +8,7 @@ import com.example.registrationmodule.model.event.BlockEvent;
 import com.example.registrationmodule.repository.BlockRepository;
 import com.example.registrationmodule.repository.UserRepository;
 import com.example.registrationmodule.service.impl.BlockListener;
+import com.example.registrationmodule.service.impl.BlockedUsersCache;
 import com.example.registrationmodule.util.QueueUtils;
 import com.rabbitmq.client.Channel;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,7 @@ class BlockListenerTest {
     private UserRepository userRepository;
     private BlockRepository blockRepository;
     private QueueUtils queueUtils;
+    private BlockedUsersCache blockedUsersCache;
     private BlockListener blockListener;
     private Channel channel;
 
@@ -35,8 +37,9 @@ class BlockListenerTest {
         userRepository = mock(UserRepository.class);
         blockRepository = mock(BlockRepository.class);
         queueUtils = mock(QueueUtils.class);
+        blockedUsersCache = mock(BlockedUsersCache.class);
         channel = mock(Channel.class); // Will throw in some JVMs (see previous explanation)
-        blockListener = new BlockListener(userRepository, blockRepository, queueUtils);
+        blockListener = new BlockListener(userRepository, blockRepository, queueUtils, blockedUsersCache);
     }
 
     private Message buildMessage(long tag) {
@@ -63,6 +66,7 @@ class BlockListenerTest {
         blockListener.onUserBlocked(event, channel, message);
 
         verify(blockRepository).save(any(Block.class));
+        verify(blockedUsersCache).blockChanged(blockerId, blockedId);
         verify(channel).basicAck(100L, false);
     }
 
@@ -126,6 +130,7 @@ class BlockListenerTest {
         blockListener.onUserUnBlocked(event, channel, message);
 
         verify(blockRepository).deleteByBlocker_UserIdAndBlocked_UserId(blockerId, blockedId);
+        verify(blockedUsersCache).blockChanged(blockerId, blockedId);
         verify(channel).basicAck(33L, false);
     }
 
@@ -1,18 +1,35 @@
 package com.example.registrationmodule.service;
 
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.*;
 import com.example.registrationmodule.config.CloudStorageConfig;
 import com.example.registrationmodule.exception.media.InvalidMediaFile;
 import com.example.registrationmodule.exception.media.MediaNotFound;
+import com.example.registrationmodule.exception.media.UploadSessionClosed;
+import com.example.registrationmodule.exception.media.UploadSessionNotFound;
+import com.example.registrationmodule.exception.user.UserAccessDenied;
+import com.example.registrationmodule.model.dto.CompleteUploadSessionDTO;
+import com.example.registrationmodule.model.dto.CreateUploadSessionDTO;
+import com.example.registrationmodule.model.dto.UploadPartDTO;
+import com.example.registrationmodule.model.dto.UploadSessionDTO;
 import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.entity.MediaReference;
+import com.example.registrationmodule.model.entity.UploadSession;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
+import com.example.registrationmodule.model.enumeration.UploadSessionStatus;
+import com.example.registrationmodule.repository.MediaReferenceRepository;
 import com.example.registrationmodule.repository.MediaRepository;
+import com.example.registrationmodule.repository.UploadSessionRepository;
 import com.example.registrationmodule.service.impl.CloudService;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import com.example.registrationmodule.service.impl.ImageDerivativeService;
+import com.example.registrationmodule.util.S3UploadPipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.*;
@@ -20,12 +37,16 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
-import jakarta.persistence.EntityNotFoundException;
 
 class CloudServiceTest {
     @Mock private MediaRepository mediaRepository;
     @Mock private AmazonS3 s3Client;
     @Mock private CloudStorageConfig cloudStorageConfig;
+    @Mock private S3UploadPipeline s3UploadPipeline;
+    @Mock private ImageDerivativeService imageDerivativeService;
+    @Mock private UploadSessionRepository uploadSessionRepository;
+    @Mock private MediaReferenceRepository mediaReferenceRepository;
+    @Mock private TransactionTemplate transactionTemplate;
     @InjectMocks private CloudService cloudService;
 
     @BeforeEach
@@ -33,16 +54,154 @@ class CloudServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
-    @Test
-    void uploadAndSaveMedia_success() throws IOException {
-        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", "data".getBytes());
-        Media media = Media.builder().mediaId(UUID.randomUUID()).build();
-        when(mediaRepository.save(any())).thenReturn(media);
+    private final UUID ownerId = UUID.randomUUID();
+    // media rows as the database would hold them, keyed by S3 key
+    private final Map<String, Media> storedMedia = new HashMap<>();
+
+    private static String sha256(byte[] bytes) throws java.security.NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(java.security.MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private void allowJpegUploads() {
         when(cloudStorageConfig.getMaxSize()).thenReturn(Map.of("image", 10000000L));
         when(cloudStorageConfig.getAllowedTypes()).thenReturn(List.of("image/jpeg"));
         when(cloudStorageConfig.getBucketName()).thenReturn("bucket");
-        Media result = cloudService.uploadAndSaveMedia(file, true);
-        assertNotNull(result);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        when(mediaRepository.insertIfAbsent(any(), anyString(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(1);
+            Media media = Media.builder().mediaId(invocation.getArgument(0)).key(key).contentHash(invocation.getArgument(5)).build();
+            return storedMedia.putIfAbsent(key, media) == null ? 1 : 0;
+        });
+        when(mediaRepository.findByKeyIn(any())).thenAnswer(invocation -> storedIn(invocation.getArgument(0)));
+        when(mediaRepository.findByKeyInForShare(any())).thenAnswer(invocation -> storedIn(invocation.getArgument(0)));
+        when(mediaReferenceRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MediaReference> references = invocation.getArgument(0);
+            references.forEach(reference -> reference.setReferenceId(UUID.randomUUID()));
+            return references;
+        });
+        when(s3Client.doesObjectExist(eq("bucket"), anyString())).thenReturn(true);
+    }
+
+    private List<Media> storedIn(Collection<String> keys) {
+        return keys.stream().map(storedMedia::get).filter(Objects::nonNull).toList();
+    }
+
+    @Test
+    void uploadAndSaveMedia_success() throws Exception {
+        byte[] bytes = "data".getBytes();
+        allowJpegUploads();
+
+        MediaReference result = cloudService.uploadAndSaveMedia(new MockMultipartFile("file", "test.jpg", "image/jpeg", bytes), ownerId, true);
+
+        Media media = storedMedia.get("image/" + sha256(bytes));
+        assertNotNull(media);
+        assertEquals(media.getMediaId(), result.getMediaId());
+        assertEquals(ownerId, result.getOwnerId());
+        verify(imageDerivativeService).scheduleDerivatives(List.of(media));
+    }
+
+    @Test
+    void uploadAndSaveMedia_multipleFiles_uploadedTogetherAndReferencedInOneTransaction() throws IOException {
+        List<org.springframework.web.multipart.MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.jpg", "image/jpeg", "a".getBytes()),
+                new MockMultipartFile("files", "b.jpg", "image/jpeg", "b".getBytes()),
+                new MockMultipartFile("files", "c.jpg", "image/jpeg", "c".getBytes()));
+        allowJpegUploads();
+
+        List<MediaReference> result = cloudService.uploadAndSaveMedia(files, ownerId, true);
+
+        assertEquals(3, result.size());
+        assertEquals(3, result.stream().map(MediaReference::getMediaId).distinct().count());
+        verify(s3UploadPipeline, times(1)).uploadAll(argThat(uploads -> uploads.size() == 3));
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(mediaReferenceRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void uploadAndSaveMedia_knownContent_onlyAddsReference() throws Exception {
+        byte[] bytes = "vaccine".getBytes();
+        allowJpegUploads();
+        Media existing = Media.builder().mediaId(UUID.randomUUID()).key("image/" + sha256(bytes)).contentHash(sha256(bytes)).build();
+        storedMedia.put(existing.getKey(), existing);
+
+        MediaReference result = cloudService.uploadAndSaveMedia(new MockMultipartFile("file", "again.jpg", "image/jpeg", bytes), ownerId, true);
+
+        assertEquals(existing.getMediaId(), result.getMediaId());
+        verify(s3UploadPipeline).uploadAll(argThat(List::isEmpty));
+        verify(mediaRepository, never()).insertIfAbsent(any(), anyString(), any(), any(), any(), any());
+        verify(imageDerivativeService).scheduleDerivatives(List.of());
+    }
+
+    @Test
+    void uploadAndSaveMedia_sameContentTwiceInBatch_storedOnceReferencedTwice() throws Exception {
+        byte[] bytes = "photo".getBytes();
+        allowJpegUploads();
+
+        List<MediaReference> result = cloudService.uploadAndSaveMedia(List.of(
+                new MockMultipartFile("files", "a.jpg", "image/jpeg", bytes),
+                new MockMultipartFile("files", "b.jpg", "image/jpeg", bytes)), ownerId, true);
+
+        assertEquals(2, result.size());
+        assertNotEquals(result.get(0).getReferenceId(), result.get(1).getReferenceId());
+        assertEquals(result.get(0).getMediaId(), result.get(1).getMediaId());
+        verify(s3UploadPipeline).uploadAll(argThat(uploads -> uploads.size() == 1));
+    }
+
+    @Test
+    void uploadAndSaveMedia_contentDeletedAfterLookup_storesItAgain() throws Exception {
+        byte[] bytes = "gone".getBytes();
+        String key = "image/" + sha256(bytes);
+        allowJpegUploads();
+        doReturn(List.of(Media.builder().mediaId(UUID.randomUUID()).key(key).build())).when(mediaRepository).findByKeyIn(any());
+
+        MediaReference result = cloudService.uploadAndSaveMedia(new MockMultipartFile("file", "gone.jpg", "image/jpeg", bytes), ownerId, true);
+
+        assertEquals(storedMedia.get(key).getMediaId(), result.getMediaId());
+        verify(s3UploadPipeline).uploadAll(argThat(uploads -> uploads.size() == 1 && uploads.get(0).key().equals(key)));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void uploadAndSaveMedia_objectRemovedByConcurrentDelete_sendsItAgain() throws Exception {
+        byte[] bytes = "race".getBytes();
+        String key = "image/" + sha256(bytes);
+        allowJpegUploads();
+        when(s3Client.doesObjectExist("bucket", key)).thenReturn(false);
+
+        cloudService.uploadAndSaveMedia(new MockMultipartFile("file", "race.jpg", "image/jpeg", bytes), ownerId, true);
+
+        verify(s3UploadPipeline, times(2)).uploadAll(argThat(uploads -> uploads.size() == 1 && uploads.get(0).key().equals(key)));
+    }
+
+    @Test
+    void uploadAndSaveMedia_laterFileFails_keepsNoReferenceAndRemovesUnreferencedObjects() throws Exception {
+        byte[] first = "first".getBytes();
+        byte[] second = "second".getBytes();
+        allowJpegUploads();
+        doThrow(new IOException("upload failed")).when(s3UploadPipeline).uploadAll(anyList());
+
+        assertThrows(IOException.class, () -> cloudService.uploadAndSaveMedia(List.of(
+                new MockMultipartFile("files", "a.jpg", "image/jpeg", first),
+                new MockMultipartFile("files", "b.jpg", "image/jpeg", second)), ownerId, true));
+
+        verify(mediaReferenceRepository, never()).saveAll(anyList());
+        verify(s3Client).deleteObject("bucket", "image/" + sha256(first));
+        verify(s3Client).deleteObject("bucket", "image/" + sha256(second));
+    }
+
+    @Test
+    void uploadAndSaveMedia_saveFails_keepsObjectsOfConcurrentUploads() throws Exception {
+        byte[] bytes = "shared".getBytes();
+        String key = "image/" + sha256(bytes);
+        allowJpegUploads();
+        when(mediaReferenceRepository.saveAll(anyList())).thenThrow(new RuntimeException("db down"));
+
+        assertThrows(RuntimeException.class,
+                () -> cloudService.uploadAndSaveMedia(new MockMultipartFile("file", "shared.jpg", "image/jpeg", bytes), ownerId, true));
+
+        // the fake store keeps the row, as if a concurrent upload of the same content had committed it
+        verify(s3Client, never()).deleteObject("bucket", key);
     }
 
     @Test
@@ -50,23 +209,93 @@ class CloudServiceTest {
         MockMultipartFile file = new MockMultipartFile("file", "", "image/jpeg", new byte[0]);
         when(cloudStorageConfig.getAllowedTypes()).thenReturn(List.of("image/jpeg"));
         when(cloudStorageConfig.getMaxSize()).thenReturn(Map.of("image", 10000000L));
-        assertThrows(InvalidMediaFile.class, () -> cloudService.uploadAndSaveMedia(file, true));
+        assertThrows(InvalidMediaFile.class, () -> cloudService.uploadAndSaveMedia(file, ownerId, true));
     }
 
     @Test
     void getMediaUrl_success() {
         UUID id = UUID.randomUUID();
-        Media media = Media.builder().mediaId(id).key("key").build();
-        when(mediaRepository.findById(id)).thenReturn(Optional.of(media));
+        when(mediaRepository.findKeyById(id)).thenReturn(Optional.of("key"));
         when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
         String url = cloudService.getMediaUrl(id);
         assertEquals("http://cdn/key", url);
     }
 
+    @Test
+    void getMediaUrl_repeated_servedFromCache() {
+        UUID id = UUID.randomUUID();
+        when(mediaRepository.findKeyById(id)).thenReturn(Optional.of("key"));
+        when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
+
+        cloudService.getMediaUrl(id);
+        cloudService.getMediaUrl(id);
+
+        verify(mediaRepository, times(1)).findKeyById(id);
+    }
+
+    private static MediaRepository.MediaKey mediaKey(UUID mediaId, String key) {
+        return new MediaRepository.MediaKey() {
+            @Override
+            public UUID getMediaId() {
+                return mediaId;
+            }
+
+            @Override
+            public String getKey() {
+                return key;
+            }
+        };
+    }
+
+    @Test
+    void getMediaUrls_resolvesUncachedIdsInOneQuery() {
+        UUID cached = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
+        when(mediaRepository.findKeyById(cached)).thenReturn(Optional.of("cached"));
+        cloudService.getMediaUrl(cached);
+        when(mediaRepository.findKeysByIdIn(List.of(first, second, unknown)))
+                .thenReturn(List.of(mediaKey(second, "second"), mediaKey(first, "first")));
+
+        Map<UUID, String> urls = cloudService.getMediaUrls(List.of(cached, first, second, unknown));
+
+        assertEquals(List.of(cached, first, second), new ArrayList<>(urls.keySet()));
+        assertEquals("http://cdn/first", urls.get(first));
+        assertEquals("http://cdn/cached", urls.get(cached));
+        verify(mediaRepository, times(1)).findKeysByIdIn(any());
+    }
+
+    @Test
+    void getMediaUrl_variantGenerated_returnsVariantUrl() {
+        UUID id = UUID.randomUUID();
+        Media media = Media.builder().mediaId(id).key("image/key.png").build();
+        media.getVariants().put(MediaVariant.THUMBNAIL, "image/variants/thumbnail/key.jpg");
+        when(mediaRepository.findById(id)).thenReturn(Optional.of(media));
+        when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
+
+        assertEquals("http://cdn/image/variants/thumbnail/key.jpg", cloudService.getMediaUrl(id, MediaVariant.THUMBNAIL));
+        assertEquals("http://cdn/image/key.png", cloudService.getMediaUrl(id, MediaVariant.FEED));
+    }
+
+    @Test
+    void getMediaVariantUrls_returnsUrlForEveryVariant() {
+        UUID id = UUID.randomUUID();
+        Media media = Media.builder().mediaId(id).key("image/key.png").build();
+        when(mediaRepository.findById(id)).thenReturn(Optional.of(media));
+        when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
+
+        Map<MediaVariant, String> urls = cloudService.getMediaVariantUrls(id);
+
+        assertEquals(MediaVariant.values().length, urls.size());
+        assertEquals("http://cdn/image/key.png", urls.get(MediaVariant.THUMBNAIL));
+    }
+
     @Test
     void getMediaUrl_notFound_throws() {
         UUID id = UUID.randomUUID();
-        when(mediaRepository.findById(id)).thenReturn(Optional.empty());
+        when(mediaRepository.findKeyById(id)).thenReturn(Optional.empty());
         assertThrows(MediaNotFound.class, () -> cloudService.getMediaUrl(id));
     }
 
@@ -114,21 +343,252 @@ class CloudServiceTest {
         assertEquals(Optional.empty(), cloudService.getMediaByID(id));
     }
 
+    private MediaReference lockedReference(Media media, UUID owner) {
+        MediaReference reference = MediaReference.builder()
+                .referenceId(UUID.randomUUID()).mediaId(media.getMediaId()).ownerId(owner).build();
+        when(mediaReferenceRepository.findById(reference.getReferenceId())).thenReturn(Optional.of(reference));
+        when(mediaReferenceRepository.removeById(reference.getReferenceId())).thenReturn(1);
+        when(mediaRepository.findByIdForUpdate(media.getMediaId())).thenReturn(Optional.of(media));
+        when(cloudStorageConfig.getBucketName()).thenReturn("bucket");
+        return reference;
+    }
+
+    @Test
+    void deleteReference_lastReference_deletesObjectsAndRow() {
+        Media media = Media.builder().mediaId(UUID.randomUUID()).key("image/key").build();
+        media.getVariants().put(MediaVariant.THUMBNAIL, "image/variants/thumbnail/key.jpg");
+        MediaReference reference = lockedReference(media, ownerId);
+        when(mediaReferenceRepository.countByMediaId(media.getMediaId())).thenReturn(0L);
+
+        cloudService.deleteReference(reference.getReferenceId(), ownerId);
+
+        verify(s3Client).deleteObject("bucket", "image/key");
+        verify(s3Client).deleteObject("bucket", "image/variants/thumbnail/key.jpg");
+        verify(mediaRepository).delete(media);
+    }
+
+    @Test
+    void deleteReference_evictsCachedKey() {
+        Media media = Media.builder().mediaId(UUID.randomUUID()).key("image/key").build();
+        when(mediaRepository.findKeyById(media.getMediaId())).thenReturn(Optional.of("image/key"));
+        when(cloudStorageConfig.getCdnUrl()).thenReturn("http://cdn");
+        cloudService.getMediaUrl(media.getMediaId());
+        MediaReference reference = lockedReference(media, ownerId);
+
+        cloudService.deleteReference(reference.getReferenceId(), ownerId);
+        when(mediaRepository.findKeyById(media.getMediaId())).thenReturn(Optional.empty());
+
+        assertThrows(MediaNotFound.class, () -> cloudService.getMediaUrl(media.getMediaId()));
+    }
+
+    @Test
+    void deleteReference_otherReferencesRemain_keepsObject() {
+        Media media = Media.builder().mediaId(UUID.randomUUID()).key("image/key").build();
+        MediaReference reference = lockedReference(media, ownerId);
+        when(mediaReferenceRepository.countByMediaId(media.getMediaId())).thenReturn(1L);
+
+        cloudService.deleteReference(reference.getReferenceId(), ownerId);
+
+        verify(mediaReferenceRepository).removeById(reference.getReferenceId());
+        verify(s3Client, never()).deleteObject(anyString(), anyString());
+        verify(mediaRepository, never()).delete(any());
+    }
+
     @Test
-    void deleteById_success() {
+    void deleteReference_notOwner_throws() {
+        Media media = Media.builder().mediaId(UUID.randomUUID()).key("image/key").build();
+        MediaReference reference = lockedReference(media, UUID.randomUUID());
+
+        assertThrows(UserAccessDenied.class, () -> cloudService.deleteReference(reference.getReferenceId(), ownerId));
+        verify(mediaReferenceRepository, never()).removeById(any());
+    }
+
+    @Test
+    void deleteReference_notFound_throws() {
         UUID id = UUID.randomUUID();
-        Media media = Media.builder().mediaId(id).key("key").build();
-        when(mediaRepository.findById(id)).thenReturn(Optional.of(media));
+        when(mediaReferenceRepository.findById(id)).thenReturn(Optional.empty());
+        assertThrows(MediaNotFound.class, () -> cloudService.deleteReference(id, ownerId));
+    }
+
+    private void allowDirectUploads() {
         when(cloudStorageConfig.getBucketName()).thenReturn("bucket");
-        doNothing().when(s3Client).deleteObject("bucket", "key");
-        doNothing().when(mediaRepository).deleteById(id);
-        assertDoesNotThrow(() -> cloudService.deleteById(id));
+        when(cloudStorageConfig.getMaxSize()).thenReturn(Map.of("image", 10_000_000L, "video", 100_000_000L));
+        when(cloudStorageConfig.getAllowedTypes()).thenReturn(List.of("image/jpeg", "video/mp4"));
+        when(cloudStorageConfig.getMultipartThreshold()).thenReturn(16L * 1024 * 1024);
+        when(cloudStorageConfig.getPartSize()).thenReturn(8 * 1024 * 1024);
+        when(uploadSessionRepository.save(any())).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            session.setSessionId(UUID.randomUUID());
+            return session;
+        });
+    }
+
+    private UploadSession pendingSession(String contentType, long size, String multipartUploadId) {
+        UploadSession session = UploadSession.builder()
+                .sessionId(UUID.randomUUID())
+                .key("image/abc-photo.jpg")
+                .fileName("photo.jpg")
+                .contentType(contentType)
+                .declaredSize(size)
+                .multipartUploadId(multipartUploadId)
+                .status(UploadSessionStatus.PENDING)
+                .ownerId(ownerId)
+                .createdAt(java.time.LocalDateTime.now())
+                .expiresAt(java.time.LocalDateTime.now().plusMinutes(30))
+                .build();
+        when(uploadSessionRepository.findByIdForUpdate(session.getSessionId())).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    private static ObjectMetadata storedObject(String contentType, long size) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(size);
+        return metadata;
     }
 
     @Test
-    void deleteById_notFound_throws() {
-        UUID id = UUID.randomUUID();
-        when(mediaRepository.findById(id)).thenReturn(Optional.empty());
-        assertThrows(EntityNotFoundException.class, () -> cloudService.deleteById(id));
+    void createUploadSession_smallFile_returnsPresignedPut() throws Exception {
+        allowDirectUploads();
+        when(s3Client.generatePresignedUrl(any(GeneratePresignedUrlRequest.class))).thenReturn(new java.net.URL("http://put"));
+
+        UploadSessionDTO session = cloudService.createUploadSession(new CreateUploadSessionDTO("photo.jpg", "image/jpeg", 5000), ownerId);
+
+        assertNotNull(session.getSessionId());
+        assertEquals("http://put", session.getUploadUrl());
+        assertNull(session.getPartUrls());
+        assertTrue(session.getKey().startsWith("image/"));
+        ArgumentCaptor<GeneratePresignedUrlRequest> request = ArgumentCaptor.forClass(GeneratePresignedUrlRequest.class);
+        verify(s3Client).generatePresignedUrl(request.capture());
+        assertEquals(com.amazonaws.HttpMethod.PUT, request.getValue().getMethod());
+        assertEquals("image/jpeg", request.getValue().getContentType());
+        verify(s3Client, never()).initiateMultipartUpload(any());
+    }
+
+    @Test
+    void createUploadSession_largeFile_returnsOneUrlPerPart() throws Exception {
+        allowDirectUploads();
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload-1");
+        when(s3Client.initiateMultipartUpload(any())).thenReturn(initiated);
+        when(s3Client.generatePresignedUrl(any(GeneratePresignedUrlRequest.class))).thenReturn(new java.net.URL("http://part"));
+
+        UploadSessionDTO session = cloudService.createUploadSession(new CreateUploadSessionDTO("clip.mp4", "video/mp4", 20L * 1024 * 1024), ownerId);
+
+        assertNull(session.getUploadUrl());
+        assertEquals(3, session.getPartUrls().size());
+        assertEquals(8L * 1024 * 1024, session.getPartSize());
+        ArgumentCaptor<UploadSession> saved = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(saved.capture());
+        assertEquals("upload-1", saved.getValue().getMultipartUploadId());
+    }
+
+    @Test
+    void createUploadSession_disallowedType_throws() {
+        allowDirectUploads();
+        assertThrows(InvalidMediaFile.class,
+                () -> cloudService.createUploadSession(new CreateUploadSessionDTO("tool.exe", "application/x-msdownload", 5000), ownerId));
+        verifyNoInteractions(uploadSessionRepository);
+    }
+
+    @Test
+    void completeUploadSession_verifiedObject_recordsMedia() {
+        allowDirectUploads();
+        UploadSession session = pendingSession("image/jpeg", 5000, null);
+        when(s3Client.getObjectMetadata("bucket", session.getKey())).thenReturn(storedObject("image/jpeg", 5000));
+        UUID mediaId = UUID.randomUUID();
+        when(mediaRepository.save(any())).thenAnswer(invocation -> {
+            Media media = invocation.getArgument(0);
+            media.setMediaId(mediaId);
+            return media;
+        });
+
+        when(mediaReferenceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MediaReference reference = cloudService.completeUploadSession(session.getSessionId(), ownerId, new CompleteUploadSessionDTO());
+
+        ArgumentCaptor<Media> media = ArgumentCaptor.forClass(Media.class);
+        verify(mediaRepository).save(media.capture());
+        assertEquals(session.getKey(), media.getValue().getKey());
+        assertEquals("jpg", media.getValue().getFormat());
+        assertEquals(mediaId, reference.getMediaId());
+        assertEquals(ownerId, reference.getOwnerId());
+        assertEquals(UploadSessionStatus.COMPLETED, session.getStatus());
+        assertEquals(mediaId, session.getMediaId());
+        verify(imageDerivativeService).scheduleDerivatives(List.of(media.getValue()));
+    }
+
+    @Test
+    void completeUploadSession_otherUser_throws() {
+        UploadSession session = pendingSession("image/jpeg", 5000, null);
+
+        assertThrows(UploadSessionNotFound.class,
+                () -> cloudService.completeUploadSession(session.getSessionId(), UUID.randomUUID(), new CompleteUploadSessionDTO()));
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void completeUploadSession_storedTypeNotAllowed_deletesObject() {
+        allowDirectUploads();
+        UploadSession session = pendingSession("image/jpeg", 5000, null);
+        when(s3Client.getObjectMetadata("bucket", session.getKey())).thenReturn(storedObject("application/x-msdownload", 5000));
+
+        assertThrows(InvalidMediaFile.class, () -> cloudService.completeUploadSession(session.getSessionId(), ownerId, new CompleteUploadSessionDTO()));
+
+        assertEquals(UploadSessionStatus.FAILED, session.getStatus());
+        verify(s3Client).deleteObject("bucket", session.getKey());
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUploadSession_sizeDiffersFromDeclared_deletesObject() {
+        allowDirectUploads();
+        UploadSession session = pendingSession("image/jpeg", 5000, null);
+        when(s3Client.getObjectMetadata("bucket", session.getKey())).thenReturn(storedObject("image/jpeg", 9_000_000));
+
+        assertThrows(InvalidMediaFile.class, () -> cloudService.completeUploadSession(session.getSessionId(), ownerId, new CompleteUploadSessionDTO()));
+
+        assertEquals(UploadSessionStatus.FAILED, session.getStatus());
+        verify(s3Client).deleteObject("bucket", session.getKey());
+    }
+
+    @Test
+    void completeUploadSession_multipart_completesPartsInOrder() {
+        allowDirectUploads();
+        long size = 20L * 1024 * 1024;
+        UploadSession session = pendingSession("video/mp4", size, "upload-1");
+        when(s3Client.getObjectMetadata("bucket", session.getKey())).thenReturn(storedObject("video/mp4", size));
+        when(mediaRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mediaReferenceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cloudService.completeUploadSession(session.getSessionId(), ownerId, new CompleteUploadSessionDTO(List.of(
+                new UploadPartDTO(2, "b"), new UploadPartDTO(1, "a"), new UploadPartDTO(3, "c"))));
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> request = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(request.capture());
+        assertEquals("upload-1", request.getValue().getUploadId());
+        assertEquals(List.of(1, 2, 3), request.getValue().getPartETags().stream().map(PartETag::getPartNumber).toList());
+    }
+
+    @Test
+    void completeUploadSession_expired_throws() {
+        UploadSession session = pendingSession("image/jpeg", 5000, null);
+        session.setExpiresAt(java.time.LocalDateTime.now().minusMinutes(1));
+
+        assertThrows(UploadSessionClosed.class, () -> cloudService.completeUploadSession(session.getSessionId(), ownerId, new CompleteUploadSessionDTO()));
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void expireUploadSessions_abortsMultipartAndMarksExpired() {
+        when(cloudStorageConfig.getBucketName()).thenReturn("bucket");
+        UploadSession session = UploadSession.builder().sessionId(UUID.randomUUID()).key("video/clip.mp4")
+                .multipartUploadId("upload-1").status(UploadSessionStatus.PENDING).build();
+        when(uploadSessionRepository.findByStatusAndExpiresAtBefore(eq(UploadSessionStatus.PENDING), any())).thenReturn(List.of(session));
+
+        cloudService.expireUploadSessions();
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        assertEquals(UploadSessionStatus.EXPIRED, session.getStatus());
     }
-} 
\ No newline at end of file
+}
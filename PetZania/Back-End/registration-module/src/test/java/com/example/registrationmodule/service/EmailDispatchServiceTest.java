@@ -0,0 +1,146 @@
+package com.example.registrationmodule.service;
+
+import com.example.registrationmodule.model.dto.EmailRequestDTO;
+import com.example.registrationmodule.model.entity.EmailDispatch;
+import com.example.registrationmodule.model.enumeration.EmailDispatchStatus;
+import com.example.registrationmodule.repository.EmailDispatchRepository;
+import com.example.registrationmodule.service.impl.EmailDispatchService;
+import com.example.registrationmodule.service.noop.LocalEmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.registrationmodule.constant.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailDispatchServiceTest {
+    private EmailDispatchRepository emailDispatchRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        emailDispatchRepository = mock(EmailDispatchRepository.class);
+        when(emailDispatchRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(emailDispatchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    }
+
+    private static EmailDispatch pending(String to, int attempts) {
+        return EmailDispatch.builder()
+                .dispatchId(UUID.randomUUID())
+                .to(to)
+                .from("noreply@petzania.com")
+                .subject("subject")
+                .body("body")
+                .provider("local")
+                .status(EmailDispatchStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void enqueue_persistsPendingDispatchWithoutSending() {
+        LocalEmailService provider = new LocalEmailService(0, 0);
+        EmailDispatchService service = new EmailDispatchService(emailDispatchRepository, provider, Runnable::run, transactionTemplate);
+        EmailRequestDTO request = new EmailRequestDTO();
+        request.setTo("user@test.com");
+        request.setFrom("noreply@petzania.com");
+        request.setSubject("Your Verification Code");
+
+        EmailDispatch dispatch = service.enqueue(request);
+
+        assertEquals(EmailDispatchStatus.PENDING, dispatch.getStatus());
+        assertEquals("local", dispatch.getProvider());
+        assertEquals(0, dispatch.getAttempts());
+        assertEquals(0, provider.getDelivered());
+    }
+
+    @Test
+    void dispatchDue_sendsInParallelWithinProviderLimit() throws Exception {
+        int emails = 2 * EMAIL_DISPATCH_WORKERS;
+        long latencyMillis = 50;
+        List<EmailDispatch> due = new ArrayList<>();
+        for (int i = 0; i < emails; i++) {
+            due.add(pending("user" + i + "@test.com", 0));
+        }
+        when(emailDispatchRepository.lockDue(any(), anyInt())).thenReturn(due);
+        LocalEmailService provider = new LocalEmailService(latencyMillis, 0);
+        ExecutorService workers = Executors.newFixedThreadPool(EMAIL_DISPATCH_WORKERS);
+        EmailDispatchService service = new EmailDispatchService(emailDispatchRepository, provider, workers, transactionTemplate);
+
+        long start = System.nanoTime();
+        assertEquals(emails, service.dispatchDue());
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(emails, provider.getDelivered());
+        assertTrue(provider.getMaxConcurrent() <= EMAIL_PROVIDER_MAX_CONCURRENCY);
+        assertTrue(elapsedMillis < emails * latencyMillis, "took " + elapsedMillis + "ms");
+        due.forEach(dispatch -> assertEquals(EmailDispatchStatus.SENT, dispatch.getStatus()));
+    }
+
+    @Test
+    void dispatchDue_failedSendIsRescheduledWithBackoffThenSent() {
+        EmailDispatch dispatch = pending("user@test.com", 0);
+        when(emailDispatchRepository.lockDue(any(), anyInt())).thenReturn(List.of(dispatch));
+        LocalEmailService provider = new LocalEmailService(0, 1);
+        EmailDispatchService service = new EmailDispatchService(emailDispatchRepository, provider, Runnable::run, transactionTemplate);
+
+        service.dispatchDue();
+
+        assertEquals(EmailDispatchStatus.PENDING, dispatch.getStatus());
+        assertEquals(1, dispatch.getAttempts());
+        assertEquals("body", dispatch.getBody());
+        assertNotNull(dispatch.getLastError());
+        assertTrue(dispatch.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(EMAIL_DISPATCH_BASE_BACKOFF_SECONDS - 1)));
+
+        service.dispatchDue();
+
+        assertEquals(EmailDispatchStatus.SENT, dispatch.getStatus());
+        assertEquals(2, dispatch.getAttempts());
+        assertNotNull(dispatch.getSentAt());
+        assertNull(dispatch.getBody());
+        assertEquals(1, provider.getDelivered());
+    }
+
+    @Test
+    void dispatchDue_givesUpAfterMaxAttempts() {
+        EmailDispatch dispatch = pending("user@test.com", EMAIL_DISPATCH_MAX_ATTEMPTS - 1);
+        when(emailDispatchRepository.lockDue(any(), anyInt())).thenReturn(List.of(dispatch));
+        EmailDispatchService service = new EmailDispatchService(emailDispatchRepository, new LocalEmailService(0, Integer.MAX_VALUE), Runnable::run, transactionTemplate);
+
+        service.dispatchDue();
+
+        assertEquals(EmailDispatchStatus.FAILED, dispatch.getStatus());
+        assertEquals(EMAIL_DISPATCH_MAX_ATTEMPTS, dispatch.getAttempts());
+        assertNull(dispatch.getBody());
+    }
+
+    @Test
+    void purgeFinished_deletesOnlySentAndFailedPastRetention() {
+        when(emailDispatchRepository.deleteByStatusCreatedBefore(anyCollection(), any())).thenReturn(3);
+        EmailDispatchService service = new EmailDispatchService(emailDispatchRepository, new LocalEmailService(0, 0), Runnable::run, transactionTemplate);
+
+        assertEquals(3, service.purgeFinished());
+
+        LocalDateTime retention = LocalDateTime.now().minusDays(EMAIL_DISPATCH_RETENTION_DAYS);
+        verify(emailDispatchRepository).deleteByStatusCreatedBefore(
+                eq(EnumSet.of(EmailDispatchStatus.SENT, EmailDispatchStatus.FAILED)),
+                argThat(before -> !before.isAfter(retention) && before.isAfter(retention.minusMinutes(1))));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.registrationmodule.service;
+
+import com.example.registrationmodule.config.CloudStorageConfig;
+import com.example.registrationmodule.model.entity.Media;
+import com.example.registrationmodule.model.enumeration.MediaVariant;
+import com.example.registrationmodule.repository.MediaRepository;
+import com.example.registrationmodule.service.impl.ImageDerivativeService;
+import com.example.registrationmodule.util.InMemoryAmazonS3;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageDerivativeServiceTest {
+    private static final String KEY = "image/original-photo.png";
+
+    @Mock private MediaRepository mediaRepository;
+    @Mock private CloudStorageConfig cloudStorageConfig;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private InMemoryAmazonS3 s3;
+    private UUID mediaId;
+    private Media media;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        s3 = new InMemoryAmazonS3();
+        when(cloudStorageConfig.getBucketName()).thenReturn("bucket");
+        mediaId = UUID.randomUUID();
+        media = Media.builder().mediaId(mediaId).key(KEY).type("image/png").build();
+
+        BufferedImage image = new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        s3.putStoredObject(KEY, output.toByteArray());
+    }
+
+    private ImageDerivativeService service(Executor executor) {
+        return new ImageDerivativeService(mediaRepository, s3, cloudStorageConfig, executor,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void scheduleDerivatives_storesAndRecordsEveryVariant() throws IOException {
+        when(mediaRepository.findById(mediaId)).thenReturn(Optional.of(media));
+
+        service(Runnable::run).scheduleDerivatives(List.of(media));
+
+        assertEquals(MediaVariant.values().length, media.getVariants().size());
+        String thumbnailKey = media.getVariants().get(MediaVariant.THUMBNAIL);
+        assertEquals("image/variants/thumbnail/original-photo.jpg", thumbnailKey);
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(s3.getStoredObject(thumbnailKey)));
+        assertEquals(MediaVariant.THUMBNAIL.getMaxDimension(), thumbnail.getWidth());
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(s3.getStoredObject(media.getVariants().get(MediaVariant.FULL))));
+        assertEquals(MediaVariant.FULL.getMaxDimension(), full.getWidth());
+    }
+
+    @Test
+    void scheduleDerivatives_mediaDeletedMeanwhile_removesVariantObjects() {
+        when(mediaRepository.findById(mediaId)).thenReturn(Optional.empty());
+
+        service(Runnable::run).scheduleDerivatives(List.of(media));
+
+        assertEquals(1, s3.objectCount());
+        assertNotNull(s3.getStoredObject(KEY));
+    }
+
+    @Test
+    void scheduleDerivatives_unsupportedType_isSkipped() {
+        Media video = Media.builder().mediaId(UUID.randomUUID()).key("video/clip.mp4").type("video/mp4").build();
+        Executor executor = mock(Executor.class);
+
+        service(executor).scheduleDerivatives(List.of(video));
+
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void scheduleDerivatives_queueFull_keepsOriginalOnly() {
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("full");
+        };
+
+        assertDoesNotThrow(() -> service(saturated).scheduleDerivatives(List.of(media)));
+        assertTrue(media.getVariants().isEmpty());
+        verifyNoInteractions(mediaRepository);
+    }
+}
@@ -8,6 +8,7 @@ import com.example.registrationmodule.model.enumeration.Gender;
 import com.example.registrationmodule.model.enumeration.PetSpecies;
 import com.example.registrationmodule.repository.PetRepository;
 import com.example.registrationmodule.service.impl.PetService;
+import com.example.registrationmodule.service.impl.ProfileCacheService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -19,6 +20,7 @@ import static org.mockito.Mockito.*;
 
 class PetServiceTest {
     @Mock private PetRepository petRepository;
+    @Mock private ProfileCacheService profileCacheService;
     @InjectMocks private PetService petService;
 
     @BeforeEach
@@ -96,6 +98,18 @@ class PetServiceTest {
         doNothing().when(petRepository).deleteById(id);
         assertDoesNotThrow(() -> petService.deleteById(id));
     }
+
+    @Test
+    void deleteById_evictsOwnerProfile() {
+        Pet pet = buildPet();
+        pet.getUser().setUserId(UUID.randomUUID());
+        when(petRepository.findById(pet.getPetId())).thenReturn(Optional.of(pet));
+
+        petService.deleteById(pet.getPetId());
+
+        verify(profileCacheService).evict(pet.getUser().getUserId());
+        verify(petRepository).deleteById(pet.getPetId());
+    }
     private Pet buildPet() {
         return Pet.builder()
                 .petId(UUID.randomUUID())
@@ -0,0 +1,110 @@
+package com.example.registrationmodule.service;
+
+import com.example.registrationmodule.model.dto.UserProfileDTO;
+import com.example.registrationmodule.service.impl.ProfileCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.registrationmodule.constant.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProfileCacheServiceTest {
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ProfileCacheService cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProfileCacheService(redisTemplate, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void get_loadsOnceAndServesRepeatReadsFromCache() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            UserProfileDTO profile = cache.get(userId, id -> {
+                loads.incrementAndGet();
+                return profile(id);
+            });
+            assertEquals(userId, profile.getUserId());
+        }
+
+        assertEquals(1, loads.get());
+        assertTrue(redis.containsKey(PROFILE_CACHE_KEY_PREFIX + userId));
+        assertEquals(2.0 / 3, meterRegistry.get(PROFILE_CACHE_METRIC + ".hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void get_sharedCopyKeepsReadOnlyFields() {
+        UUID userId = UUID.randomUUID();
+        cache.get(userId, this::profile);
+
+        // a second instance has an empty local tier and reads the Redis copy
+        ProfileCacheService other = new ProfileCacheService(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+        UserProfileDTO shared = other.get(userId, id -> fail("should be served from Redis"));
+
+        assertEquals(userId, shared.getUserId());
+        assertTrue(shared.isBlocked());
+        assertEquals("user", shared.getUsername());
+    }
+
+    @Test
+    void evict_dropsBothTiersAndNotifiesOtherInstances() {
+        UUID userId = UUID.randomUUID();
+        cache.get(userId, this::profile);
+        when(redisTemplate.delete(anyCollection())).thenAnswer(invocation -> {
+            invocation.<List<String>>getArgument(0).forEach(redis::remove);
+            return 1L;
+        });
+
+        cache.evict(userId);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(userId, id -> {
+            loads.incrementAndGet();
+            return profile(id);
+        });
+        assertEquals(1, loads.get());
+        verify(redisTemplate).convertAndSend(PROFILE_CACHE_CHANNEL, userId.toString());
+    }
+
+    @Test
+    void get_redisDown_fallsBackToLoader() {
+        UUID userId = UUID.randomUUID();
+        when(redisTemplate.opsForValue()).thenThrow(new IllegalStateException("connection refused"));
+
+        assertEquals(userId, cache.get(userId, this::profile).getUserId());
+    }
+
+    private UserProfileDTO profile(UUID userId) {
+        UserProfileDTO profile = new UserProfileDTO();
+        profile.setUserId(userId);
+        profile.setUsername("user");
+        profile.setBlocked(true);
+        return profile;
+    }
+}
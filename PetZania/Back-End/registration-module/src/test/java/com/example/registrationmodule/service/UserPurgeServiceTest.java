@@ -0,0 +1,136 @@
+package com.example.registrationmodule.service;
+
+import com.example.registrationmodule.model.dto.UserPurgeDTO;
+import com.example.registrationmodule.model.enumeration.UserPurgeStatus;
+import com.example.registrationmodule.model.event.UsersDeletedEvent;
+import com.example.registrationmodule.repository.UserDirectoryRepository.UsernameEntry;
+import com.example.registrationmodule.repository.UserPurgeRepository;
+import com.example.registrationmodule.service.impl.PrincipalCacheService;
+import com.example.registrationmodule.service.impl.ProfileCacheService;
+import com.example.registrationmodule.service.impl.UserPublisher;
+import com.example.registrationmodule.service.impl.UserPurgeService;
+import com.example.registrationmodule.service.impl.UsernameAutocompleteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static com.example.registrationmodule.constant.Constants.USER_PURGE_CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserPurgeServiceTest {
+    private UserPurgeRepository userPurgeRepository;
+    private UserPublisher userPublisher;
+    private PrincipalCacheService principalCacheService;
+    private UsernameAutocompleteService usernameAutocompleteService;
+    private ProfileCacheService profileCacheService;
+    private TransactionTemplate transactionTemplate;
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userPurgeRepository = mock(UserPurgeRepository.class);
+        userPublisher = mock(UserPublisher.class);
+        principalCacheService = mock(PrincipalCacheService.class);
+        usernameAutocompleteService = mock(UsernameAutocompleteService.class);
+        profileCacheService = mock(ProfileCacheService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private UserPurgeService service(Executor executor) {
+        return new UserPurgeService(userPurgeRepository, userPublisher, principalCacheService,
+                usernameAutocompleteService, profileCacheService, executor, transactionTemplate);
+    }
+
+    @Test
+    void start_deletesUsersInKeysetChunksAndPublishesOneEventPerChunk() {
+        List<UsernameEntry> first = entries(USER_PURGE_CHUNK_SIZE);
+        List<UsernameEntry> second = entries(3);
+        UUID lastOfFirst = first.get(first.size() - 1).getUserId();
+        when(userPurgeRepository.findFirstChunk(any())).thenReturn(first);
+        when(userPurgeRepository.findChunkAfter(eq(lastOfFirst), any())).thenReturn(second);
+        when(userPurgeRepository.findChunkAfter(eq(second.get(2).getUserId()), any())).thenReturn(List.of());
+        when(userPurgeRepository.deleteUsers(anyCollection())).thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+
+        UserPurgeService service = service(Runnable::run);
+        UserPurgeDTO started = service.start();
+
+        UserPurgeDTO status = service.getStatus();
+        assertEquals(started.getJobId(), status.getJobId());
+        assertEquals(UserPurgeStatus.COMPLETED, status.getStatus());
+        assertEquals(USER_PURGE_CHUNK_SIZE + 3, status.getDeletedUsers());
+        assertEquals(2, status.getChunks());
+        assertNotNull(status.getFinishedAt());
+
+        verify(userPurgeRepository, times(2)).deleteBlocksOf(anyCollection());
+        verify(userPurgeRepository, times(2)).deletePetsOf(anyCollection());
+        verify(userPurgeRepository, times(2)).deleteUsers(anyCollection());
+        ArgumentCaptor<UsersDeletedEvent> events = ArgumentCaptor.forClass(UsersDeletedEvent.class);
+        verify(userPublisher, times(2)).sendUsersDeletedMessage(events.capture());
+        assertEquals(USER_PURGE_CHUNK_SIZE, events.getAllValues().get(0).getUserIds().size());
+        assertEquals(second.stream().map(UsernameEntry::getUserId).toList(), events.getAllValues().get(1).getUserIds());
+        verify(userPublisher, never()).sendUserDeletedMessage(any());
+        verify(usernameAutocompleteService, times(USER_PURGE_CHUNK_SIZE + 3)).userRemoved(any(), any());
+        verify(profileCacheService, times(2)).evict(anyCollection());
+    }
+
+    @Test
+    void start_whileRunning_returnsTheRunningJob() {
+        UserPurgeService service = service(submitted::add);
+
+        UserPurgeDTO first = service.start();
+        UserPurgeDTO second = service.start();
+
+        assertEquals(first.getJobId(), second.getJobId());
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void start_failedChunk_marksJobFailedAndKeepsProgress() {
+        List<UsernameEntry> first = entries(2);
+        when(userPurgeRepository.findFirstChunk(any())).thenReturn(first);
+        when(userPurgeRepository.deleteUsers(anyCollection())).thenReturn(2);
+        when(userPurgeRepository.findChunkAfter(any(), any())).thenThrow(new IllegalStateException("connection lost"));
+
+        UserPurgeService service = service(Runnable::run);
+        service.start();
+
+        assertEquals(UserPurgeStatus.FAILED, service.getStatus().getStatus());
+        assertEquals(2, service.getStatus().getDeletedUsers());
+
+        // a failed job does not block the next one
+        doReturn(List.of()).when(userPurgeRepository).findChunkAfter(any(), any());
+        service.start();
+        assertEquals(UserPurgeStatus.COMPLETED, service.getStatus().getStatus());
+    }
+
+    private static List<UsernameEntry> entries(int count) {
+        List<UsernameEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID userId = UUID.randomUUID();
+            String username = "user" + i;
+            entries.add(new UsernameEntry() {
+                @Override
+                public UUID getUserId() {
+                    return userId;
+                }
+
+                @Override
+                public String getUsername() {
+                    return username;
+                }
+            });
+        }
+        return entries;
+    }
+}
@@ -4,23 +4,36 @@ import com.example.registrationmodule.exception.authenticationAndVerificattion.*
 import com.example.registrationmodule.exception.rateLimiting.*;
 import com.example.registrationmodule.exception.user.*;
 import com.example.registrationmodule.model.dto.*;
+import com.example.registrationmodule.model.entity.EmailDispatch;
 import com.example.registrationmodule.model.entity.User;
-import com.example.registrationmodule.repository.BlockRepository;
+import com.example.registrationmodule.model.enumeration.UserPurgeStatus;
+import com.example.registrationmodule.repository.UserDirectoryRepository;
 import com.example.registrationmodule.repository.UserRepository;
+import com.example.registrationmodule.service.impl.EmailDispatchService;
 import com.example.registrationmodule.service.impl.JWTService;
+import com.example.registrationmodule.service.impl.PresenceService;
+import com.example.registrationmodule.service.impl.PrincipalCacheService;
 import com.example.registrationmodule.service.impl.RefreshTokenService;
 import com.example.registrationmodule.service.impl.UserPublisher;
+import com.example.registrationmodule.service.impl.BlockedUsersCache;
+import com.example.registrationmodule.service.impl.ProfileCacheService;
+import com.example.registrationmodule.service.impl.UserPurgeService;
 import com.example.registrationmodule.service.impl.UserService;
+import com.example.registrationmodule.service.impl.UsernameAutocompleteService;
+import com.example.registrationmodule.util.UsernameIndex;
 import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,11 +42,18 @@ class UserServiceTest {
     @Mock private IDTOConversionService converter;
     @Mock private UserRepository userRepository;
     @Mock private RefreshTokenService refreshTokenService;
-    @Mock private BlockRepository blockRepository;
-    @Mock private IEmailService emailService;
+    @Mock private EmailDispatchService emailDispatchService;
     @Mock private JWTService jwtService;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private UserPublisher userPublisher;
+    @Mock private PrincipalCacheService principalCacheService;
+    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private UsernameAutocompleteService usernameAutocompleteService;
+    @Mock private BlockedUsersCache blockedUsersCache;
+    @Mock private UserDirectoryRepository userDirectoryRepository;
+    @Mock private UserPurgeService userPurgeService;
+    @Mock private ProfileCacheService profileCacheService;
+    @Mock private PresenceService presenceService;
 
     @InjectMocks
     private UserService userService;
@@ -41,6 +61,9 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // behave as an always-missing cache unless a test says otherwise
+        when(profileCacheService.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<UUID, UserProfileDTO>>getArgument(1).apply(invocation.getArgument(0)));
     }
 
     @Test
@@ -55,7 +78,7 @@ class UserServiceTest {
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.empty());
         when(userRepository.save(any())).thenReturn(user);
         doNothing().when(userPublisher).sendUserRegisteredMessage(any());
-        doNothing().when(emailService).sendEmail(any());
+        when(emailDispatchService.enqueue(any())).thenReturn(new EmailDispatch());
         when(converter.mapToUserProfileDto(user)).thenReturn(new UserProfileDTO());
         UserProfileDTO result = userService.registerUser(dto);
         assertNotNull(result);
@@ -84,7 +107,7 @@ class UserServiceTest {
     }
 
     @Test
-    void registerUser_emailSendFails_doesNotThrow() {
+    void registerUser_enqueueFails_throws() {
         RegisterUserDTO dto = new RegisterUserDTO();
         dto.setUsername("user");
         dto.setEmail("user@test.com");
@@ -95,9 +118,8 @@ class UserServiceTest {
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.empty());
         when(userRepository.save(any())).thenReturn(user);
         doNothing().when(userPublisher).sendUserRegisteredMessage(any());
-        doThrow(new RuntimeException("fail")).when(emailService).sendEmail(any());
-        when(converter.mapToUserProfileDto(user)).thenReturn(new UserProfileDTO());
-        assertDoesNotThrow(() -> userService.registerUser(dto));
+        when(emailDispatchService.enqueue(any())).thenThrow(new RuntimeException("fail"));
+        assertThrows(RuntimeException.class, () -> userService.registerUser(dto));
     }
 
     @Test
@@ -121,6 +143,23 @@ class UserServiceTest {
         assertEquals(user.getUserId(), result.getUserId());
     }
 
+    @Test
+    void login_outdatedHashCost_rehashesPassword() {
+        LoginUserDTO dto = new LoginUserDTO();
+        dto.setEmail("user@test.com");
+        dto.setPassword("pass");
+        User user = new User(); user.setEmail("user@test.com"); user.setPassword("$2a$10$old"); user.setVerified(true); user.setUserId(UUID.randomUUID());
+        when(userRepository.findByEmailIgnoreCase(dto.getEmail())).thenReturn(Optional.of(user));
+        Authentication auth = mock(Authentication.class);
+        when(authenticationManager.authenticate(any())).thenReturn(auth);
+        when(auth.isAuthenticated()).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.encode("pass")).thenReturn("$2a$12$new");
+        userService.login(dto);
+        assertEquals("$2a$12$new", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
     @Test
     void login_wrongEmail_throws() {
         LoginUserDTO dto = new LoginUserDTO();
@@ -218,7 +257,7 @@ class UserServiceTest {
     void sendVerificationCode_success() {
         User user = new User(); user.setEmail("user@test.com"); user.setUsername("user"); user.setVerified(false); user.setBlocked(false);
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
-        doNothing().when(emailService).sendEmail(any());
+        when(emailDispatchService.enqueue(any())).thenReturn(new EmailDispatch());
         when(userRepository.save(any())).thenReturn(user);
         assertDoesNotThrow(() -> userService.sendVerificationCode("user@test.com"));
     }
@@ -284,7 +323,7 @@ class UserServiceTest {
         dto.setEmail("user@test.com");
         User user = new User(); user.setEmail("user@test.com"); user.setUsername("user"); user.setBlocked(false);
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
-        doNothing().when(emailService).sendEmail(any());
+        when(emailDispatchService.enqueue(any())).thenReturn(new EmailDispatch());
         when(userRepository.save(any())).thenReturn(user);
         assertDoesNotThrow(() -> userService.sendResetPasswordOTP(dto));
     }
@@ -340,9 +379,10 @@ class UserServiceTest {
         dto.setEmail("user@test.com");
         User user = new User(); user.setEmail("user@test.com"); user.setBlocked(false);
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
-        doNothing().when(emailService).sendEmail(any());
+        when(emailDispatchService.enqueue(any())).thenReturn(new EmailDispatch());
         assertDoesNotThrow(() -> userService.blockUser(dto));
         assertTrue(user.isBlocked());
+        verify(principalCacheService).evictUser("user@test.com");
     }
 
     @Test
@@ -362,6 +402,7 @@ class UserServiceTest {
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
         assertDoesNotThrow(() -> userService.unblockUser(dto));
         assertFalse(user.isBlocked());
+        verify(principalCacheService).evictUser("user@test.com");
     }
 
     @Test
@@ -397,10 +438,11 @@ class UserServiceTest {
         dto.setEmail("user@test.com");
         User user = new User(); user.setEmail("user@test.com");
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
-        doNothing().when(emailService).sendEmail(any());
+        when(emailDispatchService.enqueue(any())).thenReturn(new EmailDispatch());
         doNothing().when(userPublisher).sendUserDeletedMessage(any());
         doNothing().when(userRepository).deleteByEmail("user@test.com");
         assertDoesNotThrow(() -> userService.deleteUser(dto));
+        verify(principalCacheService).evictUser("user@test.com");
     }
 
     @Test
@@ -418,8 +460,8 @@ class UserServiceTest {
         when(userRepository.findByEmailIgnoreCase("user@test.com")).thenReturn(Optional.of(user));
         when(refreshTokenService.isTokenRevoked("refresh")).thenReturn(false);
         when(refreshTokenService.saveToken("refresh")).thenReturn(true);
-        when(userRepository.save(any())).thenReturn(user);
         assertDoesNotThrow(() -> userService.logout(dto));
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -445,6 +487,7 @@ class UserServiceTest {
         when(userRepository.save(any())).thenReturn(user);
         when(converter.mapToUserProfileDto(any())).thenReturn(new UserProfileDTO());
         assertNotNull(userService.updateUserById(userId, dto));
+        verify(profileCacheService).evict(userId);
     }
 
     @Test
@@ -460,18 +503,50 @@ class UserServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
         User user = new User(); user.setUserId(userId);
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId)).thenReturn(false);
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(userId, requesterId)).thenReturn(false);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(converter.mapToUserProfileDto(user)).thenReturn(new UserProfileDTO());
         assertNotNull(userService.getUserById(requesterId, userId));
     }
 
+    @Test
+    void getUserById_cached_skipsDatabase() {
+        UUID requesterId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UserProfileDTO cached = new UserProfileDTO();
+        when(profileCacheService.get(eq(userId), any())).thenReturn(cached);
+
+        assertEquals(cached, userService.getUserById(requesterId, userId));
+        verifyNoInteractions(userRepository, converter);
+    }
+
+    @Test
+    void getUserById_onlineComesFromPresenceWithoutChangingCachedProfile() {
+        UUID requesterId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UserProfileDTO cached = new UserProfileDTO();
+        cached.setUserId(userId);
+        when(profileCacheService.get(eq(userId), any())).thenReturn(cached);
+        when(presenceService.isOnline(userId)).thenReturn(true);
+
+        UserProfileDTO profile = userService.getUserById(requesterId, userId);
+
+        assertTrue(profile.isOnline());
+        assertFalse(cached.isOnline());
+    }
+
+    @Test
+    void getUserById_notFound_throws() {
+        UUID requesterId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        assertThrows(UserNotFound.class, () -> userService.getUserById(requesterId, userId));
+    }
+
     @Test
     void getUserById_blocked_throws() {
         UUID requesterId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId)).thenReturn(true);
+        when(blockedUsersCache.getBlockRelatedUsers(requesterId)).thenReturn(Set.of(userId));
         assertThrows(UserAccessDenied.class, () -> userService.getUserById(requesterId, userId));
     }
 
@@ -484,13 +559,51 @@ class UserServiceTest {
         assertNotNull(userService.getUsers(requesterId, 0, 10, "username", "asc"));
     }
 
+    @Test
+    void getUserSummaries_usesProjectionWithoutLoadingUsers() {
+        UUID requesterId = UUID.randomUUID();
+        List<UserSummaryDTO> summaries = List.of(new UserSummaryDTO(UUID.randomUUID(), "user", "User", null, false));
+        when(userDirectoryRepository.findSummariesExcludingBlocked(eq(requesterId), any())).thenReturn(new SliceImpl<>(summaries));
+
+        assertEquals(summaries, userService.getUserSummaries(requesterId, 0, 10, "username", "asc").getContent());
+        verifyNoInteractions(userRepository, converter);
+    }
+
     @Test
     void getUsersByPrefixUsername_success() {
         UUID requesterId = UUID.randomUUID();
-        List<User> users = List.of(new User());
-        when(userRepository.findByUsernameStartingWithIgnoreCaseExcludingBlocked(eq("pre"), eq(requesterId), any())).thenReturn(new PageImpl<>(users));
-        when(converter.mapToUserProfileDto(any())).thenReturn(new UserProfileDTO());
+        List<UserSummaryDTO> summaries = List.of(new UserSummaryDTO());
+        when(userDirectoryRepository.findSummariesByUsernamePrefixExcludingBlocked(eq("pre"), eq(requesterId), any())).thenReturn(new SliceImpl<>(summaries));
         assertNotNull(userService.getUsersByPrefixUsername(requesterId, 0, 10, "username", "asc", "pre"));
+        verifyNoInteractions(converter);
+    }
+
+    @Test
+    void getUsersByPrefixUsername_servedFromIndexInIndexOrder() {
+        UUID requesterId = UUID.randomUUID();
+        UserSummaryDTO first = new UserSummaryDTO(UUID.randomUUID(), "prea", null, null, false);
+        UserSummaryDTO second = new UserSummaryDTO(UUID.randomUUID(), "preb", null, null, true);
+        Set<UUID> blocked = Set.of(UUID.randomUUID());
+        when(blockedUsersCache.getBlockRelatedUsers(requesterId)).thenReturn(blocked);
+        when(usernameAutocompleteService.find("pre", blocked, 10, 10, false)).thenReturn(Optional.of(new UsernameIndex.Matches(
+                List.of(new UsernameIndex.Entry(first.getUserId(), "prea"), new UsernameIndex.Entry(second.getUserId(), "preb")), true)));
+        when(userDirectoryRepository.findSummariesByIdIn(List.of(first.getUserId(), second.getUserId()))).thenReturn(List.of(second, first));
+
+        var result = userService.getUsersByPrefixUsername(requesterId, 1, 10, "username", "asc", "pre");
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertTrue(result.hasNext());
+        verify(userDirectoryRepository, never()).findSummariesByUsernamePrefixExcludingBlocked(any(), any(), any());
+    }
+
+    @Test
+    void getUsersByPrefixUsername_otherSortGoesToDatabase() {
+        UUID requesterId = UUID.randomUUID();
+        when(userDirectoryRepository.findSummariesByUsernamePrefixExcludingBlocked(eq("pre"), eq(requesterId), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        userService.getUsersByPrefixUsername(requesterId, 0, 10, "name", "asc", "pre");
+
+        verifyNoInteractions(usernameAutocompleteService);
     }
 
     @Test
@@ -498,8 +611,6 @@ class UserServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
         User user = new User(); user.setUserId(userId); user.setProfilePictureURL("http://pic.url");
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId)).thenReturn(false);
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(userId, requesterId)).thenReturn(false);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         ProfilePictureDTO expected = new ProfilePictureDTO("http://pic.url");
         assertEquals(expected.getProfilePictureURL(), userService.getProfilePictureURLByUserId(requesterId, userId).getProfilePictureURL());
@@ -509,17 +620,19 @@ class UserServiceTest {
     void getProfilePictureURLByUserId_blocked_throws() {
         UUID requesterId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
-        when(blockRepository.existsByBlocker_UserIdAndBlocked_UserId(requesterId, userId)).thenReturn(true);
+        when(blockedUsersCache.getBlockRelatedUsers(requesterId)).thenReturn(Set.of(userId));
         assertThrows(UserAccessDenied.class, () -> userService.getProfilePictureURLByUserId(requesterId, userId));
     }
 
     @Test
-    void deleteAll_success() {
-        User user = new User(); user.setUserId(UUID.randomUUID()); user.setUsername("user"); user.setEmail("user@test.com");
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        doNothing().when(userRepository).deleteAll();
-        doNothing().when(userPublisher).sendUserDeletedMessage(any());
-        assertDoesNotThrow(() -> userService.deleteAll());
+    void deleteAll_startsPurgeJob() {
+        UserPurgeDTO job = UserPurgeDTO.builder().jobId(UUID.randomUUID()).status(UserPurgeStatus.RUNNING).build();
+        when(userPurgeService.start()).thenReturn(job);
+
+        assertEquals(job, userService.deleteAll());
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).deleteAll();
+        verify(userPublisher, never()).sendUserDeletedMessage(any());
     }
 
     @Test
@@ -0,0 +1,59 @@
+package com.example.registrationmodule.service.noop;
+
+import com.example.registrationmodule.model.dto.EmailRequestDTO;
+import com.example.registrationmodule.service.impl.noop.NoopEmailService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the email provider: each send takes a fixed time, the first
+ * {@code failuresPerRecipient} sends to a recipient fail, and concurrency is recorded.
+ */
+public class LocalEmailService extends NoopEmailService {
+    private final long latencyMillis;
+    private final int failuresPerRecipient;
+    private final Map<String, AtomicInteger> attemptsByRecipient = new ConcurrentHashMap<>();
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    public LocalEmailService(long latencyMillis, int failuresPerRecipient) {
+        this.latencyMillis = latencyMillis;
+        this.failuresPerRecipient = failuresPerRecipient;
+    }
+
+    @Override
+    public void sendEmail(EmailRequestDTO request) {
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(latencyMillis);
+            int attempt = attemptsByRecipient.computeIfAbsent(request.getTo(), to -> new AtomicInteger()).incrementAndGet();
+            if (attempt <= failuresPerRecipient) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            super.sendEmail(request);
+            delivered.incrementAndGet();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    @Override
+    public String getProviderName() {
+        return "local";
+    }
+
+    public int getDelivered() {
+        return delivered.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent.get();
+    }
+}
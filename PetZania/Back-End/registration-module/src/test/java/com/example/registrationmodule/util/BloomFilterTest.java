@@ -0,0 +1,49 @@
+package com.example.registrationmodule.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void neverReportsAnInsertedValueAsMissing() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        List<UUID> inserted = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID value = UUID.randomUUID();
+            filter.put(value);
+            inserted.add(value);
+        }
+
+        inserted.forEach(value -> assertTrue(filter.mightContain(value)));
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(10, 0.01);
+
+        assertFalse(filter.mightContain(UUID.randomUUID()));
+    }
+}
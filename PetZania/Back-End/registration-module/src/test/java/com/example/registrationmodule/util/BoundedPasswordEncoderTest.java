@@ -0,0 +1,56 @@
+package com.example.registrationmodule.util;
+
+import com.example.registrationmodule.exception.rateLimiting.PasswordHashingUnavailable;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodesAndMatchesOnTheHashingExecutor() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, executor);
+
+            String hash = encoder.encode("Password123!");
+
+            assertTrue(encoder.matches("Password123!", hash));
+            assertFalse(encoder.matches("wrong", hash));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failsFastWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            // occupy the only worker and the only queue slot
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+            BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, executor);
+
+            PasswordHashingUnavailable ex = assertThrows(PasswordHashingUnavailable.class, () -> encoder.encode("Password123!"));
+            assertTrue(ex.getRetryAfterSeconds() > 0);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void upgradesHashesMadeWithADifferentCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, Executors.newSingleThreadExecutor());
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pass")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pass")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("pass")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
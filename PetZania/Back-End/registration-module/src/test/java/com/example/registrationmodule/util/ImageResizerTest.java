@@ -0,0 +1,74 @@
+package com.example.registrationmodule.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageResizerTest {
+    private final ImageResizer imageResizer = new ImageResizer(10_000_000L);
+
+    static byte[] encode(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 31 + y * 17) | 0xFF000000);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+
+    @Test
+    void resize_landscape_fitsLongestSideAndKeepsAspectRatio() throws IOException {
+        BufferedImage source = imageResizer.decode(encode(1600, 900, BufferedImage.TYPE_INT_RGB, "jpg"));
+
+        ImageResizer.Resized resized = imageResizer.resize(source, 240, 0.75f);
+
+        assertEquals(240, resized.width());
+        assertEquals(135, resized.height());
+        assertEquals("image/jpeg", resized.contentType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(resized.bytes()));
+        assertEquals(240, decoded.getWidth());
+        assertEquals(135, decoded.getHeight());
+    }
+
+    @Test
+    void resize_smallImage_isNotUpscaled() throws IOException {
+        BufferedImage source = imageResizer.decode(encode(100, 50, BufferedImage.TYPE_INT_RGB, "png"));
+
+        ImageResizer.Resized resized = imageResizer.resize(source, 1080, 0.8f);
+
+        assertEquals(100, resized.width());
+        assertEquals(50, resized.height());
+        assertEquals("jpg", resized.format());
+    }
+
+    @Test
+    void resize_transparentImage_staysPng() throws IOException {
+        BufferedImage source = imageResizer.decode(encode(400, 400, BufferedImage.TYPE_INT_ARGB, "png"));
+
+        ImageResizer.Resized resized = imageResizer.resize(source, 240, 0.75f);
+
+        assertEquals("image/png", resized.contentType());
+        assertEquals(240, resized.width());
+    }
+
+    @Test
+    void decode_tooManyPixels_isRejectedBeforeDecoding() throws IOException {
+        ImageResizer strict = new ImageResizer(1_000L);
+
+        assertThrows(IOException.class, () -> strict.decode(encode(100, 100, BufferedImage.TYPE_INT_RGB, "png")));
+    }
+
+    @Test
+    void decode_notAnImage_throws() {
+        assertThrows(IOException.class, () -> imageResizer.decode("not an image".getBytes()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.registrationmodule.util;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process S3 stand-in covering the calls the upload pipeline makes. Objects and multipart
+ * parts are kept in memory; each request can be slowed down or made to fail, and the highest
+ * number of concurrent requests is recorded.
+ */
+public class InMemoryAmazonS3 extends AbstractAmazonS3 {
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+    private final Set<String> failingKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final AtomicInteger partUploads = new AtomicInteger();
+    private final AtomicInteger abortedUploads = new AtomicInteger();
+    private volatile long latencyMillis;
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public void failUploadsOf(String key) {
+        failingKeys.add(key);
+    }
+
+    @Override
+    public PutObjectResult putObject(String bucketName, String key, InputStream input, ObjectMetadata metadata) {
+        request(key, () -> objects.put(key, readAll(input)));
+        return new PutObjectResult();
+    }
+
+    @Override
+    public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest request) {
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new ConcurrentSkipListMap<>());
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setUploadId(uploadId);
+        return result;
+    }
+
+    @Override
+    public UploadPartResult uploadPart(UploadPartRequest request) {
+        request(request.getKey(), () -> multipartUploads.get(request.getUploadId())
+                .put(request.getPartNumber(), readAll(request.getInputStream())));
+        partUploads.incrementAndGet();
+        UploadPartResult result = new UploadPartResult();
+        result.setPartNumber(request.getPartNumber());
+        result.setETag("etag-" + request.getPartNumber());
+        return result;
+    }
+
+    @Override
+    public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        multipartUploads.remove(request.getUploadId()).values().forEach(object::writeBytes);
+        objects.put(request.getKey(), object.toByteArray());
+        return new CompleteMultipartUploadResult();
+    }
+
+    @Override
+    public void abortMultipartUpload(AbortMultipartUploadRequest request) {
+        multipartUploads.remove(request.getUploadId());
+        abortedUploads.incrementAndGet();
+    }
+
+    @Override
+    public void deleteObject(String bucketName, String key) {
+        objects.remove(key);
+    }
+
+    @Override
+    public S3Object getObject(String bucketName, String key) {
+        byte[] bytes = objects.get(key);
+        if (bytes == null) {
+            throw new AmazonS3Exception("No such key " + key);
+        }
+        S3Object object = new S3Object();
+        object.setBucketName(bucketName);
+        object.setKey(key);
+        object.setObjectContent(new ByteArrayInputStream(bytes));
+        return object;
+    }
+
+    public void putStoredObject(String key, byte[] bytes) {
+        objects.put(key, bytes);
+    }
+
+    public byte[] getStoredObject(String key) {
+        return objects.get(key);
+    }
+
+    public Set<String> storedKeys() {
+        return Set.copyOf(objects.keySet());
+    }
+
+    public int objectCount() {
+        return objects.size();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent.get();
+    }
+
+    public int getPartUploads() {
+        return partUploads.get();
+    }
+
+    public int getAbortedUploads() {
+        return abortedUploads.get();
+    }
+
+    private void request(String key, Runnable action) {
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (failingKeys.contains(key)) {
+                throw new AmazonS3Exception("Simulated failure for " + key);
+            }
+            action.run();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    private static byte[] readAll(InputStream input) {
+        try {
+            return input.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.registrationmodule.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtClaimsCacheTest {
+
+    private static Claims claimsExpiringIn(long millis) {
+        Claims claims = new DefaultClaims();
+        claims.setSubject("user@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + millis));
+        return claims;
+    }
+
+    @Test
+    void parsesEachTokenOnlyOnce() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        AtomicInteger parses = new AtomicInteger();
+        Function<String, Claims> parser = token -> {
+            parses.incrementAndGet();
+            return claimsExpiringIn(60_000);
+        };
+
+        Claims first = cache.getOrParse("token", parser);
+        Claims second = cache.getOrParse("token", parser);
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedTokenWhenFull() {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        AtomicInteger parses = new AtomicInteger();
+        Function<String, Claims> parser = token -> {
+            parses.incrementAndGet();
+            return claimsExpiringIn(60_000);
+        };
+
+        cache.getOrParse("a", parser);
+        cache.getOrParse("b", parser);
+        cache.getOrParse("a", parser);
+        cache.getOrParse("c", parser);
+        cache.getOrParse("a", parser);
+
+        assertEquals(2, cache.size());
+        assertEquals(3, parses.get());
+    }
+
+    @Test
+    void doesNotServeClaimsPastTheirExpiration() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        AtomicInteger parses = new AtomicInteger();
+        Function<String, Claims> parser = token -> {
+            parses.incrementAndGet();
+            return claimsExpiringIn(-1_000);
+        };
+
+        cache.getOrParse("expired", parser);
+        cache.getOrParse("expired", parser);
+
+        assertEquals(0, cache.size());
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void invalidateRemovesToken() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        cache.getOrParse("token", token -> claimsExpiringIn(60_000));
+
+        cache.invalidate("token");
+
+        assertEquals(0, cache.size());
+    }
+}
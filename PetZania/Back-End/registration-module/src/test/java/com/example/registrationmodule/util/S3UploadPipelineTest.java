@@ -0,0 +1,88 @@
+package com.example.registrationmodule.util;
+
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class S3UploadPipelineTest {
+    private static final int CONCURRENCY = 4;
+    private static final int PART_SIZE = 1024;
+    private static final long MULTIPART_THRESHOLD = 4 * 1024;
+
+    private InMemoryAmazonS3 s3;
+    private ExecutorService executor;
+    private S3UploadPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryAmazonS3();
+        executor = Executors.newFixedThreadPool(CONCURRENCY);
+        pipeline = new S3UploadPipeline(s3, executor, "bucket", CONCURRENCY, MULTIPART_THRESHOLD, PART_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static S3UploadPipeline.Upload upload(String key, byte[] bytes) {
+        return new S3UploadPipeline.Upload(key, "image/jpeg", bytes.length, new ByteArrayResource(bytes));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void uploadsSmallFilesConcurrentlyWithinTheBound() throws Exception {
+        s3.setLatencyMillis(50);
+        List<S3UploadPipeline.Upload> uploads = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            uploads.add(upload("image/" + i + ".jpg", randomBytes(100 + i)));
+        }
+
+        long start = System.nanoTime();
+        pipeline.uploadAll(uploads);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(12, s3.objectCount());
+        assertTrue(s3.getMaxConcurrent() > 1);
+        assertTrue(s3.getMaxConcurrent() <= CONCURRENCY);
+        assertTrue(elapsedMillis < 12 * 50, "took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void largeFilesAreUploadedInPartsAndReassembled() throws Exception {
+        byte[] video = randomBytes(10 * PART_SIZE + 123);
+
+        pipeline.uploadAll(List.of(upload("video/clip.mp4", video)));
+
+        assertArrayEquals(video, s3.getStoredObject("video/clip.mp4"));
+        assertEquals(11, s3.getPartUploads());
+    }
+
+    @Test
+    void failedBatchAbortsMultipartAndLeavesStoredObjectsToCaller() {
+        s3.failUploadsOf("video/broken.mp4");
+        List<S3UploadPipeline.Upload> uploads = List.of(
+                upload("image/ok.jpg", randomBytes(100)),
+                upload("video/broken.mp4", randomBytes(6 * PART_SIZE)));
+
+        assertThrows(AmazonS3Exception.class, () -> pipeline.uploadAll(uploads));
+
+        assertEquals(1, s3.objectCount());
+        assertEquals(1, s3.getAbortedUploads());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.registrationmodule.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UsernameIndexTest {
+
+    @Test
+    void matchesPrefixCaseInsensitivelyInUsernameOrder() {
+        UsernameIndex index = new UsernameIndex();
+        index.put(UUID.randomUUID(), "Bob");
+        index.put(UUID.randomUUID(), "alice");
+        index.put(UUID.randomUUID(), "ALBERT");
+        index.put(UUID.randomUUID(), "al");
+
+        UsernameIndex.Matches matches = index.find("AL", Set.of(), 0, 10, false);
+
+        assertEquals(List.of("al", "ALBERT", "alice"), usernames(matches));
+        assertFalse(matches.hasMore());
+        assertEquals(List.of("alice", "ALBERT", "al"), usernames(index.find("al", Set.of(), 0, 10, true)));
+    }
+
+    @Test
+    void pagesWithoutExcludedUsers() {
+        UsernameIndex index = new UsernameIndex();
+        UUID blocked = UUID.randomUUID();
+        index.put(UUID.randomUUID(), "user1");
+        index.put(blocked, "user2");
+        index.put(UUID.randomUUID(), "user3");
+        index.put(UUID.randomUUID(), "user4");
+
+        UsernameIndex.Matches matches = index.find("user", Set.of(blocked), 1, 1, false);
+
+        assertEquals(List.of("user3"), usernames(matches));
+        assertTrue(matches.hasMore());
+        assertFalse(index.find("user", Set.of(blocked), 2, 1, false).hasMore());
+    }
+
+    @Test
+    void stopsAtTheFirstMatchPastThePage() {
+        UsernameIndex index = new UsernameIndex();
+        index.put(UUID.randomUUID(), "user1");
+        index.put(UUID.randomUUID(), "user2");
+        index.put(UUID.randomUUID(), "user3");
+        Set<UUID> seen = new HashSet<>();
+        Set<UUID> excluded = new AbstractSet<>() {
+            @Override
+            public boolean contains(Object userId) {
+                seen.add((UUID) userId);
+                return false;
+            }
+
+            @Override
+            public Iterator<UUID> iterator() {
+                return Collections.emptyIterator();
+            }
+
+            @Override
+            public int size() {
+                return 0;
+            }
+        };
+
+        UsernameIndex.Matches matches = index.find("user", excluded, 0, 1, false);
+
+        assertEquals(List.of("user1"), usernames(matches));
+        assertTrue(matches.hasMore());
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    void removeOnlyDropsTheSameUser() {
+        UsernameIndex index = new UsernameIndex();
+        UUID oldOwner = UUID.randomUUID();
+        UUID newOwner = UUID.randomUUID();
+        index.put(oldOwner, "taken");
+        index.put(newOwner, "Taken");
+
+        index.remove(oldOwner, "taken");
+        assertEquals(List.of("Taken"), usernames(index.find("t", Set.of(), 0, 10, false)));
+
+        index.remove(newOwner, "Taken");
+        assertEquals(0, index.size());
+    }
+
+    private static List<String> usernames(UsernameIndex.Matches matches) {
+        return matches.entries().stream().map(UsernameIndex.Entry::username).toList();
+    }
+}
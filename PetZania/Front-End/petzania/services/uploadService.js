@@ -15,7 +15,8 @@ export async function uploadFile(file) {
             throw new Error('Failed to upload file. Please try again later.');
         }
 
-        return response.data;
+        // the reference ID in the response is what deletes the file later
+        return response.data.url ?? '';
     } catch (error) {
         console.error('Error uploading file:', error.response?.data?.message || error.message);
         throw error;
@@ -44,7 +45,7 @@ export async function uploadFiles(files) {
             throw new Error('Failed to upload files. Please try again later.');
         }
 
-        return response.data;
+        return response.data.map((uploaded) => uploaded.url);
     } catch (error) {
         console.error('Error uploading files:', error.response?.data?.message || error.message);
         throw error;